@@ -8,6 +8,7 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @OpenAPIDefinition(
@@ -25,6 +26,7 @@ import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 )
 @EnableJpaAuditing
 @EnableAspectJAutoProxy
+@EnableScheduling
 public class FinControlApplication {
 	public static void main(String[] args) {
 		System.out.println(">> DB URL = " + System.getenv("SPRING_DATASOURCE_URL"));
@@ -0,0 +1,42 @@
+package fincontrol.com.fincontrol.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Respostas (e corpos de requisição) em CBOR ({@code Accept: application/cbor}) e Smile
+ * ({@code Accept: application/x-jackson-smile}) além de JSON, em todos os controllers. Sem Accept
+ * ou com {@code *}{@code /*} a resposta continua JSON (o conversor de JSON vem antes na lista).
+ *
+ * Os mappers saem do mesmo Jackson2ObjectMapperBuilder do Spring Boot que monta o de JSON: mesmos
+ * módulos e datas como texto ISO, então o documento tem a mesma forma nos três formatos. Muda a
+ * codificação: UUIDs viram 16 bytes binários, BigDecimal vai no formato decimal nativo e, no
+ * Smile, nomes de campo e textos curtos repetidos na lista são enviados uma vez e depois referenciados.
+ */
+@Configuration
+public class BinaryFormatsConfig {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType APPLICATION_SMILE = MediaType.valueOf(APPLICATION_SMILE_VALUE);
+
+    // O builder do Spring Boot é prototype: cada bean recebe uma cópia própria
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        SmileFactory factory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(factory).build());
+    }
+}
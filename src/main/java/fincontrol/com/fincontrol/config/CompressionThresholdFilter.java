@@ -0,0 +1,242 @@
+package fincontrol.com.fincontrol.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+/**
+ * Faz valer o {@code server.compression.min-response-size} nas respostas dos controllers. Os
+ * conversores (Jackson) dão flush no fim e a resposta sai em chunks, sem Content-Length; nesse caso
+ * o Tomcat comprime qualquer tamanho, e em respostas pequenas o gzip só acrescenta bytes e CPU.
+ *
+ * Os primeiros {@code min-response-size} bytes ficam em memória (flushes ignorados). Se a resposta
+ * termina antes disso, sai inteira com Content-Length e o Tomcat não comprime; se passa, o que está
+ * no buffer é enviado e o resto segue em streaming, comprimido. Só atua quando a compressão está
+ * ligada e o cliente aceita gzip.
+ */
+@Component
+public class CompressionThresholdFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+    private final int threshold;
+
+    public CompressionThresholdFilter(@Value("${server.compression.enabled:false}") boolean enabled,
+                                      @Value("${server.compression.min-response-size:2KB}") DataSize minResponseSize) {
+        this.enabled = enabled;
+        this.threshold = (int) minResponseSize.toBytes();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return !enabled || acceptEncoding == null || !acceptEncoding.contains("gzip");
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+        ThresholdResponseWrapper wrapper = new ThresholdResponseWrapper(response, threshold);
+        // Com exceção o buffer é descartado, como o Tomcat faria com uma resposta ainda não enviada
+        filterChain.doFilter(request, wrapper);
+        if (request.isAsyncStarted()) {
+            // StreamingResponseBody/DeferredResult: o corpo continua em outra thread, sem Content-Length
+            wrapper.stopBuffering();
+        } else {
+            wrapper.finish();
+        }
+    }
+
+    private static final class ThresholdResponseWrapper extends HttpServletResponseWrapper {
+
+        private final int threshold;
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private ThresholdOutputStream outputStream;
+        private PrintWriter writer;
+
+        ThresholdResponseWrapper(HttpServletResponse response, int threshold) {
+            super(response);
+            this.threshold = threshold;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() has already been called for this response");
+            }
+            if (outputStream == null) {
+                outputStream = new ThresholdOutputStream();
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                if (outputStream != null) {
+                    throw new IllegalStateException("getOutputStream() has already been called for this response");
+                }
+                outputStream = new ThresholdOutputStream();
+                writer = new PrintWriter(new OutputStreamWriter(outputStream, getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public synchronized void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (buffer == null) {
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public synchronized void resetBuffer() {
+            if (buffer != null) {
+                buffer.reset();
+            }
+            super.resetBuffer();
+        }
+
+        @Override
+        public synchronized void reset() {
+            if (buffer != null) {
+                buffer.reset();
+            }
+            super.reset();
+        }
+
+        @Override
+        public synchronized void sendError(int sc, String msg) throws IOException {
+            if (buffer != null) {
+                buffer.reset();
+            }
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public synchronized void sendError(int sc) throws IOException {
+            if (buffer != null) {
+                buffer.reset();
+            }
+            super.sendError(sc);
+        }
+
+        /** Resposta completa: o que ainda está no buffer sai com Content-Length. */
+        synchronized void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (buffer != null) {
+                ByteArrayOutputStream pending = buffer;
+                buffer = null;
+                if (outputStream != null && !getResponse().isCommitted()) {
+                    getResponse().setContentLength(pending.size());
+                }
+                if (pending.size() > 0) {
+                    pending.writeTo(getResponse().getOutputStream());
+                }
+            }
+        }
+
+        /** Passa a escrever direto na resposta, enviando antes o que estava no buffer. */
+        synchronized void stopBuffering() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (buffer != null) {
+                ByteArrayOutputStream pending = buffer;
+                buffer = null;
+                if (pending.size() > 0) {
+                    pending.writeTo(getResponse().getOutputStream());
+                }
+            }
+        }
+
+        private final class ThresholdOutputStream extends ServletOutputStream {
+
+            @Override
+            public void write(int b) throws IOException {
+                synchronized (ThresholdResponseWrapper.this) {
+                    if (buffer != null && buffer.size() + 1 > threshold) {
+                        stopBuffering();
+                    }
+                    if (buffer != null) {
+                        buffer.write(b);
+                    } else {
+                        getResponse().getOutputStream().write(b);
+                    }
+                }
+            }
+
+            @Override
+            public void write(@NonNull byte[] b, int off, int len) throws IOException {
+                synchronized (ThresholdResponseWrapper.this) {
+                    if (buffer != null && buffer.size() + len > threshold) {
+                        stopBuffering();
+                    }
+                    if (buffer != null) {
+                        buffer.write(b, off, len);
+                    } else {
+                        getResponse().getOutputStream().write(b, off, len);
+                    }
+                }
+            }
+
+            @Override
+            public void flush() throws IOException {
+                synchronized (ThresholdResponseWrapper.this) {
+                    if (buffer == null) {
+                        getResponse().getOutputStream().flush();
+                    }
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                synchronized (ThresholdResponseWrapper.this) {
+                    finish();
+                    getResponse().getOutputStream().close();
+                }
+            }
+
+            @Override
+            public boolean isReady() {
+                synchronized (ThresholdResponseWrapper.this) {
+                    return buffer != null || getResponseOutputStream().isReady();
+                }
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                getResponseOutputStream().setWriteListener(writeListener);
+            }
+
+            private ServletOutputStream getResponseOutputStream() {
+                try {
+                    return getResponse().getOutputStream();
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+    }
+}
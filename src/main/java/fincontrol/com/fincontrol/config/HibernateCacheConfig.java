@@ -0,0 +1,96 @@
+package fincontrol.com.fincontrol.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Cache de segundo nível do Hibernate em memória (JCache sobre Caffeine) para User, Bank e Category:
+ * uma região de entidade por tipo (users, banks, categories, declaradas com @Cache nas entidades) e
+ * uma de query por tipo (users.queries, ...; usadas via hint nos repositórios). Coleções não são
+ * cacheadas. Todas as regiões são criadas aqui, com limite de tamanho e TTL; uma região sem cache
+ * criado derruba a subida (missing_cache_strategy=fail) em vez de nascer sem limites.
+ *
+ * Com várias instâncias, ligue fincontrol.cache.hibernate.notify-invalidation.enabled
+ * (CacheInvalidationListener). Hit ratio por região: HibernateCacheMetrics.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final List<String> ENTITY_REGIONS = List.of("users", "banks", "categories");
+    public static final List<String> QUERY_REGIONS = List.of("users.queries", "banks.queries", "categories.queries");
+
+    // Regiões padrão do Hibernate: resultados de queries sem região própria e timestamps das tabelas
+    private static final String DEFAULT_QUERY_REGION = RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+    private static final String TIMESTAMPS_REGION = RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+
+    private final boolean enabled;
+
+    public HibernateCacheConfig(@Value("${fincontrol.cache.hibernate.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    // URI própria por contexto: o provider reaproveita CacheManagers pela URI, e dois contextos na
+    // mesma JVM (testes) tentariam criar as mesmas regiões
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${fincontrol.cache.hibernate.entity.maximum-size:10000}") long entityMaximumSize,
+            @Value("${fincontrol.cache.hibernate.entity.expire-after-write:10m}") Duration entityExpireAfterWrite,
+            @Value("${fincontrol.cache.hibernate.query.maximum-size:5000}") long queryMaximumSize,
+            @Value("${fincontrol.cache.hibernate.query.expire-after-write:5m}") Duration queryExpireAfterWrite) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("fincontrol-hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+        for (String region : ENTITY_REGIONS) {
+            cacheManager.createCache(region, region(entityMaximumSize, entityExpireAfterWrite));
+        }
+        for (String region : QUERY_REGIONS) {
+            cacheManager.createCache(region, region(queryMaximumSize, queryExpireAfterWrite));
+        }
+        cacheManager.createCache(DEFAULT_QUERY_REGION, region(queryMaximumSize, queryExpireAfterWrite));
+        // Uma entrada por tabela; não pode expirar antes dos resultados que ela valida
+        cacheManager.createCache(TIMESTAMPS_REGION, region(null, null));
+        return cacheManager;
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(Long maximumSize, Duration expireAfterWrite) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // Por referência: o Hibernate já guarda o estado desmontado da entidade, copiar de novo só custa CPU
+        configuration.setStoreByValue(false);
+        configuration.setMaximumSize(maximumSize != null ? OptionalLong.of(maximumSize) : OptionalLong.empty());
+        configuration.setExpireAfterWrite(expireAfterWrite != null
+                ? OptionalLong.of(expireAfterWrite.toNanos()) : OptionalLong.empty());
+        return configuration;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheProperties(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, enabled);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, enabled);
+            if (!enabled) {
+                return;
+            }
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, MissingCacheStrategy.FAIL.getExternalRepresentation());
+            // Contadores de hit/miss por região (HibernateCacheMetrics), sem o log de métricas a cada sessão
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+            properties.put(AvailableSettings.LOG_SESSION_METRICS, false);
+        };
+    }
+}
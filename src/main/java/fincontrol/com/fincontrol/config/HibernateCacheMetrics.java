@@ -0,0 +1,74 @@
+package fincontrol.com.fincontrol.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Métricas das regiões do cache de segundo nível ({@link HibernateCacheConfig}), tag region:
+ * hibernate.second.level.cache.hit.ratio (gauge, acumulado desde a subida),
+ * hibernate.second.level.cache.requests (result=hit|miss) e hibernate.second.level.cache.puts.
+ * Para a taxa recente, use rate() dos contadores. Regiões de query só passam a existir no primeiro
+ * uso; até lá os valores são zero.
+ */
+@Component
+public class HibernateCacheMetrics {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final MeterRegistry registry;
+
+    public HibernateCacheMetrics(EntityManagerFactory entityManagerFactory, MeterRegistry registry) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.registry = registry;
+    }
+
+    @PostConstruct
+    void register() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            return;
+        }
+        List<String> regions = new ArrayList<>(HibernateCacheConfig.ENTITY_REGIONS);
+        regions.addAll(HibernateCacheConfig.QUERY_REGIONS);
+        for (String region : regions) {
+            Gauge.builder("hibernate.second.level.cache.hit.ratio", statistics, s -> hitRatio(s, region))
+                    .description("Fração das leituras da região atendidas pelo cache")
+                    .tag("region", region)
+                    .register(registry);
+            regionCounter("hibernate.second.level.cache.requests", statistics, region, CacheRegionStatistics::getHitCount)
+                    .description("Leituras da região").tag("result", "hit").register(registry);
+            regionCounter("hibernate.second.level.cache.requests", statistics, region, CacheRegionStatistics::getMissCount)
+                    .description("Leituras da região").tag("result", "miss").register(registry);
+            regionCounter("hibernate.second.level.cache.puts", statistics, region, CacheRegionStatistics::getPutCount)
+                    .description("Entradas gravadas na região").register(registry);
+        }
+    }
+
+    private static FunctionCounter.Builder<Statistics> regionCounter(String name, Statistics statistics, String region,
+                                                                     ToLongFunction<CacheRegionStatistics> count) {
+        return FunctionCounter.builder(name, statistics, s -> {
+                    CacheRegionStatistics stats = s.getCacheRegionStatistics(region);
+                    return stats != null ? count.applyAsLong(stats) : 0;
+                })
+                .tag("region", region);
+    }
+
+    private static double hitRatio(Statistics statistics, String region) {
+        CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+        if (stats == null) {
+            return 0;
+        }
+        long requests = stats.getHitCount() + stats.getMissCount();
+        return requests == 0 ? 0 : (double) stats.getHitCount() / requests;
+    }
+}
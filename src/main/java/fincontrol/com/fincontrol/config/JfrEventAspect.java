@@ -0,0 +1,139 @@
+package fincontrol.com.fincontrol.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.data.domain.Slice;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Map;
+
+/**
+ * Emite os eventos JFR {@link ServiceOperationEvent} (métodos públicos dos beans do pacote service)
+ * e {@link ScheduledJobEvent} (métodos {@code @Scheduled}), para que amostras de CPU/wall-clock de
+ * uma gravação possam ser associadas à operação de negócio que estava rodando.
+ *
+ * Sem gravação ativa, {@link jdk.jfr.Event#isEnabled()} é falso e a chamada segue direto. O nome da
+ * operação e o hash do usuário só são calculados para eventos que passam do threshold.
+ */
+@Aspect
+@Component
+public class JfrEventAspect {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    // Job em execução na thread: acumula as contagens das operações de serviço que ele chama
+    private final ThreadLocal<ScheduledJobEvent> currentJob = new ThreadLocal<>();
+
+    @Pointcut("execution(public * fincontrol.com.fincontrol.service..*.*(..))")
+    void serviceOperations() {
+    }
+
+    @Pointcut("@annotation(org.springframework.scheduling.annotation.Scheduled) && within(fincontrol.com.fincontrol..*)")
+    void scheduledJobs() {
+    }
+
+    @Around("serviceOperations()")
+    public Object serviceOperation(ProceedingJoinPoint pjp) throws Throwable {
+        ServiceOperationEvent event = new ServiceOperationEvent();
+        if (!event.isEnabled()) {
+            return pjp.proceed();
+        }
+        event.begin();
+        String outcome = "OK";
+        Object result = null;
+        try {
+            result = pjp.proceed();
+            return result;
+        } catch (Throwable e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            event.end();
+            long rows = rowsOf(result);
+            ScheduledJobEvent job = currentJob.get();
+            if (job != null && result instanceof Number) {
+                job.rows += rows;
+            }
+            if (event.shouldCommit()) {
+                event.operation = operationName(pjp);
+                event.userIdHash = currentUserHash();
+                event.rows = rows;
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+
+    @Around("scheduledJobs()")
+    public Object scheduledJob(ProceedingJoinPoint pjp) throws Throwable {
+        ScheduledJobEvent event = new ScheduledJobEvent();
+        if (!event.isEnabled()) {
+            return pjp.proceed();
+        }
+        ScheduledJobEvent outer = currentJob.get();
+        currentJob.set(event);
+        event.begin();
+        String outcome = "OK";
+        try {
+            return pjp.proceed();
+        } catch (Throwable e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            event.end();
+            if (outer == null) {
+                currentJob.remove();
+            } else {
+                currentJob.set(outer);
+            }
+            if (event.shouldCommit()) {
+                event.operation = operationName(pjp);
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+
+    private static String operationName(ProceedingJoinPoint pjp) {
+        return pjp.getSignature().getDeclaringType().getSimpleName() + "." + pjp.getSignature().getName();
+    }
+
+    private static long rowsOf(Object result) {
+        if (result instanceof Number number) {
+            return number.longValue();
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Map<?, ?> map) {
+            return map.size();
+        }
+        return -1L;
+    }
+
+    // Nunca grava o id em claro: gravações JFR costumam sair do ambiente de produção
+    private static String currentUserHash() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof String principal)) {
+            return "";
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(principal.getBytes(StandardCharsets.UTF_8));
+            return HEX.formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            return "";
+        }
+    }
+}
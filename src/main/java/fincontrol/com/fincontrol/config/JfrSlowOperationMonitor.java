@@ -0,0 +1,84 @@
+package fincontrol.com.fincontrol.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Consumidor em processo (JFR event streaming) dos eventos {@link ServiceOperationEvent} e
+ * {@link ScheduledJobEvent}: cada operação acima do threshold vira uma linha de log e incrementa
+ * {@code jfr.slow.operations} (tags kind, operation, outcome).
+ *
+ * O stream habilita só esses dois eventos, com os thresholds configurados; gravações externas
+ * (jcmd JFR.start, async-profiler) continuam independentes. Desligado por padrão
+ * ({@code fincontrol.jfr.streaming.enabled=false}): sem o stream e sem gravação externa os
+ * eventos ficam desabilitados e o {@link JfrEventAspect} segue direto para o método.
+ */
+@Component
+public class JfrSlowOperationMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(JfrSlowOperationMonitor.class);
+
+    private final MeterRegistry registry;
+    private final boolean enabled;
+    private final Duration slowOperationThreshold;
+    private final Duration slowJobThreshold;
+    private RecordingStream stream;
+
+    public JfrSlowOperationMonitor(MeterRegistry registry,
+                                   @Value("${fincontrol.jfr.streaming.enabled:false}") boolean enabled,
+                                   @Value("${fincontrol.jfr.streaming.slow-operation-threshold:500ms}") Duration slowOperationThreshold,
+                                   @Value("${fincontrol.jfr.streaming.slow-job-threshold:5m}") Duration slowJobThreshold) {
+        this.registry = registry;
+        this.enabled = enabled;
+        this.slowOperationThreshold = slowOperationThreshold;
+        this.slowJobThreshold = slowJobThreshold;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || stream != null) {
+            return;
+        }
+        try {
+            RecordingStream recording = new RecordingStream();
+            recording.setMaxAge(Duration.ofMinutes(1));
+            recording.enable(ServiceOperationEvent.NAME).withThreshold(slowOperationThreshold);
+            recording.enable(ScheduledJobEvent.NAME).withThreshold(slowJobThreshold);
+            recording.onEvent(ServiceOperationEvent.NAME, event -> onSlowEvent("service", event));
+            recording.onEvent(ScheduledJobEvent.NAME, event -> onSlowEvent("job", event));
+            recording.startAsync();
+            stream = recording;
+            logger.info("JFR slow operation monitor started (service > {}, job > {}).", slowOperationThreshold, slowJobThreshold);
+        } catch (RuntimeException e) {
+            // JFR indisponível (ex.: JVM sem suporte ou desabilitado por flag): a aplicação segue sem o monitor
+            logger.warn("JFR slow operation monitor unavailable: {}", e.getMessage());
+        }
+    }
+
+    private void onSlowEvent(String kind, RecordedEvent event) {
+        String operation = event.getString("operation");
+        String outcome = event.getString("outcome");
+        long rows = event.getLong("rows");
+        logger.warn("Slow {} operation {}: {} ms, outcome {}, rows {}.",
+                kind, operation, event.getDuration().toMillis(), outcome, rows);
+        registry.counter("jfr.slow.operations", "kind", kind, "operation", operation, "outcome", outcome).increment();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+}
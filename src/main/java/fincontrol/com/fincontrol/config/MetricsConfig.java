@@ -2,15 +2,37 @@
 package fincontrol.com.fincontrol.config;
 
 import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Meter;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.actuate.autoconfigure.metrics.MeterRegistryCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.List;
+
 @Configuration
 public class MetricsConfig {
 
+    /** Percentis calculados no cliente para os meters da aplicação (expostos em /metrics/custom). */
+    public static final double[] OPERATION_PERCENTILES = {0.5, 0.9, 0.99, 0.999};
+
+    /**
+     * Prefixos dos meters da própria aplicação: só eles ganham histograma (os do framework,
+     * como http.server.requests e jvm.*, ficam como estão para não multiplicar séries).
+     */
+    public static boolean isOperationMeter(String name, List<String> prefixes) {
+        for (String prefix : prefixes) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     // já existente: commonTags…
     @Bean
     public MeterRegistryCustomizer<MeterRegistry> commonTags(
@@ -26,4 +48,26 @@ public class MetricsConfig {
     public TimedAspect timedAspect(MeterRegistry registry) {
         return new TimedAspect(registry);
     }
+
+    // Percentis p50/p90/p99/p999 (janela de 2 min) nos timers e summaries da aplicação
+    @Bean
+    public MeterFilter operationPercentiles(
+            @Value("${fincontrol.metrics.operation-prefixes}") List<String> prefixes
+    ) {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                boolean distribution = id.getType() == Meter.Type.TIMER || id.getType() == Meter.Type.DISTRIBUTION_SUMMARY;
+                if (!distribution || !isOperationMeter(id.getName(), prefixes)) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .percentiles(OPERATION_PERCENTILES)
+                        .expiry(Duration.ofMinutes(2))
+                        .bufferLength(3)
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
 }
@@ -0,0 +1,62 @@
+package fincontrol.com.fincontrol.config;
+
+import fincontrol.com.fincontrol.dto.PartitionDto;
+import fincontrol.com.fincontrol.exception.InvalidOperationException;
+import fincontrol.com.fincontrol.service.PartitionMaintenanceService;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Partições de expenses/extra_income ({@link PartitionMaintenanceService}):
+ * GET /actuator/partitions lista as partições por tabela e
+ * POST /actuator/partitions/expenses {"before": "2024-01-01"} desanexa as que terminam até a data,
+ * para arquivamento.
+ */
+@Component
+@Endpoint(id = "partitions")
+public class PartitionsEndpoint {
+
+    private final PartitionMaintenanceService partitionMaintenanceService;
+
+    public PartitionsEndpoint(PartitionMaintenanceService partitionMaintenanceService) {
+        this.partitionMaintenanceService = partitionMaintenanceService;
+    }
+
+    @ReadOperation
+    public Map<String, Object> partitions() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", partitionMaintenanceService.isEnabled());
+        for (String table : PartitionMaintenanceService.PARTITIONED_TABLES.keySet()) {
+            result.put(table, partitionMaintenanceService.listPartitions(table));
+        }
+        return result;
+    }
+
+    @ReadOperation
+    public List<PartitionDto> partitions(@Selector String table) {
+        try {
+            return partitionMaintenanceService.listPartitions(table);
+        } catch (InvalidOperationException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+    }
+
+    @WriteOperation
+    public Map<String, Object> detach(@Selector String table, String before) {
+        try {
+            return Map.of("detached", partitionMaintenanceService.detachBefore(table, LocalDate.parse(before)));
+        } catch (DateTimeParseException | InvalidOperationException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+    }
+}
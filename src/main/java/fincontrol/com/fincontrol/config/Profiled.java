@@ -0,0 +1,24 @@
+package fincontrol.com.fincontrol.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca um método (ou todos os métodos públicos de uma classe) para o {@link ResourceUsageAspect}.
+ * Classes {@code @Service} do pacote service já são perfiladas sem a anotação; ela serve para
+ * incluir outros beans ou para dar um nome base próprio às métricas de um método.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface Profiled {
+
+    /**
+     * Nome base das métricas ({@code <nome>.cpu} e {@code <nome>.memory}). Vazio usa
+     * {@code service.method.cpu}/{@code service.method.memory} com as tags class e method.
+     */
+    String value() default "";
+}
@@ -0,0 +1,42 @@
+package fincontrol.com.fincontrol.config;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Liga/desliga o {@link ResourceUsageAspect} sem reiniciar a aplicação:
+ * GET /actuator/profiling e POST /actuator/profiling {"enabled": false}. O campo opcional
+ * {@code cpuTime} liga/desliga só a leitura de CPU por thread, a parte mais cara da medição.
+ */
+@Component
+@Endpoint(id = "profiling")
+public class ProfilingEndpoint {
+
+    private final ResourceUsageAspect resourceUsageAspect;
+
+    public ProfilingEndpoint(ResourceUsageAspect resourceUsageAspect) {
+        this.resourceUsageAspect = resourceUsageAspect;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return Map.of("enabled", resourceUsageAspect.isEnabled(),
+                "cpuTime", resourceUsageAspect.isCpuTimeEnabled());
+    }
+
+    @WriteOperation
+    public Map<String, Object> update(@Nullable Boolean enabled, @Nullable Boolean cpuTime) {
+        if (enabled != null) {
+            resourceUsageAspect.setEnabled(enabled);
+        }
+        if (cpuTime != null) {
+            resourceUsageAspect.setCpuTimeEnabled(cpuTime);
+        }
+        return status();
+    }
+}
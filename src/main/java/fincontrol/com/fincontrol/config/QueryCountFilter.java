@@ -0,0 +1,142 @@
+package fincontrol.com.fincontrol.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.cfg.AvailableSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.lang.NonNull;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contagem de SQL por requisição HTTP: número de statements e tempo de execução no banco,
+ * publicados como http.db.statements / http.db.time (tags method e uri, o padrão do mapping)
+ * e, opcionalmente, nos headers X-Query-Count / X-Query-Time-Ms.
+ *
+ * Loga um aviso quando a requisição passa do orçamento de statements ou quando o mesmo formato
+ * de statement se repete mais de {@code repeat-threshold} vezes (o sintoma típico de N+1).
+ * Respostas assíncronas (StreamingResponseBody) só contam o que rodou na thread da requisição.
+ */
+@Component
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryCountFilter.class);
+
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    public static final String QUERY_TIME_HEADER = "X-Query-Time-Ms";
+    private static final int MAX_LOGGED_SQL = 300;
+
+    private final MeterRegistry registry;
+    private final boolean enabled;
+    private final int statementBudget;
+    private final int repeatThreshold;
+    private final boolean exposeHeader;
+
+    public QueryCountFilter(MeterRegistry registry,
+                            @Value("${fincontrol.sql.tracking.enabled:true}") boolean enabled,
+                            @Value("${fincontrol.sql.tracking.statement-budget:30}") int statementBudget,
+                            @Value("${fincontrol.sql.tracking.repeat-threshold:5}") int repeatThreshold,
+                            @Value("${fincontrol.sql.tracking.expose-header:false}") boolean exposeHeader) {
+        this.registry = registry;
+        this.enabled = enabled;
+        this.statementBudget = statementBudget;
+        this.repeatThreshold = repeatThreshold;
+        this.exposeHeader = exposeHeader;
+    }
+
+    // Liga o inspector e o listener de tempo na SessionFactory
+    @Bean
+    static HibernatePropertiesCustomizer queryCountHibernateProperties(
+            @Value("${fincontrol.sql.tracking.enabled:true}") boolean enabled) {
+        return properties -> {
+            if (enabled) {
+                properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCountInspector());
+                properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, QueryTimingListener.class.getName());
+            }
+        };
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+
+        RequestQueryStats stats = RequestQueryStats.start();
+        HttpServletResponse target = response;
+        if (exposeHeader) {
+            // Os headers precisam entrar antes do primeiro flush do corpo
+            target = new OnCommittedResponseWrapper(response) {
+                @Override
+                protected void onResponseCommitted() {
+                    writeHeaders(stats, response);
+                }
+            };
+        }
+        try {
+            filterChain.doFilter(request, target);
+        } finally {
+            RequestQueryStats.clear();
+            if (exposeHeader && !response.isCommitted()) {
+                writeHeaders(stats, response);
+            }
+            record(request, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestQueryStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String method = request.getMethod();
+
+        DistributionSummary.builder("http.db.statements")
+                .baseUnit("statements")
+                .tags("method", method, "uri", uri)
+                .register(registry)
+                .record(stats.getStatements());
+        Timer.builder("http.db.time")
+                .tags("method", method, "uri", uri)
+                .register(registry)
+                .record(stats.getExecutionNanos(), TimeUnit.NANOSECONDS);
+
+        if (stats.getStatements() > statementBudget) {
+            logger.warn("{} {} executed {} SQL statements (budget {}), {} ms in the database.",
+                    method, uri, stats.getStatements(), statementBudget, TimeUnit.NANOSECONDS.toMillis(stats.getExecutionNanos()));
+        }
+        Map<String, Integer> repeated = stats.repeatedShapes(repeatThreshold);
+        if (!repeated.isEmpty()) {
+            registry.counter("http.db.repeated.statements", "method", method, "uri", uri).increment(repeated.size());
+            repeated.forEach((shape, count) -> logger.warn("Possible N+1 on {} {}: statement executed {} times: {}",
+                    method, uri, count, abbreviate(shape)));
+        }
+    }
+
+    private static void writeHeaders(RequestQueryStats stats, HttpServletResponse response) {
+        response.setHeader(QUERY_COUNT_HEADER, Integer.toString(stats.getStatements()));
+        response.setHeader(QUERY_TIME_HEADER, Long.toString(TimeUnit.NANOSECONDS.toMillis(stats.getExecutionNanos())));
+    }
+
+    private static String abbreviate(String sql) {
+        return sql.length() <= MAX_LOGGED_SQL ? sql : sql.substring(0, MAX_LOGGED_SQL) + "...";
+    }
+}
@@ -0,0 +1,19 @@
+package fincontrol.com.fincontrol.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Conta os statements preparados pelo Hibernate (JPQL, Criteria, nativos e os gerados no flush)
+ * na requisição corrente. Não altera o SQL.
+ */
+public class QueryCountInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats != null) {
+            stats.recordStatement(sql);
+        }
+        return sql;
+    }
+}
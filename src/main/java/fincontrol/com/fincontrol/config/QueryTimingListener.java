@@ -0,0 +1,40 @@
+package fincontrol.com.fincontrol.config;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Mede o tempo de execução JDBC (statements e batches) da requisição corrente. O Hibernate cria
+ * uma instância por sessão (hibernate.session.events.auto), então o instante de início pode
+ * ficar em um campo simples.
+ */
+public class QueryTimingListener implements SessionEventListener {
+
+    private long startNanos;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        startNanos = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        record();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        startNanos = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        record();
+    }
+
+    private void record() {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats != null) {
+            stats.recordExecution(System.nanoTime() - startNanos);
+        }
+    }
+}
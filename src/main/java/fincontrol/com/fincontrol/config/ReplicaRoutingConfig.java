@@ -0,0 +1,83 @@
+package fincontrol.com.fincontrol.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Réplica de leitura: com {@code fincontrol.datasource.replica.enabled=true} a aplicação passa a ter
+ * dois pools Hikari, "primary" (spring.datasource.*) e "replica" (fincontrol.datasource.replica.*),
+ * atrás de um {@link ReplicaRoutingDataSource}. Os dois pools são beans, então o Actuator publica
+ * hikaricp.connections.* de cada um (tag pool).
+ *
+ * Com a propriedade desligada nada aqui é criado e o DataSource é o do auto-configure do Spring Boot.
+ */
+@Configuration
+@ConditionalOnProperty(name = "fincontrol.datasource.replica.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        return dataSource;
+    }
+
+    // Usuário e senha vazios herdam os do primário
+    @Bean
+    @ConfigurationProperties("fincontrol.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${fincontrol.datasource.replica.url}") String url,
+                                              @Value("${fincontrol.datasource.replica.username:}") String username,
+                                              @Value("${fincontrol.datasource.replica.password:}") String password) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(ReplicaRoutingDataSource.REPLICA);
+        dataSource.setDriverClassName(properties.determineDriverClassName());
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(StringUtils.hasText(username) ? username : properties.determineUsername());
+        dataSource.setPassword(StringUtils.hasText(password) ? password : properties.determinePassword());
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            @Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica,
+            MeterRegistry registry,
+            @Value("${fincontrol.datasource.replica.max-lag:5s}") Duration maxLag,
+            @Value("${fincontrol.datasource.replica.read-your-writes-window:10s}") Duration readYourWritesWindow) {
+        return new ReplicaRoutingDataSource(primary, replica, registry, maxLag, readYourWritesWindow);
+    }
+
+    // A conexão física só é pedida na primeira query, quando o readOnly da transação já é conhecido
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    // O padrão do Spring (DELAYED_ACQUISITION_AND_HOLD) prende a conexão à sessão do open-in-view:
+    // a primeira transação da requisição decidiria o pool de todas as seguintes
+    @Bean
+    public HibernatePropertiesCustomizer replicaRoutingHibernateProperties() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
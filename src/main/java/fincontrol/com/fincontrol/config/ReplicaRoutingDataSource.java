@@ -0,0 +1,193 @@
+package fincontrol.com.fincontrol.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Escolhe o pool de cada conexão: transações {@code readOnly} vão para a réplica, todo o resto
+ * para o primário. A decisão acontece na primeira query da transação (o DataSource exposto é um
+ * LazyConnectionDataSourceProxy por cima deste), quando o flag readOnly da transação já está definido.
+ *
+ * A leitura volta para o primário quando:
+ * <ul>
+ *   <li>o usuário autenticado fez uma escrita há menos de {@code read-your-writes-window}
+ *       (read-your-writes; o registro é em memória, por instância);</li>
+ *   <li>o atraso de replicação passa de {@code max-lag} ou a réplica não responde.</li>
+ * </ul>
+ *
+ * Métricas: datasource.routing (tags pool e reason), datasource.replica.lag (segundos) e
+ * datasource.replica.available (0/1).
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    // Com a réplica em dia (WAL recebido = WAL aplicado) o atraso é zero, mesmo sem escritas recentes no primário
+    private static final String LAG_SQL = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() THEN 0
+                       WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+                   END
+            """;
+
+    private static final Object WRITE_TRACKED = new Object();
+
+    private final JdbcTemplate replicaJdbc;
+    private final Duration maxLag;
+    private final Cache<String, Boolean> recentWriters;
+
+    private final Counter readRoutes;
+    private final Counter writeRoutes;
+    private final Counter outsideTransactionRoutes;
+    private final Counter stickyRoutes;
+    private final Counter lagRoutes;
+
+    private volatile double lagSeconds = Double.NaN;
+    private volatile boolean replicaAvailable = true;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, MeterRegistry registry,
+                                    Duration maxLag, Duration readYourWritesWindow) {
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.replicaJdbc = new JdbcTemplate(replica);
+        this.maxLag = maxLag;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(readYourWritesWindow)
+                .build();
+
+        this.readRoutes = routeCounter(registry, REPLICA, "read");
+        this.writeRoutes = routeCounter(registry, PRIMARY, "write");
+        this.outsideTransactionRoutes = routeCounter(registry, PRIMARY, "no-transaction");
+        this.stickyRoutes = routeCounter(registry, PRIMARY, "read-your-writes");
+        this.lagRoutes = routeCounter(registry, PRIMARY, "replica-lag");
+        Gauge.builder("datasource.replica.lag", this, ds -> ds.lagSeconds)
+                .description("Atraso de replicação medido na última checagem")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("datasource.replica.available", this, ds -> ds.isReplicaUsable() ? 1 : 0)
+                .description("1 se as leituras estão indo para a réplica")
+                .register(registry);
+    }
+
+    private static Counter routeCounter(MeterRegistry registry, String pool, String reason) {
+        return Counter.builder("datasource.routing")
+                .description("Conexões entregues por pool e motivo da escolha")
+                .tag("pool", pool)
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            // Fora de transação (lazy loading do open-in-view, auto-commit): primário, sem marcar escrita
+            outsideTransactionRoutes.increment();
+            return PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writeRoutes.increment();
+            trackWrite();
+            return PRIMARY;
+        }
+        String user = currentUser();
+        if (user != null && recentWriters.getIfPresent(user) != null) {
+            stickyRoutes.increment();
+            return PRIMARY;
+        }
+        if (!isReplicaUsable()) {
+            lagRoutes.increment();
+            return PRIMARY;
+        }
+        readRoutes.increment();
+        return REPLICA;
+    }
+
+    /**
+     * Mede o atraso da réplica. Falha na consulta conta como réplica indisponível.
+     */
+    @Scheduled(fixedDelayString = "${fincontrol.datasource.replica.lag-check-interval:PT5S}")
+    public void checkReplicaLag() {
+        boolean wasUsable = isReplicaUsable();
+        try {
+            Double lag = replicaJdbc.queryForObject(LAG_SQL, Double.class);
+            lagSeconds = lag != null ? lag : 0;
+            replicaAvailable = true;
+        } catch (Exception e) {
+            lagSeconds = Double.NaN;
+            replicaAvailable = false;
+            if (wasUsable) {
+                logger.warn("Read replica check failed, routing reads to the primary: {}", e.getMessage());
+            }
+        }
+        boolean usable = isReplicaUsable();
+        if (wasUsable && !usable && replicaAvailable) {
+            logger.warn("Read replica lag {}s above {}, routing reads to the primary", lagSeconds, maxLag);
+        } else if (!wasUsable && usable) {
+            logger.info("Read replica back within lag tolerance ({}s), routing reads to it", lagSeconds);
+        }
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaAvailable && !(lagSeconds * 1000 > maxLag.toMillis());
+    }
+
+    public double getLagSeconds() {
+        return lagSeconds;
+    }
+
+    // Visível para os testes: simula o resultado de uma checagem
+    void recordLag(double seconds) {
+        lagSeconds = seconds;
+        replicaAvailable = true;
+    }
+
+    /**
+     * Marca o usuário da transação de escrita atual para ler do primário depois do commit
+     * (uma vez por transação).
+     */
+    private void trackWrite() {
+        String user = currentUser();
+        if (user == null || TransactionSynchronizationManager.hasResource(WRITE_TRACKED)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(WRITE_TRACKED, user);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(WRITE_TRACKED);
+                if (status == STATUS_COMMITTED) {
+                    recentWriters.put(user, Boolean.TRUE);
+                }
+            }
+        });
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
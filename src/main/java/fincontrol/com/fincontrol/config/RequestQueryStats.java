@@ -0,0 +1,77 @@
+package fincontrol.com.fincontrol.config;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Estatísticas de SQL da requisição HTTP corrente, presas à thread que a atende.
+ * Preenchidas pelo {@link QueryCountInspector} (statements e formato) e pelo
+ * {@link QueryTimingListener} (tempo de execução); abertas e publicadas pelo {@link QueryCountFilter}.
+ * Fora de uma requisição (jobs, executors) não há estatística corrente e nada é contado.
+ */
+public final class RequestQueryStats {
+
+    private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+
+    // Listas de IN variam de tamanho entre chamadas; para o detector são o mesmo statement
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private int statements;
+    private long executionNanos;
+    private final Map<String, Integer> shapes = new HashMap<>();
+
+    private RequestQueryStats() {
+    }
+
+    static RequestQueryStats start() {
+        RequestQueryStats stats = new RequestQueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static RequestQueryStats current() {
+        return CURRENT.get();
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    void recordStatement(String sql) {
+        statements++;
+        shapes.merge(shapeOf(sql), 1, Integer::sum);
+    }
+
+    void recordExecution(long nanos) {
+        executionNanos += nanos;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getExecutionNanos() {
+        return executionNanos;
+    }
+
+    /**
+     * Formatos de statement executados mais de {@code threshold} vezes, com a contagem de cada um.
+     */
+    public Map<String, Integer> repeatedShapes(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        shapes.forEach((shape, count) -> {
+            if (count > threshold) {
+                repeated.put(shape, count);
+            }
+        });
+        return repeated;
+    }
+
+    static String shapeOf(String sql) {
+        String shape = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        return IN_LIST.matcher(shape).replaceAll("(?...)");
+    }
+}
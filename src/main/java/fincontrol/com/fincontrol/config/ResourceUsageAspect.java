@@ -4,64 +4,171 @@ import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.*;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.stereotype.Component;
-import com.sun.management.OperatingSystemMXBean;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
+import com.sun.management.ThreadMXBean;
 import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Perfil de CPU e alocação por chamada de todos os métodos públicos das classes {@code @Service}
+ * do pacote service (e de qualquer bean/método anotado com {@link Profiled}).
+ *
+ * Mede só a thread que executa a chamada: tempo de CPU da thread e bytes alocados por ela
+ * ({@link ThreadMXBean#getCurrentThreadAllocatedBytes()}), então chamadas concorrentes não se
+ * contaminam. Os DistributionSummary de cada método são registrados na subida e ficam em cache.
+ * Pode ser ligado/desligado em tempo de execução (endpoint de actuator {@code profiling});
+ * desligado, o custo é uma leitura de campo volatile. A leitura de CPU da thread é uma syscall
+ * (clock_gettime) e domina o custo da medição, por isso vem desligada
+ * ({@code fincontrol.profiling.cpu-time=false}): por padrão só a alocação é medida, lida de um
+ * contador da própria thread. O custo de cada modo é medido por ResourceUsageAspectBenchmark.
+ */
 @Aspect
 @Component
 public class ResourceUsageAspect {
 
+    private static final Logger logger = LoggerFactory.getLogger(ResourceUsageAspect.class);
+
     private final MeterRegistry registry;
-    private final OperatingSystemMXBean osBean =
-            (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
-    private final Runtime runtime = Runtime.getRuntime();
+    private final ThreadMXBean threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final boolean cpuSupported;
+    private final boolean allocationSupported;
+    private final Map<Method, MethodMeters> meters = new ConcurrentHashMap<>();
+    private volatile boolean enabled;
+    private volatile boolean cpuTimeEnabled;
 
-    public ResourceUsageAspect(MeterRegistry registry) {
-        this.registry = registry;
+    private record MethodMeters(DistributionSummary cpu, DistributionSummary memory) {
     }
 
-    @Around("execution(* fincontrol.com.fincontrol.service.UserService.register(..))")
-    public Object aroundRegister(ProceedingJoinPoint pjp) throws Throwable {
-        return record("user.register", pjp);
+    public ResourceUsageAspect(MeterRegistry registry,
+                               @Value("${fincontrol.profiling.enabled:true}") boolean enabled,
+                               @Value("${fincontrol.profiling.cpu-time:false}") boolean cpuTimeEnabled) {
+        this.registry = registry;
+        this.enabled = enabled;
+        this.cpuTimeEnabled = cpuTimeEnabled;
+        this.cpuSupported = threadBean.isCurrentThreadCpuTimeSupported();
+        this.allocationSupported = threadBean.isThreadAllocatedMemorySupported();
+        if (cpuSupported && !threadBean.isThreadCpuTimeEnabled()) {
+            threadBean.setThreadCpuTimeEnabled(true);
+        }
+        if (allocationSupported && !threadBean.isThreadAllocatedMemoryEnabled()) {
+            threadBean.setThreadAllocatedMemoryEnabled(true);
+        }
+        if (!cpuSupported || !allocationSupported) {
+            logger.warn("Per-thread profiling partially unavailable on this JVM (cpu={}, allocation={}).",
+                    cpuSupported, allocationSupported);
+        }
     }
-    @Around("execution(* fincontrol.com.fincontrol.service.UserService.findAll(..))")
-    public Object aroundList(ProceedingJoinPoint pjp) throws Throwable {
-        return record("user.list", pjp);
+
+    // Registra os meters de todos os métodos perfilados na subida, para que a primeira chamada não pague o registro
+    @EventListener(ContextRefreshedEvent.class)
+    public void registerMeters(ContextRefreshedEvent event) {
+        ApplicationContext context = event.getApplicationContext();
+        int count = 0;
+        for (String beanName : context.getBeanDefinitionNames()) {
+            Class<?> type = context.getType(beanName);
+            if (type == null) {
+                continue;
+            }
+            Class<?> targetClass = ClassUtils.getUserClass(type);
+            boolean serviceClass = targetClass.getPackageName().startsWith("fincontrol.com.fincontrol.service")
+                    && AnnotatedElementUtils.hasAnnotation(targetClass, Service.class);
+            boolean profiledClass = AnnotatedElementUtils.hasAnnotation(targetClass, Profiled.class);
+            for (Method method : targetClass.getMethods()) {
+                if (method.getDeclaringClass() == Object.class || Modifier.isStatic(method.getModifiers()) || method.isSynthetic()) {
+                    continue;
+                }
+                if (serviceClass || profiledClass || AnnotatedElementUtils.hasAnnotation(method, Profiled.class)) {
+                    metersFor(method);
+                    count++;
+                }
+            }
+        }
+        logger.debug("Service profiling meters registered for {} methods.", count);
     }
-    @Around("execution(* fincontrol.com.fincontrol.service.UserService.update(..))")
-    public Object aroundUpdate(ProceedingJoinPoint pjp) throws Throwable {
-        return record("user.update", pjp);
+
+    @Pointcut("execution(public * *(..)) && within(fincontrol.com.fincontrol.service..*) " +
+            "&& @within(org.springframework.stereotype.Service)")
+    void serviceMethods() {
     }
-    @Around("execution(* fincontrol.com.fincontrol.service.UserService.delete(..))")
-    public Object aroundDelete(ProceedingJoinPoint pjp) throws Throwable {
-        return record("user.delete", pjp);
+
+    @Pointcut("execution(public * *(..)) && (@within(fincontrol.com.fincontrol.config.Profiled) " +
+            "|| @annotation(fincontrol.com.fincontrol.config.Profiled))")
+    void profiledMethods() {
     }
 
-    private Object record(String name, ProceedingJoinPoint pjp) throws Throwable {
-        // Estado inicial
-        long cpuBefore = osBean.getProcessCpuTime();
-        long memBefore = runtime.totalMemory() - runtime.freeMemory();
+    @Around("serviceMethods() || profiledMethods()")
+    public Object profile(ProceedingJoinPoint pjp) throws Throwable {
+        if (!enabled) {
+            return pjp.proceed();
+        }
+        boolean cpu = cpuSupported && cpuTimeEnabled;
+        // Estado inicial (só desta thread)
+        long cpuBefore = cpu ? threadBean.getCurrentThreadCpuTime() : 0L;
+        long allocatedBefore = allocationSupported ? threadBean.getCurrentThreadAllocatedBytes() : 0L;
         try {
             return pjp.proceed();
         } finally {
-            // Estado final
-            long cpuAfter  = osBean.getProcessCpuTime();
-            long memAfter  = runtime.totalMemory() - runtime.freeMemory();
-            double cpuSec  = (cpuAfter  - cpuBefore) / 1e9;
-            double memDiff = (memAfter  - memBefore);
-
-            // Registra métricas CPU
-            DistributionSummary.builder(name + ".cpu")
-                    .baseUnit("seconds")
-                    .register(registry)
-                    .record(cpuSec);
-
-            // Registra métricas memória
-            DistributionSummary.builder(name + ".memory")
-                    .baseUnit("bytes")
-                    .register(registry)
-                    .record(memDiff);
+            long cpuAfter = cpu ? threadBean.getCurrentThreadCpuTime() : 0L;
+            long allocatedAfter = allocationSupported ? threadBean.getCurrentThreadAllocatedBytes() : 0L;
+            MethodMeters methodMeters = metersFor(((MethodSignature) pjp.getSignature()).getMethod());
+            if (cpu) {
+                methodMeters.cpu().record((cpuAfter - cpuBefore) / 1e9);
+            }
+            if (allocationSupported) {
+                methodMeters.memory().record(allocatedAfter - allocatedBefore);
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        logger.info("Service profiling {}.", enabled ? "enabled" : "disabled");
+    }
+
+    public boolean isCpuTimeEnabled() {
+        return cpuTimeEnabled;
+    }
+
+    public void setCpuTimeEnabled(boolean cpuTimeEnabled) {
+        this.cpuTimeEnabled = cpuTimeEnabled;
+        logger.info("Service profiling CPU time {}.", cpuTimeEnabled ? "enabled" : "disabled");
+    }
+
+    private MethodMeters metersFor(Method method) {
+        MethodMeters cached = meters.get(method);
+        return cached != null ? cached : meters.computeIfAbsent(method, this::register);
+    }
+
+    private MethodMeters register(Method method) {
+        Profiled profiled = AnnotatedElementUtils.findMergedAnnotation(method, Profiled.class);
+        if (profiled != null && !profiled.value().isEmpty()) {
+            return new MethodMeters(
+                    DistributionSummary.builder(profiled.value() + ".cpu").baseUnit("seconds").register(registry),
+                    DistributionSummary.builder(profiled.value() + ".memory").baseUnit("bytes").register(registry));
         }
+        String className = method.getDeclaringClass().getSimpleName();
+        String methodName = method.getName();
+        return new MethodMeters(
+                DistributionSummary.builder("service.method.cpu").baseUnit("seconds")
+                        .tag("class", className).tag("method", methodName).register(registry),
+                DistributionSummary.builder("service.method.memory").baseUnit("bytes")
+                        .tag("class", className).tag("method", methodName).register(registry));
     }
 }
@@ -0,0 +1,32 @@
+package fincontrol.com.fincontrol.config;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de uma execução de método {@code @Scheduled}, emitido pelo {@link JfrEventAspect}.
+ */
+@Name(ScheduledJobEvent.NAME)
+@Label("Scheduled Job")
+@Category({"FinControl", "Jobs"})
+@Description("Execução de um job agendado")
+@StackTrace(false)
+public class ScheduledJobEvent extends Event {
+
+    public static final String NAME = "fincontrol.ScheduledJob";
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Rows")
+    @Description("Soma das contagens retornadas pelas operações de serviço chamadas pelo job")
+    long rows;
+
+    @Label("Outcome")
+    @Description("OK ou o nome simples da exceção")
+    String outcome;
+}
@@ -0,0 +1,39 @@
+package fincontrol.com.fincontrol.config;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Evento JFR de uma chamada pública a um bean do pacote service, emitido pelo {@link JfrEventAspect}.
+ * Desabilitado (nenhuma gravação ativa), custa uma alocação que o JIT elimina e um teste de flag.
+ */
+@Name(ServiceOperationEvent.NAME)
+@Label("Service Operation")
+@Category({"FinControl", "Service"})
+@Description("Chamada a um método público de serviço")
+@StackTrace(false)
+@Threshold("1 ms")
+public class ServiceOperationEvent extends Event {
+
+    public static final String NAME = "fincontrol.ServiceOperation";
+
+    @Label("Operation")
+    String operation;
+
+    @Label("User Id Hash")
+    @Description("SHA-256 truncado do id do usuário autenticado; vazio fora de requisições")
+    String userIdHash;
+
+    @Label("Rows")
+    @Description("Tamanho da coleção ou contagem retornada; -1 quando o retorno não é nenhum dos dois")
+    long rows;
+
+    @Label("Outcome")
+    @Description("OK ou o nome simples da exceção")
+    String outcome;
+}
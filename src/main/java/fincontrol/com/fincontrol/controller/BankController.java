@@ -71,7 +71,11 @@ public class BankController {
 
     @Operation(summary = "Lista todos os bancos do usuário autenticado")
     @ApiResponse(responseCode = "200", description = "Lista de bancos retornada com sucesso",
-            content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = BankDto.class))))
+            content = {
+                    @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = BankDto.class))),
+                    @Content(mediaType = "application/cbor", array = @ArraySchema(schema = @Schema(implementation = BankDto.class))),
+                    @Content(mediaType = "application/x-jackson-smile", array = @ArraySchema(schema = @Schema(implementation = BankDto.class)))
+            })
     @GetMapping
     public ResponseEntity<List<BankDto>> listAllUserBanks(
             @AuthenticationPrincipal String principal
@@ -3,6 +3,7 @@ package fincontrol.com.fincontrol.controller;
 import fincontrol.com.fincontrol.dto.BillCreateDto;
 import fincontrol.com.fincontrol.dto.BillResponseDto;
 import fincontrol.com.fincontrol.dto.BillUpdateDto;
+import fincontrol.com.fincontrol.dto.PageResponseDto;
 import fincontrol.com.fincontrol.exception.ResourceNotFoundException; // If you use it
 import fincontrol.com.fincontrol.model.User;
 import fincontrol.com.fincontrol.model.enums.BillStatus;
@@ -17,6 +18,10 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -25,7 +30,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
-import java.util.List;
+import java.time.LocalDate;
 import java.util.UUID;
 
 @RestController
@@ -100,22 +105,36 @@ public class BillController {
         return ResponseEntity.ok(responseDto);
     }
 
-    @Operation(summary = "List bills for the authenticated user with optional filters")
+    @Operation(summary = "List bills for the authenticated user with optional filters",
+            description = "Paginated and sorted by due date. Offset mode (default) returns a page with totals; " +
+                    "keyset mode (keyset=true) returns a page ordered by (dueDate, id) after the cursor " +
+                    "(afterDueDate + afterId of the last item of the previous page), without totals and without the count query.")
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "List of bills returned successfully")
+            @ApiResponse(responseCode = "200", description = "List of bills returned successfully",
+                    content = @Content(schema = @Schema(implementation = PageResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Incomplete keyset cursor"),
+            @ApiResponse(responseCode = "404", description = "Category or bank filter not found or does not belong to the user")
     })
     @GetMapping
-    public ResponseEntity<List<BillResponseDto>> getAllBills(
+    public ResponseEntity<PageResponseDto<BillResponseDto>> getAllBills(
             @Parameter(description = "Filter by bill status", in = ParameterIn.QUERY, name = "status", schema = @Schema(implementation = BillStatus.class))
             @RequestParam(required = false) BillStatus status,
             @Parameter(description = "Filter by expense category ID", in = ParameterIn.QUERY, name = "expenseCategoryId")
             @RequestParam(required = false) UUID expenseCategoryId,
             @Parameter(description = "Filter by associated bank ID", in = ParameterIn.QUERY, name = "bankId")
-            @RequestParam(required = false) UUID bankId
+            @RequestParam(required = false) UUID bankId,
+            @Parameter(description = "Use keyset pagination (no count query)", in = ParameterIn.QUERY, name = "keyset")
+            @RequestParam(defaultValue = "false") boolean keyset,
+            @Parameter(description = "Keyset cursor: due date of the last bill already received (YYYY-MM-DD)", in = ParameterIn.QUERY, name = "afterDueDate")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate afterDueDate,
+            @Parameter(description = "Keyset cursor: ID of the last bill already received", in = ParameterIn.QUERY, name = "afterId")
+            @RequestParam(required = false) UUID afterId,
+            @PageableDefault(size = 20, sort = "dueDate") Pageable pageable
     ) {
         UUID userId = getAuthenticatedUserId();
-        List<BillResponseDto> responseDtos = billService.getAllBillsFiltered(userId, status, expenseCategoryId, bankId);
-        return ResponseEntity.ok(responseDtos);
+        Slice<BillResponseDto> responseDtos = billService.getAllBillsFiltered(
+                userId, status, expenseCategoryId, bankId, pageable, keyset, afterDueDate, afterId);
+        return ResponseEntity.ok(PageResponseDto.of(responseDtos));
     }
 
     @Operation(summary = "Update an existing bill for the authenticated user")
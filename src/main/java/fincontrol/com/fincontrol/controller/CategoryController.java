@@ -5,6 +5,7 @@ import fincontrol.com.fincontrol.dto.CategoryDataDto;
 import fincontrol.com.fincontrol.dto.CategoryDetailResponseDto;
 import fincontrol.com.fincontrol.dto.CategoryMassUpdateDto;
 import fincontrol.com.fincontrol.dto.CategoryUpdateDto;
+import fincontrol.com.fincontrol.dto.CategoryUsageStatsDto;
 import fincontrol.com.fincontrol.dto.UserSimpleDto;
 import fincontrol.com.fincontrol.exception.ResourceNotFoundException;
 import fincontrol.com.fincontrol.model.Category;
@@ -84,6 +85,23 @@ public class CategoryController {
                 .collect(Collectors.toList());
     }
 
+    @Operation(summary = "Estatísticas de uso das categorias do usuário autenticado",
+            description = "Para cada categoria retorna a quantidade e o total de despesas e de rendas extras que a utilizam, e a data de uso mais recente.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Estatísticas retornadas com sucesso",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = CategoryUsageStatsDto.class)))),
+            @ApiResponse(responseCode = "404", description = "Usuário não encontrado",
+                    content = @Content(mediaType = "application/json", schema = @Schema()))
+    })
+    @GetMapping("/stats")
+    public List<CategoryUsageStatsDto> usageStats(
+            @Parameter(hidden = true) @AuthenticationPrincipal String userIdString
+    ) {
+        getAuthenticatedUser(userIdString);
+        return categoryService.getCategoryUsageStats();
+    }
+
     @Operation(summary = "Busca uma categoria por ID do usuário autenticado")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Categoria encontrada",
@@ -205,7 +223,7 @@ public class CategoryController {
     @Operation(summary = "Deleta TODAS as categorias do usuário autenticado")
     @ApiResponses({
             @ApiResponse(responseCode = "204", description = "Todas as categorias do usuário foram deletadas com sucesso"),
-            @ApiResponse(responseCode = "400", description = "Não foi possível deletar todas as categorias (alguma em uso)",
+            @ApiResponse(responseCode = "400", description = "Alguma categoria está em uso; nenhuma foi deletada",
                     content = @Content(mediaType = "application/json", schema = @Schema())),
             @ApiResponse(responseCode = "404", description = "Usuário não encontrado",
                     content = @Content(mediaType = "application/json", schema = @Schema()))
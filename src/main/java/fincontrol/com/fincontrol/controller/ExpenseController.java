@@ -17,6 +17,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -25,6 +26,7 @@ import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import jakarta.validation.Valid;
 import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -88,12 +90,22 @@ public class ExpenseController {
 
     @Operation(summary = "Lista todas as despesas do usuário autenticado")
     @ApiResponse(responseCode = "200", description = "Lista de despesas retornada com sucesso",
-            content = @Content(mediaType = "application/json",
-                    array = @ArraySchema(schema = @Schema(implementation = ExpenseDetailResponseDto.class))))
+            content = {
+                    @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = ExpenseDetailResponseDto.class))),
+                    @Content(mediaType = "application/cbor",
+                            array = @ArraySchema(schema = @Schema(implementation = ExpenseDetailResponseDto.class))),
+                    @Content(mediaType = "application/x-jackson-smile",
+                            array = @ArraySchema(schema = @Schema(implementation = ExpenseDetailResponseDto.class)))
+            })
     @GetMapping
-    public List<ExpenseDetailResponseDto> listAll() {
+    public List<ExpenseDetailResponseDto> listAll(
+            @Parameter(description = "Primeiro dia (YYYY-MM-DD), junto com 'to'; sem datas, lista todas")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Último dia (YYYY-MM-DD), junto com 'from'")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
         User authenticatedUser = getAuthenticatedUserEntity();
-        return expenseService.listAllByAuthenticatedUser(authenticatedUser.getId())
+        return expenseService.listAllByAuthenticatedUser(authenticatedUser.getId(), from, to)
                 .stream()
                 .map(expenseEntity -> toExpenseDetailResponseDto(expenseEntity, authenticatedUser))
                 .collect(Collectors.toList());
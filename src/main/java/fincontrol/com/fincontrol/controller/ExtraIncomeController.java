@@ -13,11 +13,13 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
+import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
@@ -76,15 +78,23 @@ public class ExtraIncomeController {
     // 2. Listar TODAS as rendas extras do usuário
     @Operation(summary = "Lista todas as Rendas Extras do usuário autenticado")
     @ApiResponse(responseCode = "200", description = "Lista de Rendas Extras retornada com sucesso",
-            content = @Content(
-                    mediaType = "application/json",
-                    array = @ArraySchema(schema = @Schema(implementation = ExtraIncomeDto.class))
-            ))
+            content = {
+                    @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = ExtraIncomeDto.class))),
+                    @Content(mediaType = "application/cbor",
+                            array = @ArraySchema(schema = @Schema(implementation = ExtraIncomeDto.class))),
+                    @Content(mediaType = "application/x-jackson-smile",
+                            array = @ArraySchema(schema = @Schema(implementation = ExtraIncomeDto.class)))
+            })
     @ApiResponse(responseCode = "404", description = "Nenhuma Renda Extra encontrada para o usuário (se o serviço retornar nulo ou lançar exceção)",
             content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))) // Supondo que ErrorResponseDto exista
     @GetMapping
-    public ResponseEntity<List<ExtraIncomeDto>> listAllExtraIncomes() {
-        List<ExtraIncomeDto> list = service.findAllByCurrentUser();
+    public ResponseEntity<List<ExtraIncomeDto>> listAllExtraIncomes(
+            @Parameter(description = "Primeiro dia (YYYY-MM-DD), junto com 'to'; sem datas, lista todas")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Último dia (YYYY-MM-DD), junto com 'from'")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        List<ExtraIncomeDto> list = service.findAllByCurrentUser(from, to);
         // O serviço já retorna Collections.emptyList() se nada for encontrado,
         // então não precisamos de uma verificação explícita de nulo/vazio aqui para retornar 404.
         // Um 200 OK com lista vazia é uma resposta válida para "listar todos".
@@ -0,0 +1,81 @@
+package fincontrol.com.fincontrol.controller;
+
+import fincontrol.com.fincontrol.dto.ErrorResponseDto;
+import fincontrol.com.fincontrol.dto.ForecastResponseDto;
+import fincontrol.com.fincontrol.exception.ResourceNotFoundException;
+import fincontrol.com.fincontrol.service.ForecastService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/forecast")
+@Tag(name = "Forecast", description = "Cash-flow forecast per bank")
+@SecurityRequirement(name = "bearerAuth")
+public class ForecastController {
+
+    private final ForecastService forecastService;
+
+    public ForecastController(ForecastService forecastService) {
+        this.forecastService = forecastService;
+    }
+
+    private UUID getAuthenticatedUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication.getPrincipal() == null) {
+            throw new ResourceNotFoundException("Nenhum usuário autenticado encontrado no contexto de segurança.");
+        }
+
+        Object principal = authentication.getPrincipal();
+        if (!(principal instanceof String userIdString)) {
+            throw new IllegalStateException("O principal da autenticação não é uma String (UserID) como esperado. Principal é do tipo: " + principal.getClass().getName());
+        }
+        if ("anonymousUser".equals(userIdString)) {
+            throw new ResourceNotFoundException("Operação não permitida para usuário anônimo.");
+        }
+
+        try {
+            return UUID.fromString(userIdString);
+        } catch (IllegalArgumentException e) {
+            throw new ResourceNotFoundException("ID do usuário autenticado ('" + userIdString + "') não é um UUID válido.");
+        }
+    }
+
+    @Operation(
+            summary = "Projected balance per bank, day by day",
+            description = "Starts from the current balance of each bank and applies open bills (expense value) and open " +
+                    "receivables (extra income amount) on their due dates. Items already past due are applied on the first day. " +
+                    "The total series also includes bills and receivables without a bank."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Forecast returned successfully",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ForecastResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid number of days",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ErrorResponseDto.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ErrorResponseDto.class)))
+    })
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ForecastResponseDto> getForecast(
+            @Parameter(description = "Number of days to project, including today (1-366)", in = ParameterIn.QUERY, name = "days")
+            @RequestParam(defaultValue = "90") int days) {
+        UUID userId = getAuthenticatedUserId();
+        return ResponseEntity.ok(forecastService.getForecast(userId, days));
+    }
+}
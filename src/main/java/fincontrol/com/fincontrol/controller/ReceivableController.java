@@ -1,6 +1,7 @@
 package fincontrol.com.fincontrol.controller;
 
 import fincontrol.com.fincontrol.dto.ErrorResponseDto;
+import fincontrol.com.fincontrol.dto.PageResponseDto;
 import fincontrol.com.fincontrol.dto.ReceivableCreateDto;
 import fincontrol.com.fincontrol.dto.ReceivableResponseDto;
 import fincontrol.com.fincontrol.dto.ReceivableUpdateDto; // NOVO DTO IMPORTADO
@@ -21,8 +22,8 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.MediaType;
@@ -106,25 +107,36 @@ public class ReceivableController {
 
     @Operation(
             summary = "List receivables with optional filters",
-            description = "Lists all receivable accounts for the authenticated user. Allows filtering by status and due date range."
+            description = "Lists all receivable accounts for the authenticated user. Allows filtering by status and due date range. " +
+                    "Offset mode (default) returns a page with totals; keyset mode (keyset=true) returns a page ordered by " +
+                    "(dueDate, id) after the cursor (afterDueDate + afterId of the last item of the previous page), without totals and without the count query."
     )
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "List of receivables returned successfully"),
+            @ApiResponse(responseCode = "200", description = "List of receivables returned successfully",
+                    content = @Content(schema = @Schema(implementation = PageResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Incomplete keyset cursor", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))),
             @ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(schema = @Schema(implementation = ErrorResponseDto.class)))
     })
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Page<ReceivableResponseDto>> getAllReceivables(
+    public ResponseEntity<PageResponseDto<ReceivableResponseDto>> getAllReceivables(
             @Parameter(description = "Filter by receivable status", in = ParameterIn.QUERY, name = "status", schema = @Schema(implementation = ReceivableStatusEnum.class))
             @RequestParam(required = false) ReceivableStatusEnum status,
             @Parameter(description = "Filter by due date from (YYYY-MM-DD)", in = ParameterIn.QUERY, name = "startDate")
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @Parameter(description = "Filter by due date to (YYYY-MM-DD)", in = ParameterIn.QUERY, name = "endDate")
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "Use keyset pagination (no count query)", in = ParameterIn.QUERY, name = "keyset")
+            @RequestParam(defaultValue = "false") boolean keyset,
+            @Parameter(description = "Keyset cursor: due date of the last receivable already received (YYYY-MM-DD)", in = ParameterIn.QUERY, name = "afterDueDate")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate afterDueDate,
+            @Parameter(description = "Keyset cursor: ID of the last receivable already received", in = ParameterIn.QUERY, name = "afterId")
+            @RequestParam(required = false) UUID afterId,
             @PageableDefault(size = 10, sort = "dueDate") Pageable pageable) {
         UUID userId = getAuthenticatedUserId();
-        Page<ReceivableResponseDto> responseDtos = receivableService.getAllReceivablesFiltered(userId, status, startDate, endDate, pageable);
-        return ResponseEntity.ok(responseDtos);
+        Slice<ReceivableResponseDto> responseDtos = receivableService.getAllReceivablesFiltered(
+                userId, status, startDate, endDate, pageable, keyset, afterDueDate, afterId);
+        return ResponseEntity.ok(PageResponseDto.of(responseDtos));
     }
 
     @Operation(
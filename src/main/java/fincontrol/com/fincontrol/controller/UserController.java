@@ -1,11 +1,17 @@
 // src/main/java/fincontrol/com/fincontrol/controller/UserController.java
 package fincontrol.com.fincontrol.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fincontrol.com.fincontrol.config.BinaryFormatsConfig;
+import fincontrol.com.fincontrol.dto.AccountDeletionJobDto;
 import fincontrol.com.fincontrol.dto.UserDto;
 import fincontrol.com.fincontrol.dto.UserUpdateDto;
 import fincontrol.com.fincontrol.model.User;
 import fincontrol.com.fincontrol.service.UserService;
 import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -13,12 +19,25 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/users")
@@ -26,28 +45,91 @@ import java.util.stream.Collectors;
 public class UserController {
 
     private final UserService userService;
+    private final MeterRegistry meterRegistry;
+    private final Timer listTimer;
+    // Mesmos ObjectMappers dos conversores HTTP; a ordem define a preferência para Accept com curinga
+    private final Map<MediaType, ObjectMapper> mappers = new LinkedHashMap<>();
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService,
+                          ObjectMapper objectMapper,
+                          MappingJackson2CborHttpMessageConverter cborConverter,
+                          MappingJackson2SmileHttpMessageConverter smileConverter,
+                          MeterRegistry meterRegistry) {
         this.userService = userService;
+        this.meterRegistry = meterRegistry;
+        this.listTimer = Timer.builder("user.list.time")
+                .description("Tempo para listar usuários, até o fim da escrita da resposta")
+                .register(meterRegistry);
+        mappers.put(MediaType.APPLICATION_JSON, objectMapper);
+        mappers.put(MediaType.APPLICATION_CBOR, cborConverter.getObjectMapper());
+        mappers.put(BinaryFormatsConfig.APPLICATION_SMILE, smileConverter.getObjectMapper());
     }
 
-    @Timed(value = "user.list.time", description = "Tempo para listar todos os usuários")
-    @Operation(summary = "Lista todos os usuários")
-    @ApiResponse(responseCode = "200", description = "Lista retornada com sucesso",
-            content = @Content(schema = @Schema(implementation = UserDto.class)))
-    @GetMapping
-    public List<UserDto> listAll() {
-        return userService.findAll()
-                .stream()
-                .map(u -> new UserDto(
-                        u.getId(),
-                        u.getName(),
-                        u.getEmail(),
-                        u.getSalary(),
-                        u.getCreatedAt(),
-                        u.getUpdatedAt()
-                ))
-                .collect(Collectors.toList());
+    @Operation(summary = "Lista usuários, paginado por keyset",
+            description = "Ordenado por e-mail. A resposta é escrita em streaming (JSON, CBOR ou Smile, conforme o Accept) " +
+                    "no formato {\"content\": [UserDto...], \"size\": n, \"hasNext\": bool, \"nextAfterEmail\": \"...\"}; " +
+                    "para a próxima página, envie nextAfterEmail em afterEmail.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Página retornada com sucesso",
+                    content = @Content(schema = @Schema(implementation = UserDto.class))),
+            @ApiResponse(responseCode = "400", description = "Tamanho de página inválido")
+    })
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, BinaryFormatsConfig.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<StreamingResponseBody> listAll(
+            @Parameter(description = "Filtra por trecho do e-mail (sem diferenciar maiúsculas)")
+            @RequestParam(required = false) String email,
+            @Parameter(description = "Filtra por trecho do nome (sem diferenciar maiúsculas)")
+            @RequestParam(required = false) String name,
+            @Parameter(description = "Cursor: e-mail do último usuário da página anterior")
+            @RequestParam(required = false) String afterEmail,
+            @Parameter(description = "Quantidade de usuários por página (1-" + UserService.MAX_PAGE_SIZE + ")")
+            @RequestParam(defaultValue = "50") int size,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        // Validado antes do streaming: depois que o corpo começa a ser escrito não dá mais para responder 400
+        userService.checkPageSize(size);
+        MediaType mediaType = negotiate(accept);
+        ObjectMapper mapper = mappers.get(mediaType);
+        StreamingResponseBody body = out -> {
+            // Cronometrado aqui: o handler só monta este lambda, a consulta e a escrita acontecem depois
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try (JsonGenerator generator = mapper.createGenerator(out)) {
+                generator.writeStartObject();
+                generator.writeArrayFieldStart("content");
+                String next = userService.findAll(email, name, afterEmail, size, user -> {
+                    try {
+                        generator.writeObject(user);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+                generator.writeNumberField("size", size);
+                generator.writeBooleanField("hasNext", next != null);
+                generator.writeStringField("nextAfterEmail", next);
+                generator.writeEndObject();
+            } finally {
+                sample.stop(listTimer);
+            }
+        };
+        return ResponseEntity.ok().contentType(mediaType).body(body);
+    }
+
+    // Primeiro formato aceito, por ordem de qualidade; curingas (ou Accept ausente) ficam com JSON
+    private MediaType negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType candidate : accepted) {
+            for (MediaType supported : mappers.keySet()) {
+                if (candidate.includes(supported)) {
+                    return supported;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
     }
 
     @Timed(value = "user.get.time", description = "Tempo para buscar um usuário por ID")
@@ -108,18 +190,39 @@ public class UserController {
     }
 
     @Timed(value = "user.delete.time", description = "Tempo para remover um usuário")
-    @Operation(summary = "Remove um usuário por ID")
+    @Operation(summary = "Agenda a remoção de um usuário e de todos os seus dados",
+            description = "A exclusão roda em segundo plano. A resposta traz o job criado (ou o já em andamento " +
+                    "para o usuário) e o header Location aponta para o endpoint de status.")
     @ApiResponses({
-            @ApiResponse(responseCode = "204", description = "Removido com sucesso"),
+            @ApiResponse(responseCode = "202", description = "Exclusão agendada",
+                    content = @Content(schema = @Schema(implementation = AccountDeletionJobDto.class))),
             @ApiResponse(responseCode = "404", description = "Usuário não encontrado")
     })
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(
+    public ResponseEntity<AccountDeletionJobDto> delete(
             @Parameter(description = "ID do usuário a ser removido", required = true,
                     example = "3fa85f64-5717-4562-b3fc-2c963f66afa6")
             @PathVariable UUID id
     ) {
-        userService.delete(id);
-        return ResponseEntity.noContent().build();
+        AccountDeletionJobDto job = userService.delete(id);
+        URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/users/deletion-jobs/{jobId}")
+                .buildAndExpand(job.getJobId())
+                .toUri();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).location(location).body(job);
+    }
+
+    @Timed(value = "user.deletionJob.get.time", description = "Tempo para consultar um job de exclusão")
+    @Operation(summary = "Consulta o andamento de uma exclusão de usuário")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Job encontrado",
+                    content = @Content(schema = @Schema(implementation = AccountDeletionJobDto.class))),
+            @ApiResponse(responseCode = "404", description = "Job não encontrado")
+    })
+    @GetMapping("/deletion-jobs/{jobId}")
+    public ResponseEntity<AccountDeletionJobDto> getDeletionJob(
+            @Parameter(description = "ID do job de exclusão", required = true) @PathVariable UUID jobId
+    ) {
+        return ResponseEntity.ok(userService.getDeletionJob(jobId));
     }
 }
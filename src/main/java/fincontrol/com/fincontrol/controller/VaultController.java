@@ -13,6 +13,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -22,6 +24,8 @@ import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 
 import java.net.URI;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -178,4 +182,46 @@ public class VaultController {
         return ResponseEntity.ok(response);
     }
 
+
+    @Operation(summary = "Lista o extrato (depósitos e saques) de um cofre do usuário autenticado",
+            description = "Do lançamento mais recente para o mais antigo, paginado por keyset: para a próxima página, " +
+                    "envie beforeCreatedAt + beforeId do último lançamento recebido.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Extrato retornado com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Cursor incompleto ou tamanho de página inválido"),
+            @ApiResponse(responseCode = "404", description = "Cofre não encontrado ou não pertence ao usuário")
+    })
+    @GetMapping("/{vaultId}/transactions")
+    public ResponseEntity<Slice<VaultLedgerEntryDto>> getVaultTransactions(
+            @Parameter(description = "ID do cofre") @PathVariable UUID vaultId,
+            @Parameter(description = "Quantidade de lançamentos por página (1-100)")
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Cursor: createdAt do último lançamento já recebido (ISO date-time)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime beforeCreatedAt,
+            @Parameter(description = "Cursor: ID do último lançamento já recebido")
+            @RequestParam(required = false) UUID beforeId) {
+        UUID userId = getAuthenticatedUserId();
+        return ResponseEntity.ok(vaultService.getVaultTransactions(vaultId, userId, size, beforeCreatedAt, beforeId));
+    }
+
+    @Operation(summary = "Série de saldo diário de um cofre, calculada a partir do extrato",
+            description = "Um ponto por dia em [from, to] (padrão: últimos 30 dias), com o saldo ao final do dia e a variação líquida.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Série retornada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Intervalo inválido (máximo de 366 dias)"),
+            @ApiResponse(responseCode = "404", description = "Cofre não encontrado ou não pertence ao usuário")
+    })
+    @GetMapping("/{vaultId}/balance-history")
+    public ResponseEntity<List<VaultBalancePointDto>> getVaultBalanceHistory(
+            @Parameter(description = "ID do cofre") @PathVariable UUID vaultId,
+            @Parameter(description = "Primeiro dia (YYYY-MM-DD); padrão: 29 dias antes de 'to'")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Último dia (YYYY-MM-DD); padrão: hoje")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        UUID userId = getAuthenticatedUserId();
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        return ResponseEntity.ok(vaultService.getDailyBalanceSeries(vaultId, userId, start, end));
+    }
+
 }
\ No newline at end of file
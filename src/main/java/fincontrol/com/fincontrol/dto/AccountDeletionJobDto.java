@@ -0,0 +1,48 @@
+package fincontrol.com.fincontrol.dto;
+
+import fincontrol.com.fincontrol.model.enums.AccountDeletionStatus;
+import fincontrol.com.fincontrol.model.enums.AccountDeletionStep;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "AccountDeletionJob", description = "Andamento da exclusão assíncrona de uma conta")
+public class AccountDeletionJobDto {
+
+    @Schema(description = "ID do job", example = "3fa85f64-5717-4562-b3fc-2c963f66afa6")
+    private UUID jobId;
+
+    @Schema(description = "ID do usuário sendo removido")
+    private UUID userId;
+
+    @Schema(description = "Estado do job", example = "RUNNING")
+    private AccountDeletionStatus status;
+
+    @Schema(description = "Etapa (tabela) sendo processada", example = "EXPENSES")
+    private AccountDeletionStep currentStep;
+
+    @Schema(description = "Linhas removidas até agora", example = "12500")
+    private long rowsDeleted;
+
+    @Schema(description = "Chunks confirmados até agora", example = "13")
+    private long chunksCommitted;
+
+    @Schema(description = "Quando a exclusão foi solicitada")
+    private LocalDateTime requestedAt;
+
+    @Schema(description = "Quando a execução começou")
+    private LocalDateTime startedAt;
+
+    @Schema(description = "Quando a exclusão terminou")
+    private LocalDateTime finishedAt;
+
+    @Schema(description = "Erro da última falha, se houver")
+    private String lastError;
+}
@@ -0,0 +1,29 @@
+package fincontrol.com.fincontrol.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "BankForecast", description = "Projeção diária do saldo de um banco")
+public class BankForecastDto {
+
+    @Schema(description = "UUID do banco", example = "3fa85f64-5717-4562-b3fc-2c963f66afa6")
+    private UUID bankId;
+
+    @Schema(description = "Nome do banco", example = "Nubank")
+    private String bankName;
+
+    @Schema(description = "Saldo atual do banco", example = "1000.00")
+    private BigDecimal currentBalance;
+
+    @Schema(description = "Saldo projetado dia a dia")
+    private List<ForecastPointDto> days;
+}
@@ -0,0 +1,24 @@
+package fincontrol.com.fincontrol.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Projeção interna usada pelo job de pagamento automático: dados da conta, do banco
+ * e da despesa carregados em uma única consulta.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BillAutoPayCandidateDto {
+    private UUID billId;
+    private UUID bankId;
+    private String bankName;
+    private LocalDate dueDate;
+    private BigDecimal amount;
+}
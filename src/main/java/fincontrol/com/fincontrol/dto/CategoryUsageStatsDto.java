@@ -0,0 +1,38 @@
+package fincontrol.com.fincontrol.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "CategoryUsageStats", description = "Estatísticas de uso de uma categoria por despesas e rendas extras")
+public class CategoryUsageStatsDto {
+
+    @Schema(description = "UUID da categoria", example = "7fa85f64-1234-4562-b3fc-2c963f66afa6")
+    private UUID categoryId;
+
+    @Schema(description = "Nome da categoria", example = "Alimentação")
+    private String categoryName;
+
+    @Schema(description = "Quantidade de despesas que usam a categoria", example = "12")
+    private Long expenseCount;
+
+    @Schema(description = "Soma dos valores das despesas da categoria", example = "1530.90")
+    private BigDecimal expenseTotal;
+
+    @Schema(description = "Quantidade de rendas extras que usam a categoria", example = "3")
+    private Long extraIncomeCount;
+
+    @Schema(description = "Soma dos valores das rendas extras da categoria", example = "800.00")
+    private BigDecimal extraIncomeTotal;
+
+    @Schema(description = "Data mais recente de uso (despesa ou renda extra); nula se a categoria nunca foi usada", example = "2025-05-18")
+    private LocalDate lastUsedDate;
+}
@@ -0,0 +1,21 @@
+package fincontrol.com.fincontrol.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Projeção interna usada para carregar o agendador de vencimentos:
+ * ID, data de vencimento e se o item tem processamento automático (auto-pay / recebimento automático).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DueItemDto {
+    private UUID id;
+    private LocalDate dueDate;
+    private boolean automatic;
+}
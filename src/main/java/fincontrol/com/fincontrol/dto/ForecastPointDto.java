@@ -0,0 +1,28 @@
+package fincontrol.com.fincontrol.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "ForecastPoint", description = "Saldo projetado ao final de um dia")
+public class ForecastPointDto {
+
+    @Schema(description = "Dia da projeção", example = "2025-06-10")
+    private LocalDate date;
+
+    @Schema(description = "Saldo projetado ao final do dia", example = "1250.40")
+    private BigDecimal balance;
+
+    @Schema(description = "Entradas previstas no dia (contas a receber pendentes)", example = "300.00")
+    private BigDecimal inflow;
+
+    @Schema(description = "Saídas previstas no dia (contas a pagar pendentes)", example = "89.90")
+    private BigDecimal outflow;
+}
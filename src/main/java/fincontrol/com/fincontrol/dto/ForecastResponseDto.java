@@ -0,0 +1,28 @@
+package fincontrol.com.fincontrol.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "Forecast", description = "Projeção de fluxo de caixa por banco a partir de contas a pagar e a receber pendentes")
+public class ForecastResponseDto {
+
+    @Schema(description = "Primeiro dia da projeção (hoje)", example = "2025-06-01")
+    private LocalDate startDate;
+
+    @Schema(description = "Último dia da projeção", example = "2025-08-29")
+    private LocalDate endDate;
+
+    @Schema(description = "Projeção por banco")
+    private List<BankForecastDto> banks;
+
+    @Schema(description = "Projeção consolidada de todos os bancos, incluindo contas sem banco associado")
+    private List<ForecastPointDto> total;
+}
@@ -0,0 +1,48 @@
+package fincontrol.com.fincontrol.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "OperationMetrics", description = "Estatísticas de uma série (nome + tags) de timer ou distribution summary")
+public class OperationMetricsDto {
+
+    @Schema(description = "Nome do meter", example = "user.register.time")
+    private String operation;
+
+    @Schema(description = "Tipo do meter", example = "timer")
+    private String type;
+
+    @Schema(description = "Unidade dos valores (timers sempre em segundos)", example = "seconds")
+    private String unit;
+
+    @Schema(description = "Tags da série")
+    private Map<String, String> tags;
+
+    @Schema(description = "Total de registros desde a subida", example = "1532")
+    private long count;
+
+    @Schema(description = "Soma dos valores registrados", example = "12.84")
+    private double total;
+
+    @Schema(description = "Média desde a subida", example = "0.0083")
+    private double mean;
+
+    @Schema(description = "Máximo na janela de decaimento do Micrometer", example = "0.21")
+    private double max;
+
+    @Schema(description = "Percentis da janela recente (p50, p90, p99, p999); vazio se o meter não tem histograma")
+    private Map<String, Double> percentiles;
+
+    @Schema(description = "Registros por segundo na janela deslizante", example = "3.4")
+    private Double ratePerSecond;
+
+    @Schema(description = "Janela usada no cálculo da taxa, em segundos", example = "60")
+    private long rateWindowSeconds;
+}
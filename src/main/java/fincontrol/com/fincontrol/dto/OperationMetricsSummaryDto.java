@@ -0,0 +1,39 @@
+package fincontrol.com.fincontrol.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "OperationMetricsSummary", description = "Linha compacta de uma operação, para dashboards")
+public class OperationMetricsSummaryDto {
+
+    @Schema(description = "Nome do meter", example = "service.method.cpu")
+    private String operation;
+
+    @Schema(description = "Tags da série")
+    private Map<String, String> tags;
+
+    @Schema(description = "Unidade dos valores", example = "seconds")
+    private String unit;
+
+    @Schema(description = "Total de registros desde a subida", example = "1532")
+    private long count;
+
+    @Schema(description = "Registros por segundo na janela deslizante", example = "3.4")
+    private Double rate;
+
+    @Schema(description = "Percentil 50 da janela recente", example = "0.004")
+    private Double p50;
+
+    @Schema(description = "Percentil 99 da janela recente", example = "0.09")
+    private Double p99;
+
+    @Schema(description = "Máximo na janela de decaimento do Micrometer", example = "0.21")
+    private double max;
+}
@@ -0,0 +1,48 @@
+package fincontrol.com.fincontrol.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * Stable JSON shape for paginated listings, in offset mode (Page) and keyset mode (Slice).
+ * Spring Data's PageImpl/SliceImpl are not serialized directly: their JSON follows internal
+ * fields (pageable, sort, ...) and may change between versions.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "PageResponseDto", description = "A page of results; totals are only present in offset mode")
+public class PageResponseDto<T> {
+
+    @Schema(description = "Items of this page")
+    private List<T> content;
+
+    @Schema(description = "Page number (0-based); always 0 in keyset mode", example = "0")
+    private int page;
+
+    @Schema(description = "Requested page size", example = "20")
+    private int size;
+
+    @Schema(description = "Whether there are more items after this page", example = "true")
+    private boolean hasNext;
+
+    @Schema(description = "Total number of items (offset mode only, null in keyset mode)", example = "137", nullable = true)
+    private Long totalElements;
+
+    @Schema(description = "Total number of pages (offset mode only, null in keyset mode)", example = "7", nullable = true)
+    private Integer totalPages;
+
+    public static <T> PageResponseDto<T> of(Slice<T> slice) {
+        if (slice instanceof Page<T> page) {
+            return new PageResponseDto<>(page.getContent(), page.getNumber(), page.getSize(), page.hasNext(),
+                    page.getTotalElements(), page.getTotalPages());
+        }
+        return new PageResponseDto<>(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext(), null, null);
+    }
+}
@@ -0,0 +1,30 @@
+package fincontrol.com.fincontrol.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "Partition", description = "Partição por data de expenses ou extra_income")
+public class PartitionDto {
+
+    @Schema(description = "Nome da partição", example = "expenses_p2026_10")
+    private String name;
+
+    @Schema(description = "Primeiro dia da faixa (inclusivo); nulo na partição DEFAULT", example = "2026-10-01")
+    private LocalDate from;
+
+    @Schema(description = "Fim da faixa (exclusivo); nulo na partição DEFAULT", example = "2026-11-01")
+    private LocalDate to;
+
+    @Schema(description = "Linhas estimadas pelas estatísticas do Postgres (reltuples)", example = "120000")
+    private long estimatedRows;
+
+    @Schema(description = "Tamanho em disco com índices, em bytes", example = "24576000")
+    private long totalBytes;
+}
@@ -0,0 +1,25 @@
+package fincontrol.com.fincontrol.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "VaultBalancePoint", description = "Saldo de um cofre ao final de um dia, calculado a partir do extrato")
+public class VaultBalancePointDto {
+
+    @Schema(description = "Dia", example = "2025-06-10")
+    private LocalDate date;
+
+    @Schema(description = "Saldo ao final do dia (nulo antes do primeiro lançamento do cofre)", example = "1150.00")
+    private BigDecimal balance;
+
+    @Schema(description = "Variação líquida no dia (depósitos - saques)", example = "150.00")
+    private BigDecimal netChange;
+}
@@ -0,0 +1,33 @@
+package fincontrol.com.fincontrol.dto;
+
+import fincontrol.com.fincontrol.model.enums.VaultTransactionType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "VaultLedgerEntry", description = "Lançamento do extrato de um cofre")
+public class VaultLedgerEntryDto {
+
+    @Schema(description = "ID do lançamento (cursor de paginação junto com createdAt)")
+    private UUID id;
+
+    @Schema(description = "Tipo do lançamento", example = "DEPOSIT")
+    private VaultTransactionType type;
+
+    @Schema(description = "Valor movimentado (sempre positivo)", example = "150.00")
+    private BigDecimal amount;
+
+    @Schema(description = "Saldo do cofre após o lançamento", example = "1150.00")
+    private BigDecimal balanceAfter;
+
+    @Schema(description = "Data e hora do lançamento")
+    private LocalDateTime createdAt;
+}
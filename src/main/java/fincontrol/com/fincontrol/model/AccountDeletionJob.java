@@ -0,0 +1,61 @@
+package fincontrol.com.fincontrol.model;
+
+import fincontrol.com.fincontrol.model.enums.AccountDeletionStatus;
+import fincontrol.com.fincontrol.model.enums.AccountDeletionStep;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Job de exclusão de uma conta e de todos os seus dependentes. A etapa atual e os contadores são
+ * atualizados na mesma transação de cada chunk, então após uma queda o job continua da etapa em
+ * que parou. Não tem FK para users: o registro sobrevive ao usuário e serve de comprovante.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "account_deletion_jobs", indexes = {
+        @Index(name = "idx_account_deletion_jobs_user", columnList = "user_id"),
+        @Index(name = "idx_account_deletion_jobs_status", columnList = "status")
+})
+public class AccountDeletionJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private AccountDeletionStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "current_step", nullable = false, length = 30)
+    private AccountDeletionStep currentStep;
+
+    @Column(name = "rows_deleted", nullable = false)
+    private long rowsDeleted;
+
+    @Column(name = "chunks_committed", nullable = false)
+    private long chunksCommitted;
+
+    @Column(name = "requested_at", nullable = false)
+    private LocalDateTime requestedAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+}
@@ -0,0 +1,50 @@
+package fincontrol.com.fincontrol.model;
+
+import fincontrol.com.fincontrol.model.enums.BatchJobStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Progresso persistido de um job em lote executado em chunks.
+ * Cada chunk atualiza este registro na mesma transação em que altera os dados,
+ * então após uma queda o job sabe de qual data de corte e contagem retomar.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "batch_job_checkpoints")
+public class BatchJobCheckpoint {
+
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private BatchJobStatus status;
+
+    @Column(name = "cutoff_date", nullable = false)
+    private LocalDate cutoffDate;
+
+    @Column(name = "rows_processed", nullable = false)
+    private long rowsProcessed;
+
+    @Column(name = "chunks_committed", nullable = false)
+    private long chunksCommitted;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+}
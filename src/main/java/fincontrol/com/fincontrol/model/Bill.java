@@ -21,7 +21,7 @@ import java.util.UUID;
 public class Bill { // Renamed class to "Bill"
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
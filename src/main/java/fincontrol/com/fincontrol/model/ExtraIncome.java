@@ -2,7 +2,6 @@ package fincontrol.com.fincontrol.model;
 
 import jakarta.persistence.*;
 import lombok.*;
-import org.hibernate.annotations.GenericGenerator;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -10,7 +9,9 @@ import java.time.LocalDate;
 import java.util.UUID;
 
 @Entity
-@Table(name = "extra_income")
+@Table(name = "extra_income", indexes = {
+        @Index(name = "idx_extra_income_user_category", columnList = "user_id, category_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -19,8 +20,7 @@ import java.util.UUID;
 public class ExtraIncome {
 
     @Id
-    @GeneratedValue(generator = "UUID")
-    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
+    @UuidV7
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
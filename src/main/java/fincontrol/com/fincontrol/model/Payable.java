@@ -14,7 +14,7 @@ import java.util.UUID;
 public class Payable {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
     @ManyToOne(optional = false)
@@ -15,7 +15,7 @@ import java.util.UUID;
 public class PayableInstallment {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
     @ManyToOne(optional = false)
@@ -15,14 +15,17 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "receivables")
+@Table(name = "receivables", indexes = {
+        @Index(name = "idx_receivables_user_status_due", columnList = "user_id, status, due_date"),
+        @Index(name = "idx_receivables_user_due", columnList = "user_id, due_date")
+})
 @Getter
 @Setter
 @EntityListeners(AuditingEntityListener.class)
 public class Receivable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @NotNull
@@ -10,7 +10,7 @@ import java.util.UUID;
 public class Safe {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
     @ManyToOne(optional = false)
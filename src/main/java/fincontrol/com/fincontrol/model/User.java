@@ -5,6 +5,8 @@ import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.data.annotation.CreatedDate;
@@ -26,6 +28,8 @@ import java.util.UUID;
 @Setter
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @EntityListeners(AuditingEntityListener.class)
 // ADICIONAR ESTA ANOTAÇÃO À CLASSE
 @JsonIdentityInfo(
@@ -35,7 +39,7 @@ import java.util.UUID;
 public class User {
 
     @Id
-    @GeneratedValue // Se o seu UUID é gerado automaticamente, pode precisar de strategy = GenerationType.UUID
+    @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
     @Column(nullable = false, length = 100)
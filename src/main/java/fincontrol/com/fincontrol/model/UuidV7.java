@@ -0,0 +1,20 @@
+package fincontrol.com.fincontrol.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Id UUID versão 7 (RFC 9562), ordenado pelo instante de criação, gerado no cliente pelo
+ * {@link UuidV7Generator}. Usado nas tabelas de maior volume de inserts (despesas, rendas extras,
+ * contas e recebíveis): ids crescentes entram sempre na borda direita do índice da PK, em vez de
+ * espalhar escritas pela árvore inteira como o UUIDv4.
+ */
+@IdGeneratorType(UuidV7Generator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface UuidV7 {
+}
@@ -0,0 +1,50 @@
+package fincontrol.com.fincontrol.model;
+
+import fincontrol.com.fincontrol.model.enums.VaultTransactionType;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Lançamento do extrato de um cofre (append-only). Gravado na mesma transação do depósito/saque,
+ * com o saldo do cofre logo após a operação, então o histórico e a série de saldo diário saem
+ * só desta tabela. Os lançamentos somem junto com o cofre (ON DELETE CASCADE).
+ */
+@Getter
+@Setter
+@Entity
+@Immutable
+@Table(name = "vault_transactions", indexes = {
+        @Index(name = "idx_vault_transactions_vault_created_id", columnList = "vault_id, created_at, id")
+})
+public class VaultTransaction {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "vault_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Vault vault;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private VaultTransactionType type;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal amount; // Sempre positivo; o sentido vem do tipo
+
+    @Column(name = "balance_after", nullable = false, precision = 12, scale = 2)
+    private BigDecimal balanceAfter;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
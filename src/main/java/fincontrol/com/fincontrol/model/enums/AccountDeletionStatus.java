@@ -0,0 +1,9 @@
+package fincontrol.com.fincontrol.model.enums;
+
+// Estado de um job de exclusão de conta
+public enum AccountDeletionStatus {
+    QUEUED,    // Aceito, aguardando o executor
+    RUNNING,   // Em execução (ou interrompido por queda, se encontrado ao iniciar)
+    COMPLETED, // Usuário e dependentes removidos
+    FAILED     // Falhou em algum chunk; um novo pedido de exclusão reinicia o job
+}
@@ -0,0 +1,20 @@
+package fincontrol.com.fincontrol.model.enums;
+
+/**
+ * Etapas da exclusão de conta, na ordem em que são executadas: cada tabela é esvaziada antes
+ * das tabelas que ela referencia, então nenhum DELETE viola uma foreign key.
+ */
+public enum AccountDeletionStep {
+    RECEIVABLES,          // -> extra_income
+    BILLS,                // -> expenses, banks
+    VAULT_TRANSACTIONS,   // -> vaults
+    VAULTS,               // -> banks
+    SAFES,                // -> banks
+    PAYABLE_INSTALLMENTS, // -> payables
+    PAYABLES,             // -> categories
+    EXPENSES,             // -> categories, banks
+    EXTRA_INCOME,         // -> banks
+    BANKS,
+    CATEGORIES,
+    USER
+}
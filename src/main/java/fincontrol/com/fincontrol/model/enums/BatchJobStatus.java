@@ -0,0 +1,8 @@
+package fincontrol.com.fincontrol.model.enums;
+
+// Estado do checkpoint de um job em lote
+public enum BatchJobStatus {
+    RUNNING,   // Em execução (ou interrompido por queda, se encontrado ao iniciar)
+    COMPLETED, // Concluído com sucesso
+    FAILED     // Falhou em algum chunk; o próximo disparo retoma de onde parou
+}
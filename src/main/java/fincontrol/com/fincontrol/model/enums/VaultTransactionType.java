@@ -0,0 +1,7 @@
+package fincontrol.com.fincontrol.model.enums;
+
+// Tipo de lançamento no extrato de um cofre
+public enum VaultTransactionType {
+    DEPOSIT,    // Entrada no cofre (inclui o valor inicial na criação)
+    WITHDRAWAL  // Saída do cofre
+}
@@ -0,0 +1,21 @@
+package fincontrol.com.fincontrol.repository;
+
+import fincontrol.com.fincontrol.model.AccountDeletionJob;
+import fincontrol.com.fincontrol.model.enums.AccountDeletionStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface AccountDeletionJobRepository extends JpaRepository<AccountDeletionJob, UUID> {
+
+    Optional<AccountDeletionJob> findFirstByUserIdAndStatusIn(UUID userId, Collection<AccountDeletionStatus> statuses);
+
+    List<AccountDeletionJob> findAllByStatusInOrderByRequestedAt(Collection<AccountDeletionStatus> statuses);
+
+    long countByStatus(AccountDeletionStatus status);
+}
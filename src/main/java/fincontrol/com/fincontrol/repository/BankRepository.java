@@ -1,19 +1,28 @@
 package fincontrol.com.fincontrol.repository;
 
 import fincontrol.com.fincontrol.model.Bank;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying; // Import Modifying
 import org.springframework.data.jpa.repository.Query; // Import Query
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param; // Import Param
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface BankRepository extends JpaRepository<Bank, UUID> {
 
-    // Method to find all banks by User ID
+    // Method to find all banks by User ID (query cache: banks.queries)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "banks.queries")})
     List<Bank> findAllByUserId(UUID userId);
 
 
@@ -28,6 +37,34 @@ public interface BankRepository extends JpaRepository<Bank, UUID> {
     @EntityGraph(attributePaths = {"user"})
     Optional<Bank> findById(UUID id);
 
-    @Query("SELECT b FROM Bank b JOIN FETCH b.user WHERE b.id = :id AND b.user.id = :userId")
-    Optional<Bank> findByIdAndUserId(@Param("id") UUID id, @Param("userId") UUID userId);
-}
\ No newline at end of file
+    // Ownership check before every money operation: a lookup by id, so it is served by the banks entity
+    // region (a query would go back to the database after any write to banks); the owner comes from the users region
+    default Optional<Bank> findByIdAndUserId(UUID id, UUID userId) {
+        return findById(id).filter(bank -> bank.getUser().getId().equals(userId));
+    }
+
+    // Pessimistic lock (SELECT ... FOR UPDATE) on the bank, used by jobs that debit/credit the balance
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Bank b WHERE b.id = :id")
+    Optional<Bank> findByIdForUpdate(@Param("id") UUID id);
+
+    // Atomic credit (balance = balance + amount) in a single UPDATE; no read-modify-write in memory
+    @Modifying
+    @Query("UPDATE Bank b SET b.balance = b.balance + :amount, b.updatedAt = LOCAL DATETIME WHERE b.id = :id")
+    int addToBalance(@Param("id") UUID id, @Param("amount") BigDecimal amount);
+
+    // Forecast source: (id, name, balance) of every bank of the user
+    @Query("SELECT b.id, b.name, b.balance FROM Bank b WHERE b.user.id = :userId ORDER BY b.name, b.id")
+    List<Object[]> findBalancesByUserId(@Param("userId") UUID userId);
+
+    // Conditional atomic debit: only applied when the balance covers the amount (returns 0 otherwise)
+    @Modifying
+    @Query("UPDATE Bank b SET b.balance = b.balance - :amount, b.updatedAt = LOCAL DATETIME " +
+            "WHERE b.id = :id AND b.balance >= :amount")
+    int subtractFromBalanceIfSufficient(@Param("id") UUID id, @Param("amount") BigDecimal amount);
+
+    // Account deletion: removes up to :limit of the user's rows in one set-based statement
+    @Modifying
+    @Query(value = "DELETE FROM banks WHERE id IN (SELECT id FROM banks WHERE user_id = :userId LIMIT :limit)", nativeQuery = true)
+    int deleteChunkByUserId(@Param("userId") UUID userId, @Param("limit") int limit);
+}
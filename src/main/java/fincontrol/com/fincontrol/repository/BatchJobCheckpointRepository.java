@@ -0,0 +1,9 @@
+package fincontrol.com.fincontrol.repository;
+
+import fincontrol.com.fincontrol.model.BatchJobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BatchJobCheckpointRepository extends JpaRepository<BatchJobCheckpoint, String> {
+}
@@ -1,15 +1,22 @@
 package fincontrol.com.fincontrol.repository;
 
+import fincontrol.com.fincontrol.dto.BillAutoPayCandidateDto;
+import fincontrol.com.fincontrol.dto.DueItemDto;
 import fincontrol.com.fincontrol.model.Bill;
 import fincontrol.com.fincontrol.model.enums.BillStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface BillRepository extends JpaRepository<Bill, UUID>, JpaSpecificationExecutor<Bill> {
@@ -22,9 +29,86 @@ public interface BillRepository extends JpaRepository<Bill, UUID>, JpaSpecificat
     // For the job to mark overdue bills
     List<Bill> findByStatusAndDueDateBefore(BillStatus status, LocalDate date);
 
+    // Chunk set-based do job de vencidas: trava até :chunkSize contas PENDING vencidas
+    // (pulando as já travadas por outras transações) e as marca como OVERDUE em um único UPDATE.
+    @Modifying
+    @Query(value = "UPDATE bills SET status = 'OVERDUE', updated_at = LOCALTIMESTAMP " +
+            "WHERE id IN (SELECT b.id FROM bills b " +
+            "             WHERE b.status = 'PENDING' AND b.due_date < :cutoff " +
+            "             ORDER BY b.due_date " +
+            "             LIMIT :chunkSize " +
+            "             FOR UPDATE SKIP LOCKED)",
+            nativeQuery = true)
+    int markOverdueChunk(@Param("cutoff") LocalDate cutoff, @Param("chunkSize") int chunkSize);
+
+    // Data de vencimento mais antiga ainda com o status informado (usada na métrica de atraso do job)
+    @Query("SELECT MIN(b.dueDate) FROM Bill b WHERE b.status = :status AND b.dueDate < :date")
+    LocalDate findOldestDueDateByStatusBefore(@Param("status") BillStatus status, @Param("date") LocalDate date);
+
     // For the automatic payment job
     List<Bill> findAllByAutoPayTrueAndStatusAndDueDateAndBankIsNotNull(
             BillStatus status,
             LocalDate dueDate
     );
+
+    // Automatic payment engine: due bills with their bank and expense in one query,
+    // already ordered by bank and then by due date (the order debits are applied in)
+    @Query("SELECT new fincontrol.com.fincontrol.dto.BillAutoPayCandidateDto(" +
+            "b.id, bk.id, bk.name, b.dueDate, e.value) " +
+            "FROM Bill b JOIN b.bank bk JOIN b.expense e " +
+            "WHERE b.autoPay = true AND b.status = :status AND b.dueDate <= :date " +
+            "ORDER BY bk.id, b.dueDate, b.createdAt")
+    List<BillAutoPayCandidateDto> findAutoPayCandidates(@Param("status") BillStatus status,
+                                                        @Param("date") LocalDate date);
+
+    // Locks (FOR UPDATE) the bills of a bank group that are still PENDING, so a concurrent
+    // manual payment cannot be applied twice
+    @Query(value = "SELECT id FROM bills WHERE id IN (:ids) AND status = 'PENDING' FOR UPDATE", nativeQuery = true)
+    List<UUID> lockPendingIds(@Param("ids") List<UUID> ids);
+
+    @Modifying
+    @Query("UPDATE Bill b SET b.status = :status, b.paymentDate = :paymentDate, b.updatedAt = LOCAL DATETIME " +
+            "WHERE b.id IN :ids")
+    int markPaid(@Param("ids") List<UUID> ids,
+                 @Param("status") BillStatus status,
+                 @Param("paymentDate") LocalDate paymentDate);
+
+    // Same projection as findAutoPayCandidates, restricted to the given bills (due-date scheduler)
+    @Query("SELECT new fincontrol.com.fincontrol.dto.BillAutoPayCandidateDto(" +
+            "b.id, bk.id, bk.name, b.dueDate, e.value) " +
+            "FROM Bill b JOIN b.bank bk JOIN b.expense e " +
+            "WHERE b.id IN :ids AND b.autoPay = true AND b.status = :status AND b.dueDate <= :date " +
+            "ORDER BY bk.id, b.dueDate, b.createdAt")
+    List<BillAutoPayCandidateDto> findAutoPayCandidatesByIds(@Param("ids") List<UUID> ids,
+                                                             @Param("status") BillStatus status,
+                                                             @Param("date") LocalDate date);
+
+    // Items loaded into the due-date scheduler: bills with the given status due in [:from, :until)
+    @Query("SELECT new fincontrol.com.fincontrol.dto.DueItemDto(b.id, b.dueDate, " +
+            "CASE WHEN b.autoPay = true AND b.bank IS NOT NULL THEN true ELSE false END) " +
+            "FROM Bill b WHERE b.status = :status AND b.dueDate >= :from AND b.dueDate < :until")
+    List<DueItemDto> findDueItems(@Param("status") BillStatus status, @Param("from") LocalDate from,
+                                  @Param("until") LocalDate until);
+
+    // Targeted OVERDUE transition fired by the due-date scheduler (no-op for bills no longer pending)
+    @Modifying
+    @Query("UPDATE Bill b SET b.status = :overdue, b.updatedAt = LOCAL DATETIME " +
+            "WHERE b.id IN :ids AND b.status = :pending AND b.dueDate < :today")
+    int markOverdueByIds(@Param("ids") List<UUID> ids,
+                         @Param("pending") BillStatus pending,
+                         @Param("overdue") BillStatus overdue,
+                         @Param("today") LocalDate today);
+
+    // Forecast source: (dueDate, bank id, expense value) of the user's open bills up to :until, in due order
+    @Query("SELECT b.dueDate, bk.id, e.value FROM Bill b JOIN b.expense e LEFT JOIN b.bank bk " +
+            "WHERE b.user.id = :userId AND b.status IN :statuses AND b.dueDate <= :until " +
+            "ORDER BY b.dueDate")
+    Stream<Object[]> streamForecastOutflows(@Param("userId") UUID userId,
+                                            @Param("statuses") Collection<BillStatus> statuses,
+                                            @Param("until") LocalDate until);
+
+    // Account deletion: removes up to :limit of the user's rows in one set-based statement
+    @Modifying
+    @Query(value = "DELETE FROM bills WHERE id IN (SELECT id FROM bills WHERE user_id = :userId LIMIT :limit)", nativeQuery = true)
+    int deleteChunkByUserId(@Param("userId") UUID userId, @Param("limit") int limit);
 }
@@ -1,9 +1,12 @@
 package fincontrol.com.fincontrol.repository;
 
 import fincontrol.com.fincontrol.model.Category;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
@@ -12,6 +15,9 @@ import java.util.UUID;
 
 public interface CategoryRepository extends JpaRepository<Category, UUID> {
 
+    // Carga do CategoryCache e atualização em massa; query cache na região categories.queries
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "categories.queries")})
     List<Category> findAllByUserId(UUID userId);
 
     Optional<Category> findByIdAndUserId(UUID id, UUID userId);
@@ -25,4 +31,57 @@ public interface CategoryRepository extends JpaRepository<Category, UUID> {
     @Modifying
     @Query("DELETE FROM Category c WHERE c.userId = :userId")
     int deleteAllByUserId(@Param("userId") UUID userId);
-}
\ No newline at end of file
+
+    /**
+     * Retorna, em uma única consulta, todas as categorias do usuário que estão em uso
+     * por despesas ou rendas extras. Contas (Bill) referenciam a categoria através da
+     * despesa, portanto já são cobertas pelo primeiro EXISTS.
+     */
+    @Query("SELECT c FROM Category c WHERE c.userId = :userId " +
+            "AND (EXISTS (SELECT 1 FROM Expense e WHERE e.category.id = c.id) " +
+            "  OR EXISTS (SELECT 1 FROM ExtraIncome ei WHERE ei.categoryId = c.id)) " +
+            "ORDER BY c.name")
+    List<Category> findAllInUseByUserId(@Param("userId") UUID userId);
+
+    /**
+     * Deleta em um único statement (anti-join) as categorias do usuário que não estão
+     * em uso por despesas nem por rendas extras. Retorna o número de categorias deletadas.
+     */
+    @Modifying
+    @Query("DELETE FROM Category c WHERE c.userId = :userId " +
+            "AND NOT EXISTS (SELECT 1 FROM Expense e WHERE e.category.id = c.id) " +
+            "AND NOT EXISTS (SELECT 1 FROM ExtraIncome ei WHERE ei.categoryId = c.id)")
+    int deleteAllUnusedByUserId(@Param("userId") UUID userId);
+
+    /**
+     * Estatísticas de uso por categoria do usuário em uma única consulta:
+     * UNION ALL de despesas e rendas extras, agregada com GROUP BY.
+     * Cada linha: [category_id, category_name, expense_count, expense_total,
+     * extra_income_count, extra_income_total, last_used_date].
+     * Categorias sem uso também são retornadas (com contagens zeradas).
+     */
+    @Query(value = "SELECT c.id, c.name, " +
+            "  COUNT(u.kind) FILTER (WHERE u.kind = 'E'), " +
+            "  COALESCE(SUM(u.amount) FILTER (WHERE u.kind = 'E'), 0), " +
+            "  COUNT(u.kind) FILTER (WHERE u.kind = 'I'), " +
+            "  COALESCE(SUM(u.amount) FILTER (WHERE u.kind = 'I'), 0), " +
+            "  MAX(u.used_on) " +
+            "FROM categories c " +
+            "LEFT JOIN ( " +
+            "  SELECT e.category_id, 'E' AS kind, e.value AS amount, e.expense_date AS used_on " +
+            "  FROM expenses e WHERE e.user_id = :userId " +
+            "  UNION ALL " +
+            "  SELECT ei.category_id, 'I' AS kind, ei.amount AS amount, ei.date AS used_on " +
+            "  FROM extra_income ei WHERE ei.user_id = :userId " +
+            ") u ON u.category_id = c.id " +
+            "WHERE c.user_id = :userId " +
+            "GROUP BY c.id, c.name " +
+            "ORDER BY c.name",
+            nativeQuery = true)
+    List<Object[]> findUsageStatsByUserId(@Param("userId") UUID userId);
+
+    // Account deletion: removes up to :limit of the user's rows in one set-based statement
+    @Modifying
+    @Query(value = "DELETE FROM categories WHERE id IN (SELECT id FROM categories WHERE user_id = :userId LIMIT :limit)", nativeQuery = true)
+    int deleteChunkByUserId(@Param("userId") UUID userId, @Param("limit") int limit);
+}
@@ -3,10 +3,12 @@ package fincontrol.com.fincontrol.repository;
 import fincontrol.com.fincontrol.model.Expense;
 import fincontrol.com.fincontrol.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,6 +17,9 @@ public interface ExpenseRepository extends JpaRepository<Expense, UUID> { // Ass
 
     List<Expense> findAllByUserId(UUID userId);
 
+    // Filtro direto na chave de particionamento: com expenses particionada, só as partições da faixa são lidas
+    List<Expense> findAllByUserIdAndExpenseDateBetween(UUID userId, LocalDate from, LocalDate to);
+
     Optional<Expense> findByIdAndUserId(UUID id, UUID userId);
 
     @Query("SELECT COALESCE(SUM(e.value), 0) FROM Expense e WHERE e.bank.id = :bankId AND e.user.id = :userId")
@@ -72,4 +77,9 @@ public interface ExpenseRepository extends JpaRepository<Expense, UUID> { // Ass
             @Param("bankId") UUID bankId,
             @Param("user")   User user
     );
-}
\ No newline at end of file
+
+    // Account deletion: removes up to :limit of the user's rows in one set-based statement
+    @Modifying
+    @Query(value = "DELETE FROM expenses WHERE id IN (SELECT id FROM expenses WHERE user_id = :userId LIMIT :limit)", nativeQuery = true)
+    int deleteChunkByUserId(@Param("userId") UUID userId, @Param("limit") int limit);
+}
@@ -10,6 +10,7 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -20,6 +21,9 @@ public interface ExtraIncomeRepository extends JpaRepository<ExtraIncome, UUID>
     // Métodos que seu ExtraIncomeService já parece usar ou pode precisar:
     List<ExtraIncome> findAllByUser(User user);
 
+    // Filtro direto na chave de particionamento: com extra_income particionada, só as partições da faixa são lidas
+    List<ExtraIncome> findAllByUserAndDateBetween(User user, LocalDate from, LocalDate to);
+
     Optional<ExtraIncome> findByIdAndUser(UUID id, User user);
 
     List<ExtraIncome> findAllByUserAndBankId(User user, UUID bankId);
@@ -55,4 +59,8 @@ public interface ExtraIncomeRepository extends JpaRepository<ExtraIncome, UUID>
     @Query("SELECT COALESCE(SUM(ei.amount), 0) FROM ExtraIncome ei WHERE ei.bank.id = :bankId AND ei.user = :user")
     BigDecimal sumIncomeByBank(@Param("bankId") UUID bankId, @Param("user") User user);
 
-}
\ No newline at end of file
+    // Account deletion: removes up to :limit of the user's rows in one set-based statement
+    @Modifying
+    @Query(value = "DELETE FROM extra_income WHERE id IN (SELECT id FROM extra_income WHERE user_id = :userId LIMIT :limit)", nativeQuery = true)
+    int deleteChunkByUserId(@Param("userId") UUID userId, @Param("limit") int limit);
+}
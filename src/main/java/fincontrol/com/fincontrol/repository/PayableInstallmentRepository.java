@@ -2,8 +2,17 @@ package fincontrol.com.fincontrol.repository;
 
 import fincontrol.com.fincontrol.model.PayableInstallment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.UUID;
 
 public interface PayableInstallmentRepository extends JpaRepository<PayableInstallment, UUID> {
+
+    // Account deletion: removes up to :limit installments of the user's payables in one set-based statement
+    @Modifying
+    @Query(value = "DELETE FROM payable_installments WHERE id IN (SELECT i.id FROM payable_installments i " +
+            "JOIN payables p ON p.id = i.payable_id WHERE p.user_id = :userId LIMIT :limit)", nativeQuery = true)
+    int deleteChunkByUserId(@Param("userId") UUID userId, @Param("limit") int limit);
 }
@@ -1,6 +1,7 @@
 package fincontrol.com.fincontrol.repository;
 
 
+import fincontrol.com.fincontrol.dto.DueItemDto;
 import fincontrol.com.fincontrol.model.Receivable;
 import fincontrol.com.fincontrol.model.enums.ReceivableStatusEnum;
 import org.springframework.data.domain.Page;
@@ -8,15 +9,18 @@ import org.springframework.data.domain.Pageable;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface ReceivableRepository extends JpaRepository<Receivable, UUID>, JpaSpecificationExecutor<Receivable> {
@@ -34,16 +38,81 @@ public interface ReceivableRepository extends JpaRepository<Receivable, UUID>, J
             LocalDate dueDate
     );
 
-    // Example for filtered listing
-    @Query("SELECT r FROM Receivable r WHERE r.user.id = :userId " +
-            "AND (:status IS NULL OR r.status = :status) " +
-            "AND (:startDate IS NULL OR r.dueDate >= :startDate) " +
-            "AND (:endDate IS NULL OR r.dueDate <= :endDate)")
-    Page<Receivable> findByUserAndFilters(
-            @Param("userId") UUID userId,
-            @Param("status") ReceivableStatusEnum status,
-            @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate,
-            Pageable pageable
-    );
-}
\ No newline at end of file
+    // Chunk set-based do job de vencidas: trava até :chunkSize recebíveis PENDING vencidos
+    // (pulando os já travados por outras transações) e os marca como OVERDUE em um único UPDATE.
+    @Modifying
+    @Query(value = "UPDATE receivables SET status = 'OVERDUE', updated_at = LOCALTIMESTAMP " +
+            "WHERE id IN (SELECT r.id FROM receivables r " +
+            "             WHERE r.status = 'PENDING' AND r.due_date < :cutoff " +
+            "             ORDER BY r.due_date " +
+            "             LIMIT :chunkSize " +
+            "             FOR UPDATE SKIP LOCKED)",
+            nativeQuery = true)
+    int markOverdueChunk(@Param("cutoff") LocalDate cutoff, @Param("chunkSize") int chunkSize);
+
+    // Chunk do job de recebimento automático: (receivable id, bank id, amount) dos recebíveis devidos,
+    // com a renda extra na mesma consulta. FOR UPDATE OF r trava só os recebíveis (SKIP LOCKED para
+    // que execuções concorrentes não creditem o mesmo item duas vezes); bancos e rendas não são travados.
+    // Recebíveis cuja renda extra não tem banco ficam de fora (não há onde creditar).
+    @Query(value = "SELECT r.id, ei.bank_id, ei.amount FROM receivables r " +
+            "JOIN extra_income ei ON ei.id = r.extra_income_id " +
+            "WHERE r.status = 'PENDING' AND r.automatic_bank_receipt = true AND r.due_date <= :cutoff " +
+            "AND ei.bank_id IS NOT NULL " +
+            "ORDER BY r.due_date, r.id " +
+            "LIMIT :chunkSize " +
+            "FOR UPDATE OF r SKIP LOCKED",
+            nativeQuery = true)
+    List<Object[]> lockAutoReceiptChunk(@Param("cutoff") LocalDate cutoff, @Param("chunkSize") int chunkSize);
+
+    // Data de vencimento mais antiga ainda com o status informado (usada na métrica de atraso dos jobs)
+    @Query("SELECT MIN(r.dueDate) FROM Receivable r WHERE r.status = :status AND r.dueDate < :date " +
+            "AND (:automaticOnly = false OR r.automaticBankReceipt = true)")
+    LocalDate findOldestDueDateByStatusBefore(@Param("status") ReceivableStatusEnum status,
+                                              @Param("date") LocalDate date,
+                                              @Param("automaticOnly") boolean automaticOnly);
+
+    // Items loaded into the due-date scheduler: receivables with the given status due in [:from, :until)
+    @Query("SELECT new fincontrol.com.fincontrol.dto.DueItemDto(r.id, r.dueDate, " +
+            "CASE WHEN r.automaticBankReceipt = true THEN true ELSE false END) " +
+            "FROM Receivable r WHERE r.status = :status AND r.dueDate >= :from AND r.dueDate < :until")
+    List<DueItemDto> findDueItems(@Param("status") ReceivableStatusEnum status, @Param("from") LocalDate from,
+                                  @Param("until") LocalDate until);
+
+    // Targeted OVERDUE transition fired by the due-date scheduler (no-op for receivables no longer pending)
+    @Modifying
+    @Query("UPDATE Receivable r SET r.status = :overdue, r.updatedAt = LOCAL DATETIME " +
+            "WHERE r.id IN :ids AND r.status = :pending AND r.dueDate < :today")
+    int markOverdueByIds(@Param("ids") List<UUID> ids,
+                         @Param("pending") ReceivableStatusEnum pending,
+                         @Param("overdue") ReceivableStatusEnum overdue,
+                         @Param("today") LocalDate today);
+
+    // Same as lockAutoReceiptChunk, restricted to the given receivables (due-date scheduler)
+    @Query(value = "SELECT r.id, ei.bank_id, ei.amount FROM receivables r " +
+            "JOIN extra_income ei ON ei.id = r.extra_income_id " +
+            "WHERE r.id IN (:ids) AND r.status = 'PENDING' AND r.automatic_bank_receipt = true " +
+            "AND r.due_date <= :today AND ei.bank_id IS NOT NULL " +
+            "FOR UPDATE OF r SKIP LOCKED",
+            nativeQuery = true)
+    List<Object[]> lockAutoReceiptCandidatesByIds(@Param("ids") List<UUID> ids, @Param("today") LocalDate today);
+
+    @Modifying
+    @Query("UPDATE Receivable r SET r.status = :received, r.updatedAt = LOCAL DATETIME " +
+            "WHERE r.id IN :ids AND r.status = :pending")
+    int markReceivedByIds(@Param("ids") List<UUID> ids,
+                          @Param("pending") ReceivableStatusEnum pending,
+                          @Param("received") ReceivableStatusEnum received);
+
+    // Forecast source: (dueDate, bank id, extra income amount) of the user's open receivables up to :until, in due order
+    @Query("SELECT r.dueDate, bk.id, ei.amount FROM Receivable r JOIN r.extraIncome ei LEFT JOIN ei.bank bk " +
+            "WHERE r.user.id = :userId AND r.status IN :statuses AND r.dueDate <= :until " +
+            "ORDER BY r.dueDate")
+    Stream<Object[]> streamForecastInflows(@Param("userId") UUID userId,
+                                           @Param("statuses") Collection<ReceivableStatusEnum> statuses,
+                                           @Param("until") LocalDate until);
+
+    // Account deletion: removes up to :limit of the user's rows in one set-based statement
+    @Modifying
+    @Query(value = "DELETE FROM receivables WHERE id IN (SELECT id FROM receivables WHERE user_id = :userId LIMIT :limit)", nativeQuery = true)
+    int deleteChunkByUserId(@Param("userId") UUID userId, @Param("limit") int limit);
+}
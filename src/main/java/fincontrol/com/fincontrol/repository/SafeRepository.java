@@ -2,8 +2,16 @@ package fincontrol.com.fincontrol.repository;
 
 import fincontrol.com.fincontrol.model.Safe;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.UUID;
 
 public interface SafeRepository extends JpaRepository<Safe, UUID> {
+
+    // Account deletion: removes up to :limit of the user's rows in one set-based statement
+    @Modifying
+    @Query(value = "DELETE FROM safes WHERE id IN (SELECT id FROM safes WHERE user_id = :userId LIMIT :limit)", nativeQuery = true)
+    int deleteChunkByUserId(@Param("userId") UUID userId, @Param("limit") int limit);
 }
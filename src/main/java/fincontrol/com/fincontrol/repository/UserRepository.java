@@ -1,11 +1,45 @@
 package fincontrol.com.fincontrol.repository;
 
+import fincontrol.com.fincontrol.dto.UserDto;
 import fincontrol.com.fincontrol.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, UUID> {
+    // Login/cadastro: resultado no cache de query (região users.queries), invalidado a cada escrita em users
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "users.queries")})
     Optional<User> findByEmail(String email);
+
+    // Keyset listing ordered by the unique email; selects only the UserDto columns (never password_hash).
+    // Unused filters are passed as '%' and the first page as an empty cursor, so the SQL shape is fixed.
+    @Query("SELECT new fincontrol.com.fincontrol.dto.UserDto(u.id, u.name, u.email, u.salary, u.createdAt, u.updatedAt) " +
+            "FROM User u " +
+            "WHERE u.email > :afterEmail AND u.email LIKE :emailPattern ESCAPE '\\' " +
+            "AND LOWER(u.name) LIKE :namePattern ESCAPE '\\' " +
+            "ORDER BY u.email")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"))
+    Stream<UserDto> streamUserPage(@Param("afterEmail") String afterEmail,
+                                   @Param("emailPattern") String emailPattern,
+                                   @Param("namePattern") String namePattern,
+                                   Limit limit);
+
+    // Account deletion: locks the user row (FOR UPDATE), so inserts that reference the user wait for the last step
+    @Query(value = "SELECT id FROM users WHERE id = :userId FOR UPDATE", nativeQuery = true)
+    Optional<UUID> lockRowById(@Param("userId") UUID userId);
+
+    // Account deletion: last step, once every dependent row is gone
+    @Modifying
+    @Query(value = "DELETE FROM users WHERE id = :userId", nativeQuery = true)
+    int deleteRowById(@Param("userId") UUID userId);
 }
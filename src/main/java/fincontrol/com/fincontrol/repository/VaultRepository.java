@@ -2,8 +2,12 @@ package fincontrol.com.fincontrol.repository;
 
 import fincontrol.com.fincontrol.model.Vault;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,5 +19,41 @@ public interface VaultRepository extends JpaRepository<Vault, UUID> {
 
     Optional<Vault> findByIdAndUserId(UUID id, UUID userId);
 
+    boolean existsByIdAndUserId(UUID id, UUID userId);
+
     List<Vault> findAllByBankIdAndUserId(UUID bankId, UUID userId);
-}
\ No newline at end of file
+
+    // Vault with its (optional) bank in one select, for deposit/withdraw
+    @Query("SELECT v FROM Vault v LEFT JOIN FETCH v.bank WHERE v.id = :id AND v.user.id = :userId")
+    Optional<Vault> findWithBankByIdAndUserId(@Param("id") UUID id, @Param("userId") UUID userId);
+
+    // Atomic credit (amount = amount + :amount) in a single UPDATE
+    @Modifying
+    @Query("UPDATE Vault v SET v.amount = v.amount + :amount, v.updatedAt = LOCAL DATETIME WHERE v.id = :id")
+    int addToAmount(@Param("id") UUID id, @Param("amount") BigDecimal amount);
+
+    // Conditional atomic debit: only applied when the vault holds the amount (returns 0 otherwise)
+    @Modifying
+    @Query("UPDATE Vault v SET v.amount = v.amount - :amount, v.updatedAt = LOCAL DATETIME " +
+            "WHERE v.id = :id AND v.amount >= :amount")
+    int subtractFromAmountIfSufficient(@Param("id") UUID id, @Param("amount") BigDecimal amount);
+
+    // Deletes the vault and returns the amount it held at that moment (empty if it was already gone);
+    // the row lock makes it wait for, and then see, any deposit/withdrawal still in flight
+    @Query(value = "DELETE FROM vaults WHERE id = :id AND user_id = :userId RETURNING amount", nativeQuery = true)
+    Optional<BigDecimal> deleteReturningAmount(@Param("id") UUID id, @Param("userId") UUID userId);
+
+    // Deletes the vault only if it is empty (returns 0 otherwise), for vaults without a bank to return the money to
+    @Modifying
+    @Query(value = "DELETE FROM vaults WHERE id = :id AND user_id = :userId AND amount = 0", nativeQuery = true)
+    int deleteIfEmpty(@Param("id") UUID id, @Param("userId") UUID userId);
+
+    // Current amount read straight from the database (the row is already locked by the UPDATE above)
+    @Query("SELECT v.amount FROM Vault v WHERE v.id = :id")
+    BigDecimal findAmountById(@Param("id") UUID id);
+
+    // Account deletion: removes up to :limit of the user's rows in one set-based statement
+    @Modifying
+    @Query(value = "DELETE FROM vaults WHERE id IN (SELECT id FROM vaults WHERE user_id = :userId LIMIT :limit)", nativeQuery = true)
+    int deleteChunkByUserId(@Param("userId") UUID userId, @Param("limit") int limit);
+}
@@ -0,0 +1,84 @@
+package fincontrol.com.fincontrol.repository;
+
+import fincontrol.com.fincontrol.model.VaultTransaction;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface VaultTransactionRepository extends JpaRepository<VaultTransaction, UUID> {
+
+    // First keyset page, newest first; served by idx_vault_transactions_vault_created_id
+    @Query("SELECT t FROM VaultTransaction t WHERE t.vault.id = :vaultId ORDER BY t.createdAt DESC, t.id DESC")
+    List<VaultTransaction> findLatestByVaultId(@Param("vaultId") UUID vaultId, Limit limit);
+
+    // Next keyset page: entries strictly older than the (createdAt, id) cursor
+    @Query("SELECT t FROM VaultTransaction t WHERE t.vault.id = :vaultId " +
+            "AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    List<VaultTransaction> findByVaultIdBefore(@Param("vaultId") UUID vaultId,
+                                               @Param("createdAt") LocalDateTime createdAt,
+                                               @Param("id") UUID id,
+                                               Limit limit);
+
+    /**
+     * Daily balance series (day, net change, closing balance) for [from, to], one row per day.
+     * The closing balance of a day is the balance_after of its last entry (ROW_NUMBER per day);
+     * days without entries carry the previous close forward (COUNT/MAX over the running group),
+     * starting from the last entry before {@code from}. Null before the vault's first entry.
+     */
+    @Query(value = """
+            WITH day_entries AS (
+                SELECT CAST(t.created_at AS date) AS day,
+                       t.balance_after,
+                       SUM(CASE WHEN t.type = 'WITHDRAWAL' THEN -t.amount ELSE t.amount END)
+                           OVER (PARTITION BY CAST(t.created_at AS date)) AS net,
+                       ROW_NUMBER() OVER (PARTITION BY CAST(t.created_at AS date)
+                                          ORDER BY t.created_at DESC, t.id DESC) AS rn
+                FROM vault_transactions t
+                WHERE t.vault_id = :vaultId
+                  AND t.created_at >= :fromTs AND t.created_at < :toExclusive
+            ),
+            closes AS (
+                SELECT day, balance_after, net FROM day_entries WHERE rn = 1
+            ),
+            opening AS (
+                SELECT (SELECT t.balance_after FROM vault_transactions t
+                        WHERE t.vault_id = :vaultId AND t.created_at < :fromTs
+                        ORDER BY t.created_at DESC, t.id DESC
+                        LIMIT 1) AS balance
+            ),
+            grid AS (
+                SELECT CAST(g.day AS date) AS day,
+                       c.balance_after,
+                       COALESCE(c.net, 0) AS net,
+                       COUNT(c.balance_after) OVER (ORDER BY g.day) AS grp
+                FROM generate_series(CAST(:fromDate AS date), CAST(:toDate AS date), INTERVAL '1 day') AS g(day)
+                LEFT JOIN closes c ON c.day = CAST(g.day AS date)
+            )
+            SELECT grid.day,
+                   grid.net,
+                   COALESCE(MAX(grid.balance_after) OVER (PARTITION BY grid.grp), opening.balance) AS balance
+            FROM grid CROSS JOIN opening
+            ORDER BY grid.day
+            """, nativeQuery = true)
+    List<Object[]> findDailyBalanceSeries(@Param("vaultId") UUID vaultId,
+                                          @Param("fromDate") LocalDate fromDate,
+                                          @Param("toDate") LocalDate toDate,
+                                          @Param("fromTs") LocalDateTime fromTs,
+                                          @Param("toExclusive") LocalDateTime toExclusive);
+
+    // Account deletion: removes up to :limit ledger rows of the user's vaults in one set-based statement
+    @Modifying
+    @Query(value = "DELETE FROM vault_transactions WHERE id IN (SELECT t.id FROM vault_transactions t " +
+            "JOIN vaults v ON v.id = t.vault_id WHERE v.user_id = :userId LIMIT :limit)", nativeQuery = true)
+    int deleteChunkByUserId(@Param("userId") UUID userId, @Param("limit") int limit);
+}
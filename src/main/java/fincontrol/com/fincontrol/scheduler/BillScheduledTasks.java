@@ -1,8 +1,11 @@
 package fincontrol.com.fincontrol.scheduler;
 
 import fincontrol.com.fincontrol.service.BillService; // Changed import
+import fincontrol.com.fincontrol.service.ChunkedJobRunner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
@@ -12,13 +15,24 @@ public class BillScheduledTasks { // Renamed class
     private static final Logger logger = LoggerFactory.getLogger(BillScheduledTasks.class);
 
     private final BillService billService; // Changed service type
+    private final ChunkedJobRunner chunkedJobRunner;
 
-    public BillScheduledTasks(BillService billService) { // Changed constructor parameter
+    public BillScheduledTasks(BillService billService, ChunkedJobRunner chunkedJobRunner) {
         this.billService = billService;
+        this.chunkedJobRunner = chunkedJobRunner;
     }
 
-    // Runs every day at 1:00 AM to mark bills as overdue
-    @Scheduled(cron = "0 0 1 * * ?")
+    // On startup, resumes an overdue sweep that was interrupted by a crash or a failed chunk
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedOverdueBills() {
+        if (chunkedJobRunner.hasInterruptedRun(BillService.OVERDUE_JOB_NAME)) {
+            logger.warn("Found interrupted overdue bills job, resuming it");
+            checkAndMarkOverdueBills();
+        }
+    }
+
+    // Runs every day at 1:00 AM (by default) to mark bills as overdue
+    @Scheduled(cron = "${fincontrol.jobs.bills-overdue.cron:0 0 1 * * ?}")
     public void checkAndMarkOverdueBills() {
         logger.info("Executing scheduled task: Check and Update Overdue Bills");
         try {
@@ -0,0 +1,59 @@
+package fincontrol.com.fincontrol.scheduler;
+
+import fincontrol.com.fincontrol.service.ChunkedJobRunner;
+import fincontrol.com.fincontrol.service.ReceivableService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ReceivableScheduledTasks {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReceivableScheduledTasks.class);
+
+    private final ReceivableService receivableService;
+    private final ChunkedJobRunner chunkedJobRunner;
+
+    public ReceivableScheduledTasks(ReceivableService receivableService, ChunkedJobRunner chunkedJobRunner) {
+        this.receivableService = receivableService;
+        this.chunkedJobRunner = chunkedJobRunner;
+    }
+
+    // On startup, resumes receivable jobs that were interrupted by a crash or a failed chunk
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        if (chunkedJobRunner.hasInterruptedRun(ReceivableService.AUTO_RECEIPT_JOB_NAME)) {
+            logger.warn("Found interrupted automatic bank receipts job, resuming it");
+            processAutomaticBankReceipts();
+        }
+        if (chunkedJobRunner.hasInterruptedRun(ReceivableService.OVERDUE_JOB_NAME)) {
+            logger.warn("Found interrupted overdue receivables job, resuming it");
+            checkAndMarkOverdueReceivables();
+        }
+    }
+
+    // Runs every day at 0:30 AM (by default), before the overdue sweep, to credit automatic receipts
+    @Scheduled(cron = "${fincontrol.jobs.receivables-auto-receipt.cron:0 30 0 * * ?}")
+    public void processAutomaticBankReceipts() {
+        logger.info("Executing scheduled task: Process Automatic Bank Receipts");
+        try {
+            receivableService.processAutomaticBankReceiptsJob();
+        } catch (Exception e) {
+            logger.error("Error executing automatic bank receipts job: ", e);
+        }
+    }
+
+    // Runs every day at 1:00 AM (by default) to mark receivables as overdue
+    @Scheduled(cron = "${fincontrol.jobs.receivables-overdue.cron:0 0 1 * * ?}")
+    public void checkAndMarkOverdueReceivables() {
+        logger.info("Executing scheduled task: Check and Update Overdue Receivables");
+        try {
+            receivableService.processOverdueReceivablesJob();
+        } catch (Exception e) {
+            logger.error("Error executing overdue receivables job: ", e);
+        }
+    }
+}
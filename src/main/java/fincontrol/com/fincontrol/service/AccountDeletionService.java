@@ -0,0 +1,372 @@
+package fincontrol.com.fincontrol.service;
+
+import fincontrol.com.fincontrol.dto.AccountDeletionJobDto;
+import fincontrol.com.fincontrol.exception.ResourceNotFoundException;
+import fincontrol.com.fincontrol.model.AccountDeletionJob;
+import fincontrol.com.fincontrol.model.enums.AccountDeletionStatus;
+import fincontrol.com.fincontrol.model.enums.AccountDeletionStep;
+import fincontrol.com.fincontrol.repository.*;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exclusão assíncrona de contas. O pedido só grava um {@link AccountDeletionJob} (QUEUED) e devolve
+ * o ID; um executor de thread única remove os dependentes etapa por etapa
+ * ({@link AccountDeletionStep}, em ordem segura de FK), em chunks de no máximo {@code chunk-size}
+ * linhas por DELETE, cada chunk em sua própria transação junto com o progresso do job.
+ * Na subida, jobs QUEUED/RUNNING são retomados da etapa gravada; os DELETEs são idempotentes.
+ *
+ * Enquanto o job está ativo o login é recusado, mas um token já emitido continua valendo, então o
+ * usuário ainda pode gravar linhas em tabelas cuja etapa já passou. Se uma dessas linhas impedir um
+ * DELETE (violação de FK), o job volta para a primeira etapa, no máximo {@value #MAX_REWINDS} vezes.
+ * A última etapa trava a linha do usuário (inserts que a referenciam passam a esperar) e varre de
+ * novo as etapas anteriores antes de remover o usuário, na mesma transação.
+ *
+ * Métricas: account.deletion.rows (contador, tag step), account.deletion.chunk (timer, tag step),
+ * account.deletion.jobs (contador, tag outcome) e account.deletion.jobs.inflight (gauge).
+ */
+@Service
+public class AccountDeletionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountDeletionService.class);
+
+    private static final List<AccountDeletionStatus> ACTIVE_STATUSES =
+            List.of(AccountDeletionStatus.QUEUED, AccountDeletionStatus.RUNNING);
+    private static final AccountDeletionStep[] STEPS = AccountDeletionStep.values();
+    private static final int MAX_REWINDS = 3;
+
+    private final AccountDeletionJobRepository jobRepository;
+    private final UserRepository userRepository;
+    private final ReceivableRepository receivableRepository;
+    private final BillRepository billRepository;
+    private final VaultTransactionRepository vaultTransactionRepository;
+    private final VaultRepository vaultRepository;
+    private final SafeRepository safeRepository;
+    private final PayableInstallmentRepository payableInstallmentRepository;
+    private final PayableRepository payableRepository;
+    private final ExpenseRepository expenseRepository;
+    private final ExtraIncomeRepository extraIncomeRepository;
+    private final BankRepository bankRepository;
+    private final CategoryRepository categoryRepository;
+    private final CategoryCache categoryCache;
+    private final ForecastService forecastService;
+    private final TransactionTemplate chunkTransaction;
+    private final MeterRegistry registry;
+    private final int chunkSize;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "account-deletion");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final Map<AccountDeletionStep, Counter> rowCounters = new EnumMap<>(AccountDeletionStep.class);
+    private final Map<AccountDeletionStep, Timer> chunkTimers = new EnumMap<>(AccountDeletionStep.class);
+
+    public AccountDeletionService(AccountDeletionJobRepository jobRepository,
+                                  UserRepository userRepository,
+                                  ReceivableRepository receivableRepository,
+                                  BillRepository billRepository,
+                                  VaultTransactionRepository vaultTransactionRepository,
+                                  VaultRepository vaultRepository,
+                                  SafeRepository safeRepository,
+                                  PayableInstallmentRepository payableInstallmentRepository,
+                                  PayableRepository payableRepository,
+                                  ExpenseRepository expenseRepository,
+                                  ExtraIncomeRepository extraIncomeRepository,
+                                  BankRepository bankRepository,
+                                  CategoryRepository categoryRepository,
+                                  CategoryCache categoryCache,
+                                  ForecastService forecastService,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry registry,
+                                  @Value("${fincontrol.jobs.account-deletion.chunk-size:1000}") int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+        this.jobRepository = jobRepository;
+        this.userRepository = userRepository;
+        this.receivableRepository = receivableRepository;
+        this.billRepository = billRepository;
+        this.vaultTransactionRepository = vaultTransactionRepository;
+        this.vaultRepository = vaultRepository;
+        this.safeRepository = safeRepository;
+        this.payableInstallmentRepository = payableInstallmentRepository;
+        this.payableRepository = payableRepository;
+        this.expenseRepository = expenseRepository;
+        this.extraIncomeRepository = extraIncomeRepository;
+        this.bankRepository = bankRepository;
+        this.categoryRepository = categoryRepository;
+        this.categoryCache = categoryCache;
+        this.forecastService = forecastService;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.registry = registry;
+        this.chunkSize = chunkSize;
+
+        Gauge.builder("account.deletion.jobs.inflight", inflight, AtomicInteger::get).register(registry);
+        for (AccountDeletionStep step : STEPS) {
+            rowCounters.put(step, Counter.builder("account.deletion.rows").baseUnit("rows")
+                    .tag("step", step.name()).register(registry));
+            chunkTimers.put(step, Timer.builder("account.deletion.chunk")
+                    .tag("step", step.name()).register(registry));
+        }
+    }
+
+    /**
+     * Agenda a exclusão da conta. Idempotente: se já houver um job ativo para o usuário, ele é
+     * devolvido. Um job que falhou não é reaproveitado; o novo recomeça da primeira etapa.
+     */
+    @Transactional
+    public AccountDeletionJobDto requestDeletion(UUID userId) {
+        AccountDeletionJob active = jobRepository.findFirstByUserIdAndStatusIn(userId, ACTIVE_STATUSES).orElse(null);
+        if (active != null) {
+            return toDto(active);
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("Usuário não encontrado com ID: " + userId + " para exclusão.");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        AccountDeletionJob job = new AccountDeletionJob();
+        job.setUserId(userId);
+        job.setStatus(AccountDeletionStatus.QUEUED);
+        job.setCurrentStep(STEPS[0]);
+        job.setRequestedAt(now);
+        job.setUpdatedAt(now);
+        AccountDeletionJob saved = jobRepository.save(job);
+        registry.counter("account.deletion.jobs", "outcome", "requested").increment();
+        logger.info("Account deletion requested for user {} (job {}).", userId, saved.getId());
+
+        UUID jobId = saved.getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Só enfileira depois do commit, para o executor enxergar o job
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(jobId);
+                }
+            });
+        } else {
+            submit(jobId);
+        }
+        return toDto(saved);
+    }
+
+    /**
+     * Indica se há uma exclusão agendada ou em andamento para o usuário.
+     */
+    @Transactional(readOnly = true)
+    public boolean isDeletionPending(UUID userId) {
+        return jobRepository.findFirstByUserIdAndStatusIn(userId, ACTIVE_STATUSES).isPresent();
+    }
+
+    @Transactional(readOnly = true)
+    public AccountDeletionJobDto getJob(UUID jobId) {
+        return jobRepository.findById(jobId)
+                .map(this::toDto)
+                .orElseThrow(() -> new ResourceNotFoundException("Job de exclusão não encontrado com ID: " + jobId));
+    }
+
+    // Retoma os jobs interrompidos por uma queda ou que ainda estavam na fila
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        for (AccountDeletionJob job : jobRepository.findAllByStatusInOrderByRequestedAt(ACTIVE_STATUSES)) {
+            logger.warn("Resuming account deletion job {} for user {} at step {} ({} rows already deleted).",
+                    job.getId(), job.getUserId(), job.getCurrentStep(), job.getRowsDeleted());
+            submit(job.getId());
+        }
+    }
+
+    private void submit(UUID jobId) {
+        inflight.incrementAndGet();
+        executor.execute(() -> {
+            try {
+                run(jobId);
+            } finally {
+                inflight.decrementAndGet();
+            }
+        });
+    }
+
+    private void run(UUID jobId) {
+        UUID userId = chunkTransaction.execute(status -> {
+            AccountDeletionJob job = jobRepository.findById(jobId).orElse(null);
+            if (job == null || !ACTIVE_STATUSES.contains(job.getStatus())) {
+                return null;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            job.setStatus(AccountDeletionStatus.RUNNING);
+            if (job.getStartedAt() == null) {
+                job.setStartedAt(now);
+            }
+            job.setUpdatedAt(now);
+            return job.getUserId();
+        });
+        if (userId == null) {
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        try {
+            boolean completed = false;
+            int rewinds = 0;
+            while (!completed) {
+                try {
+                    completed = Boolean.TRUE.equals(chunkTransaction.execute(status -> processChunk(jobId, userId)));
+                } catch (DataIntegrityViolationException e) {
+                    // Linha gravada depois que a etapa dela passou ainda referencia a tabela desta etapa
+                    if (++rewinds > MAX_REWINDS) {
+                        throw e;
+                    }
+                    logger.warn("Account deletion job {} for user {} hit rows written during the job; restarting from {} ({}/{}).",
+                            jobId, userId, STEPS[0], rewinds, MAX_REWINDS);
+                    chunkTransaction.executeWithoutResult(status -> {
+                        AccountDeletionJob job = jobRepository.getReferenceById(jobId);
+                        job.setCurrentStep(STEPS[0]);
+                        job.setUpdatedAt(LocalDateTime.now());
+                    });
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.error("Account deletion job {} for user {} failed.", jobId, userId, e);
+            registry.counter("account.deletion.jobs", "outcome", "failed").increment();
+            String error = e.getMessage() == null ? e.getClass().getName() : e.getMessage();
+            chunkTransaction.executeWithoutResult(status -> jobRepository.findById(jobId).ifPresent(job -> {
+                job.setStatus(AccountDeletionStatus.FAILED);
+                job.setUpdatedAt(LocalDateTime.now());
+                job.setLastError(error.length() > 500 ? error.substring(0, 500) : error);
+            }));
+            return;
+        }
+
+        categoryCache.evict(userId);
+        forecastService.evict(userId);
+        registry.counter("account.deletion.jobs", "outcome", "completed").increment();
+        logger.info("Account deletion job {} for user {} completed in {} s.", jobId, userId,
+                String.format("%.3f", (System.nanoTime() - startNanos) / 1e9));
+    }
+
+    /**
+     * Um chunk da etapa atual. Uma etapa termina quando o DELETE remove menos linhas que o
+     * chunk; a última (USER) remove o próprio usuário e encerra o job na mesma transação.
+     *
+     * @return true quando o job foi concluído
+     */
+    private boolean processChunk(UUID jobId, UUID userId) {
+        AccountDeletionJob job = jobRepository.getReferenceById(jobId);
+        AccountDeletionStep step = job.getCurrentStep();
+
+        int deleted = step == AccountDeletionStep.USER ? deleteUser(userId) : timedDeleteChunk(step, userId);
+
+        LocalDateTime now = LocalDateTime.now();
+        job.setRowsDeleted(job.getRowsDeleted() + deleted);
+        job.setChunksCommitted(job.getChunksCommitted() + 1);
+        job.setUpdatedAt(now);
+        if (step == AccountDeletionStep.USER) {
+            job.setStatus(AccountDeletionStatus.COMPLETED);
+            job.setFinishedAt(now);
+            return true;
+        }
+        if (deleted < chunkSize) {
+            job.setCurrentStep(STEPS[step.ordinal() + 1]);
+        }
+        return false;
+    }
+
+    /**
+     * Última etapa: com a linha do usuário travada, nenhuma linha nova que o referencie pode ser
+     * gravada; as linhas gravadas depois que a etapa delas passou são removidas de novo, na ordem
+     * das etapas, e só então o usuário.
+     */
+    private int deleteUser(UUID userId) {
+        userRepository.lockRowById(userId);
+        int swept = 0;
+        for (AccountDeletionStep step : STEPS) {
+            if (step == AccountDeletionStep.USER) {
+                break;
+            }
+            int deleted;
+            do {
+                deleted = timedDeleteChunk(step, userId);
+                swept += deleted;
+            } while (deleted == chunkSize);
+        }
+        if (swept > 0) {
+            logger.info("Account deletion for user {}: {} rows written during the job removed before the user row.", userId, swept);
+        }
+        return swept + timedDeleteChunk(AccountDeletionStep.USER, userId);
+    }
+
+    private int timedDeleteChunk(AccountDeletionStep step, UUID userId) {
+        long chunkStart = System.nanoTime();
+        int deleted = deleteChunk(step, userId);
+        chunkTimers.get(step).record(Duration.ofNanos(System.nanoTime() - chunkStart));
+        rowCounters.get(step).increment(deleted);
+        return deleted;
+    }
+
+    private int deleteChunk(AccountDeletionStep step, UUID userId) {
+        return switch (step) {
+            case RECEIVABLES -> receivableRepository.deleteChunkByUserId(userId, chunkSize);
+            case BILLS -> billRepository.deleteChunkByUserId(userId, chunkSize);
+            case VAULT_TRANSACTIONS -> vaultTransactionRepository.deleteChunkByUserId(userId, chunkSize);
+            case VAULTS -> vaultRepository.deleteChunkByUserId(userId, chunkSize);
+            case SAFES -> safeRepository.deleteChunkByUserId(userId, chunkSize);
+            case PAYABLE_INSTALLMENTS -> payableInstallmentRepository.deleteChunkByUserId(userId, chunkSize);
+            case PAYABLES -> payableRepository.deleteChunkByUserId(userId, chunkSize);
+            case EXPENSES -> expenseRepository.deleteChunkByUserId(userId, chunkSize);
+            case EXTRA_INCOME -> extraIncomeRepository.deleteChunkByUserId(userId, chunkSize);
+            case BANKS -> bankRepository.deleteChunkByUserId(userId, chunkSize);
+            case CATEGORIES -> categoryRepository.deleteChunkByUserId(userId, chunkSize);
+            case USER -> userRepository.deleteRowById(userId);
+        };
+    }
+
+    private AccountDeletionJobDto toDto(AccountDeletionJob job) {
+        return new AccountDeletionJobDto(
+                job.getId(),
+                job.getUserId(),
+                job.getStatus(),
+                job.getCurrentStep(),
+                job.getRowsDeleted(),
+                job.getChunksCommitted(),
+                job.getRequestedAt(),
+                job.getStartedAt(),
+                job.getFinishedAt(),
+                job.getLastError()
+        );
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Um chunk interrompido é desfeito pela transação; o job continua RUNNING e é retomado na subida
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,210 @@
+package fincontrol.com.fincontrol.service;
+
+import fincontrol.com.fincontrol.dto.BillAutoPayCandidateDto;
+import fincontrol.com.fincontrol.model.Bank;
+import fincontrol.com.fincontrol.model.enums.BillStatus;
+import fincontrol.com.fincontrol.repository.BankRepository;
+import fincontrol.com.fincontrol.repository.BillRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Motor de pagamento automático de contas.
+ * Carrega as contas devidas (com banco e despesa) em uma única consulta, agrupa por banco e
+ * processa cada grupo em sua própria transação: o banco é travado uma única vez (FOR UPDATE)
+ * e os débitos são aplicados em ordem de vencimento. Os grupos rodam em paralelo em um
+ * executor de tamanho fixo, e a falha de um banco não desfaz os pagamentos dos demais.
+ */
+@Component
+public class BillAutoPayEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(BillAutoPayEngine.class);
+
+    // Limite de parâmetros por cláusula IN nas consultas por lista de IDs
+    private static final int IN_CLAUSE_BATCH = 1000;
+
+    private final BillRepository billRepository;
+    private final BankRepository bankRepository;
+    private final TransactionTemplate bankTransaction;
+    private final ExecutorService executor;
+
+    private final Counter paidCounter;
+    private final Counter insufficientCounter;
+    private final Counter failedBankCounter;
+
+    public BillAutoPayEngine(BillRepository billRepository,
+                             BankRepository bankRepository,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry registry,
+                             @Value("${fincontrol.jobs.bills-autopay.parallelism:4}") int parallelism) {
+        this.billRepository = billRepository;
+        this.bankRepository = bankRepository;
+        this.bankTransaction = new TransactionTemplate(transactionManager);
+        this.bankTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+            Thread thread = new Thread(runnable, "bill-autopay-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.paidCounter = Counter.builder("bills.autopay.paid").register(registry);
+        this.insufficientCounter = Counter.builder("bills.autopay.insufficient").register(registry);
+        this.failedBankCounter = Counter.builder("bills.autopay.failed.banks").register(registry);
+    }
+
+    /**
+     * Resultado de uma execução: contas pagas, contas sem saldo suficiente,
+     * bancos processados e bancos cujo grupo falhou (e foi revertido).
+     */
+    public record RunReport(int paid, int insufficient, int banks, int failedBanks) {
+    }
+
+    private record BankResult(int paid, int insufficient) {
+    }
+
+    /**
+     * Paga as contas com pagamento automático PENDING vencendo até {@code today}.
+     * Contas de dias anteriores que ainda estiverem PENDING são pagas como PAID_LATE.
+     */
+    public RunReport run(LocalDate today) {
+        return payCandidates(billRepository.findAutoPayCandidates(BillStatus.PENDING, today), today);
+    }
+
+    /**
+     * Mesmo processamento de {@link #run(LocalDate)}, restrito às contas informadas
+     * (disparos do DueDateScheduler no instante de vencimento).
+     */
+    public RunReport payBills(List<UUID> billIds, LocalDate today) {
+        List<BillAutoPayCandidateDto> candidates = new ArrayList<>();
+        for (List<UUID> batch : partition(billIds)) {
+            candidates.addAll(billRepository.findAutoPayCandidatesByIds(batch, BillStatus.PENDING, today));
+        }
+        return payCandidates(candidates, today);
+    }
+
+    private RunReport payCandidates(List<BillAutoPayCandidateDto> candidates, LocalDate today) {
+        // As consultas já vêm ordenadas por banco e vencimento; LinkedHashMap preserva essa ordem
+        Map<UUID, List<BillAutoPayCandidateDto>> byBank = new LinkedHashMap<>();
+        for (BillAutoPayCandidateDto candidate : candidates) {
+            byBank.computeIfAbsent(candidate.getBankId(), id -> new ArrayList<>()).add(candidate);
+        }
+
+        Map<UUID, Future<BankResult>> futures = new LinkedHashMap<>();
+        for (Map.Entry<UUID, List<BillAutoPayCandidateDto>> group : byBank.entrySet()) {
+            futures.put(group.getKey(), executor.submit(() -> payBankGroup(group.getKey(), group.getValue(), today)));
+        }
+
+        int paid = 0;
+        int insufficient = 0;
+        int failedBanks = 0;
+        for (Map.Entry<UUID, Future<BankResult>> entry : futures.entrySet()) {
+            try {
+                BankResult result = entry.getValue().get();
+                paid += result.paid();
+                insufficient += result.insufficient();
+            } catch (ExecutionException e) {
+                failedBanks++;
+                logger.error("Automatic payment for bank ID {} failed and was rolled back.", entry.getKey(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for automatic payments", e);
+            }
+        }
+
+        paidCounter.increment(paid);
+        insufficientCounter.increment(insufficient);
+        failedBankCounter.increment(failedBanks);
+        return new RunReport(paid, insufficient, byBank.size(), failedBanks);
+    }
+
+    private BankResult payBankGroup(UUID bankId, List<BillAutoPayCandidateDto> bills, LocalDate today) {
+        return bankTransaction.execute(status -> {
+            Bank bank = bankRepository.findByIdForUpdate(bankId).orElse(null);
+            if (bank == null) {
+                logger.error("Bank ID {} not found for {} automatic payments.", bankId, bills.size());
+                return new BankResult(0, 0);
+            }
+
+            List<UUID> ids = bills.stream().map(BillAutoPayCandidateDto::getBillId).toList();
+            Set<UUID> stillPending = new HashSet<>();
+            for (List<UUID> batch : partition(ids)) {
+                stillPending.addAll(billRepository.lockPendingIds(batch));
+            }
+
+            BigDecimal balance = bank.getBalance();
+            List<UUID> paidOnTime = new ArrayList<>();
+            List<UUID> paidLate = new ArrayList<>();
+            int insufficient = 0;
+
+            for (BillAutoPayCandidateDto bill : bills) {
+                if (!stillPending.contains(bill.getBillId())) {
+                    continue; // Paga manualmente (ou removida) depois da leitura inicial
+                }
+                if (balance.compareTo(bill.getAmount()) >= 0) {
+                    balance = balance.subtract(bill.getAmount());
+                    if (bill.getDueDate().isBefore(today)) {
+                        paidLate.add(bill.getBillId());
+                    } else {
+                        paidOnTime.add(bill.getBillId());
+                    }
+                } else {
+                    insufficient++;
+                    logger.error("Bank ({}) (ID: {}) has insufficient balance to pay bill (ID: {}). Bill amount: {}, Bank balance: {}.",
+                            bill.getBankName(), bankId, bill.getBillId(), bill.getAmount(), balance);
+                }
+            }
+
+            bank.setBalance(balance);
+            for (List<UUID> batch : partition(paidOnTime)) {
+                billRepository.markPaid(batch, BillStatus.PAID, today);
+            }
+            for (List<UUID> batch : partition(paidLate)) {
+                billRepository.markPaid(batch, BillStatus.PAID_LATE, today);
+            }
+            int paid = paidOnTime.size() + paidLate.size();
+            if (paid > 0) {
+                logger.info("{} bills paid automatically from bank {} (ID: {}). New balance: {}.",
+                        paid, bank.getName(), bankId, balance);
+            }
+            return new BankResult(paid, insufficient);
+        });
+    }
+
+    private static List<List<UUID>> partition(List<UUID> ids) {
+        List<List<UUID>> batches = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += IN_CLAUSE_BATCH) {
+            batches.add(ids.subList(from, Math.min(ids.size(), from + IN_CLAUSE_BATCH)));
+        }
+        return batches;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -9,39 +9,55 @@ import fincontrol.com.fincontrol.repository.*; // Importa todos os repositórios
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.List;
+import java.time.LocalDateTime;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 public class BillService {
 
     private static final Logger logger = LoggerFactory.getLogger(BillService.class);
 
+    public static final String OVERDUE_JOB_NAME = "bills.overdue";
+
     private final BillRepository billRepository;
     private final UserRepository userRepository;
     private final ExpenseRepository expenseRepository; // Repositório de Despesas
     private final BankRepository bankRepository;
-    private final CategoryRepository categoryRepository;
+    private final CategoryCache categoryCache;
+    private final ChunkedJobRunner chunkedJobRunner;
+    private final BillAutoPayEngine billAutoPayEngine;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int overdueChunkSize;
 
 
     public BillService(BillRepository billRepository,
                        UserRepository userRepository,
                        ExpenseRepository expenseRepository, // Injetar ExpenseRepository
                        BankRepository bankRepository,
-                       CategoryRepository categoryRepository) {
+                       CategoryCache categoryCache,
+                       ChunkedJobRunner chunkedJobRunner,
+                       BillAutoPayEngine billAutoPayEngine,
+                       ApplicationEventPublisher eventPublisher,
+                       @Value("${fincontrol.jobs.bills-overdue.chunk-size:500}") int overdueChunkSize) {
         this.billRepository = billRepository;
         this.userRepository = userRepository;
         this.expenseRepository = expenseRepository; // Atribuir
         this.bankRepository = bankRepository;
-        this.categoryRepository = categoryRepository;
+        this.categoryCache = categoryCache;
+        this.chunkedJobRunner = chunkedJobRunner;
+        this.billAutoPayEngine = billAutoPayEngine;
+        this.eventPublisher = eventPublisher;
+        this.overdueChunkSize = overdueChunkSize;
     }
 
     private User findUserById(UUID userId) {
@@ -82,6 +98,7 @@ public class BillService {
         }
 
         Bill savedBill = billRepository.save(bill);
+        publishDueChange(savedBill);
         return toResponseDto(savedBill);
     }
 
@@ -91,16 +108,26 @@ public class BillService {
         return toResponseDto(bill);
     }
 
-    public List<BillResponseDto> getAllBillsFiltered(UUID userId, BillStatus status, UUID expenseCategoryId, UUID bankId) {
-        findUserById(userId);
-
-        Specification<Bill> spec = Specification.where(BillSpecifications.hasUserId(userId));
+    /**
+     * Listagem paginada de contas em uma única consulta: os filtros e o fetch de user, expense,
+     * expense.category e bank fazem parte do mesmo SELECT. Filtros de categoria ou banco
+     * inexistentes (ou de outro usuário) dão 404, verificados pelo CategoryCache e pelo cache de
+     * segundo nível de Bank, em geral sem ida ao banco de dados.
+     * Em modo offset devolve um Page (com COUNT); em modo keyset ({@code keyset = true})
+     * devolve um Slice ordenado por (dueDate, id) a partir do cursor, sem COUNT.
+     */
+    @Transactional(readOnly = true)
+    public Slice<BillResponseDto> getAllBillsFiltered(UUID userId, BillStatus status, UUID expenseCategoryId, UUID bankId,
+                                                      Pageable pageable, boolean keyset,
+                                                      LocalDate afterDueDate, UUID afterId) {
+        Specification<Bill> spec = Specification.where(BillSpecifications.fetchDetails())
+                .and(BillSpecifications.hasUserId(userId));
 
         if (status != null) {
             spec = spec.and(BillSpecifications.hasStatus(status));
         }
         if (expenseCategoryId != null) {
-            categoryRepository.findById(expenseCategoryId)
+            categoryCache.findByIdAndUserId(expenseCategoryId, userId)
                     .orElseThrow(() -> new ResourceNotFoundException("Expense category not found with ID: " + expenseCategoryId));
             spec = spec.and(BillSpecifications.hasExpenseCategoryId(expenseCategoryId));
         }
@@ -109,9 +136,11 @@ public class BillService {
             spec = spec.and(BillSpecifications.hasBankId(bankId));
         }
 
-        return billRepository.findAll(spec).stream()
-                .map(this::toResponseDto)
-                .collect(Collectors.toList());
+        if (!keyset) {
+            return billRepository.findAll(spec, KeysetPagination.withIdTiebreaker(pageable)).map(this::toResponseDto);
+        }
+        return KeysetPagination.dueDateSlice(billRepository, spec, pageable.getPageSize(),
+                afterDueDate, afterId, this::toResponseDto);
     }
 
     @Transactional
@@ -162,6 +191,7 @@ public class BillService {
 
         if (updated) {
             bill = billRepository.save(bill);
+            publishDueChange(bill);
         }
         return toResponseDto(bill);
     }
@@ -172,6 +202,7 @@ public class BillService {
                 .orElseThrow(() -> new ResourceNotFoundException("Bill with ID " + billId + " not found or does not belong to the user."));
 
         billRepository.delete(bill);
+        eventPublisher.publishEvent(DueItemChangedEvent.removed(DueItemChangedEvent.Kind.BILL, bill.getId()));
     }
 
     @Transactional
@@ -190,54 +221,60 @@ public class BillService {
             bill.setStatus(BillStatus.PAID);
         }
         Bill savedBill = billRepository.save(bill);
+        publishDueChange(savedBill);
         return toResponseDto(savedBill);
     }
 
-    @Transactional
+    /**
+     * Marca como OVERDUE as contas PENDING vencidas, em chunks set-based que são
+     * confirmados individualmente. O progresso fica em batch_job_checkpoints, então
+     * uma execução interrompida é retomada com a mesma data de corte.
+     * Não é @Transactional de propósito: cada chunk abre sua própria transação.
+     */
     public void processOverdueBillsJob() {
         logger.info("Starting job to mark overdue bills...");
-        List<Bill> pendingOverdueBills = billRepository.findByStatusAndDueDateBefore(
-                BillStatus.PENDING,
-                LocalDate.now()
-        );
-        for (Bill bill : pendingOverdueBills) {
-            bill.setStatus(BillStatus.OVERDUE);
-            billRepository.save(bill);
-            logger.info("Bill ID {} marked as OVERDUE.", bill.getId());
-        }
-        logger.info("Overdue bills job finished. {} bills updated.", pendingOverdueBills.size());
+        long updated = chunkedJobRunner.run(overdueBillsJob, LocalDate.now(), overdueChunkSize);
+        logger.info("Overdue bills job finished. {} bills updated.", updated);
     }
 
-    @Transactional
-    public void processAutomaticPaymentsJob() {
-        logger.info("Starting job for automatic payments...");
-        LocalDate today = LocalDate.now();
-        List<Bill> billsToPayToday = billRepository
-                .findAllByAutoPayTrueAndStatusAndDueDateAndBankIsNotNull(
-                        BillStatus.PENDING,
-                        today
-                );
-
-        int successfullyPaidCount = 0;
-        for (Bill bill : billsToPayToday) {
-            Bank bank = bill.getBank();
-            Expense expense = bill.getExpense();
-
-            if (bank.getBalance().compareTo(expense.getValue()) >= 0) {
-                bank.setBalance(bank.getBalance().subtract(expense.getValue()));
-                bankRepository.save(bank);
-
-                bill.setPaymentDate(today);
-                bill.setStatus(BillStatus.PAID);
-                billRepository.save(bill);
-                successfullyPaidCount++;
-                logger.info("Bill ID {} paid automatically from bank {}. Bank balance updated.", bill.getId(), bank.getName());
-            } else {
-                logger.error("Bank ({}) (ID: {}) has insufficient balance to pay bill (ID: {}). Bill amount: {}, Bank balance: {}.",
-                        bank.getName(), bank.getId(), bill.getId(), expense.getValue(), bank.getBalance());
-            }
+    private final ChunkedJob overdueBillsJob = new ChunkedJob() {
+        @Override
+        public String name() {
+            return OVERDUE_JOB_NAME;
         }
-        logger.info("Automatic payments job finished. {} bills paid successfully.", successfullyPaidCount);
+
+        @Override
+        public int processChunk(LocalDate cutoff, int chunkSize) {
+            return billRepository.markOverdueChunk(cutoff, chunkSize);
+        }
+
+        @Override
+        public LocalDateTime oldestPendingSince(LocalDate cutoff) {
+            LocalDate oldestDueDate = billRepository.findOldestDueDateByStatusBefore(BillStatus.PENDING, cutoff);
+            // Uma conta vencida em D passa a estar atrasada a partir de D+1 00:00
+            return oldestDueDate == null ? null : oldestDueDate.plusDays(1).atStartOfDay();
+        }
+    };
+
+    /**
+     * Pagamento automático das contas vencendo hoje, delegado ao BillAutoPayEngine
+     * (uma transação por banco, bancos processados em paralelo).
+     */
+    public BillAutoPayEngine.RunReport processAutomaticPaymentsJob() {
+        logger.info("Starting job for automatic payments...");
+        BillAutoPayEngine.RunReport report = billAutoPayEngine.run(LocalDate.now());
+        logger.info("Automatic payments job finished. {} bills paid successfully, {} with insufficient balance, {} banks processed ({} failed).",
+                report.paid(), report.insufficient(), report.banks(), report.failedBanks());
+        return report;
+    }
+
+    private void publishDueChange(Bill bill) {
+        eventPublisher.publishEvent(new DueItemChangedEvent(
+                DueItemChangedEvent.Kind.BILL,
+                bill.getId(),
+                bill.getDueDate(),
+                bill.isAutoPay() && bill.getBank() != null,
+                bill.getStatus() == BillStatus.PENDING));
     }
 
     private BillResponseDto toResponseDto(Bill bill) {
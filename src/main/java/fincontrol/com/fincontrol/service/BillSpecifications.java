@@ -6,14 +6,34 @@ import fincontrol.com.fincontrol.model.Category;
 import fincontrol.com.fincontrol.model.Bank;
 import fincontrol.com.fincontrol.model.User;
 import fincontrol.com.fincontrol.model.enums.BillStatus;
+import jakarta.persistence.criteria.Fetch;
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.util.UUID;
 
 public class BillSpecifications {
 
+    /**
+     * Fetch plan of the bill listing: user, expense, expense.category and bank are loaded
+     * in the same select, so toResponseDto does not trigger lazy loads per row.
+     * Must be the first specification of the chain, so the filters below reuse these joins.
+     * Count queries (pagination) get no fetches.
+     */
+    public static Specification<Bill> fetchDetails() {
+        return (root, query, criteriaBuilder) -> {
+            if (!KeysetPagination.isCountQuery(query)) {
+                root.fetch("user");
+                Fetch<Bill, Expense> expenseFetch = root.fetch("expense");
+                expenseFetch.fetch("category");
+                root.fetch("bank", JoinType.LEFT);
+            }
+            return null;
+        };
+    }
+
     public static Specification<Bill> hasUserId(UUID userId) {
         return (root, query, criteriaBuilder) ->
                 criteriaBuilder.equal(root.get("user").get("id"), userId);
@@ -26,16 +46,32 @@ public class BillSpecifications {
 
     public static Specification<Bill> hasBankId(UUID bankId) {
         return (root, query, criteriaBuilder) -> {
-            Join<Bill, Bank> bankJoin = root.join("bank", JoinType.LEFT); // LEFT JOIN for optional bank
+            Join<Bill, Bank> bankJoin = joinOf(root, "bank", JoinType.LEFT); // LEFT JOIN for optional bank
             return criteriaBuilder.equal(bankJoin.get("id"), bankId);
         };
     }
 
     public static Specification<Bill> hasExpenseCategoryId(UUID categoryId) {
         return (root, query, criteriaBuilder) -> {
-            Join<Bill, Expense> expenseJoin = root.join("expense");
-            Join<Expense, Category> categoryJoin = expenseJoin.join("category");
-            return criteriaBuilder.equal(categoryJoin.get("id"), categoryId);
+            Join<Bill, Expense> expenseJoin = joinOf(root, "expense", JoinType.INNER);
+            // category.id is the FK column of expenses, no extra join to categories is needed
+            return criteriaBuilder.equal(expenseJoin.<Category>get("category").get("id"), categoryId);
         };
     }
+
+    // Reuses the fetch join of fetchDetails() (or an existing join) instead of joining the same table twice
+    @SuppressWarnings("unchecked")
+    private static <T> Join<Bill, T> joinOf(Root<Bill> root, String attribute, JoinType joinType) {
+        for (Fetch<Bill, ?> fetch : root.getFetches()) {
+            if (fetch.getAttribute().getName().equals(attribute) && fetch instanceof Join<?, ?>) {
+                return (Join<Bill, T>) fetch;
+            }
+        }
+        for (Join<Bill, ?> join : root.getJoins()) {
+            if (join.getAttribute().getName().equals(attribute)) {
+                return (Join<Bill, T>) join;
+            }
+        }
+        return root.join(attribute, joinType);
+    }
 }
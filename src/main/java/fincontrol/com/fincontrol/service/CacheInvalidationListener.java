@@ -0,0 +1,259 @@
+package fincontrol.com.fincontrol.service;
+
+import fincontrol.com.fincontrol.model.Bank;
+import fincontrol.com.fincontrol.model.Category;
+import fincontrol.com.fincontrol.model.User;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Invalidação entre instâncias dos caches em memória de User, Bank e Category: o cache de segundo
+ * nível do Hibernate (entidade + região de query do tipo), o {@link CategoryCache} e as projeções
+ * do {@link ForecastService}. Os triggers da migração V5 publicam no canal {@value #CHANNEL} cada
+ * linha gravada nessas tabelas, por qualquer caminho (entidade, UPDATE em massa, SQL manual), e esta
+ * classe escuta o canal numa conexão própria com o primário.
+ *
+ * Os triggers nascem desligados (V5). Uma instância com
+ * {@code fincontrol.cache.hibernate.notify-invalidation.enabled=true} os liga na subida; nenhuma
+ * instância os desliga, pois outra pode depender deles. Voltar a uma instância só e desligá-los
+ * ({@code ALTER TABLE ... DISABLE TRIGGER <tabela>_cache_notify}) é decisão de implantação; uma
+ * instância com a propriedade desligada só avisa no log se encontrar os triggers ligados.
+ *
+ * A instância também recebe os próprios avisos e descarta entradas que acabou de gravar: custa uma
+ * releitura. Entre o commit e a chegada do aviso (em geral milissegundos) as outras instâncias
+ * ainda podem ler o valor anterior. Ao (re)conectar, tudo é descartado, pois avisos enviados sem
+ * ninguém escutando se perdem.
+ */
+@Component
+public class CacheInvalidationListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationListener.class);
+
+    public static final String CHANNEL = "fincontrol_cache";
+
+    private static final List<String> TABLES = List.of("users", "banks", "categories");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final EntityManagerFactory entityManagerFactory;
+    private final CategoryCache categoryCache;
+    private final ForecastService forecastService;
+    private final boolean enabled;
+    private final Duration pollTimeout;
+    private final Duration reconnectDelay;
+    private final Duration secondPassDelay;
+    private final ScheduledExecutorService secondPass = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cache-invalidation-second-pass");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean running;
+    private volatile Connection connection;
+    private Thread thread;
+
+    public CacheInvalidationListener(JdbcTemplate jdbcTemplate,
+                                     DataSourceProperties dataSourceProperties,
+                                     EntityManagerFactory entityManagerFactory,
+                                     CategoryCache categoryCache,
+                                     ForecastService forecastService,
+                                     @Value("${fincontrol.cache.hibernate.notify-invalidation.enabled:false}") boolean enabled,
+                                     @Value("${fincontrol.cache.hibernate.notify-invalidation.poll-timeout:10s}") Duration pollTimeout,
+                                     @Value("${fincontrol.cache.hibernate.notify-invalidation.reconnect-delay:5s}") Duration reconnectDelay,
+                                     @Value("${fincontrol.cache.hibernate.notify-invalidation.second-pass-delay:2s}") Duration secondPassDelay) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.entityManagerFactory = entityManagerFactory;
+        this.categoryCache = categoryCache;
+        this.forecastService = forecastService;
+        this.enabled = enabled;
+        this.pollTimeout = pollTimeout;
+        this.reconnectDelay = reconnectDelay;
+        this.secondPassDelay = secondPassDelay;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            warnIfTriggersEnabled();
+            return;
+        }
+        enableTriggers();
+        running = true;
+        thread = new Thread(this::listen, "cache-invalidation-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        secondPass.shutdownNow();
+        closeQuietly(connection);
+        if (thread != null) {
+            thread.join(pollTimeout.toMillis());
+        }
+    }
+
+    /**
+     * Liga os triggers de NOTIFY que ainda estiverem desligados. Só emite o ALTER TABLE quando
+     * precisa, e nunca desliga um trigger.
+     */
+    void enableTriggers() {
+        for (String table : TABLES) {
+            String trigger = table + "_cache_notify";
+            if (!isTriggerEnabled(table, trigger)) {
+                jdbcTemplate.execute("ALTER TABLE " + table + " ENABLE TRIGGER " + trigger);
+                logger.info("Cache invalidation trigger {} enabled", trigger);
+            }
+        }
+    }
+
+    // Triggers ligados por outra instância: os avisos existem, mas esta não os escuta
+    private void warnIfTriggersEnabled() {
+        boolean anyEnabled = TABLES.stream().anyMatch(table -> isTriggerEnabled(table, table + "_cache_notify"));
+        if (anyEnabled) {
+            logger.warn("Cache invalidation triggers are enabled but this instance does not listen " +
+                    "(fincontrol.cache.hibernate.notify-invalidation.enabled=false): writes from other instances " +
+                    "only reach its caches when the entries expire.");
+        }
+    }
+
+    private boolean isTriggerEnabled(String table, String trigger) {
+        String state = jdbcTemplate.queryForObject(
+                "SELECT tgenabled FROM pg_trigger WHERE tgrelid = to_regclass(?) AND tgname = ?",
+                String.class, table, trigger);
+        return !"D".equals(state);
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection conn = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                connection = conn;
+                try (Statement statement = conn.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                evictAll();
+                logger.info("Listening for cache invalidations on channel {}", CHANNEL);
+                PGConnection pgConnection = conn.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollTimeout.toMillis());
+                    if (notifications == null || notifications.length == 0) {
+                        // Sem avisos no intervalo: confere se a conexão não caiu em silêncio
+                        if (!conn.isValid(5)) {
+                            throw new SQLException("Cache invalidation connection is no longer valid");
+                        }
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        try {
+                            handle(notification.getParameter());
+                        } catch (RuntimeException e) {
+                            logger.error("Error handling cache invalidation '{}': ", notification.getParameter(), e);
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                logger.warn("Cache invalidation listener disconnected, evicting all and reconnecting in {}: {}",
+                        reconnectDelay, e.getMessage());
+                evictAll();
+                try {
+                    Thread.sleep(reconnectDelay.toMillis());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            } finally {
+                connection = null;
+            }
+        }
+    }
+
+    /**
+     * Aplica um aviso "tabela:id:user_id" publicado pelo trigger notify_cache_invalidation, agora e
+     * de novo após {@code second-pass-delay}: uma leitura que começou antes do commit remoto ainda
+     * pode recolocar o valor antigo no cache logo depois da primeira remoção.
+     */
+    void handle(String payload) {
+        String[] parts = payload.split(":");
+        if (parts.length != 3) {
+            logger.warn("Ignoring malformed cache invalidation payload '{}'", payload);
+            return;
+        }
+        String table = parts[0];
+        UUID id = UUID.fromString(parts[1]);
+        UUID userId = UUID.fromString(parts[2]);
+        evict(table, id, userId);
+        secondPass.schedule(() -> evict(table, id, userId), secondPassDelay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void evict(String table, UUID id, UUID userId) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        switch (table) {
+            case "users" -> {
+                cache.evictEntityData(User.class, id);
+                cache.evictQueryRegion("users.queries");
+            }
+            case "banks" -> {
+                cache.evictEntityData(Bank.class, id);
+                cache.evictQueryRegion("banks.queries");
+                forecastService.evict(userId);
+            }
+            case "categories" -> {
+                cache.evictEntityData(Category.class, id);
+                cache.evictQueryRegion("categories.queries");
+                categoryCache.evict(userId);
+            }
+            default -> logger.warn("Ignoring cache invalidation for unknown table '{}'", table);
+        }
+    }
+
+    private void evictAll() {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictAllRegions();
+        categoryCache.evictAll();
+        forecastService.evictAll();
+    }
+
+    private static void closeQuietly(Connection conn) {
+        if (conn == null) {
+            return;
+        }
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            logger.debug("Error closing cache invalidation connection: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package fincontrol.com.fincontrol.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import fincontrol.com.fincontrol.model.Category;
+import fincontrol.com.fincontrol.repository.CategoryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Cache em memória (Caffeine) do conjunto de categorias de cada usuário.
+ * As categorias mudam raramente e são consultadas em quase toda escrita de despesas/contas,
+ * então as verificações de posse são atendidas a partir da memória.
+ * Toda escrita em categorias (CategoryService) deve chamar {@link #evict(UUID)}.
+ *
+ * O cache guarda cópias imutáveis ({@link Snapshot}), nunca as entidades: cada leitura devolve
+ * uma Category nova, destacada, que o chamador pode alterar ou associar a outra entidade sem
+ * afetar o que os demais threads e requisições recebem.
+ */
+@Component
+public class CategoryCache {
+
+    private final CategoryRepository categoryRepository;
+    private final Cache<UUID, Map<UUID, Snapshot>> cache;
+
+    public CategoryCache(CategoryRepository categoryRepository,
+                         MeterRegistry registry,
+                         @Value("${fincontrol.cache.categories.maximum-size:10000}") long maximumSize,
+                         @Value("${fincontrol.cache.categories.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.categoryRepository = categoryRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        // Publica hits, misses, evictions e tamanho como cache.* com a tag cache=categories
+        CaffeineCacheMetrics.monitor(registry, cache, "categories");
+    }
+
+    /**
+     * Lista as categorias do usuário, carregando do banco apenas em caso de miss.
+     */
+    public List<Category> findAllByUserId(UUID userId) {
+        List<Category> categories = new ArrayList<>();
+        for (Snapshot snapshot : categoriesOf(userId).values()) {
+            categories.add(snapshot.toCategory());
+        }
+        return categories;
+    }
+
+    /**
+     * Busca uma categoria do usuário (verificação de posse) a partir do cache.
+     */
+    public Optional<Category> findByIdAndUserId(UUID categoryId, UUID userId) {
+        if (categoryId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(categoriesOf(userId).get(categoryId)).map(Snapshot::toCategory);
+    }
+
+    /**
+     * Invalida o conjunto de categorias do usuário. Se houver uma transação ativa,
+     * invalida novamente após o commit, para que uma leitura concorrente não
+     * recoloque no cache um estado ainda não confirmado.
+     */
+    public void evict(UUID userId) {
+        cache.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Descarta o cache de todos os usuários (ex.: avisos de invalidação perdidos pelo
+     * CacheInvalidationListener enquanto estava desconectado).
+     */
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    private Map<UUID, Snapshot> categoriesOf(UUID userId) {
+        return cache.get(userId, id -> {
+            Map<UUID, Snapshot> byId = new LinkedHashMap<>();
+            for (Category category : categoryRepository.findAllByUserId(id)) {
+                byId.put(category.getId(), Snapshot.of(category));
+            }
+            return Collections.unmodifiableMap(byId);
+        });
+    }
+
+    /** Estado de uma categoria no momento da carga; imutável, compartilhado entre threads. */
+    record Snapshot(UUID id, UUID userId, String name, String description,
+                    LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+        static Snapshot of(Category category) {
+            return new Snapshot(category.getId(), category.getUserId(), category.getName(),
+                    category.getDescription(), category.getCreatedAt(), category.getUpdatedAt());
+        }
+
+        Category toCategory() {
+            Category category = new Category();
+            category.setId(id);
+            category.setUserId(userId);
+            category.setName(name);
+            category.setDescription(description);
+            category.setCreatedAt(createdAt);
+            category.setUpdatedAt(updatedAt);
+            return category;
+        }
+    }
+}
@@ -3,12 +3,12 @@ package fincontrol.com.fincontrol.service;
 import fincontrol.com.fincontrol.dto.CategoryCreateDto;
 import fincontrol.com.fincontrol.dto.CategoryMassUpdateDto;
 import fincontrol.com.fincontrol.dto.CategoryUpdateDto;
+import fincontrol.com.fincontrol.dto.CategoryUsageStatsDto;
 import fincontrol.com.fincontrol.exception.InvalidOperationException;
 import fincontrol.com.fincontrol.exception.ResourceNotFoundException;
 import fincontrol.com.fincontrol.model.Category;
 import fincontrol.com.fincontrol.model.User;
 import fincontrol.com.fincontrol.repository.CategoryRepository;
-import fincontrol.com.fincontrol.repository.ExpenseRepository;
 import fincontrol.com.fincontrol.repository.UserRepository;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.Authentication;
@@ -17,6 +17,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -26,14 +28,14 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final UserRepository userRepository;
-    private final ExpenseRepository expenseRepository;
+    private final CategoryCache categoryCache;
 
     public CategoryService(CategoryRepository categoryRepository,
                            UserRepository userRepository,
-                           ExpenseRepository expenseRepository) {
+                           CategoryCache categoryCache) {
         this.categoryRepository = categoryRepository;
         this.userRepository = userRepository;
-        this.expenseRepository = expenseRepository;
+        this.categoryCache = categoryCache;
     }
 
     /**
@@ -59,24 +61,59 @@ public class CategoryService {
     }
 
     /**
-     * Lista todas as categorias vinculadas ao usuário logado.
+     * Lista todas as categorias vinculadas ao usuário logado (servidas pelo CategoryCache).
      */
     public List<Category> listAllCategories() {
         User user = getAuthenticatedUser();
-        return categoryRepository.findAllByUserId(user.getId());
+        return categoryCache.findAllByUserId(user.getId());
     }
 
     /**
-     * Busca uma categoria específica (por ID) do usuário logado.
+     * Busca uma categoria específica (por ID) do usuário logado (servida pelo CategoryCache).
      */
     public Category getCategoryById(UUID categoryId) {
         User user = getAuthenticatedUser();
-        return categoryRepository.findByIdAndUserId(categoryId, user.getId())
+        return categoryCache.findByIdAndUserId(categoryId, user.getId())
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Categoria com ID " + categoryId + " não encontrada ou não pertence ao usuário."
                 ));
     }
 
+    /**
+     * Estatísticas de uso (quantidade, totais e última data) de cada categoria do usuário logado,
+     * calculadas no banco em uma única consulta agregada.
+     */
+    @Transactional(readOnly = true)
+    public List<CategoryUsageStatsDto> getCategoryUsageStats() {
+        User user = getAuthenticatedUser();
+        return categoryRepository.findUsageStatsByUserId(user.getId())
+                .stream()
+                .map(row -> new CategoryUsageStatsDto(
+                        (UUID) row[0],
+                        (String) row[1],
+                        ((Number) row[2]).longValue(),
+                        toBigDecimal(row[3]),
+                        ((Number) row[4]).longValue(),
+                        toBigDecimal(row[5]),
+                        toLocalDate(row[6])
+                ))
+                .collect(Collectors.toList());
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        return value instanceof BigDecimal ? (BigDecimal) value : new BigDecimal(value.toString());
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof java.sql.Date sqlDate) {
+            return sqlDate.toLocalDate();
+        }
+        return (LocalDate) value;
+    }
+
     /**
      * Cria uma nova categoria para o usuário logado.
      */
@@ -89,7 +126,9 @@ public class CategoryService {
         category.setName(dto.getName());
         category.setDescription(dto.getDescription());
 
-        return categoryRepository.save(category);
+        Category savedCategory = categoryRepository.save(category);
+        categoryCache.evict(user.getId());
+        return savedCategory;
     }
 
     /**
@@ -125,7 +164,9 @@ public class CategoryService {
         }
 
         if (needsUpdate) {
-            return categoryRepository.save(categoryToUpdate);
+            Category savedCategory = categoryRepository.save(categoryToUpdate);
+            categoryCache.evict(user.getId());
+            return savedCategory;
         }
         return categoryToUpdate;
     }
@@ -171,7 +212,9 @@ public class CategoryService {
             // O @PreUpdate na entidade pode atualizar updatedAt, se configurado.
         }
 
-        return categoryRepository.saveAll(userCategories);
+        List<Category> savedCategories = categoryRepository.saveAll(userCategories);
+        categoryCache.evict(user.getId());
+        return savedCategories;
     }
 
     /**
@@ -188,6 +231,7 @@ public class CategoryService {
 
         try {
             categoryRepository.delete(categoryToDelete);
+            categoryCache.evict(user.getId());
         } catch (DataIntegrityViolationException e) {
             throw new InvalidOperationException(
                     "Não é possível deletar a categoria '" +
@@ -200,28 +244,29 @@ public class CategoryService {
 
     /**
      * Deleta todas as categorias do usuário logado.
-     * Retorna a quantidade de categorias efetivamente deletadas.
-     * Se alguma estiver em uso por despesas, lança InvalidOperationException.
+     * As categorias em uso (por despesas, rendas extras ou contas) são obtidas em uma única
+     * consulta; se houver alguma, lança InvalidOperationException listando todas elas e nada é
+     * deletado. Caso contrário, remove tudo em um único DELETE em lote (anti-join, que também não
+     * apaga uma categoria que passe a ser usada entre a verificação e o DELETE).
+     * Retorna a quantidade de categorias deletadas.
      */
     @Transactional
     public int deleteAllCategories() {
         User user = getAuthenticatedUser();
-        List<Category> categoriesToDelete = categoryRepository.findAllByUserId(user.getId());
+        List<Category> categoriesInUse = categoryRepository.findAllInUseByUserId(user.getId());
 
-        if (categoriesToDelete.isEmpty()) {
-            return 0;
-        }
-
-        for (Category category : categoriesToDelete) {
-            if (expenseRepository.existsByCategoryIdAndUserId(category.getId(), user.getId())) {
-                throw new InvalidOperationException(
-                        "Não é possível deletar todas as categorias. " +
-                                "A categoria '" + category.getName() + "' (ID: " + category.getId() +
-                                ") está em uso por despesas."
-                );
-            }
+        if (!categoriesInUse.isEmpty()) {
+            String blocking = categoriesInUse.stream()
+                    .map(category -> "'" + category.getName() + "' (ID: " + category.getId() + ")")
+                    .collect(Collectors.joining(", "));
+            throw new InvalidOperationException(
+                    "Não é possível deletar todas as categorias. Nenhuma categoria foi deletada, pois as " +
+                            "seguintes estão em uso por despesas, rendas extras ou contas: " + blocking + "."
+            );
         }
 
-        return categoryRepository.deleteAllByUserId(user.getId());
+        int deletedCount = categoryRepository.deleteAllUnusedByUserId(user.getId());
+        categoryCache.evict(user.getId());
+        return deletedCount;
     }
 }
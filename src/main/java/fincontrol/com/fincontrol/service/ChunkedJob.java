@@ -0,0 +1,29 @@
+package fincontrol.com.fincontrol.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Unidade de trabalho de um job em lote executado pelo {@link ChunkedJobRunner}.
+ * Cada chamada de {@link #processChunk(LocalDate, int)} roda em sua própria transação
+ * e deve ser idempotente em relação ao que já foi processado (ex.: filtrar por status),
+ * para que o job possa ser retomado após uma queda.
+ */
+public interface ChunkedJob {
+
+    /** Nome estável do job, usado como chave do checkpoint e como tag das métricas. */
+    String name();
+
+    /**
+     * Processa no máximo {@code chunkSize} linhas elegíveis até a data de corte.
+     *
+     * @return quantidade de linhas processadas; 0 encerra o job.
+     */
+    int processChunk(LocalDate cutoff, int chunkSize);
+
+    /**
+     * Instante a partir do qual o item pendente mais antigo deveria ter sido processado,
+     * ou {@code null} se não há pendências. Usado para a métrica de atraso (lag).
+     */
+    LocalDateTime oldestPendingSince(LocalDate cutoff);
+}
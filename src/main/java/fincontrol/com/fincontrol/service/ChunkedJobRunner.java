@@ -0,0 +1,185 @@
+package fincontrol.com.fincontrol.service;
+
+import fincontrol.com.fincontrol.model.BatchJobCheckpoint;
+import fincontrol.com.fincontrol.model.enums.BatchJobStatus;
+import fincontrol.com.fincontrol.repository.BatchJobCheckpointRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Motor de jobs em lote: executa um {@link ChunkedJob} em chunks, cada um com sua própria
+ * transação (REQUIRES_NEW), e grava o progresso em {@link BatchJobCheckpoint} na mesma
+ * transação do chunk. Um job interrompido (RUNNING/FAILED) é retomado com a mesma data de corte.
+ *
+ * Métricas (tag job=&lt;nome&gt;): job.rows (contador), job.chunk (timer por chunk),
+ * job.throughput (linhas/s da última execução) e job.lag (segundos de atraso da pendência mais antiga).
+ */
+@Component
+public class ChunkedJobRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedJobRunner.class);
+
+    private final BatchJobCheckpointRepository checkpointRepository;
+    private final TransactionTemplate chunkTransaction;
+    private final MeterRegistry registry;
+
+    private final Map<String, JobMeters> meters = new ConcurrentHashMap<>();
+
+    public ChunkedJobRunner(BatchJobCheckpointRepository checkpointRepository,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry registry) {
+        this.checkpointRepository = checkpointRepository;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.registry = registry;
+    }
+
+    /**
+     * Indica se o job tem uma execução interrompida (queda ou falha) a ser retomada.
+     */
+    public boolean hasInterruptedRun(String jobName) {
+        return checkpointRepository.findById(jobName)
+                .map(checkpoint -> checkpoint.getStatus() != BatchJobStatus.COMPLETED)
+                .orElse(false);
+    }
+
+    /**
+     * Executa o job até a data de corte. Se houver uma execução interrompida com data de corte
+     * anterior, ela é concluída primeiro. Retorna o total de linhas processadas nesta chamada.
+     */
+    public long run(ChunkedJob job, LocalDate cutoff, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+        long total = 0;
+        BatchJobCheckpoint previous = checkpointRepository.findById(job.name()).orElse(null);
+        if (previous != null && previous.getStatus() != BatchJobStatus.COMPLETED) {
+            logger.warn("Resuming job {} interrupted with status {} (cutoff {}, {} rows already processed).",
+                    job.name(), previous.getStatus(), previous.getCutoffDate(), previous.getRowsProcessed());
+            total += runChunks(job, previous.getCutoffDate(), chunkSize, true);
+            if (!cutoff.isAfter(previous.getCutoffDate())) {
+                return total;
+            }
+        }
+        total += runChunks(job, cutoff, chunkSize, false);
+        return total;
+    }
+
+    private long runChunks(ChunkedJob job, LocalDate cutoff, int chunkSize, boolean resume) {
+        JobMeters jobMeters = metersFor(job.name());
+        String jobName = job.name();
+
+        chunkTransaction.executeWithoutResult(status -> {
+            BatchJobCheckpoint checkpoint = checkpointRepository.findById(jobName).orElseGet(BatchJobCheckpoint::new);
+            LocalDateTime now = LocalDateTime.now();
+            if (!resume) {
+                checkpoint.setJobName(jobName);
+                checkpoint.setCutoffDate(cutoff);
+                checkpoint.setRowsProcessed(0);
+                checkpoint.setChunksCommitted(0);
+                checkpoint.setStartedAt(now);
+                checkpoint.setFinishedAt(null);
+            }
+            checkpoint.setStatus(BatchJobStatus.RUNNING);
+            checkpoint.setLastError(null);
+            checkpoint.setUpdatedAt(now);
+            checkpointRepository.save(checkpoint);
+        });
+
+        long startNanos = System.nanoTime();
+        long rows = 0;
+        try {
+            while (true) {
+                long chunkStart = System.nanoTime();
+                Integer processed = chunkTransaction.execute(status -> {
+                    int count = job.processChunk(cutoff, chunkSize);
+                    if (count == 0) {
+                        return 0;
+                    }
+                    BatchJobCheckpoint checkpoint = checkpointRepository.getReferenceById(jobName);
+                    checkpoint.setRowsProcessed(checkpoint.getRowsProcessed() + count);
+                    checkpoint.setChunksCommitted(checkpoint.getChunksCommitted() + 1);
+                    checkpoint.setUpdatedAt(LocalDateTime.now());
+                    return count;
+                });
+                int count = processed == null ? 0 : processed;
+                jobMeters.chunkTimer.record(Duration.ofNanos(System.nanoTime() - chunkStart));
+                jobMeters.rows.increment(count);
+                rows += count;
+                // Com SKIP LOCKED, um chunk menor que chunkSize só diz que linhas travadas por outra
+                // transação foram puladas: o job só termina quando um chunk não encontra mais nada
+                if (count == 0) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.error("Job {} failed after {} rows in this run (cutoff {}).", jobName, rows, cutoff, e);
+            finish(jobName, BatchJobStatus.FAILED, e.getMessage());
+            updateLag(job, cutoff, jobMeters);
+            throw e;
+        }
+
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        jobMeters.throughput.set(seconds > 0 ? Math.round(rows / seconds) : rows);
+        finish(jobName, BatchJobStatus.COMPLETED, null);
+        updateLag(job, cutoff, jobMeters);
+        logger.info("Job {} finished (cutoff {}): {} rows in {} s.", jobName, cutoff, rows, String.format("%.3f", seconds));
+        return rows;
+    }
+
+    private void finish(String jobName, BatchJobStatus finalStatus, String error) {
+        chunkTransaction.executeWithoutResult(status -> checkpointRepository.findById(jobName).ifPresent(checkpoint -> {
+            LocalDateTime now = LocalDateTime.now();
+            checkpoint.setStatus(finalStatus);
+            checkpoint.setUpdatedAt(now);
+            if (finalStatus == BatchJobStatus.COMPLETED) {
+                checkpoint.setFinishedAt(now);
+            }
+            if (error != null) {
+                checkpoint.setLastError(error.length() > 500 ? error.substring(0, 500) : error);
+            }
+        }));
+    }
+
+    private void updateLag(ChunkedJob job, LocalDate cutoff, JobMeters jobMeters) {
+        try {
+            LocalDateTime since = job.oldestPendingSince(cutoff);
+            long lagSeconds = since == null ? 0 : Math.max(0, Duration.between(since, LocalDateTime.now()).getSeconds());
+            jobMeters.lagSeconds.set(lagSeconds);
+        } catch (RuntimeException e) {
+            logger.warn("Could not compute lag for job {}: {}", job.name(), e.getMessage());
+        }
+    }
+
+    private JobMeters metersFor(String jobName) {
+        return meters.computeIfAbsent(jobName, name -> {
+            Tags tags = Tags.of("job", name);
+            AtomicLong throughput = registry.gauge("job.throughput", tags, new AtomicLong());
+            AtomicLong lag = registry.gauge("job.lag", tags, new AtomicLong());
+            return new JobMeters(
+                    Counter.builder("job.rows").baseUnit("rows").tags(tags).register(registry),
+                    Timer.builder("job.chunk").tags(tags).register(registry),
+                    throughput,
+                    lag
+            );
+        });
+    }
+
+    private record JobMeters(Counter rows, Timer chunkTimer, AtomicLong throughput, AtomicLong lagSeconds) {
+    }
+}
@@ -0,0 +1,265 @@
+package fincontrol.com.fincontrol.service;
+
+import fincontrol.com.fincontrol.dto.DueItemDto;
+import fincontrol.com.fincontrol.model.enums.BillStatus;
+import fincontrol.com.fincontrol.model.enums.ReceivableStatusEnum;
+import fincontrol.com.fincontrol.repository.BillRepository;
+import fincontrol.com.fincontrol.repository.ReceivableRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agendador em memória das transições de vencimento de contas a pagar e a receber.
+ * Na subida carrega os itens PENDING com vencimento em [hoje, hoje + {@code horizon-days}) em um
+ * {@link HierarchicalTimingWheel} e dispara cada transição no instante exato:
+ * auto-pay / recebimento automático às 00:00 do vencimento e OVERDUE às 00:00 do dia seguinte.
+ * Alterações feitas por BillService/ReceivableService chegam como {@link DueItemChangedEvent}
+ * após o commit. Uma reconciliação periódica recarrega a janela a partir do banco, que continua
+ * sendo a fonte da verdade; os jobs diários seguem como rede de segurança e são os únicos donos do
+ * atraso acumulado (vencimentos anteriores a hoje), que o wheel não carrega.
+ * Todas as ações são idempotentes (filtram por status PENDING), então disparos repetidos são inócuos.
+ */
+@Component
+public class DueDateScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(DueDateScheduler.class);
+
+    private static final long TICK_MS = 1000L;
+    private static final int WHEEL_SIZE = 60;
+    private static final int IN_CLAUSE_BATCH = 1000;
+
+    /**
+     * Ações disparadas pelo wheel. A ordem importa: em um mesmo disparo (ex.: itens que vencem
+     * hoje, carregados na subida depois das 00:00) os créditos entram antes dos débitos, e ambos antes da marcação de OVERDUE.
+     */
+    public enum DueAction {
+        RECEIVABLE_AUTO_RECEIPT,
+        BILL_AUTOPAY,
+        BILL_OVERDUE,
+        RECEIVABLE_OVERDUE
+    }
+
+    private record DueKey(DueAction action, UUID id) {
+    }
+
+    private final BillRepository billRepository;
+    private final ReceivableRepository receivableRepository;
+    private final BillAutoPayEngine billAutoPayEngine;
+    private final ReceivableService receivableService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry registry;
+    private final boolean enabled;
+    private final int horizonDays;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private final HierarchicalTimingWheel<DueKey> wheel =
+            new HierarchicalTimingWheel<>(TICK_MS, WHEEL_SIZE, System.currentTimeMillis());
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "due-date-wheel");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<DueAction, Timer> firingLag = new EnumMap<>(DueAction.class);
+    private volatile boolean started;
+
+    public DueDateScheduler(BillRepository billRepository,
+                            ReceivableRepository receivableRepository,
+                            BillAutoPayEngine billAutoPayEngine,
+                            ReceivableService receivableService,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry registry,
+                            @Value("${fincontrol.duedate.wheel.enabled:true}") boolean enabled,
+                            @Value("${fincontrol.duedate.wheel.horizon-days:7}") int horizonDays) {
+        this.billRepository = billRepository;
+        this.receivableRepository = receivableRepository;
+        this.billAutoPayEngine = billAutoPayEngine;
+        this.receivableService = receivableService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.registry = registry;
+        this.enabled = enabled;
+        this.horizonDays = horizonDays;
+
+        Gauge.builder("duedate.wheel.size", wheel, HierarchicalTimingWheel::size).register(registry);
+        for (DueAction action : DueAction.values()) {
+            firingLag.put(action, Timer.builder("duedate.wheel.firing.lag")
+                    .tag("action", action.name())
+                    .register(registry));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            logger.info("Due date wheel disabled (fincontrol.duedate.wheel.enabled=false).");
+            return;
+        }
+        reload();
+        ticker.scheduleAtFixedRate(this::tick, TICK_MS, TICK_MS, TimeUnit.MILLISECONDS);
+        started = true;
+    }
+
+    /**
+     * Reconciliação: descarta o estado em memória e recarrega a janela a partir do banco,
+     * cobrindo eventos perdidos e alterações feitas pelos jobs em massa.
+     */
+    @Scheduled(fixedDelayString = "${fincontrol.duedate.wheel.reconcile-interval:PT1H}",
+            initialDelayString = "${fincontrol.duedate.wheel.reconcile-interval:PT1H}")
+    public void reconcile() {
+        if (started) {
+            ticker.execute(this::reload);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDueItemChanged(DueItemChangedEvent event) {
+        if (!started) {
+            return;
+        }
+        DueAction automaticAction = event.kind() == DueItemChangedEvent.Kind.BILL
+                ? DueAction.BILL_AUTOPAY : DueAction.RECEIVABLE_AUTO_RECEIPT;
+        DueAction overdueAction = event.kind() == DueItemChangedEvent.Kind.BILL
+                ? DueAction.BILL_OVERDUE : DueAction.RECEIVABLE_OVERDUE;
+
+        wheel.cancel(new DueKey(automaticAction, event.id()));
+        wheel.cancel(new DueKey(overdueAction, event.id()));
+        if (!event.pending() || !event.dueDate().isBefore(horizonEnd())) {
+            return; // Fora da janela: entra em uma próxima reconciliação
+        }
+
+        long now = System.currentTimeMillis();
+        List<HierarchicalTimingWheel.Expired<DueKey>> due = new ArrayList<>();
+        if (event.automatic()) {
+            schedule(new DueKey(automaticAction, event.id()), startOf(event.dueDate()), now, due);
+        }
+        schedule(new DueKey(overdueAction, event.id()), startOf(event.dueDate().plusDays(1)), now, due);
+        if (!due.isEmpty()) {
+            // Já venceu (ex.: conta com auto-pay criada para hoje): dispara fora da thread da requisição
+            ticker.execute(() -> fire(due));
+        }
+    }
+
+    private void reload() {
+        try {
+            LocalDate from = LocalDate.now(zone);
+            LocalDate until = from.plusDays(horizonDays);
+            List<DueItemDto> bills = billRepository.findDueItems(BillStatus.PENDING, from, until);
+            List<DueItemDto> receivables = receivableRepository.findDueItems(ReceivableStatusEnum.PENDING, from, until);
+
+            long now = System.currentTimeMillis();
+            List<HierarchicalTimingWheel.Expired<DueKey>> due = new ArrayList<>();
+            wheel.clear();
+            for (DueItemDto bill : bills) {
+                if (bill.isAutomatic()) {
+                    schedule(new DueKey(DueAction.BILL_AUTOPAY, bill.getId()), startOf(bill.getDueDate()), now, due);
+                }
+                schedule(new DueKey(DueAction.BILL_OVERDUE, bill.getId()), startOf(bill.getDueDate().plusDays(1)), now, due);
+            }
+            for (DueItemDto receivable : receivables) {
+                if (receivable.isAutomatic()) {
+                    schedule(new DueKey(DueAction.RECEIVABLE_AUTO_RECEIPT, receivable.getId()), startOf(receivable.getDueDate()), now, due);
+                }
+                schedule(new DueKey(DueAction.RECEIVABLE_OVERDUE, receivable.getId()), startOf(receivable.getDueDate().plusDays(1)), now, due);
+            }
+            logger.info("Due date wheel loaded: {} bills and {} receivables due in [{}, {}); {} entries scheduled, {} already due.",
+                    bills.size(), receivables.size(), from, until, wheel.size(), due.size());
+            fire(due);
+        } catch (Exception e) {
+            logger.error("Failed to load the due date wheel.", e);
+        }
+    }
+
+    private void tick() {
+        try {
+            fire(wheel.advance(System.currentTimeMillis()));
+        } catch (Exception e) {
+            // Uma exceção aqui cancelaria o scheduleAtFixedRate
+            logger.error("Due date wheel tick failed.", e);
+        }
+    }
+
+    private void schedule(DueKey key, long expirationMs, long now, List<HierarchicalTimingWheel.Expired<DueKey>> due) {
+        if (!wheel.schedule(key, expirationMs, now)) {
+            due.add(new HierarchicalTimingWheel.Expired<>(key, expirationMs));
+        }
+    }
+
+    private void fire(List<HierarchicalTimingWheel.Expired<DueKey>> expired) {
+        if (expired.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Map<DueAction, List<UUID>> byAction = new EnumMap<>(DueAction.class);
+        for (HierarchicalTimingWheel.Expired<DueKey> item : expired) {
+            byAction.computeIfAbsent(item.key().action(), action -> new ArrayList<>()).add(item.key().id());
+            firingLag.get(item.key().action()).record(Math.max(0L, now - item.expirationMs()), TimeUnit.MILLISECONDS);
+        }
+
+        LocalDate today = LocalDate.now(zone);
+        for (Map.Entry<DueAction, List<UUID>> entry : byAction.entrySet()) {
+            for (List<UUID> batch : partition(entry.getValue())) {
+                try {
+                    int processed = execute(entry.getKey(), batch, today);
+                    registry.counter("duedate.wheel.fired", "action", entry.getKey().name()).increment(processed);
+                } catch (Exception e) {
+                    // Os jobs diários e a próxima reconciliação cobrem o que falhar aqui
+                    logger.error("Due date action {} failed for {} items.", entry.getKey(), batch.size(), e);
+                }
+            }
+        }
+    }
+
+    private int execute(DueAction action, List<UUID> ids, LocalDate today) {
+        return switch (action) {
+            case BILL_AUTOPAY -> billAutoPayEngine.payBills(ids, today).paid();
+            case RECEIVABLE_AUTO_RECEIPT -> receivableService.receiveAutomatically(ids, today);
+            case BILL_OVERDUE -> transactionTemplate.execute(status ->
+                    billRepository.markOverdueByIds(ids, BillStatus.PENDING, BillStatus.OVERDUE, today));
+            case RECEIVABLE_OVERDUE -> transactionTemplate.execute(status ->
+                    receivableRepository.markOverdueByIds(ids, ReceivableStatusEnum.PENDING, ReceivableStatusEnum.OVERDUE, today));
+        };
+    }
+
+    private LocalDate horizonEnd() {
+        return LocalDate.now(zone).plusDays(horizonDays);
+    }
+
+    private long startOf(LocalDate date) {
+        return date.atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    private static List<List<UUID>> partition(List<UUID> ids) {
+        List<List<UUID>> batches = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += IN_CLAUSE_BATCH) {
+            batches.add(ids.subList(from, Math.min(ids.size(), from + IN_CLAUSE_BATCH)));
+        }
+        return batches;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        ticker.shutdownNow();
+    }
+}
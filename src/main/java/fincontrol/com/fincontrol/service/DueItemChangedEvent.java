@@ -0,0 +1,24 @@
+package fincontrol.com.fincontrol.service;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Publicado por BillService/ReceivableService quando uma conta a pagar ou a receber é criada,
+ * alterada ou deixa de estar pendente, para que o {@link DueDateScheduler} reagende (ou cancele)
+ * as transições de vencimento do item. Entregue após o commit da transação.
+ *
+ * @param pending   false quando o item foi removido ou não está mais PENDING (apenas cancela)
+ * @param automatic auto-pay com banco (contas) ou recebimento automático (recebíveis)
+ */
+public record DueItemChangedEvent(Kind kind, UUID id, LocalDate dueDate, boolean automatic, boolean pending) {
+
+    public enum Kind {
+        BILL,
+        RECEIVABLE
+    }
+
+    public static DueItemChangedEvent removed(Kind kind, UUID id) {
+        return new DueItemChangedEvent(kind, id, null, false, false);
+    }
+}
@@ -10,7 +10,6 @@ import fincontrol.com.fincontrol.model.Category;
 import fincontrol.com.fincontrol.model.Expense;
 import fincontrol.com.fincontrol.model.User;
 import fincontrol.com.fincontrol.repository.BankRepository;
-import fincontrol.com.fincontrol.repository.CategoryRepository;
 import fincontrol.com.fincontrol.repository.ExpenseRepository;
 import fincontrol.com.fincontrol.repository.UserRepository;
 import lombok.extern.slf4j.Slf4j;
@@ -19,6 +18,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -28,18 +28,18 @@ import java.util.UUID;
 public class ExpenseService {
 
     private final ExpenseRepository expenseRepository;
-    private final CategoryRepository categoryRepository;
     private final BankRepository bankRepository;
     private final UserRepository userRepository;
+    private final CategoryCache categoryCache;
 
     public ExpenseService(ExpenseRepository expenseRepository,
-                          CategoryRepository categoryRepository,
                           BankRepository bankRepository,
-                          UserRepository userRepository) {
+                          UserRepository userRepository,
+                          CategoryCache categoryCache) {
         this.expenseRepository  = expenseRepository;
-        this.categoryRepository = categoryRepository;
         this.bankRepository     = bankRepository;
         this.userRepository     = userRepository;
+        this.categoryCache      = categoryCache;
     }
 
     private User findUserById(UUID userId) {
@@ -48,7 +48,8 @@ public class ExpenseService {
     }
 
     private Category findCategoryByIdAndUser(UUID categoryId, UUID userId) {
-        return categoryRepository.findByIdAndUserId(categoryId, userId)
+        // Verificação de posse servida pelo CategoryCache, sem ida ao banco
+        return categoryCache.findByIdAndUserId(categoryId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Categoria com ID " + categoryId + " não encontrada ou não pertence ao usuário."));
     }
 
@@ -86,6 +87,22 @@ public class ExpenseService {
         return expenseRepository.findAllByUserId(userId);
     }
 
+    /**
+     * Despesas do usuário com expense_date em [from, to]. Sem datas, lista todas.
+     */
+    @Transactional(readOnly = true)
+    public List<Expense> listAllByAuthenticatedUser(UUID userId, LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            return listAllByAuthenticatedUser(userId);
+        }
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new InvalidOperationException("Informe 'from' e 'to' juntos, com 'from' anterior ou igual a 'to'.");
+        }
+        findUserById(userId);
+        log.debug("Listando despesas de {} a {} para o usuário {}", from, to, userId);
+        return expenseRepository.findAllByUserIdAndExpenseDateBetween(userId, from, to);
+    }
+
     @Transactional(readOnly = true)
     public Expense findByIdAndUserIdEnsureOwnership(UUID expenseId, UUID userId) {
         findUserById(userId);
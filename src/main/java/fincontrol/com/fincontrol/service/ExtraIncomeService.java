@@ -2,6 +2,7 @@
 package fincontrol.com.fincontrol.service;
 
 import fincontrol.com.fincontrol.dto.*;
+import fincontrol.com.fincontrol.exception.InvalidOperationException;
 import fincontrol.com.fincontrol.exception.ResourceNotFoundException;
 import fincontrol.com.fincontrol.model.Bank;
 import fincontrol.com.fincontrol.model.ExtraIncome;
@@ -20,6 +21,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -127,6 +129,22 @@ public class ExtraIncomeService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Lista as rendas extras do usuário autenticado com data em [from, to]. Sem datas, lista todas.
+     */
+    public List<ExtraIncomeDto> findAllByCurrentUser(LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            return findAllByCurrentUser();
+        }
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new InvalidOperationException("Informe 'from' e 'to' juntos, com 'from' anterior ou igual a 'to'.");
+        }
+        User user = getAuthenticatedUser();
+        return extraIncomeRepository.findAllByUserAndDateBetween(user, from, to).stream()
+                .map(ExtraIncomeDto::fromEntity)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Lista todas as rendas extras de um usuário por banco.
      */
@@ -0,0 +1,110 @@
+package fincontrol.com.fincontrol.service;
+
+import fincontrol.com.fincontrol.model.Bank;
+import fincontrol.com.fincontrol.model.Bill;
+import fincontrol.com.fincontrol.model.Expense;
+import fincontrol.com.fincontrol.model.ExtraIncome;
+import fincontrol.com.fincontrol.model.Receivable;
+import fincontrol.com.fincontrol.model.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Invalida o cache de projeções ({@link ForecastService}) do usuário depois do commit de
+ * insert/update/delete, feito via entidade, de tudo o que a projeção lê: Bank (saldo), Bill e
+ * Receivable (status e vencimento), Expense (valor das contas) e ExtraIncome (valor e banco dos
+ * recebíveis). Assim nenhum serviço que mexe nesses dados precisa lembrar de chamar o evict.
+ *
+ * Updates em massa (JPQL/SQL) não passam por aqui: quem move saldo dessa forma chama
+ * {@link ForecastService#evict(UUID)} (ex.: VaultService). Os jobs só liquidam itens já vencidos
+ * (débito/crédito e mudança de status juntos), o que não altera a projeção, e o TTL do cache
+ * cobre o restante.
+ */
+@Component
+public class ForecastCacheInvalidator implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ForecastService forecastService;
+
+    public ForecastCacheInvalidator(EntityManagerFactory entityManagerFactory, ForecastService forecastService) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.forecastService = forecastService;
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        evictOwner(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        evictOwner(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        evictOwner(event.getEntity());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // Nada foi confirmado: o cache continua válido
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> type = persister.getMappedClass();
+        return type == Bank.class || type == Bill.class || type == Receivable.class
+                || type == Expense.class || type == ExtraIncome.class;
+    }
+
+    private void evictOwner(Object entity) {
+        User owner = null;
+        if (entity instanceof Bank bank) {
+            owner = bank.getUser();
+        } else if (entity instanceof Bill bill) {
+            owner = bill.getUser();
+        } else if (entity instanceof Receivable receivable) {
+            owner = receivable.getUser();
+        } else if (entity instanceof Expense expense) {
+            owner = expense.getUser();
+        } else if (entity instanceof ExtraIncome extraIncome) {
+            owner = extraIncome.getUser();
+        }
+        if (owner != null && owner.getId() != null) {
+            forecastService.evict(owner.getId());
+        }
+    }
+}
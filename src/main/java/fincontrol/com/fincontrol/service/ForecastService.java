@@ -0,0 +1,218 @@
+package fincontrol.com.fincontrol.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import fincontrol.com.fincontrol.dto.BankForecastDto;
+import fincontrol.com.fincontrol.dto.ForecastPointDto;
+import fincontrol.com.fincontrol.dto.ForecastResponseDto;
+import fincontrol.com.fincontrol.exception.InvalidOperationException;
+import fincontrol.com.fincontrol.model.enums.BillStatus;
+import fincontrol.com.fincontrol.model.enums.ReceivableStatusEnum;
+import fincontrol.com.fincontrol.repository.BankRepository;
+import fincontrol.com.fincontrol.repository.BillRepository;
+import fincontrol.com.fincontrol.repository.ReceivableRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Projeção de fluxo de caixa: saldo previsto dia a dia, por banco, a partir do saldo atual,
+ * das contas a pagar (Expense.value) e das contas a receber (ExtraIncome.amount) em aberto.
+ *
+ * Uma consulta por fonte; contas e recebíveis chegam ordenados por vencimento e são mesclados
+ * em uma única passada, com aritmética em centavos (long). Itens vencidos e ainda em aberto
+ * (PENDING/OVERDUE) entram no primeiro dia. O resultado fica em cache por usuário e é
+ * invalidado pelo {@link ForecastCacheInvalidator} quando um banco, conta, recebível, despesa ou
+ * renda extra do usuário muda.
+ */
+@Service
+public class ForecastService {
+
+    public static final int MAX_DAYS = 366;
+
+    private static final List<BillStatus> OPEN_BILL_STATUSES = List.of(BillStatus.PENDING, BillStatus.OVERDUE);
+    private static final List<ReceivableStatusEnum> OPEN_RECEIVABLE_STATUSES =
+            List.of(ReceivableStatusEnum.PENDING, ReceivableStatusEnum.OVERDUE);
+
+    private final BankRepository bankRepository;
+    private final BillRepository billRepository;
+    private final ReceivableRepository receivableRepository;
+    private final Cache<UUID, Map<ForecastKey, ForecastResponseDto>> cache;
+
+    private record ForecastKey(LocalDate startDate, int days) {
+    }
+
+    public ForecastService(BankRepository bankRepository,
+                           BillRepository billRepository,
+                           ReceivableRepository receivableRepository,
+                           MeterRegistry registry,
+                           @Value("${fincontrol.cache.forecast.maximum-size:10000}") long maximumSize,
+                           @Value("${fincontrol.cache.forecast.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.bankRepository = bankRepository;
+        this.billRepository = billRepository;
+        this.receivableRepository = receivableRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "forecast");
+    }
+
+    /**
+     * Projeção dos próximos {@code days} dias (hoje incluso) para o usuário.
+     */
+    @Transactional(readOnly = true)
+    public ForecastResponseDto getForecast(UUID userId, int days) {
+        if (days < 1 || days > MAX_DAYS) {
+            throw new InvalidOperationException("Forecast days must be between 1 and " + MAX_DAYS + ".");
+        }
+        ForecastKey key = new ForecastKey(LocalDate.now(), days);
+        return cache.get(userId, id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(key, k -> compute(userId, k.startDate(), k.days()));
+    }
+
+    /**
+     * Descarta as projeções em cache do usuário. Se houver uma transação ativa, descarta
+     * novamente após o commit (mesmo padrão do CategoryCache). Deve ser chamado por quem altera
+     * saldos com UPDATE em massa, que não passa pelo {@link ForecastCacheInvalidator}.
+     */
+    public void evict(UUID userId) {
+        cache.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    /** Descarta as projeções de todos os usuários. */
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    private ForecastResponseDto compute(UUID userId, LocalDate startDate, int days) {
+        LocalDate endDate = startDate.plusDays(days - 1L);
+
+        List<Object[]> banks = bankRepository.findBalancesByUserId(userId);
+        int bankCount = banks.size();
+        Map<UUID, Integer> bankIndex = new HashMap<>();
+        long[] balances = new long[bankCount];
+        long totalBalance = 0;
+        for (int i = 0; i < bankCount; i++) {
+            bankIndex.put((UUID) banks.get(i)[0], i);
+            balances[i] = toCents((BigDecimal) banks.get(i)[2]);
+            totalBalance += balances[i];
+        }
+
+        List<List<ForecastPointDto>> bankPoints = new ArrayList<>(bankCount);
+        for (int i = 0; i < bankCount; i++) {
+            bankPoints.add(new ArrayList<>(days));
+        }
+        List<ForecastPointDto> totalPoints = new ArrayList<>(days);
+
+        try (Stream<Object[]> outflows = billRepository.streamForecastOutflows(userId, OPEN_BILL_STATUSES, endDate);
+             Stream<Object[]> inflows = receivableRepository.streamForecastInflows(userId, OPEN_RECEIVABLE_STATUSES, endDate)) {
+            FlowCursor out = new FlowCursor(outflows.iterator());
+            FlowCursor in = new FlowCursor(inflows.iterator());
+            long[] dayIn = new long[bankCount];
+            long[] dayOut = new long[bankCount];
+
+            for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+                long totalIn = 0;
+                long totalOut = 0;
+                // Vencimentos anteriores a hoje são <= date já no primeiro dia
+                while (out.hasUpTo(date)) {
+                    Integer index = bankIndex.get(out.bankId);
+                    if (index != null) {
+                        dayOut[index] += out.cents;
+                    }
+                    totalOut += out.cents;
+                    out.next();
+                }
+                while (in.hasUpTo(date)) {
+                    Integer index = bankIndex.get(in.bankId);
+                    if (index != null) {
+                        dayIn[index] += in.cents;
+                    }
+                    totalIn += in.cents;
+                    in.next();
+                }
+
+                for (int i = 0; i < bankCount; i++) {
+                    balances[i] += dayIn[i] - dayOut[i];
+                    bankPoints.get(i).add(new ForecastPointDto(date, fromCents(balances[i]), fromCents(dayIn[i]), fromCents(dayOut[i])));
+                    dayIn[i] = 0;
+                    dayOut[i] = 0;
+                }
+                totalBalance += totalIn - totalOut;
+                totalPoints.add(new ForecastPointDto(date, fromCents(totalBalance), fromCents(totalIn), fromCents(totalOut)));
+            }
+        }
+
+        List<BankForecastDto> bankForecasts = new ArrayList<>(bankCount);
+        for (int i = 0; i < bankCount; i++) {
+            Object[] bank = banks.get(i);
+            bankForecasts.add(new BankForecastDto((UUID) bank[0], (String) bank[1], (BigDecimal) bank[2], bankPoints.get(i)));
+        }
+        return new ForecastResponseDto(startDate, endDate, bankForecasts, totalPoints);
+    }
+
+    private static long toCents(BigDecimal value) {
+        return value == null ? 0L : value.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * Cursor sobre as linhas (dueDate, bankId, amount) de uma fonte ordenada por vencimento.
+     */
+    private static final class FlowCursor {
+        private final Iterator<Object[]> rows;
+        private LocalDate dueDate;
+        private UUID bankId;
+        private long cents;
+
+        private FlowCursor(Iterator<Object[]> rows) {
+            this.rows = rows;
+            next();
+        }
+
+        private boolean hasUpTo(LocalDate date) {
+            return dueDate != null && !dueDate.isAfter(date);
+        }
+
+        private void next() {
+            if (rows.hasNext()) {
+                Object[] row = rows.next();
+                dueDate = (LocalDate) row[0];
+                bankId = (UUID) row[1];
+                cents = toCents((BigDecimal) row[2]);
+            } else {
+                dueDate = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package fincontrol.com.fincontrol.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Timing wheel hierárquico (no estilo do Kafka): cada nível tem {@code wheelSize} buckets de
+ * {@code tickMs}; itens além do intervalo do nível vão para um nível de overflow com ticks
+ * maiores e descem de nível conforme o relógio avança. Inserção e cancelamento são O(1);
+ * {@link #advance(long)} só visita buckets que de fato venceram (fila de prioridade por bucket).
+ * Itens que já caíram no tick corrente mas ainda não venceram ficam em uma lista "iminente",
+ * para que nada dispare antes do instante exato.
+ *
+ * Thread-safe: todos os métodos públicos são synchronized.
+ *
+ * @param <K> chave do item agendado (um item por chave; reagendar substitui o anterior)
+ */
+public class HierarchicalTimingWheel<K> {
+
+    private final Map<K, Entry<K>> index = new HashMap<>();
+    private final PriorityQueue<Bucket<K>> dueBuckets =
+            new PriorityQueue<>((a, b) -> Long.compare(a.expiration, b.expiration));
+    private final Bucket<K> imminent = new Bucket<>();
+    private final Level<K> root;
+
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, long startMs) {
+        if (tickMs <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("tickMs and wheelSize must be positive");
+        }
+        this.root = new Level<>(tickMs, wheelSize, startMs, dueBuckets);
+    }
+
+    /**
+     * Agenda (ou reagenda) a chave para {@code expirationMs}.
+     *
+     * @return false se o instante já passou em relação a {@code nowMs}; nesse caso nada é
+     * agendado e o chamador deve disparar o item.
+     */
+    public synchronized boolean schedule(K key, long expirationMs, long nowMs) {
+        cancel(key);
+        if (expirationMs <= nowMs) {
+            return false;
+        }
+        Entry<K> entry = new Entry<>(key, expirationMs);
+        if (!root.add(entry)) {
+            addImminent(entry);
+        }
+        index.put(key, entry);
+        return true;
+    }
+
+    /**
+     * Remove a chave do wheel, se estiver agendada.
+     */
+    public synchronized boolean cancel(K key) {
+        Entry<K> entry = index.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        if (entry.bucket != null) {
+            entry.bucket.entries.remove(entry);
+            entry.bucket = null;
+        }
+        return true;
+    }
+
+    /**
+     * Avança o relógio até {@code nowMs} e devolve os itens vencidos, em ordem de vencimento dos buckets.
+     */
+    public synchronized List<Expired<K>> advance(long nowMs) {
+        List<Expired<K>> expired = new ArrayList<>();
+        for (Entry<K> entry : new ArrayList<>(imminent.entries)) {
+            if (entry.expirationMs <= nowMs) {
+                imminent.entries.remove(entry);
+                entry.bucket = null;
+                index.remove(entry.key);
+                expired.add(new Expired<>(entry.key, entry.expirationMs));
+            }
+        }
+        while (!dueBuckets.isEmpty() && dueBuckets.peek().expiration <= nowMs) {
+            Bucket<K> bucket = dueBuckets.poll();
+            root.advanceClock(bucket.expiration);
+            List<Entry<K>> entries = new ArrayList<>(bucket.entries);
+            bucket.entries.clear();
+            bucket.expiration = -1L;
+            for (Entry<K> entry : entries) {
+                entry.bucket = null;
+                // Reinsere: ou desce para um nível mais fino, ou já está no tick corrente
+                if (!root.add(entry)) {
+                    if (entry.expirationMs <= nowMs) {
+                        index.remove(entry.key);
+                        expired.add(new Expired<>(entry.key, entry.expirationMs));
+                    } else {
+                        addImminent(entry);
+                    }
+                }
+            }
+        }
+        root.advanceClock(nowMs);
+        return expired;
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    public synchronized void clear() {
+        for (Entry<K> entry : index.values()) {
+            if (entry.bucket != null) {
+                entry.bucket.entries.remove(entry);
+                entry.bucket = null;
+            }
+        }
+        index.clear();
+    }
+
+    private void addImminent(Entry<K> entry) {
+        imminent.entries.add(entry);
+        entry.bucket = imminent;
+    }
+
+    /** Item vencido e o instante em que deveria ter disparado (para medir o atraso de disparo). */
+    public record Expired<K>(K key, long expirationMs) {
+    }
+
+    private static final class Entry<K> {
+        private final K key;
+        private final long expirationMs;
+        private Bucket<K> bucket;
+
+        private Entry(K key, long expirationMs) {
+            this.key = key;
+            this.expirationMs = expirationMs;
+        }
+    }
+
+    private static final class Bucket<K> {
+        private final Set<Entry<K>> entries = new LinkedHashSet<>();
+        private long expiration = -1L;
+    }
+
+    private static final class Level<K> {
+        private final long tickMs;
+        private final int wheelSize;
+        private final long interval;
+        private final List<Bucket<K>> buckets;
+        private final PriorityQueue<Bucket<K>> dueBuckets;
+        private long currentTime;
+        private Level<K> overflow;
+
+        private Level(long tickMs, int wheelSize, long startMs, PriorityQueue<Bucket<K>> dueBuckets) {
+            this.tickMs = tickMs;
+            this.wheelSize = wheelSize;
+            this.interval = tickMs * wheelSize;
+            this.dueBuckets = dueBuckets;
+            this.currentTime = startMs - (startMs % tickMs);
+            this.buckets = new ArrayList<>(wheelSize);
+            for (int i = 0; i < wheelSize; i++) {
+                buckets.add(new Bucket<>());
+            }
+        }
+
+        private boolean add(Entry<K> entry) {
+            long expiration = entry.expirationMs;
+            if (expiration < currentTime + tickMs) {
+                return false;
+            }
+            if (expiration < currentTime + interval) {
+                long virtualId = expiration / tickMs;
+                Bucket<K> bucket = buckets.get((int) (virtualId % wheelSize));
+                bucket.entries.add(entry);
+                entry.bucket = bucket;
+                long bucketExpiration = virtualId * tickMs;
+                if (bucket.expiration != bucketExpiration) {
+                    // Bucket reaproveitado (ou novo): entra na fila com o novo vencimento
+                    dueBuckets.remove(bucket);
+                    bucket.expiration = bucketExpiration;
+                    dueBuckets.add(bucket);
+                }
+                return true;
+            }
+            return overflow().add(entry);
+        }
+
+        private void advanceClock(long timeMs) {
+            if (timeMs >= currentTime + tickMs) {
+                currentTime = timeMs - (timeMs % tickMs);
+                if (overflow != null) {
+                    overflow.advanceClock(currentTime);
+                }
+            }
+        }
+
+        private Level<K> overflow() {
+            if (overflow == null) {
+                overflow = new Level<>(interval, wheelSize, currentTime, dueBuckets);
+            }
+            return overflow;
+        }
+    }
+}
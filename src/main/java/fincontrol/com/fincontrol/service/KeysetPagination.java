@@ -0,0 +1,89 @@
+package fincontrol.com.fincontrol.service;
+
+import fincontrol.com.fincontrol.exception.InvalidOperationException;
+import jakarta.persistence.criteria.CriteriaQuery;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Paginação compartilhada pelas listagens por vencimento (contas a pagar e a receber) e pelo
+ * extrato do cofre: o modo offset com desempate por id e o modo keyset, que busca
+ * {@code size + 1} linhas para saber se há próxima página sem COUNT.
+ */
+final class KeysetPagination {
+
+    /** Ordem do modo keyset das listagens por vencimento: (dueDate, id) ascendente. */
+    static final Sort DUE_DATE_ORDER = Sort.by("dueDate", "id");
+
+    private KeysetPagination() {
+    }
+
+    /**
+     * Consultas de COUNT geradas pelo Spring Data para um Page: Specifications de fetch não
+     * devem adicionar joins nelas.
+     */
+    static boolean isCountQuery(CriteriaQuery<?> query) {
+        return query.getResultType() == Long.class || query.getResultType() == long.class;
+    }
+
+    /** Mesma página do {@code pageable}, com id como desempate estável da ordenação pedida. */
+    static Pageable withIdTiebreaker(Pageable pageable) {
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort().and(Sort.by("id")));
+    }
+
+    /**
+     * Keyset predicate for (dueDate, id) ascending: rows strictly after the given cursor.
+     */
+    static <T> Specification<T> dueAfter(LocalDate dueDate, UUID id) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.or(
+                criteriaBuilder.greaterThan(root.get("dueDate"), dueDate),
+                criteriaBuilder.and(
+                        criteriaBuilder.equal(root.get("dueDate"), dueDate),
+                        criteriaBuilder.greaterThan(root.<UUID>get("id"), id)
+                )
+        );
+    }
+
+    /**
+     * Uma página em ordem de {@link #DUE_DATE_ORDER} a partir do cursor (afterDueDate, afterId),
+     * ou do início se ambos forem nulos.
+     *
+     * @throws InvalidOperationException se só uma das partes do cursor vier preenchida
+     */
+    static <T, R> Slice<R> dueDateSlice(JpaSpecificationExecutor<T> repository, Specification<T> spec, int size,
+                                        LocalDate afterDueDate, UUID afterId, Function<T, R> mapper) {
+        if (afterDueDate != null && afterId != null) {
+            spec = spec.and(dueAfter(afterDueDate, afterId));
+        } else if (afterDueDate != null || afterId != null) {
+            throw new InvalidOperationException("Keyset pagination requires both afterDueDate and afterId.");
+        }
+        List<T> rows = repository.findBy(spec, query -> query
+                .sortBy(DUE_DATE_ORDER)
+                .limit(size + 1)
+                .all());
+        return toSlice(rows, size, DUE_DATE_ORDER, mapper);
+    }
+
+    /**
+     * Monta o Slice a partir de até {@code size + 1} linhas: a linha extra só indica que há
+     * próxima página e não é devolvida.
+     */
+    static <T, R> Slice<R> toSlice(List<T> rows, int size, Sort sort, Function<T, R> mapper) {
+        boolean hasNext = rows.size() > size;
+        List<R> content = rows.stream()
+                .limit(size)
+                .map(mapper)
+                .toList();
+        return new SliceImpl<>(content, PageRequest.of(0, size, sort), hasNext);
+    }
+}
@@ -0,0 +1,240 @@
+package fincontrol.com.fincontrol.service;
+
+import fincontrol.com.fincontrol.config.MetricsConfig;
+import fincontrol.com.fincontrol.dto.OperationMetricsDto;
+import fincontrol.com.fincontrol.dto.OperationMetricsSummaryDto;
+import fincontrol.com.fincontrol.exception.InvalidOperationException;
+import fincontrol.com.fincontrol.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consulta genérica dos timers e distribution summaries do {@link MeterRegistry}.
+ * Percentis vêm dos histogramas de cliente ligados pelo MeterFilter do {@link MetricsConfig};
+ * a taxa (registros/s) vem de amostras periódicas do count de cada série, guardadas em um
+ * buffer circular por série, o que permite calcular a taxa em qualquer janela até a retenção.
+ */
+@Service
+public class OperationMetricsService {
+
+    public static final long SAMPLE_INTERVAL_SECONDS = 10;
+    public static final long MAX_WINDOW_SECONDS = 900;
+    private static final int SAMPLES = (int) (MAX_WINDOW_SECONDS / SAMPLE_INTERVAL_SECONDS) + 1;
+
+    private final MeterRegistry registry;
+    private final List<String> operationPrefixes;
+    private final Map<Meter.Id, CountHistory> history = new ConcurrentHashMap<>();
+
+    public OperationMetricsService(MeterRegistry registry,
+                                   @Value("${fincontrol.metrics.operation-prefixes}")
+                                   List<String> operationPrefixes) {
+        this.registry = registry;
+        this.operationPrefixes = operationPrefixes;
+    }
+
+    /**
+     * Todas as séries (combinações de tags) do timer/summary {@code operation}, opcionalmente
+     * filtradas por tags ({@code chave:valor}).
+     */
+    public List<OperationMetricsDto> describe(String operation, List<String> tagFilters, long windowSeconds) {
+        validateWindow(windowSeconds);
+        List<Tag> tags = parseTags(tagFilters);
+        List<OperationMetricsDto> series = new ArrayList<>();
+        for (Meter meter : registry.find(operation).tags(tags).meters()) {
+            if (meter instanceof Timer timer) {
+                series.add(toDto(meter, "timer", "seconds", timer.takeSnapshot(), TimeUnit.SECONDS,
+                        timer.count(), timer.totalTime(TimeUnit.SECONDS), timer.max(TimeUnit.SECONDS), windowSeconds));
+            } else if (meter instanceof DistributionSummary summary) {
+                series.add(toDto(meter, "summary", meter.getId().getBaseUnit(), summary.takeSnapshot(), null,
+                        summary.count(), summary.totalAmount(), summary.max(), windowSeconds));
+            }
+        }
+        if (series.isEmpty()) {
+            throw new ResourceNotFoundException("Nenhum timer ou summary registrado com o nome '" + operation + "'" +
+                    (tags.isEmpty() ? "." : " e as tags " + tags + "."));
+        }
+        return series;
+    }
+
+    /**
+     * Visão compacta de todas as operações da aplicação (prefixos de fincontrol.metrics.operation-prefixes),
+     * ordenada por nome.
+     */
+    public List<OperationMetricsSummaryDto> overview(long windowSeconds) {
+        validateWindow(windowSeconds);
+        List<OperationMetricsSummaryDto> rows = new ArrayList<>();
+        for (Meter meter : registry.getMeters()) {
+            if (!MetricsConfig.isOperationMeter(meter.getId().getName(), operationPrefixes)) {
+                continue;
+            }
+            HistogramSnapshot snapshot;
+            String unit;
+            double max;
+            if (meter instanceof Timer timer) {
+                snapshot = timer.takeSnapshot();
+                unit = "seconds";
+                max = timer.max(TimeUnit.SECONDS);
+            } else if (meter instanceof DistributionSummary summary) {
+                snapshot = summary.takeSnapshot();
+                unit = meter.getId().getBaseUnit();
+                max = summary.max();
+            } else {
+                continue;
+            }
+            TimeUnit timeUnit = meter instanceof Timer ? TimeUnit.SECONDS : null;
+            Map<String, Double> percentiles = percentiles(snapshot, timeUnit);
+            rows.add(new OperationMetricsSummaryDto(
+                    meter.getId().getName(),
+                    tagsOf(meter),
+                    unit,
+                    snapshot.count(),
+                    rate(meter.getId(), snapshot.count(), windowSeconds),
+                    percentiles.get("p50"),
+                    percentiles.get("p99"),
+                    max));
+        }
+        rows.sort(Comparator.comparing(OperationMetricsSummaryDto::getOperation)
+                .thenComparing(row -> row.getTags().toString()));
+        return rows;
+    }
+
+    // Amostra o count de cada série para o cálculo da taxa
+    @Scheduled(fixedRate = SAMPLE_INTERVAL_SECONDS, timeUnit = TimeUnit.SECONDS)
+    public void sampleCounts() {
+        long now = System.nanoTime();
+        Set<Meter.Id> seen = new HashSet<>();
+        for (Meter meter : registry.getMeters()) {
+            long count;
+            if (meter instanceof Timer timer) {
+                count = timer.count();
+            } else if (meter instanceof DistributionSummary summary) {
+                count = summary.count();
+            } else {
+                continue;
+            }
+            seen.add(meter.getId());
+            history.computeIfAbsent(meter.getId(), id -> new CountHistory()).add(now, count);
+        }
+        history.keySet().retainAll(seen);
+    }
+
+    private OperationMetricsDto toDto(Meter meter, String type, String unit, HistogramSnapshot snapshot, TimeUnit timeUnit,
+                                      long count, double total, double max, long windowSeconds) {
+        return new OperationMetricsDto(
+                meter.getId().getName(),
+                type,
+                unit,
+                tagsOf(meter),
+                count,
+                total,
+                count > 0 ? total / count : 0,
+                max,
+                percentiles(snapshot, timeUnit),
+                rate(meter.getId(), count, windowSeconds),
+                windowSeconds);
+    }
+
+    private Double rate(Meter.Id id, long currentCount, long windowSeconds) {
+        CountHistory counts = history.get(id);
+        return counts == null ? null : counts.rate(System.nanoTime(), currentCount, TimeUnit.SECONDS.toNanos(windowSeconds));
+    }
+
+    static Map<String, Double> percentiles(HistogramSnapshot snapshot, TimeUnit timeUnit) {
+        Map<String, Double> values = new LinkedHashMap<>();
+        for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+            String label = "p" + BigDecimal.valueOf(percentile.percentile() * 100).stripTrailingZeros()
+                    .toPlainString().replace(".", "");
+            values.put(label, timeUnit != null ? percentile.value(timeUnit) : percentile.value());
+        }
+        return values;
+    }
+
+    private static Map<String, String> tagsOf(Meter meter) {
+        Map<String, String> tags = new LinkedHashMap<>();
+        for (Tag tag : meter.getId().getTagsAsIterable()) {
+            tags.put(tag.getKey(), tag.getValue());
+        }
+        return tags;
+    }
+
+    private static List<Tag> parseTags(List<String> tagFilters) {
+        List<Tag> tags = new ArrayList<>();
+        if (tagFilters == null) {
+            return tags;
+        }
+        for (String filter : tagFilters) {
+            int separator = filter.indexOf(':');
+            if (separator <= 0 || separator == filter.length() - 1) {
+                throw new InvalidOperationException("Filtro de tag inválido '" + filter + "': use chave:valor.");
+            }
+            tags.add(Tag.of(filter.substring(0, separator), filter.substring(separator + 1)));
+        }
+        return tags;
+    }
+
+    private static void validateWindow(long windowSeconds) {
+        if (windowSeconds < SAMPLE_INTERVAL_SECONDS || windowSeconds > MAX_WINDOW_SECONDS) {
+            throw new InvalidOperationException("A janela da taxa deve estar entre " + SAMPLE_INTERVAL_SECONDS +
+                    " e " + MAX_WINDOW_SECONDS + " segundos.");
+        }
+    }
+
+    /**
+     * Buffer circular de amostras (instante, count) de uma série.
+     */
+    static final class CountHistory {
+        private final long[] times = new long[SAMPLES];
+        private final long[] counts = new long[SAMPLES];
+        private int next;
+        private int size;
+
+        synchronized void add(long time, long count) {
+            times[next] = time;
+            counts[next] = count;
+            next = (next + 1) % SAMPLES;
+            size = Math.min(size + 1, SAMPLES);
+        }
+
+        /**
+         * Taxa entre a amostra mais recente que já tem {@code windowNanos} de idade (ou a mais
+         * antiga disponível, se o histórico for menor que a janela) e o count atual.
+         */
+        synchronized Double rate(long now, long currentCount, long windowNanos) {
+            if (size == 0) {
+                return null;
+            }
+            int chosen = -1;
+            for (int i = 1; i <= size; i++) {
+                int index = Math.floorMod(next - i, SAMPLES);
+                chosen = index;
+                if (now - times[index] >= windowNanos) {
+                    break;
+                }
+            }
+            long elapsed = now - times[chosen];
+            if (elapsed <= 0) {
+                return 0.0;
+            }
+            return (currentCount - counts[chosen]) / (elapsed / 1e9);
+        }
+    }
+}
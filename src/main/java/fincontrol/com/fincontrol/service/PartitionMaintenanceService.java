@@ -0,0 +1,243 @@
+package fincontrol.com.fincontrol.service;
+
+import fincontrol.com.fincontrol.dto.PartitionDto;
+import fincontrol.com.fincontrol.exception.InvalidOperationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Particionamento opcional de expenses (expense_date) e extra_income (date) por mês ou ano.
+ * Com {@code fincontrol.partitioning.enabled=true}, na subida converte as tabelas que ainda não
+ * são particionadas (função partition_table_by_range da migração V4) e, todo dia, garante as
+ * partições do período atual e dos {@code premake} seguintes, para que os inserts nunca caiam
+ * na partição DEFAULT. Datas fora das partições existentes (lançamentos muito antigos) vão para
+ * a DEFAULT e são movidas para a partição própria na manutenção seguinte.
+ *
+ * Só consultas com a data na cláusula WHERE podam partições (ex.: findAllByUserIdAndExpenseDateBetween).
+ * Buscas só por id (findById, update, delete) consultam o índice de cada partição: com muitos anos
+ * de dados, YEARLY mantém esse custo baixo.
+ *
+ * Partições antigas podem ser desanexadas ({@link #detachBefore}) e viram tabelas comuns, prontas
+ * para pg_dump e DROP: as linhas saem das listagens e dos totais por banco (o saldo do banco é
+ * armazenado e não muda).
+ */
+@Service
+public class PartitionMaintenanceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionMaintenanceService.class);
+
+    /** Tabela particionável -> coluna de particionamento. */
+    public static final Map<String, String> PARTITIONED_TABLES = new LinkedHashMap<>();
+
+    static {
+        PARTITIONED_TABLES.put("expenses", "expense_date");
+        PARTITIONED_TABLES.put("extra_income", "date");
+    }
+
+    /** Tabela particionável -> "tabela.coluna" que a referencia (trigger de FK após a conversão). */
+    private static final Map<String, String> REFERENCED_BY = Map.of(
+            "expenses", "bills.expense_id",
+            "extra_income", "receivables.extra_income_id");
+
+    private static final DateTimeFormatter ARCHIVE_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private static final Pattern RANGE_BOUND = Pattern.compile("FROM \\('([0-9-]+)'\\) TO \\('([0-9-]+)'\\)");
+
+    public enum Granularity {
+        MONTHLY("month", DateTimeFormatter.ofPattern("yyyy_MM")),
+        YEARLY("year", DateTimeFormatter.ofPattern("yyyy"));
+
+        private final String sqlInterval;
+        private final DateTimeFormatter suffix;
+
+        Granularity(String sqlInterval, DateTimeFormatter suffix) {
+            this.sqlInterval = sqlInterval;
+            this.suffix = suffix;
+        }
+
+        LocalDate periodStart(LocalDate date) {
+            return this == MONTHLY ? date.withDayOfMonth(1) : date.withDayOfYear(1);
+        }
+
+        LocalDate next(LocalDate periodStart) {
+            return this == MONTHLY ? periodStart.plusMonths(1) : periodStart.plusYears(1);
+        }
+
+        String partitionName(String table, LocalDate periodStart) {
+            return table + "_p" + suffix.format(periodStart);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final Granularity granularity;
+    private final int premake;
+
+    public PartitionMaintenanceService(JdbcTemplate jdbcTemplate,
+                                       @Value("${fincontrol.partitioning.enabled:false}") boolean enabled,
+                                       @Value("${fincontrol.partitioning.granularity:MONTHLY}") Granularity granularity,
+                                       @Value("${fincontrol.partitioning.premake:3}") int premake) {
+        if (premake < 0) {
+            throw new IllegalArgumentException("fincontrol.partitioning.premake must not be negative: " + premake);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.granularity = granularity;
+        this.premake = premake;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void maintainOnStartup() {
+        if (enabled) {
+            maintain();
+        }
+    }
+
+    // Runs every day at 0:15 AM (by default), well before the first day of each premade period
+    @Scheduled(cron = "${fincontrol.partitioning.cron:0 15 0 * * ?}")
+    public void scheduledMaintenance() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            maintain();
+        } catch (Exception e) {
+            logger.error("Error executing partition maintenance: ", e);
+        }
+    }
+
+    /**
+     * Converte as tabelas ainda não particionadas e cria as partições que faltam: as que têm linhas
+     * paradas na DEFAULT e as do período atual mais {@code premake} à frente. Retorna quantas partições criou.
+     */
+    public int maintain() {
+        int created = 0;
+        for (Map.Entry<String, String> entry : PARTITIONED_TABLES.entrySet()) {
+            String table = entry.getKey();
+            String column = entry.getValue();
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT partition_table_by_range(?, ?, ?)",
+                    Boolean.class, table, column, granularity.sqlInterval))) {
+                logger.warn("Table {} converted to a partitioned table by {} ({})", table, column, granularity);
+            }
+
+            List<LocalDate> periods = new ArrayList<>(jdbcTemplate.queryForList(
+                    "SELECT DISTINCT date_trunc('" + granularity.sqlInterval + "', " + column + ")::date FROM " + table + "_default",
+                    LocalDate.class));
+            LocalDate period = granularity.periodStart(LocalDate.now());
+            for (int i = 0; i <= premake; i++) {
+                periods.add(period);
+                period = granularity.next(period);
+            }
+
+            List<PartitionDto> existing = listPartitions(table);
+            for (LocalDate start : periods) {
+                LocalDate end = granularity.next(start);
+                if (overlaps(existing, start, end)) {
+                    continue;
+                }
+                String name = granularity.partitionName(table, start);
+                if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT create_range_partition(?, ?, ?, ?, ?)",
+                        Boolean.class, table, column, name, start, end))) {
+                    logger.info("Partition {} created for [{}, {})", name, start, end);
+                    existing.add(new PartitionDto(name, start, end, 0, 0));
+                    created++;
+                }
+            }
+        }
+        return created;
+    }
+
+    /**
+     * Partições da tabela, com a faixa de datas e o tamanho. Vazio se a tabela não é particionada.
+     */
+    public List<PartitionDto> listPartitions(String table) {
+        requirePartitionable(table);
+        return jdbcTemplate.query("""
+                        SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) AS bound,
+                               GREATEST(c.reltuples, 0)::bigint AS estimated_rows, pg_total_relation_size(c.oid) AS total_bytes
+                        FROM pg_inherits i
+                        JOIN pg_class c ON c.oid = i.inhrelid
+                        WHERE i.inhparent = to_regclass(?)
+                        ORDER BY c.relname
+                        """,
+                (rs, rowNum) -> {
+                    Matcher bound = RANGE_BOUND.matcher(rs.getString("bound"));
+                    boolean range = bound.find();
+                    return new PartitionDto(rs.getString("relname"),
+                            range ? LocalDate.parse(bound.group(1)) : null,
+                            range ? LocalDate.parse(bound.group(2)) : null,
+                            rs.getLong("estimated_rows"),
+                            rs.getLong("total_bytes"));
+                },
+                table);
+    }
+
+    /**
+     * Desanexa as partições da tabela que terminam até {@code before} (exclusivo), que passam a ser
+     * tabelas independentes com o sufixo {@code _archived_<data>}; retorna os novos nomes. Só períodos
+     * já encerrados podem sair, e partições com linhas ainda referenciadas por contas/recebíveis ficam
+     * (a checagem de FK não acompanha o DETACH).
+     * DETACH ... CONCURRENTLY não é usado porque o Postgres não o permite com partição DEFAULT.
+     */
+    public List<String> detachBefore(String table, LocalDate before) {
+        requirePartitionable(table);
+        if (before == null || before.isAfter(granularity.periodStart(LocalDate.now()))) {
+            throw new InvalidOperationException("Only partitions of closed periods can be detached: 'before' must be at most "
+                    + granularity.periodStart(LocalDate.now()) + ".");
+        }
+        String[] reference = REFERENCED_BY.get(table).split("\\.");
+        List<String> detached = new ArrayList<>();
+        for (PartitionDto partition : listPartitions(table)) {
+            if (partition.getTo() != null && !partition.getTo().isAfter(before)) {
+                if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM " + reference[0] + " r JOIN "
+                        + partition.getName() + " p ON p.id = r." + reference[1] + ")", Boolean.class))) {
+                    logger.warn("Partition {} kept: rows still referenced by {}", partition.getName(), REFERENCED_BY.get(table));
+                    continue;
+                }
+                // Renomeada no mesmo comando: o nome original fica livre caso o período volte a receber linhas
+                String archived = partition.getName() + "_archived_" + ARCHIVE_SUFFIX.format(LocalDate.now());
+                jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION " + partition.getName()
+                        + "; ALTER TABLE " + partition.getName() + " RENAME TO " + archived);
+                logger.warn("Partition {} [{}, {}) detached from {} for archival as {}",
+                        partition.getName(), partition.getFrom(), partition.getTo(), table, archived);
+                detached.add(archived);
+            }
+        }
+        return detached;
+    }
+
+    private static boolean overlaps(List<PartitionDto> partitions, LocalDate start, LocalDate end) {
+        for (PartitionDto partition : partitions) {
+            if (partition.getFrom() != null && partition.getFrom().isBefore(end) && start.isBefore(partition.getTo())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void requirePartitionable(String table) {
+        if (!PARTITIONED_TABLES.containsKey(table)) {
+            throw new InvalidOperationException("Table '" + table + "' is not partitionable. Expected one of "
+                    + PARTITIONED_TABLES.keySet() + ".");
+        }
+    }
+}
@@ -16,30 +16,58 @@ import fincontrol.com.fincontrol.repository.BankRepository;
 import fincontrol.com.fincontrol.repository.ExtraIncomeRepository;
 import fincontrol.com.fincontrol.repository.ReceivableRepository;
 import fincontrol.com.fincontrol.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.lang.Long;
 
 @Service
-@RequiredArgsConstructor
 public class ReceivableService {
 
     private static final Logger logger = LoggerFactory.getLogger(ReceivableService.class);
 
+    public static final String OVERDUE_JOB_NAME = "receivables.overdue";
+    public static final String AUTO_RECEIPT_JOB_NAME = "receivables.auto-receipt";
+
     private final ReceivableRepository receivableRepository;
     private final UserRepository userRepository;
     private final ExtraIncomeRepository extraIncomeRepository;
     private final BankRepository bankRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChunkedJobRunner chunkedJobRunner;
+    private final int jobChunkSize;
+
+    public ReceivableService(ReceivableRepository receivableRepository,
+                             UserRepository userRepository,
+                             ExtraIncomeRepository extraIncomeRepository,
+                             BankRepository bankRepository,
+                             ApplicationEventPublisher eventPublisher,
+                             ChunkedJobRunner chunkedJobRunner,
+                             @Value("${fincontrol.jobs.receivables.chunk-size:500}") int jobChunkSize) {
+        this.receivableRepository = receivableRepository;
+        this.userRepository = userRepository;
+        this.extraIncomeRepository = extraIncomeRepository;
+        this.bankRepository = bankRepository;
+        this.eventPublisher = eventPublisher;
+        this.chunkedJobRunner = chunkedJobRunner;
+        this.jobChunkSize = jobChunkSize;
+    }
 
 
     private User findUserById(UUID userId) {
@@ -72,12 +100,33 @@ public class ReceivableService {
         receivable.setStatus(ReceivableStatusEnum.PENDING);
 
         Receivable savedReceivable = receivableRepository.save(receivable);
+        publishDueChange(savedReceivable);
         return toResponseDto(savedReceivable);
     }
 
-    public Page<ReceivableResponseDto> getAllReceivablesFiltered(UUID userId, ReceivableStatusEnum status, LocalDate startDate, LocalDate endDate, Pageable pageable) {
-        return receivableRepository.findByUserAndFilters(userId, status, startDate, endDate, pageable)
-                .map(this::toResponseDto);
+    @Transactional(readOnly = true)
+    public Slice<ReceivableResponseDto> getAllReceivablesFiltered(UUID userId, ReceivableStatusEnum status,
+                                                                  LocalDate startDate, LocalDate endDate,
+                                                                  Pageable pageable, boolean keyset,
+                                                                  LocalDate afterDueDate, UUID afterId) {
+        Specification<Receivable> spec = Specification.where(ReceivableSpecifications.fetchDetails())
+                .and(ReceivableSpecifications.hasUserId(userId));
+
+        if (status != null) {
+            spec = spec.and(ReceivableSpecifications.hasStatus(status));
+        }
+        if (startDate != null) {
+            spec = spec.and(ReceivableSpecifications.dueOnOrAfter(startDate));
+        }
+        if (endDate != null) {
+            spec = spec.and(ReceivableSpecifications.dueOnOrBefore(endDate));
+        }
+
+        if (!keyset) {
+            return receivableRepository.findAll(spec, KeysetPagination.withIdTiebreaker(pageable)).map(this::toResponseDto);
+        }
+        return KeysetPagination.dueDateSlice(receivableRepository, spec, pageable.getPageSize(),
+                afterDueDate, afterId, this::toResponseDto);
     }
 
     public ReceivableResponseDto getReceivableByIdAndUser(UUID receivableId, UUID userId) {
@@ -120,6 +169,7 @@ public class ReceivableService {
 
         if (updated) {
             Receivable savedReceivable = receivableRepository.save(receivable);
+            publishDueChange(savedReceivable);
             return toResponseDto(savedReceivable);
         }
         return toResponseDto(receivable);
@@ -180,6 +230,7 @@ public class ReceivableService {
         }
 
         Receivable savedReceivable = receivableRepository.save(receivable);
+        publishDueChange(savedReceivable);
         return toResponseDto(savedReceivable);
     }
 
@@ -194,76 +245,112 @@ public class ReceivableService {
         }
 
         receivableRepository.delete(receivable);
+        eventPublisher.publishEvent(DueItemChangedEvent.removed(DueItemChangedEvent.Kind.RECEIVABLE, receivable.getId()));
         logger.info("Receivable ID {} deleted successfully.", receivable.getId());
     }
 
 
-    @Transactional
+    /**
+     * Marca como OVERDUE os recebíveis PENDING vencidos, em chunks set-based confirmados
+     * individualmente (checkpoint em batch_job_checkpoints, retomado após uma queda).
+     * Não é @Transactional de propósito: cada chunk abre sua própria transação.
+     */
     public void processOverdueReceivablesJob() {
         logger.info("Starting job to mark overdue receivables...");
-        List<Receivable> pendingOverdue = receivableRepository.findAllByStatusAndDueDateBefore(
-                ReceivableStatusEnum.PENDING,
-                LocalDate.now()
-        );
-        for (Receivable receivable : pendingOverdue) {
-            receivable.setStatus(ReceivableStatusEnum.OVERDUE);
-            receivableRepository.save(receivable);
-            logger.info("Receivable ID {} (ExtraIncome ID {}) marked as OVERDUE.", receivable.getId(), receivable.getExtraIncome().getId());
-        }
-        if (!pendingOverdue.isEmpty()) {
-            logger.info("Overdue receivables job finished. {} receivables updated.", pendingOverdue.size());
-        } else {
-            logger.info("Overdue receivables job finished. No receivables to update.");
-        }
+        long updated = chunkedJobRunner.run(overdueReceivablesJob, LocalDate.now(), jobChunkSize);
+        logger.info("Overdue receivables job finished. {} receivables updated.", updated);
     }
 
-    @Transactional
+    /**
+     * Recebimento automático dos recebíveis PENDING vencendo até hoje, em chunks: cada chunk
+     * carrega recebível e renda extra (com o banco de destino) em uma consulta, soma os créditos por banco,
+     * atualiza cada banco uma única vez e marca os recebíveis como RECEIVED em massa.
+     * Não é @Transactional de propósito: cada chunk abre sua própria transação.
+     */
     public void processAutomaticBankReceiptsJob() {
         logger.info("Starting job for automatic bank receipts...");
-        LocalDate today = LocalDate.now();
-        List<Receivable> receivablesForAutoReceipt = receivableRepository
-                .findAllByStatusAndAutomaticBankReceiptIsTrueAndDueDateIsLessThanEqual(
-                        ReceivableStatusEnum.PENDING, // Processa APENAS PENDENTES para evitar duplicidade com a ação manual
-                        today
-                );
-
-        int successfullyReceivedCount = 0;
-        for (Receivable receivable : receivablesForAutoReceipt) {
-            // A verificação se já é RECEIVED não é estritamente necessária aqui
-            // porque o query já filtra por PENDING. Mas como uma dupla checagem, não faria mal.
-            // if (receivable.getStatus() == ReceivableStatusEnum.RECEIVED || receivable.getStatus() == ReceivableStatusEnum.RECEIVED_LATE) {
-            //     logger.info("Skipping receivable ID {} as it's already processed.", receivable.getId());
-            //     continue;
-            // }
-
-            ExtraIncome extraIncome = receivable.getExtraIncome();
+        long received = chunkedJobRunner.run(autoReceiptJob, LocalDate.now(), jobChunkSize);
+        logger.info("Automatic bank receipts job finished. {} receivables received.", received);
+    }
 
-            if (extraIncome.getBank() != null) {
-                Bank bank = bankRepository.findById(extraIncome.getBank().getId())
-                        .orElseThrow(() -> {
-                            logger.error("Bank with ID {} associated with ExtraIncome ID {} not found for automatic receipt of Receivable ID {}.",
-                                    extraIncome.getBank().getId(), extraIncome.getId(), receivable.getId());
-                            return new ResourceNotFoundException("Bank for automatic receipt not found. Receivable ID: " + receivable.getId());
-                        });
+    private final ChunkedJob overdueReceivablesJob = new ChunkedJob() {
+        @Override
+        public String name() {
+            return OVERDUE_JOB_NAME;
+        }
 
-                bank.setBalance(bank.getBalance().add(extraIncome.getAmount()));
-                bankRepository.save(bank);
+        @Override
+        public int processChunk(LocalDate cutoff, int chunkSize) {
+            return receivableRepository.markOverdueChunk(cutoff, chunkSize);
+        }
 
-                receivable.setStatus(ReceivableStatusEnum.RECEIVED);
-                receivableRepository.save(receivable);
-                successfullyReceivedCount++;
-                logger.info("Receivable ID {} (ExtraIncome ID {}) automatically received. Amount {} added to Bank ID {}.",
-                        receivable.getId(), extraIncome.getId(), extraIncome.getAmount(), bank.getId());
-            } else {
-                logger.warn("Receivable ID {} (ExtraIncome ID {}) is set for automatic bank receipt, but the associated ExtraIncome has no linked bank.",
-                        receivable.getId(), extraIncome.getId());
-            }
+        @Override
+        public LocalDateTime oldestPendingSince(LocalDate cutoff) {
+            LocalDate oldestDueDate = receivableRepository.findOldestDueDateByStatusBefore(ReceivableStatusEnum.PENDING, cutoff, false);
+            // Um recebível previsto para D passa a estar atrasado a partir de D+1 00:00
+            return oldestDueDate == null ? null : oldestDueDate.plusDays(1).atStartOfDay();
         }
-        if (successfullyReceivedCount > 0) {
-            logger.info("Automatic bank receipts job finished. {} receivables processed successfully.", successfullyReceivedCount);
-        } else {
-            logger.info("Automatic bank receipts job finished. No receivables eligible for automatic processing were found or processed.");
+    };
+
+    private final ChunkedJob autoReceiptJob = new ChunkedJob() {
+        @Override
+        public String name() {
+            return AUTO_RECEIPT_JOB_NAME;
+        }
+
+        @Override
+        public int processChunk(LocalDate cutoff, int chunkSize) {
+            return creditAndMarkReceived(receivableRepository.lockAutoReceiptChunk(cutoff, chunkSize));
+        }
+
+        @Override
+        public LocalDateTime oldestPendingSince(LocalDate cutoff) {
+            LocalDate oldestDueDate = receivableRepository.findOldestDueDateByStatusBefore(ReceivableStatusEnum.PENDING, cutoff.plusDays(1), true);
+            // O recebimento automático de D é devido a partir de D 00:00
+            return oldestDueDate == null ? null : oldestDueDate.atStartOfDay();
         }
+    };
+
+    /**
+     * Recebimento automático das contas a receber informadas (disparos do DueDateScheduler).
+     * Recebível e renda extra vêm na mesma consulta; os créditos são somados por banco e cada banco
+     * recebe um único UPDATE. O status é atualizado em massa.
+     *
+     * @return quantidade de contas a receber marcadas como RECEIVED
+     */
+    @Transactional
+    public int receiveAutomatically(List<UUID> receivableIds, LocalDate today) {
+        return creditAndMarkReceived(receivableRepository.lockAutoReceiptCandidatesByIds(receivableIds, today));
+    }
+
+    // Linhas (receivable id, bank id, amount) já travadas; deve rodar dentro de uma transação
+    private int creditAndMarkReceived(List<Object[]> candidates) {
+        Map<UUID, BigDecimal> creditsByBank = new TreeMap<>();
+        List<UUID> received = new ArrayList<>();
+        for (Object[] row : candidates) {
+            received.add((UUID) row[0]);
+            creditsByBank.merge((UUID) row[1], (BigDecimal) row[2], BigDecimal::add);
+        }
+        if (received.isEmpty()) {
+            return 0;
+        }
+
+        // Um UPDATE atômico por banco, em ordem de ID (TreeMap) para evitar deadlocks entre chunks concorrentes
+        for (Map.Entry<UUID, BigDecimal> credit : creditsByBank.entrySet()) {
+            bankRepository.addToBalance(credit.getKey(), credit.getValue());
+        }
+        int updated = receivableRepository.markReceivedByIds(received, ReceivableStatusEnum.PENDING, ReceivableStatusEnum.RECEIVED);
+        logger.info("{} receivables received automatically into {} banks.", updated, creditsByBank.size());
+        return updated;
+    }
+
+    private void publishDueChange(Receivable receivable) {
+        eventPublisher.publishEvent(new DueItemChangedEvent(
+                DueItemChangedEvent.Kind.RECEIVABLE,
+                receivable.getId(),
+                receivable.getDueDate(),
+                Boolean.TRUE.equals(receivable.getAutomaticBankReceipt()),
+                receivable.getStatus() == ReceivableStatusEnum.PENDING));
     }
 
     private ReceivableResponseDto toResponseDto(Receivable receivable) {
@@ -0,0 +1,52 @@
+package fincontrol.com.fincontrol.service;
+
+import fincontrol.com.fincontrol.model.ExtraIncome;
+import fincontrol.com.fincontrol.model.Receivable;
+import fincontrol.com.fincontrol.model.enums.ReceivableStatusEnum;
+import jakarta.persistence.criteria.Fetch;
+import jakarta.persistence.criteria.JoinType;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+public class ReceivableSpecifications {
+
+    /**
+     * Fetch plan of the receivable listing: user, extraIncome and extraIncome.bank are loaded
+     * in the same select, so toResponseDto does not trigger lazy loads per row.
+     * Count queries (pagination) get no fetches.
+     */
+    public static Specification<Receivable> fetchDetails() {
+        return (root, query, criteriaBuilder) -> {
+            if (!KeysetPagination.isCountQuery(query)) {
+                root.fetch("user");
+                Fetch<Receivable, ExtraIncome> extraIncomeFetch = root.fetch("extraIncome");
+                extraIncomeFetch.fetch("bank", JoinType.LEFT);
+            }
+            return null;
+        };
+    }
+
+    // Only predicates for the filters actually sent are added, so each combination gets its own
+    // plan over (user_id, status, due_date) instead of a generic "(:param IS NULL OR ...)" plan
+    public static Specification<Receivable> hasUserId(UUID userId) {
+        return (root, query, criteriaBuilder) ->
+                criteriaBuilder.equal(root.get("user").get("id"), userId);
+    }
+
+    public static Specification<Receivable> hasStatus(ReceivableStatusEnum status) {
+        return (root, query, criteriaBuilder) ->
+                criteriaBuilder.equal(root.get("status"), status);
+    }
+
+    public static Specification<Receivable> dueOnOrAfter(LocalDate startDate) {
+        return (root, query, criteriaBuilder) ->
+                criteriaBuilder.greaterThanOrEqualTo(root.get("dueDate"), startDate);
+    }
+
+    public static Specification<Receivable> dueOnOrBefore(LocalDate endDate) {
+        return (root, query, criteriaBuilder) ->
+                criteriaBuilder.lessThanOrEqualTo(root.get("dueDate"), endDate);
+    }
+}
@@ -1,6 +1,9 @@
 package fincontrol.com.fincontrol.service;
 
+import fincontrol.com.fincontrol.config.Profiled;
+import fincontrol.com.fincontrol.dto.AccountDeletionJobDto;
 import fincontrol.com.fincontrol.dto.LoginDto;
+import fincontrol.com.fincontrol.dto.UserDto;
 import fincontrol.com.fincontrol.dto.UserRegisterDto;
 import fincontrol.com.fincontrol.dto.UserUpdateDto;
 import fincontrol.com.fincontrol.exception.InvalidOperationException;
@@ -9,6 +12,7 @@ import fincontrol.com.fincontrol.model.User;
 import fincontrol.com.fincontrol.repository.UserRepository;
 import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -18,28 +22,37 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
-import java.util.List;
+import java.util.Iterator;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
 public class UserService {
 
+    public static final int MAX_PAGE_SIZE = 500;
+
     private final UserRepository userRepository;
     private final PasswordEncoder encoder;
+    private final AccountDeletionService accountDeletionService;
 
     private static final Pattern NAME_PATTERN = Pattern.compile("^[a-zA-ZÀ-ú']+(\\s[a-zA-ZÀ-ú']+)+$");
     private static final Pattern PASSWORD_PATTERN = Pattern.compile("^(?=.*[A-Za-z])(?=.*\\d)[A-Za-z\\d@$!%*?&]{6,}$");
 
 
     public UserService(UserRepository userRepository,
-                       PasswordEncoder encoder) {
+                       PasswordEncoder encoder,
+                       AccountDeletionService accountDeletionService) {
         this.userRepository = userRepository;
         this.encoder = encoder;
+        this.accountDeletionService = accountDeletionService;
     }
 
+    @Profiled("user.register")
     @Timed(value = "user.register.time", description = "Tempo para registrar um novo usuário")
     @Transactional
     public User register(UserRegisterDto dto) {
@@ -67,6 +80,9 @@ public class UserService {
         if (!encoder.matches(dto.getPassword(), u.getPasswordHash())) {
             throw new BadCredentialsException("A sua senha está incorreta.");
         }
+        if (accountDeletionService.isDeletionPending(u.getId())) {
+            throw new BadCredentialsException("Esta conta está em exclusão.");
+        }
         log.info("Usuário autenticado com email: {}", u.getEmail());
         return u;
     }
@@ -76,9 +92,58 @@ public class UserService {
         return userRepository.findByEmail(email.toLowerCase().trim());
     }
 
+    /**
+     * Valida o tamanho de página de {@link #findAll}. Fica separado da listagem porque o chamador
+     * precisa validar antes de começar a escrever a resposta: depois disso não dá mais para responder 400.
+     */
+    public void checkPageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new InvalidOperationException("O tamanho da página deve estar entre 1 e " + MAX_PAGE_SIZE + ".");
+        }
+    }
+
+    /**
+     * Lista uma página de usuários ordenada por e-mail, paginada por keyset (cursor = e-mail do último
+     * usuário da página anterior) e com filtros opcionais por trecho do e-mail e do nome.
+     * As linhas vêm de uma projeção sem o hash de senha e são entregues uma a uma ao {@code consumer}
+     * enquanto o cursor do banco está aberto, sem montar a lista em memória.
+     * O {@code size} já deve ter passado por {@link #checkPageSize(int)}.
+     *
+     * @return o cursor da próxima página, ou null se esta for a última
+     */
+    @Profiled("user.list")
     @Timed(value = "user.findAll.time", description = "Tempo para listar usuários (serviço)")
-    public List<User> findAll() {
-        return userRepository.findAll();
+    @Transactional(readOnly = true)
+    public String findAll(String email, String name, String afterEmail, int size, Consumer<UserDto> consumer) {
+        String cursor = afterEmail != null ? afterEmail.toLowerCase(Locale.ROOT).trim() : "";
+        try (Stream<UserDto> rows = userRepository.streamUserPage(
+                cursor, containsPattern(email), containsPattern(name), Limit.of(size + 1))) {
+            Iterator<UserDto> iterator = rows.iterator();
+            String lastEmail = null;
+            int written = 0;
+            while (iterator.hasNext()) {
+                UserDto user = iterator.next();
+                if (written == size) {
+                    return lastEmail; // Existe ao menos mais uma linha
+                }
+                consumer.accept(user);
+                lastEmail = user.getEmail();
+                written++;
+            }
+            return null;
+        }
+    }
+
+    // Padrão LIKE "contém", sem diferenciar maiúsculas (e-mails já são gravados em minúsculas)
+    private static String containsPattern(String filter) {
+        if (!StringUtils.hasText(filter)) {
+            return "%";
+        }
+        String escaped = filter.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
     }
 
     @Timed(value = "user.findById.time", description = "Tempo para buscar usuário por ID (serviço)")
@@ -86,6 +151,7 @@ public class UserService {
         return userRepository.findById(id);
     }
 
+    @Profiled("user.update")
     @Timed(value = "user.updateService.time", description = "Tempo para atualização de usuário (serviço)")
     @Transactional
     public User update(UUID id, UserUpdateDto dto) {
@@ -135,18 +201,21 @@ public class UserService {
         return u;
     }
 
+    /**
+     * Agenda a exclusão da conta e de todos os dados do usuário; a remoção roda em segundo plano
+     * ({@link AccountDeletionService}) e o andamento é consultado pelo ID do job devolvido.
+     */
+    @Profiled("user.delete")
     @Timed(value = "user.deleteService.time", description = "Tempo para remover usuário (serviço)")
-    @Transactional
-    public void delete(UUID id) {
-        if (!userRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Usuário não encontrado com ID: " + id + " para exclusão.");
-        }
-        // Adicionar aqui a lógica para desassociar/deletar entidades relacionadas ao usuário ANTES de deletar o usuário,
-        // para evitar DataIntegrityViolationException (ex: bancos, categorias, rendas, despesas).
-        // Exemplo: bankRepository.deleteAllByUserId(id); categoryRepository.deleteAllByUserId(id); etc.
-        // Ou configurar CascadeType.REMOVE nas relações na entidade User.
-        userRepository.deleteById(id);
-        log.info("Usuário (ID: {}) deletado.", id);
+    public AccountDeletionJobDto delete(UUID id) {
+        AccountDeletionJobDto job = accountDeletionService.requestDeletion(id);
+        log.info("Exclusão do usuário (ID: {}) agendada no job {}.", id, job.getJobId());
+        return job;
+    }
+
+    @Timed(value = "user.deletionJob.time", description = "Tempo para consultar um job de exclusão (serviço)")
+    public AccountDeletionJobDto getDeletionJob(UUID jobId) {
+        return accountDeletionService.getJob(jobId);
     }
 
     // --- MÉTODO CORRIGIDO ---
@@ -7,17 +7,27 @@ import fincontrol.com.fincontrol.exception.ResourceNotFoundException;
 import fincontrol.com.fincontrol.model.Bank;
 import fincontrol.com.fincontrol.model.User;
 import fincontrol.com.fincontrol.model.Vault;
+import fincontrol.com.fincontrol.model.VaultTransaction;
+import fincontrol.com.fincontrol.model.enums.VaultTransactionType;
 import fincontrol.com.fincontrol.repository.BankRepository;
 import fincontrol.com.fincontrol.repository.UserRepository;
 import fincontrol.com.fincontrol.repository.VaultRepository;
+import fincontrol.com.fincontrol.repository.VaultTransactionRepository;
 // Removido import desnecessário de ExpenseRepository e ExtraIncomeRepository se não usados diretamente aqui
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 
 import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -25,16 +35,24 @@ import java.util.stream.Collectors;
 @Service
 public class VaultService {
 
+    public static final int MAX_SERIES_DAYS = 366;
+
     private final VaultRepository vaultRepository;
+    private final VaultTransactionRepository vaultTransactionRepository;
     private final UserRepository userRepository;
     private final BankRepository bankRepository;
+    private final ForecastService forecastService;
 
     public VaultService(VaultRepository vaultRepository,
+                        VaultTransactionRepository vaultTransactionRepository,
                         UserRepository userRepository,
-                        BankRepository bankRepository) {
+                        BankRepository bankRepository,
+                        ForecastService forecastService) {
         this.vaultRepository = vaultRepository;
+        this.vaultTransactionRepository = vaultTransactionRepository;
         this.userRepository = userRepository;
         this.bankRepository = bankRepository;
+        this.forecastService = forecastService;
     }
 
     private User getUserById(UUID userId) {
@@ -65,15 +83,19 @@ public class VaultService {
 
         if (dto.getBankId() != null) {
             Bank bank = getBankByIdAndUser(dto.getBankId(), user); // Esta chamada agora está correta
-            if (bank.getBalance().compareTo(dto.getInitialAmount()) < 0) {
-                throw new InsufficientBalanceException("O seu saldo no banco " + bank.getName() + " (ID: " + bank.getId() + ") é de " + bank.getBalance() + ", que é menor que o valor solicitado de " + dto.getInitialAmount() + ".");
+            // Débito condicional e atômico: só é aplicado se o saldo cobrir o valor no momento do UPDATE
+            if (bankRepository.subtractFromBalanceIfSufficient(bank.getId(), dto.getInitialAmount()) == 0) {
+                throw new InsufficientBalanceException("O seu saldo no banco " + bank.getName() + " (ID: " + bank.getId() + ") é menor que o valor solicitado de " + dto.getInitialAmount() + ".");
             }
-            bank.setBalance(bank.getBalance().subtract(dto.getInitialAmount()));
-            bankRepository.save(bank);
+            forecastService.evict(userId);
             vault.setBank(bank);
         }
 
         Vault savedVault = vaultRepository.save(vault);
+        if (savedVault.getAmount().compareTo(BigDecimal.ZERO) > 0) {
+            // O valor inicial abre o extrato, para que a série de saldo parta do valor certo
+            appendLedgerEntry(savedVault, VaultTransactionType.DEPOSIT, savedVault.getAmount(), savedVault.getAmount(), LocalDateTime.now());
+        }
         return toDto(savedVault);
     }
 
@@ -103,22 +125,31 @@ public class VaultService {
         return toDto(vault);
     }
 
+    /**
+     * Exclusão do cofre. Se houver banco, o saldo do cofre volta para ele: o banco é travado
+     * primeiro (mesma ordem do depósito e do saque, para não haver deadlock), o cofre é removido
+     * com DELETE ... RETURNING, que devolve o valor do momento da exclusão, e o crédito é um
+     * UPDATE atômico. Sem banco, só um cofre vazio pode ser excluído (DELETE condicional).
+     */
     @Transactional
     public void deleteVault(UUID vaultId, UUID userId) {
-        User user = getUserById(userId);
-        Vault vault = vaultRepository.findByIdAndUserId(vaultId, userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Cofre com ID " + vaultId + " não encontrado ou não pertence ao usuário."));
+        Vault vault = getVaultWithBankOrThrow(vaultId, userId);
 
         if (vault.getBank() != null) {
-            Bank bank = getBankByIdAndUser(vault.getBank().getId(), user); // Re-busca o banco para garantir que é do usuário e está atualizado
-            bank.setBalance(bank.getBalance().add(vault.getAmount()));
-            bankRepository.save(bank);
-            vaultRepository.delete(vault);
-        } else {
-            if (vault.getAmount().compareTo(BigDecimal.ZERO) > 0) {
-                throw new InvalidOperationException("Não é possível excluir o cofre (ID: " + vaultId + "), pois ele não está vinculado a nenhum banco e o valor de " + vault.getAmount() + " " + vault.getCurrency() + " será perdido. Para poder excluí-lo, remova o valor total do cofre antes.");
+            UUID bankId = vault.getBank().getId();
+            bankRepository.findByIdForUpdate(bankId);
+            BigDecimal amount = vaultRepository.deleteReturningAmount(vaultId, userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Cofre com ID " + vaultId + " não encontrado ou não pertence ao usuário."));
+            if (amount.compareTo(BigDecimal.ZERO) > 0) {
+                bankRepository.addToBalance(bankId, amount);
+                forecastService.evict(userId);
+            }
+        } else if (vaultRepository.deleteIfEmpty(vaultId, userId) == 0) {
+            BigDecimal amount = vaultRepository.findAmountById(vaultId);
+            if (amount == null) {
+                throw new ResourceNotFoundException("Cofre com ID " + vaultId + " não encontrado ou não pertence ao usuário.");
             }
-            vaultRepository.delete(vault);
+            throw new InvalidOperationException("Não é possível excluir o cofre (ID: " + vaultId + "), pois ele não está vinculado a nenhum banco e o valor de " + amount + " " + vault.getCurrency() + " será perdido. Para poder excluí-lo, remova o valor total do cofre antes.");
         }
     }
 
@@ -183,85 +214,159 @@ public class VaultService {
                 .orElseThrow(() -> new ResourceNotFoundException("Cofre com ID " + vaultId + " não encontrado ou não pertence ao usuário."));
     }
 
+    /**
+     * Saque do cofre. O débito no cofre é um UPDATE condicional (amount >= valor), então saques
+     * concorrentes nunca deixam o saldo negativo nem perdem atualizações. Se o cofre tiver banco,
+     * o valor volta para o banco com um UPDATE atômico. O banco é atualizado antes do cofre, na
+     * mesma ordem do depósito, para que operações concorrentes não entrem em deadlock.
+     * O lançamento no extrato é gravado na mesma transação.
+     */
     @Transactional
     public VaultTransactionResponseDto withdrawFromVault(UUID vaultId, VaultTransactionRequestDto dto, UUID userId) {
-        User user = getUserById(userId); // Valida o usuário
-        Vault vault = getVaultByIdAndUserOrThrow(vaultId, userId);
-
         BigDecimal amountToWithdraw = dto.getAmount();
         if (amountToWithdraw.compareTo(BigDecimal.ZERO) <= 0) {
             throw new InvalidOperationException("O valor do saque deve ser positivo.");
         }
 
-        BigDecimal balanceBefore = vault.getAmount();
-
-        if (balanceBefore.compareTo(amountToWithdraw) < 0) {
-            throw new InsufficientBalanceException("Saldo insuficiente no cofre (ID: " + vaultId + "). Saldo atual: " + balanceBefore + ", Saque solicitado: " + amountToWithdraw);
-        }
-
-        vault.setAmount(balanceBefore.subtract(amountToWithdraw));
-        Vault updatedVault = vaultRepository.save(vault);
-        BigDecimal balanceAfter = updatedVault.getAmount();
+        Vault vault = getVaultWithBankOrThrow(vaultId, userId);
+        Bank bank = vault.getBank();
 
         // Se o cofre estiver vinculado a um banco, o valor sacado do cofre retorna ao banco.
-        if (vault.getBank() != null) {
-            Bank bank = getBankByIdAndUser(vault.getBank().getId(), user); // Re-busca para garantir consistência
-            bank.setBalance(bank.getBalance().add(amountToWithdraw));
-            bankRepository.save(bank);
+        if (bank != null) {
+            bankRepository.addToBalance(bank.getId(), amountToWithdraw);
+        }
+        if (vaultRepository.subtractFromAmountIfSufficient(vaultId, amountToWithdraw) == 0) {
+            // A exceção desfaz também o crédito no banco
+            BigDecimal currentAmount = vaultRepository.findAmountById(vaultId);
+            if (currentAmount == null) {
+                throw new ResourceNotFoundException("Cofre com ID " + vaultId + " não encontrado ou não pertence ao usuário.");
+            }
+            throw new InsufficientBalanceException("Saldo insuficiente no cofre (ID: " + vaultId + "). Saldo atual: " + currentAmount + ", Saque solicitado: " + amountToWithdraw);
+        }
+        if (bank != null) {
+            forecastService.evict(userId);
         }
 
-        return new VaultTransactionResponseDto(
-                vault.getId(),
-                vault.getName(),
-                "WITHDRAWAL",
-                amountToWithdraw,
-                balanceBefore,
-                balanceAfter,
-                vault.getCurrency(),
-                vault.getBank() != null ? vault.getBank().getId() : null,
-                vault.getBank() != null ? vault.getBank().getName() : null,
-                LocalDateTime.now()
-        );
+        BigDecimal balanceAfter = vaultRepository.findAmountById(vaultId);
+        LocalDateTime now = LocalDateTime.now();
+        appendLedgerEntry(vault, VaultTransactionType.WITHDRAWAL, amountToWithdraw, balanceAfter, now);
+        return toTransactionDto(vault, VaultTransactionType.WITHDRAWAL, amountToWithdraw, balanceAfter.add(amountToWithdraw), balanceAfter, now);
     }
 
+    /**
+     * Depósito no cofre. Se o cofre tiver banco, o valor sai do banco com um UPDATE condicional
+     * (balance >= valor); o crédito no cofre é um UPDATE atômico. O lançamento no extrato é
+     * gravado na mesma transação.
+     */
     @Transactional
     public VaultTransactionResponseDto depositToVault(UUID vaultId, VaultTransactionRequestDto dto, UUID userId) {
-        User user = getUserById(userId); // Valida o usuário
-        Vault vault = getVaultByIdAndUserOrThrow(vaultId, userId);
-
         BigDecimal amountToDeposit = dto.getAmount();
         if (amountToDeposit.compareTo(BigDecimal.ZERO) <= 0) {
             throw new InvalidOperationException("O valor do depósito deve ser positivo.");
         }
 
-        BigDecimal balanceBefore = vault.getAmount();
+        Vault vault = getVaultWithBankOrThrow(vaultId, userId);
+        Bank bank = vault.getBank();
 
         // Se o cofre estiver vinculado a um banco, o valor depositado no cofre sai do banco.
-        if (vault.getBank() != null) {
-            Bank bank = getBankByIdAndUser(vault.getBank().getId(), user); // Re-busca para garantir consistência
-            if (bank.getBalance().compareTo(amountToDeposit) < 0) {
-                throw new InsufficientBalanceException("Saldo insuficiente no banco (ID: " + bank.getId() + ") para cobrir o depósito no cofre. Saldo do banco: " + bank.getBalance() + ", Depósito solicitado: " + amountToDeposit);
+        // Se não estiver, o dinheiro "surge" no cofre (dinheiro em espécie, por exemplo)
+        if (bank != null) {
+            if (bankRepository.subtractFromBalanceIfSufficient(bank.getId(), amountToDeposit) == 0) {
+                throw new InsufficientBalanceException("Saldo insuficiente no banco (ID: " + bank.getId() + ") para cobrir o depósito no cofre. Depósito solicitado: " + amountToDeposit);
             }
-            bank.setBalance(bank.getBalance().subtract(amountToDeposit));
-            bankRepository.save(bank);
+            forecastService.evict(userId);
+        }
+        if (vaultRepository.addToAmount(vaultId, amountToDeposit) == 0) {
+            // Cofre excluído depois da leitura acima: a exceção desfaz também o débito no banco
+            throw new ResourceNotFoundException("Cofre com ID " + vaultId + " não encontrado ou não pertence ao usuário.");
+        }
+
+        BigDecimal balanceAfter = vaultRepository.findAmountById(vaultId);
+        LocalDateTime now = LocalDateTime.now();
+        appendLedgerEntry(vault, VaultTransactionType.DEPOSIT, amountToDeposit, balanceAfter, now);
+        return toTransactionDto(vault, VaultTransactionType.DEPOSIT, amountToDeposit, balanceAfter.subtract(amountToDeposit), balanceAfter, now);
+    }
+
+    private Vault getVaultWithBankOrThrow(UUID vaultId, UUID userId) {
+        return vaultRepository.findWithBankByIdAndUserId(vaultId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Cofre com ID " + vaultId + " não encontrado ou não pertence ao usuário."));
+    }
+
+    /**
+     * Extrato do cofre, do lançamento mais recente para o mais antigo, paginado por keyset:
+     * o cursor é o (createdAt, id) do último lançamento da página anterior.
+     */
+    @Transactional(readOnly = true)
+    public Slice<VaultLedgerEntryDto> getVaultTransactions(UUID vaultId, UUID userId, int size,
+                                                           LocalDateTime beforeCreatedAt, UUID beforeId) {
+        requireOwnedVault(vaultId, userId);
+        if ((beforeCreatedAt == null) != (beforeId == null)) {
+            throw new InvalidOperationException("Keyset pagination requires both beforeCreatedAt and beforeId.");
+        }
+        if (size < 1 || size > 100) {
+            throw new InvalidOperationException("Page size must be between 1 and 100.");
         }
-        // Se não estiver vinculado a um banco, o dinheiro "surge" no cofre (dinheiro em espécie, por exemplo)
 
-        vault.setAmount(balanceBefore.add(amountToDeposit));
-        Vault updatedVault = vaultRepository.save(vault);
-        BigDecimal balanceAfter = updatedVault.getAmount();
+        Limit limit = Limit.of(size + 1);
+        List<VaultTransaction> rows = beforeCreatedAt == null
+                ? vaultTransactionRepository.findLatestByVaultId(vaultId, limit)
+                : vaultTransactionRepository.findByVaultIdBefore(vaultId, beforeCreatedAt, beforeId, limit);
+        return KeysetPagination.toSlice(rows, size, Sort.by(Sort.Direction.DESC, "createdAt", "id"),
+                t -> new VaultLedgerEntryDto(t.getId(), t.getType(), t.getAmount(), t.getBalanceAfter(), t.getCreatedAt()));
+    }
+
+    /**
+     * Saldo do cofre ao final de cada dia de [from, to], calculado no banco a partir do extrato.
+     */
+    @Transactional(readOnly = true)
+    public List<VaultBalancePointDto> getDailyBalanceSeries(UUID vaultId, UUID userId, LocalDate from, LocalDate to) {
+        requireOwnedVault(vaultId, userId);
+        if (from.isAfter(to) || ChronoUnit.DAYS.between(from, to) >= MAX_SERIES_DAYS) {
+            throw new InvalidOperationException("The balance series range must be between 1 and " + MAX_SERIES_DAYS + " days.");
+        }
+
+        List<Object[]> rows = vaultTransactionRepository.findDailyBalanceSeries(
+                vaultId, from, to, from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+        List<VaultBalancePointDto> series = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            LocalDate day = row[0] instanceof Date date ? date.toLocalDate() : (LocalDate) row[0];
+            series.add(new VaultBalancePointDto(day, (BigDecimal) row[2], (BigDecimal) row[1]));
+        }
+        return series;
+    }
+
+    private void requireOwnedVault(UUID vaultId, UUID userId) {
+        if (!vaultRepository.existsByIdAndUserId(vaultId, userId)) {
+            throw new ResourceNotFoundException("Cofre com ID " + vaultId + " não encontrado ou não pertence ao usuário.");
+        }
+    }
+
+    // Lançamento append-only; vai para o banco no flush do commit, junto com os demais inserts da transação
+    private void appendLedgerEntry(Vault vault, VaultTransactionType type, BigDecimal amount,
+                                   BigDecimal balanceAfter, LocalDateTime at) {
+        VaultTransaction entry = new VaultTransaction();
+        entry.setVault(vault);
+        entry.setType(type);
+        entry.setAmount(amount);
+        entry.setBalanceAfter(balanceAfter);
+        entry.setCreatedAt(at);
+        vaultTransactionRepository.save(entry);
+    }
 
+    private VaultTransactionResponseDto toTransactionDto(Vault vault, VaultTransactionType type, BigDecimal amount,
+                                                         BigDecimal balanceBefore, BigDecimal balanceAfter,
+                                                         LocalDateTime timestamp) {
         return new VaultTransactionResponseDto(
                 vault.getId(),
                 vault.getName(),
-                "DEPOSIT",
-                amountToDeposit,
+                type.name(),
+                amount,
                 balanceBefore,
                 balanceAfter,
                 vault.getCurrency(),
                 vault.getBank() != null ? vault.getBank().getId() : null,
                 vault.getBank() != null ? vault.getBank().getName() : null,
-                LocalDateTime.now()
+                timestamp
         );
     }
 
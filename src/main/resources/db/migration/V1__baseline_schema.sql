@@ -0,0 +1,212 @@
+-- Schema de partida: o mesmo que o Hibernate gerava com ddl-auto=update para as entidades atuais
+-- (nomes das FKs preservados). Bancos já existentes são marcados como V1 pelo baseline-on-migrate.
+
+CREATE TABLE users (
+    id            uuid           NOT NULL,
+    name          varchar(100)   NOT NULL,
+    email         varchar(150)   NOT NULL UNIQUE,
+    password_hash varchar(255)   NOT NULL,
+    salary        numeric(12, 2) NOT NULL,
+    created_at    timestamp      NOT NULL,
+    updated_at    timestamp      NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE banks (
+    id          uuid           NOT NULL,
+    user_id     uuid           NOT NULL,
+    name        varchar(100)   NOT NULL,
+    description varchar(255),
+    balance     numeric(12, 2) NOT NULL,
+    created_at  timestamp(6)   NOT NULL,
+    updated_at  timestamp(6)   NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE categories (
+    id          uuid         NOT NULL,
+    user_id     uuid         NOT NULL,
+    name        varchar(100) NOT NULL,
+    description varchar(255),
+    created_at  timestamp(6) NOT NULL,
+    updated_at  timestamp(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE expenses (
+    id           uuid           NOT NULL,
+    user_id      uuid           NOT NULL,
+    bank_id      uuid,
+    category_id  uuid           NOT NULL,
+    name         varchar(100)   NOT NULL,
+    description  varchar(255),
+    value        numeric(12, 2) NOT NULL,
+    expense_date date           NOT NULL,
+    created_at   timestamp(6)   NOT NULL,
+    updated_at   timestamp(6)   NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE extra_income (
+    id          uuid                     NOT NULL,
+    user_id     uuid                     NOT NULL,
+    bank_id     uuid                     NOT NULL,
+    category_id uuid                     NOT NULL,
+    name        varchar(255)             NOT NULL,
+    description text,
+    amount      numeric(38, 2)           NOT NULL,
+    date        date                     NOT NULL,
+    created_at  timestamp(6) with time zone NOT NULL,
+    updated_at  timestamp(6) with time zone NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE bills (
+    id             uuid         NOT NULL,
+    user_id        uuid         NOT NULL,
+    expense_id     uuid         NOT NULL,
+    bank_id        uuid,
+    payment_method varchar(50)  NOT NULL CHECK (payment_method IN ('CASH', 'CREDIT_CARD', 'DEBIT_CARD', 'PIX', 'BANK_SLIP', 'CHECK', 'LOAN', 'TRANSFER', 'CRYPTOCURRENCY', 'OTHER')),
+    status         varchar(50)  NOT NULL CHECK (status IN ('PENDING', 'PAID', 'OVERDUE', 'PAID_LATE')),
+    auto_pay       boolean      NOT NULL,
+    due_date       date         NOT NULL,
+    payment_date   date,
+    created_at     timestamp(6) NOT NULL,
+    updated_at     timestamp(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE receivables (
+    id                     uuid         NOT NULL,
+    user_id                uuid         NOT NULL,
+    extra_income_id        uuid         NOT NULL,
+    receipt_method         varchar(50)  NOT NULL CHECK (receipt_method IN ('CASH', 'CREDIT_CARD', 'DEBIT_CARD', 'PIX', 'BANK_SLIP', 'CHECK', 'LOAN', 'TRANSFER', 'CRYPTOCURRENCY', 'OTHER')),
+    status                 varchar(50)  NOT NULL CHECK (status IN ('PENDING', 'RECEIVED', 'OVERDUE', 'RECEIVED_LATE')),
+    automatic_bank_receipt boolean      NOT NULL,
+    due_date               date         NOT NULL,
+    created_at             timestamp(6) NOT NULL,
+    updated_at             timestamp(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE vaults (
+    id          uuid           NOT NULL,
+    user_id     uuid           NOT NULL,
+    bank_id     uuid,
+    name        varchar(100)   NOT NULL,
+    description varchar(255),
+    amount      numeric(12, 2) NOT NULL,
+    currency    varchar(10)    NOT NULL,
+    created_at  timestamp(6)   NOT NULL,
+    updated_at  timestamp(6)   NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE vault_transactions (
+    id            uuid           NOT NULL,
+    vault_id      uuid           NOT NULL,
+    type          varchar(20)    NOT NULL CHECK (type IN ('DEPOSIT', 'WITHDRAWAL')),
+    amount        numeric(12, 2) NOT NULL,
+    balance_after numeric(12, 2) NOT NULL,
+    created_at    timestamp(6)   NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE safes (
+    id         uuid           NOT NULL,
+    user_id    uuid           NOT NULL,
+    bank_id    uuid,
+    name       varchar(50)    NOT NULL,
+    balance    numeric(12, 2) NOT NULL,
+    currency   varchar(3)     NOT NULL,
+    created_at timestamp,
+    updated_at timestamp,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE payables (
+    id                 uuid           NOT NULL,
+    user_id            uuid           NOT NULL,
+    category_id        uuid,
+    description        varchar(100)   NOT NULL,
+    amount_total       numeric(12, 2) NOT NULL,
+    total_installments integer        NOT NULL,
+    due_date           date           NOT NULL,
+    paid_date          date,
+    payment_method     varchar(255) CHECK (payment_method IN ('CASH', 'CARD', 'PIX', 'TRANSFER', 'BOLETO', 'OTHER')),
+    status             varchar(255)   NOT NULL CHECK (status IN ('PENDING', 'PAID', 'OVERDUE')),
+    created_at         timestamp,
+    updated_at         timestamp,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE payable_installments (
+    id             uuid           NOT NULL,
+    payable_id     uuid           NOT NULL,
+    installment_no integer        NOT NULL,
+    amount         numeric(12, 2) NOT NULL,
+    due_date       date           NOT NULL,
+    paid_amount    numeric(12, 2),
+    paid_date      date,
+    status         varchar(255)   NOT NULL CHECK (status IN ('PENDING', 'PAID', 'OVERDUE')),
+    created_at     timestamp,
+    updated_at     timestamp,
+    PRIMARY KEY (id),
+    UNIQUE (payable_id, installment_no)
+);
+
+CREATE TABLE batch_job_checkpoints (
+    job_name         varchar(100) NOT NULL,
+    status           varchar(20)  NOT NULL CHECK (status IN ('RUNNING', 'COMPLETED', 'FAILED')),
+    cutoff_date      date         NOT NULL,
+    rows_processed   bigint       NOT NULL,
+    chunks_committed bigint       NOT NULL,
+    last_error       varchar(500),
+    started_at       timestamp(6) NOT NULL,
+    updated_at       timestamp(6) NOT NULL,
+    finished_at      timestamp(6),
+    PRIMARY KEY (job_name)
+);
+
+CREATE TABLE account_deletion_jobs (
+    id               uuid         NOT NULL,
+    user_id          uuid         NOT NULL,
+    status           varchar(20)  NOT NULL CHECK (status IN ('QUEUED', 'RUNNING', 'COMPLETED', 'FAILED')),
+    current_step     varchar(30)  NOT NULL CHECK (current_step IN ('RECEIVABLES', 'BILLS', 'VAULT_TRANSACTIONS', 'VAULTS', 'SAFES', 'PAYABLE_INSTALLMENTS', 'PAYABLES', 'EXPENSES', 'EXTRA_INCOME', 'BANKS', 'CATEGORIES', 'USER')),
+    rows_deleted     bigint       NOT NULL,
+    chunks_committed bigint       NOT NULL,
+    last_error       varchar(500),
+    requested_at     timestamp(6) NOT NULL,
+    started_at       timestamp(6),
+    updated_at       timestamp(6) NOT NULL,
+    finished_at      timestamp(6),
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_account_deletion_jobs_user ON account_deletion_jobs (user_id);
+CREATE INDEX idx_account_deletion_jobs_status ON account_deletion_jobs (status);
+CREATE INDEX idx_expenses_user_category ON expenses (user_id, category_id);
+CREATE INDEX idx_extra_income_user_category ON extra_income (user_id, category_id);
+CREATE INDEX idx_receivables_user_status_due ON receivables (user_id, status, due_date);
+CREATE INDEX idx_receivables_user_due ON receivables (user_id, due_date);
+CREATE INDEX idx_vault_transactions_vault_created ON vault_transactions (vault_id, created_at);
+
+ALTER TABLE banks ADD CONSTRAINT fkggiwuavv00o3p7h3hpenr43ox FOREIGN KEY (user_id) REFERENCES users;
+ALTER TABLE bills ADD CONSTRAINT fko3eyuxv5pn2xi73bkbcwlhf5b FOREIGN KEY (bank_id) REFERENCES banks;
+ALTER TABLE bills ADD CONSTRAINT fkmllv3a9o45ew1bfs8sw2q62wf FOREIGN KEY (expense_id) REFERENCES expenses;
+ALTER TABLE bills ADD CONSTRAINT fkk8vs7ac9xknv5xp18pdiehpp1 FOREIGN KEY (user_id) REFERENCES users;
+ALTER TABLE expenses ADD CONSTRAINT fks95psdpkqk6lubafv2cddscxx FOREIGN KEY (bank_id) REFERENCES banks;
+ALTER TABLE expenses ADD CONSTRAINT fkjao23ohq935a4qrorwwsen0lr FOREIGN KEY (category_id) REFERENCES categories;
+ALTER TABLE expenses ADD CONSTRAINT fkhpk0n2cbnfiuu5nrgl0ika3hq FOREIGN KEY (user_id) REFERENCES users;
+ALTER TABLE extra_income ADD CONSTRAINT fkcgjqkvd7el8fi8gncnk8fklpg FOREIGN KEY (bank_id) REFERENCES banks;
+ALTER TABLE extra_income ADD CONSTRAINT fk7iq6di8ttv522qf8xjij2v63r FOREIGN KEY (user_id) REFERENCES users;
+ALTER TABLE payable_installments ADD CONSTRAINT fkh174p7cf7stlpjopm6qf0s3in FOREIGN KEY (payable_id) REFERENCES payables;
+ALTER TABLE payables ADD CONSTRAINT fkqto35u657y1j0c4fcpelufalq FOREIGN KEY (category_id) REFERENCES categories;
+ALTER TABLE payables ADD CONSTRAINT fk1g34dgpovcmlkbuoapjfo51vc FOREIGN KEY (user_id) REFERENCES users;
+ALTER TABLE receivables ADD CONSTRAINT fk5ib98xy3hnx5ywetxw0jqg6me FOREIGN KEY (extra_income_id) REFERENCES extra_income;
+ALTER TABLE receivables ADD CONSTRAINT fkmbiujdedxebprnlf1aggfx3a3 FOREIGN KEY (user_id) REFERENCES users;
+ALTER TABLE safes ADD CONSTRAINT fkhgafyn83jbgxqmw2645yl1337 FOREIGN KEY (bank_id) REFERENCES banks;
+ALTER TABLE safes ADD CONSTRAINT fktf6yoo5vravqceqd4pncdeh60 FOREIGN KEY (user_id) REFERENCES users;
+ALTER TABLE vault_transactions ADD CONSTRAINT fki2w2xema2knflaxmxcywlmpgk FOREIGN KEY (vault_id) REFERENCES vaults ON DELETE CASCADE;
+ALTER TABLE vaults ADD CONSTRAINT fk6y4py1w2j4xved0ooql5q3fop FOREIGN KEY (bank_id) REFERENCES banks;
+ALTER TABLE vaults ADD CONSTRAINT fk485etnt5lspyk5fs8ulrysk1m FOREIGN KEY (user_id) REFERENCES users;
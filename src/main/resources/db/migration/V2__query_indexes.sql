@@ -0,0 +1,54 @@
+-- Índices para as consultas do pacote repository. Cada um indica a(s) consulta(s) que atende.
+-- IF NOT EXISTS: bancos vindos do ddl-auto=update podem já ter alguns dos índices declarados nas entidades.
+
+-- banks: findAllByUserId, findBalancesByUserId (ORDER BY name, id), deleteChunkByUserId
+CREATE INDEX IF NOT EXISTS idx_banks_user_name ON banks (user_id, name, id);
+
+-- categories: findAllByUserId, findAllInUseByUserId / findUsageStatsByUserId (ORDER BY name), deleteChunkByUserId
+CREATE INDEX IF NOT EXISTS idx_categories_user_name ON categories (user_id, name);
+
+-- vaults: findAllByUserId, findAllByBankIdAndUserId, deleteChunkByUserId
+CREATE INDEX IF NOT EXISTS idx_vaults_user_bank ON vaults (user_id, bank_id);
+
+-- vault_transactions: keyset (created_at DESC, id DESC) por cofre sem sort; substitui (vault_id, created_at)
+CREATE INDEX IF NOT EXISTS idx_vault_transactions_vault_created_id ON vault_transactions (vault_id, created_at, id);
+DROP INDEX IF EXISTS idx_vault_transactions_vault_created;
+
+-- expenses: somas por banco (+ usuário) de BankService.toDto / deleteByBankId, só com o índice (INCLUDE value)
+CREATE INDEX IF NOT EXISTS idx_expenses_bank_user ON expenses (bank_id, user_id) INCLUDE (value);
+-- expenses: existsByCategoryId e o EXISTS de CategoryRepository.findAllInUseByUserId / deleteAllUnusedByUserId
+CREATE INDEX IF NOT EXISTS idx_expenses_category ON expenses (category_id);
+-- (findAllByUserId, findUsageStatsByUserId e deleteChunkByUserId usam idx_expenses_user_category)
+
+-- extra_income: somas por banco + usuário, findAllByUserAndBankId, deleteAllByUserAndBankId
+CREATE INDEX IF NOT EXISTS idx_extra_income_bank_user ON extra_income (bank_id, user_id) INCLUDE (amount);
+-- extra_income: EXISTS por categoria (CategoryRepository)
+CREATE INDEX IF NOT EXISTS idx_extra_income_category ON extra_income (category_id);
+
+-- bills: consultas por status + vencimento com status parametrizado (findOldestDueDateByStatusBefore, findDueItems)
+CREATE INDEX IF NOT EXISTS idx_bills_status_due ON bills (status, due_date);
+-- bills: chunk do job de vencidas (markOverdueChunk, status literal 'PENDING')
+CREATE INDEX IF NOT EXISTS idx_bills_pending_due ON bills (due_date) WHERE status = 'PENDING';
+-- bills: candidatos a pagamento automático (findAutoPayCandidates)
+CREATE INDEX IF NOT EXISTS idx_bills_autopay_due ON bills (status, due_date) WHERE auto_pay;
+-- bills: listagem por usuário (Specification), streamForecastOutflows, deleteChunkByUserId
+CREATE INDEX IF NOT EXISTS idx_bills_user_status_due ON bills (user_id, status, due_date);
+-- bills: FKs (exclusão de despesa/banco)
+CREATE INDEX IF NOT EXISTS idx_bills_expense ON bills (expense_id);
+CREATE INDEX IF NOT EXISTS idx_bills_bank ON bills (bank_id) WHERE bank_id IS NOT NULL;
+
+-- receivables: consultas por status + vencimento com status parametrizado
+CREATE INDEX IF NOT EXISTS idx_receivables_status_due ON receivables (status, due_date);
+-- receivables: chunk do job de vencidas (markOverdueChunk)
+CREATE INDEX IF NOT EXISTS idx_receivables_pending_due ON receivables (due_date) WHERE status = 'PENDING';
+-- receivables: chunk do recebimento automático (lockAutoReceiptChunk, ORDER BY due_date, id)
+CREATE INDEX IF NOT EXISTS idx_receivables_auto_pending_due ON receivables (due_date, id)
+    WHERE status = 'PENDING' AND automatic_bank_receipt;
+-- receivables: FK para extra_income
+CREATE INDEX IF NOT EXISTS idx_receivables_extra_income ON receivables (extra_income_id);
+-- (listagem por usuário, streamForecastInflows e deleteChunkByUserId usam idx_receivables_user_status_due /
+--  idx_receivables_user_due, já existentes)
+
+-- safes / payables: deleteChunkByUserId
+CREATE INDEX IF NOT EXISTS idx_safes_user ON safes (user_id);
+CREATE INDEX IF NOT EXISTS idx_payables_user ON payables (user_id);
@@ -0,0 +1,26 @@
+-- UUIDv7 também para inserts feitos direto em SQL (scripts, cargas). A aplicação gera os ids no
+-- cliente (UuidV7Generator); o DEFAULT só vale quando o id não é informado. Mesmo layout:
+-- 48 bits de epoch em ms, versão 7, variante RFC 4122 e o restante aleatório.
+CREATE OR REPLACE FUNCTION uuid_generate_v7() RETURNS uuid
+    LANGUAGE sql
+    VOLATILE
+AS
+$$
+SELECT encode(
+               set_bit(
+                       set_bit(
+                               overlay(uuid_send(gen_random_uuid())
+                                       PLACING substring(int8send(floor(extract(epoch FROM clock_timestamp()) * 1000)::bigint) FROM 3)
+                                       FROM 1 FOR 6),
+                               52, 1),
+                       53, 1),
+               'hex')::uuid
+$$;
+
+-- Linhas existentes mantêm seus ids v4: eles são referenciados por FKs (bills.expense_id,
+-- receivables.extra_income_id) e pelos clientes da API. Só os inserts novos passam a cair na borda
+-- direita do índice; um REINDEX CONCURRENTLY das PKs depois da troca recupera o inchaço acumulado.
+ALTER TABLE expenses ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE extra_income ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE bills ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE receivables ALTER COLUMN id SET DEFAULT uuid_generate_v7();
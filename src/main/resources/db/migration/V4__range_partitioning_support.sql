@@ -0,0 +1,178 @@
+-- Particionamento declarativo opcional por faixa de data (expenses.expense_date, extra_income.date).
+-- Esta migração só cria as funções; quem converte e mantém as partições é o PartitionMaintenanceService,
+-- e só quando fincontrol.partitioning.enabled=true. Sem a propriedade as tabelas continuam comuns.
+
+-- Cria a partição [p_from, p_to) de p_table. Linhas da faixa que já estejam na partição DEFAULT
+-- (datas fora das partições existentes) são movidas para ela antes do ATTACH.
+-- Retorna false se a partição já existe.
+CREATE OR REPLACE FUNCTION create_range_partition(p_table text, p_column text, p_name text,
+                                                  p_from date, p_to date) RETURNS boolean
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    v_default text := p_table || '_default';
+    v_pending boolean := false;
+BEGIN
+    -- Serializa a manutenção entre instâncias da aplicação
+    PERFORM pg_advisory_xact_lock(hashtext('fincontrol.partitioning'));
+    IF to_regclass(p_name) IS NOT NULL THEN
+        RETURN false;
+    END IF;
+    IF to_regclass(v_default) IS NOT NULL THEN
+        EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE %I >= $1 AND %I < $2)', v_default, p_column, p_column)
+            INTO v_pending USING p_from, p_to;
+    END IF;
+    IF v_pending THEN
+        EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', p_name, p_table);
+        EXECUTE format('WITH moved AS (DELETE FROM %I WHERE %I >= $1 AND %I < $2 RETURNING *) INSERT INTO %I SELECT * FROM moved',
+                       v_default, p_column, p_column, p_name) USING p_from, p_to;
+        EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)', p_table, p_name, p_from, p_to);
+    ELSE
+        EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)', p_name, p_table, p_from, p_to);
+    END IF;
+    RETURN true;
+END;
+$$;
+
+-- Substituto de FK para tabela pai particionada, nos dois lados. Argumentos:
+--   filha:  (tabela pai, coluna pai, coluna filha) - o pai precisa existir; FOR KEY SHARE segura o
+--           pai até o commit, como a FK faz;
+--   pai:    (tabela filha, coluna filha, coluna pai) - RESTRICT: não remove/altera pai referenciado.
+CREATE OR REPLACE FUNCTION fk_partitioned_check_parent() RETURNS trigger
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    v_value uuid := (to_jsonb(NEW) ->> TG_ARGV[2])::uuid;
+    v_rows  bigint;
+BEGIN
+    IF v_value IS NULL THEN
+        RETURN NULL;
+    END IF;
+    EXECUTE format('SELECT 1 FROM %I WHERE %I = $1 FOR KEY SHARE', TG_ARGV[0], TG_ARGV[1]) USING v_value;
+    GET DIAGNOSTICS v_rows = ROW_COUNT;
+    IF v_rows = 0 THEN
+        RAISE EXCEPTION 'insert or update on table "%" violates foreign key constraint "%"', TG_TABLE_NAME, TG_NAME
+            USING ERRCODE = 'foreign_key_violation',
+                DETAIL = format('Key (%s)=(%s) is not present in table "%s".', TG_ARGV[2], v_value, TG_ARGV[0]);
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION fk_partitioned_check_children() RETURNS trigger
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    v_old   uuid := (to_jsonb(OLD) ->> TG_ARGV[2])::uuid;
+    v_found boolean;
+BEGIN
+    IF TG_OP = 'UPDATE' AND (to_jsonb(NEW) ->> TG_ARGV[2])::uuid = v_old THEN
+        RETURN NULL;
+    END IF;
+    EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE %I = $1)', TG_ARGV[0], TG_ARGV[1]) INTO v_found USING v_old;
+    IF v_found THEN
+        RAISE EXCEPTION 'update or delete on table "%" violates foreign key constraint "%" on table "%"',
+            TG_TABLE_NAME, TG_NAME, TG_ARGV[0]
+            USING ERRCODE = 'foreign_key_violation';
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+-- Converte p_table em tabela particionada por RANGE (p_column), com uma partição por p_interval
+-- ('month' ou 'year') para cada período que já tem linhas, mais a partição DEFAULT.
+-- Mudanças de estrutura inevitáveis:
+--   * a PK passa a ser (id, p_column): no Postgres a chave única de uma tabela particionada
+--     precisa conter a coluna de particionamento. O id continua único na prática (UUID gerado na aplicação);
+--   * FKs que apontam para a tabela (bills.expense_id, receivables.extra_income_id) exigiriam a data
+--     também na tabela filha; viram triggers com a mesma checagem (fk_partitioned_*),
+--     mesmo nome e mesmo SQLSTATE 23503 da FK original.
+-- Índices secundários, CHECKs, defaults e FKs de saída são recriados na tabela particionada.
+-- Reescreve a tabela inteira sob lock exclusivo: em bases grandes, rodar em janela de manutenção.
+-- Retorna false se a tabela já é particionada.
+CREATE OR REPLACE FUNCTION partition_table_by_range(p_table text, p_column text, p_interval text) RETURNS boolean
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    v_old      text := p_table || '_unpartitioned';
+    v_indexes  text[];
+    v_fks      text[];
+    v_incoming text[];
+    v_fk       text[];
+    v_def      text;
+    v_period   date;
+    v_step     interval := ('1 ' || p_interval)::interval;
+    r          record;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('fincontrol.partitioning'));
+    IF (SELECT relkind FROM pg_class WHERE oid = to_regclass(p_table)) = 'p' THEN
+        RETURN false;
+    END IF;
+    EXECUTE format('LOCK TABLE %I IN ACCESS EXCLUSIVE MODE', p_table);
+
+    -- FKs de entrada: as colunas são guardadas agora, os triggers só entram depois da carga
+    v_incoming := ARRAY(SELECT format('%s|%s|%s|%s', c.conname, c.conrelid::regclass, ca.attname, pa.attname)
+                        FROM pg_constraint c
+                        JOIN pg_attribute ca ON ca.attrelid = c.conrelid AND ca.attnum = c.conkey[1]
+                        JOIN pg_attribute pa ON pa.attrelid = c.confrelid AND pa.attnum = c.confkey[1]
+                        WHERE c.contype = 'f' AND c.confrelid = to_regclass(p_table) AND c.conrelid <> c.confrelid);
+    FOR r IN SELECT conname, conrelid::regclass AS child
+             FROM pg_constraint
+             WHERE contype = 'f' AND confrelid = to_regclass(p_table) AND conrelid <> confrelid
+        LOOP
+            EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', r.child, r.conname);
+        END LOOP;
+
+    v_indexes := ARRAY(SELECT pg_get_indexdef(indexrelid)
+                       FROM pg_index
+                       WHERE indrelid = to_regclass(p_table) AND NOT indisprimary);
+    v_fks := ARRAY(SELECT format('ALTER TABLE %I ADD CONSTRAINT %I %s', p_table, conname, pg_get_constraintdef(oid))
+                   FROM pg_constraint
+                   WHERE contype = 'f' AND conrelid = to_regclass(p_table));
+
+    EXECUTE format('ALTER TABLE %I RENAME TO %I', p_table, v_old);
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS) PARTITION BY RANGE (%I)',
+                   p_table, v_old, p_column);
+    EXECUTE format('CREATE TABLE %I PARTITION OF %I DEFAULT', p_table || '_default', p_table);
+
+    FOR v_period IN EXECUTE format('SELECT DISTINCT date_trunc(%L, %I)::date FROM %I', p_interval, p_column, v_old)
+        LOOP
+            PERFORM create_range_partition(p_table, p_column,
+                                           p_table || '_p' || to_char(v_period, CASE p_interval WHEN 'year' THEN 'YYYY' ELSE 'YYYY_MM' END),
+                                           v_period, (v_period + v_step)::date);
+        END LOOP;
+
+    EXECUTE format('INSERT INTO %I SELECT * FROM %I', p_table, v_old);
+    EXECUTE format('DROP TABLE %I', v_old);
+
+    EXECUTE format('ALTER TABLE %I ADD PRIMARY KEY (id, %I)', p_table, p_column);
+    FOREACH v_def IN ARRAY v_indexes
+        LOOP
+            EXECUTE v_def;
+        END LOOP;
+    FOREACH v_def IN ARRAY v_fks
+        LOOP
+            EXECUTE v_def;
+        END LOOP;
+    FOREACH v_def IN ARRAY v_incoming
+        LOOP
+            v_fk := string_to_array(v_def, '|'); -- nome, tabela filha, coluna filha, coluna pai
+            EXECUTE format('CREATE TRIGGER %I AFTER INSERT OR UPDATE OF %I ON %s FOR EACH ROW '
+                               'EXECUTE FUNCTION fk_partitioned_check_parent(%L, %L, %L)',
+                           v_fk[1], v_fk[3], v_fk[2], p_table, v_fk[4], v_fk[3]);
+            EXECUTE format('CREATE TRIGGER %I AFTER DELETE OR UPDATE OF %I ON %I FOR EACH ROW '
+                               'EXECUTE FUNCTION fk_partitioned_check_children(%L, %L, %L)',
+                           v_fk[1], v_fk[4], p_table, v_fk[2], v_fk[3], v_fk[4]);
+        END LOOP;
+    RETURN true;
+END;
+$$;
+
+-- expenses / extra_income: listagem por período (findAllByUserIdAndExpenseDateBetween,
+-- findAllByUserAndDateBetween); com a tabela particionada, vale dentro de cada partição lida
+CREATE INDEX IF NOT EXISTS idx_expenses_user_date ON expenses (user_id, expense_date);
+CREATE INDEX IF NOT EXISTS idx_extra_income_user_date ON extra_income (user_id, date);
@@ -0,0 +1,43 @@
+-- Invalidação do cache de segundo nível entre instâncias (CacheInvalidationListener): cada linha
+-- gravada em users, banks ou categories gera um NOTIFY no canal fincontrol_cache com
+-- "<tabela>:<id>:<user_id>". O NOTIFY só é entregue no commit, e nunca para transações desfeitas.
+-- Os triggers nascem desligados: quem liga/desliga é a aplicação, conforme
+-- fincontrol.cache.hibernate.notify-invalidation.enabled, para não pagar o NOTIFY (que serializa
+-- os commits que notificam) em instalações de uma instância só.
+CREATE OR REPLACE FUNCTION notify_cache_invalidation() RETURNS trigger
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    v_row  record;
+    v_user uuid;
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        v_row := OLD;
+    ELSE
+        v_row := NEW;
+    END IF;
+    -- Campos resolvidos em statements separados: users não tem user_id
+    IF TG_TABLE_NAME = 'users' THEN
+        v_user := v_row.id;
+    ELSE
+        v_user := v_row.user_id;
+    END IF;
+    PERFORM pg_notify('fincontrol_cache', TG_TABLE_NAME || ':' || v_row.id || ':' || v_user);
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER users_cache_notify
+    AFTER INSERT OR UPDATE OR DELETE ON users
+    FOR EACH ROW EXECUTE FUNCTION notify_cache_invalidation();
+CREATE TRIGGER banks_cache_notify
+    AFTER INSERT OR UPDATE OR DELETE ON banks
+    FOR EACH ROW EXECUTE FUNCTION notify_cache_invalidation();
+CREATE TRIGGER categories_cache_notify
+    AFTER INSERT OR UPDATE OR DELETE ON categories
+    FOR EACH ROW EXECUTE FUNCTION notify_cache_invalidation();
+
+ALTER TABLE users DISABLE TRIGGER users_cache_notify;
+ALTER TABLE banks DISABLE TRIGGER banks_cache_notify;
+ALTER TABLE categories DISABLE TRIGGER categories_cache_notify;
@@ -0,0 +1,35 @@
+-- fk_partitioned_check_children (V4): um UPDATE que muda a data de uma despesa/renda extra para
+-- outro período move a linha de partição, e o Postgres dispara isso como DELETE na partição de
+-- origem (mais INSERT na de destino), não como UPDATE. O ramo de DELETE via filhos ainda
+-- apontando para o id e falhava com 23503, mesmo com a linha viva na partição nova.
+-- Agora o DELETE só checa os filhos se a chave sumiu da tabela particionada inteira
+-- (pg_partition_root). Os triggers já criados usam a função pelo nome e pegam o corpo novo.
+CREATE OR REPLACE FUNCTION fk_partitioned_check_children() RETURNS trigger
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    v_old   uuid := (to_jsonb(OLD) ->> TG_ARGV[2])::uuid;
+    v_found boolean;
+BEGIN
+    IF TG_OP = 'UPDATE' AND (to_jsonb(NEW) ->> TG_ARGV[2])::uuid = v_old THEN
+        RETURN NULL;
+    END IF;
+    IF TG_OP = 'DELETE' THEN
+        -- Trigger AFTER: a linha movida já está visível na partição de destino
+        EXECUTE format('SELECT EXISTS (SELECT 1 FROM %s WHERE %I = $1)',
+                       coalesce(pg_partition_root(TG_RELID), TG_RELID::regclass), TG_ARGV[2])
+            INTO v_found USING v_old;
+        IF v_found THEN
+            RETURN NULL;
+        END IF;
+    END IF;
+    EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE %I = $1)', TG_ARGV[0], TG_ARGV[1]) INTO v_found USING v_old;
+    IF v_found THEN
+        RAISE EXCEPTION 'update or delete on table "%" violates foreign key constraint "%" on table "%"',
+            TG_TABLE_NAME, TG_NAME, TG_ARGV[0]
+            USING ERRCODE = 'foreign_key_violation';
+    END IF;
+    RETURN NULL;
+END;
+$$;
@@ -0,0 +1,121 @@
+package fincontrol.com.fincontrol.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fincontrol.com.fincontrol.dto.BankDto;
+import fincontrol.com.fincontrol.dto.BankSimpleDto;
+import fincontrol.com.fincontrol.dto.CategorySimpleDto;
+import fincontrol.com.fincontrol.dto.ExpenseDataDto;
+import fincontrol.com.fincontrol.dto.ExpenseDetailResponseDto;
+import fincontrol.com.fincontrol.dto.ExtraIncomeDto;
+import fincontrol.com.fincontrol.dto.UserSimpleDto;
+import fincontrol.com.fincontrol.support.BenchmarkTimer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Tamanho e custo de serialização das listagens em JSON, CBOR e Smile (BinaryFormatsConfig), com
+ * os mappers dos conversores HTTP da aplicação: {@code benchmark.items} itens (padrão 10k) de
+ * despesas, rendas extras e bancos, com dados parecidos com os reais (20 categorias, 5 bancos, um
+ * usuário, metade das descrições repetidas). Mede bytes crus e com gzip (nível padrão, o mesmo do
+ * Tomcat) e a mediana de writeValueAsBytes e readTree.
+ * Ex.: mvn test -Pbenchmark -Dtest=BinaryFormatsBenchmark -DargLine="-Dbenchmark.items=10000"
+ */
+@SpringBootTest(properties = {
+        "fincontrol.duedate.wheel.enabled=false",
+        "logging.level.fincontrol.com.fincontrol=WARN"
+})
+class BinaryFormatsBenchmark {
+
+    private final int items = Integer.getInteger("benchmark.items", 10_000);
+    private final int rounds = Integer.getInteger("benchmark.rounds", 40);
+
+    @Autowired
+    private MappingJackson2HttpMessageConverter json;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cbor;
+
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smile;
+
+    @Test
+    void sizeAndSerializationPerFormat() throws Exception {
+        Map<String, ObjectMapper> formats = new LinkedHashMap<>();
+        formats.put("json", json.getObjectMapper());
+        formats.put("cbor", cbor.getObjectMapper());
+        formats.put("smile", smile.getObjectMapper());
+
+        System.out.printf("%,d items per list, median of %d runs:%n", items, rounds);
+        System.out.printf("  %-12s %-6s %12s %10s %12s %12s%n", "list", "format", "raw bytes", "gzip", "serialize", "readTree");
+        for (Map.Entry<String, List<?>> list : lists().entrySet()) {
+            for (Map.Entry<String, ObjectMapper> format : formats.entrySet()) {
+                ObjectMapper mapper = format.getValue();
+                byte[] raw = mapper.writeValueAsBytes(list.getValue());
+                double serialize = BenchmarkTimer.medianMillis(rounds, rounds, () -> mapper.writeValueAsBytes(list.getValue()));
+                double readTree = BenchmarkTimer.medianMillis(rounds, rounds, () -> mapper.readTree(raw));
+                System.out.printf("  %-12s %-6s %,12d %,10d %9.1f ms %9.1f ms%n",
+                        list.getKey(), format.getKey(), raw.length, gzip(raw).length, serialize, readTree);
+            }
+        }
+    }
+
+    private Map<String, List<?>> lists() {
+        Random random = new Random(42);
+        List<CategorySimpleDto> categories = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            categories.add(new CategorySimpleDto(UUID.randomUUID(), "Categoria " + i));
+        }
+        List<BankSimpleDto> banks = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            banks.add(new BankSimpleDto(UUID.randomUUID(), "Banco " + i));
+        }
+        UserSimpleDto user = new UserSimpleDto(UUID.randomUUID(), "Maria Silva");
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 8, 0);
+
+        List<ExpenseDetailResponseDto> expenses = new ArrayList<>(items);
+        List<ExtraIncomeDto> incomes = new ArrayList<>(items);
+        List<BankDto> bankList = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            LocalDateTime time = base.plusSeconds(random.nextInt(30_000_000)).plusNanos(random.nextInt(1_000_000) * 1000L);
+            String description = random.nextBoolean() ? "Campo não Informado pelo Usuário" : "Compra " + random.nextInt(500);
+            BigDecimal value = BigDecimal.valueOf(random.nextInt(500_000), 2);
+            CategorySimpleDto category = categories.get(random.nextInt(categories.size()));
+            BankSimpleDto bank = banks.get(random.nextInt(banks.size()));
+            expenses.add(new ExpenseDetailResponseDto(user, new ExpenseDataDto(UUID.randomUUID(), "Despesa " + random.nextInt(1000),
+                    description, value, time.toLocalDate(), category, bank, time, time)));
+            incomes.add(new ExtraIncomeDto(UUID.randomUUID(), "Renda " + random.nextInt(1000), description, value, time.toLocalDate(),
+                    category.getId(), bank.getId(), time.toInstant(ZoneOffset.UTC), time.toInstant(ZoneOffset.UTC)));
+            bankList.add(new BankDto(UUID.randomUUID(), "Banco " + i, description, value, value, value, time, time));
+        }
+        Map<String, List<?>> lists = new LinkedHashMap<>();
+        lists.put("expenses", expenses);
+        lists.put("extraIncome", incomes);
+        lists.put("banks", bankList);
+        return lists;
+    }
+
+    private static byte[] gzip(byte[] raw) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(raw);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,177 @@
+package fincontrol.com.fincontrol.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import fincontrol.com.fincontrol.model.Bank;
+import fincontrol.com.fincontrol.model.User;
+import fincontrol.com.fincontrol.repository.BankRepository;
+import fincontrol.com.fincontrol.repository.UserRepository;
+import fincontrol.com.fincontrol.security.JwtTokenProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Negociação de CBOR/Smile (BinaryFormatsConfig, inclusive na listagem de usuários em streaming)
+ * e o limite mínimo de compressão (CompressionThresholdFilter), contra o Tomcat de verdade, que é
+ * quem comprime.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class BinaryFormatsTests {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BankRepository bankRepository;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User user;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("Formats Test");
+        user.setEmail("formats-" + UUID.randomUUID() + "@test.local");
+        user.setPasswordHash("x");
+        user.setSalary(BigDecimal.TEN);
+        user = userRepository.save(user);
+        token = jwtTokenProvider.generateToken(user.getEmail(), user.getId());
+        newBank("Formats Bank");
+    }
+
+    @AfterEach
+    void tearDown() {
+        bankRepository.deleteAll(bankRepository.findAllByUserId(user.getId()));
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void jsonStaysTheDefault() throws Exception {
+        HttpResponse<byte[]> response = get("*/*", "identity");
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Type").orElseThrow().startsWith("application/json"));
+        assertEquals("Formats Bank", objectMapper.readTree(response.body()).get(0).get("name").asText());
+    }
+
+    @Test
+    void cborIsNegotiatedAndCarriesTheSameDocument() throws Exception {
+        HttpResponse<byte[]> json = get("application/json", "identity");
+        HttpResponse<byte[]> cbor = get("application/cbor", "identity");
+        assertEquals(200, cbor.statusCode());
+        assertEquals("application/cbor", cbor.headers().firstValue("Content-Type").orElseThrow());
+        assertTrue(cbor.body().length < json.body().length);
+
+        JsonNode fromCbor = new ObjectMapper(new CBORFactory()).readTree(cbor.body()).get(0);
+        JsonNode fromJson = objectMapper.readTree(json.body()).get(0);
+        assertEquals(fromJson.get("name"), fromCbor.get("name"));
+        assertEquals(fromJson.get("createdAt"), fromCbor.get("createdAt"));
+        // UUID vai como 16 bytes binários no CBOR
+        assertEquals(fromJson.get("id").asText(), uuid(fromCbor.get("id").binaryValue()).toString());
+    }
+
+    @Test
+    void onlyResponsesAboveTheThresholdAreCompressed() throws Exception {
+        HttpResponse<byte[]> small = get("application/json", "gzip");
+        assertFalse(small.headers().firstValue("Content-Encoding").isPresent());
+        assertEquals(String.valueOf(small.body().length), small.headers().firstValue("Content-Length").orElseThrow());
+
+        for (int i = 0; i < 30; i++) {
+            newBank("Formats Bank " + i);
+        }
+        HttpResponse<byte[]> large = get("application/json", "gzip");
+        assertEquals("gzip", large.headers().firstValue("Content-Encoding").orElseThrow());
+        byte[] body = new GZIPInputStream(new ByteArrayInputStream(large.body())).readAllBytes();
+        assertEquals(31, objectMapper.readTree(body).size());
+    }
+
+    @Test
+    void streamedUserListFollowsTheAcceptHeader() throws Exception {
+        String path = "/api/users?size=5&email=" + user.getEmail();
+        long listed = meterRegistry.get("user.list.time").timer().count();
+
+        HttpResponse<byte[]> cbor = get(path, "application/cbor", "identity");
+        assertEquals(200, cbor.statusCode());
+        assertEquals("application/cbor", cbor.headers().firstValue("Content-Type").orElseThrow());
+        JsonNode page = new ObjectMapper(new CBORFactory()).readTree(cbor.body());
+        assertEquals(user.getEmail(), page.get("content").get(0).get("email").asText());
+        assertFalse(page.get("hasNext").asBoolean());
+
+        HttpResponse<byte[]> smile = get(path, "application/x-jackson-smile", "identity");
+        assertEquals(200, smile.statusCode());
+        assertEquals(user.getEmail(), new ObjectMapper(new SmileFactory()).readTree(smile.body())
+                .get("content").get(0).get("email").asText());
+
+        HttpResponse<byte[]> json = get(path, "*/*", "identity");
+        assertTrue(json.headers().firstValue("Content-Type").orElseThrow().startsWith("application/json"));
+        assertEquals(user.getEmail(), objectMapper.readTree(json.body()).get("content").get(0).get("email").asText());
+
+        assertEquals(400, get("/api/users?size=0", "application/json", "identity").statusCode());
+
+        // O timer para quando a escrita termina, que pode ser logo depois de o cliente receber o corpo
+        long deadline = System.currentTimeMillis() + 2_000;
+        while (meterRegistry.get("user.list.time").timer().count() < listed + 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(listed + 3, meterRegistry.get("user.list.time").timer().count());
+    }
+
+    private HttpResponse<byte[]> get(String accept, String acceptEncoding) throws Exception {
+        return get("/api/banks", accept, acceptEncoding);
+    }
+
+    private HttpResponse<byte[]> get(String path, String accept, String acceptEncoding) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Authorization", "Bearer " + token)
+                .header("Accept", accept)
+                .header("Accept-Encoding", acceptEncoding)
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private void newBank(String name) {
+        Bank bank = new Bank();
+        bank.setName(name);
+        bank.setUser(user);
+        bankRepository.save(bank);
+    }
+
+    private static UUID uuid(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
@@ -0,0 +1,195 @@
+package fincontrol.com.fincontrol.config;
+
+import fincontrol.com.fincontrol.dto.BankDto;
+import fincontrol.com.fincontrol.dto.BillResponseDto;
+import fincontrol.com.fincontrol.exception.ResourceNotFoundException;
+import fincontrol.com.fincontrol.model.enums.BillStatus;
+import fincontrol.com.fincontrol.repository.BatchJobCheckpointRepository;
+import fincontrol.com.fincontrol.scheduler.BillScheduledTasks;
+import fincontrol.com.fincontrol.service.BankService;
+import fincontrol.com.fincontrol.service.BillService;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Eventos JFR do JfrEventAspect numa gravação de verdade (jdk.jfr.Recording, threshold 0): campos
+ * do ServiceOperation para listas, Slices, contagens e exceções, hash do usuário no lugar do id, e
+ * o ScheduledJob do job de contas vencidas somando as contagens das operações de serviço aninhadas.
+ */
+@SpringBootTest(properties = "fincontrol.duedate.wheel.enabled=false")
+class JfrEventAspectTests {
+
+    private static final int OVERDUE_BILLS = 3;
+
+    @Autowired
+    private BankService bankService;
+
+    @Autowired
+    private BillService billService;
+
+    @Autowired
+    private BillScheduledTasks billScheduledTasks;
+
+    @Autowired
+    private BatchJobCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        checkpointRepository.deleteById(BillService.OVERDUE_JOB_NAME);
+        userId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (id, name, email, password_hash, salary, created_at, updated_at) " +
+                "VALUES (?, 'JFR Test', ?, 'x', 10, now(), now())", userId, "jfr-" + userId + "@test.local");
+        UUID categoryId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO categories (id, user_id, name, created_at, updated_at) VALUES (?, ?, 'Contas', now(), now())",
+                categoryId, userId);
+        UUID bankId = insertBank("Banco A");
+        insertBank("Banco B");
+        for (int i = 0; i < OVERDUE_BILLS; i++) {
+            UUID expenseId = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO expenses (id, user_id, bank_id, category_id, name, value, expense_date, created_at, updated_at) " +
+                    "VALUES (?, ?, ?, ?, 'Despesa', 10.00, current_date, now(), now())", expenseId, userId, bankId, categoryId);
+            jdbcTemplate.update("INSERT INTO bills (id, user_id, expense_id, bank_id, payment_method, status, auto_pay, due_date, created_at, updated_at) " +
+                    "VALUES (?, ?, ?, ?, 'PIX', 'PENDING', false, ?, now(), now())",
+                    UUID.randomUUID(), userId, expenseId, bankId, LocalDate.now().minusDays(i + 1));
+        }
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(userId.toString(), null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        checkpointRepository.deleteById(BillService.OVERDUE_JOB_NAME);
+        jdbcTemplate.update("DELETE FROM bills WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM expenses WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM banks WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM categories WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+    }
+
+    @Test
+    void serviceOperationsRecordNameUserHashRowsAndOutcome() throws Exception {
+        List<RecordedEvent> events = record(() -> {
+            List<BankDto> banks = bankService.listAll();
+            assertEquals(2, banks.size());
+            Slice<BillResponseDto> slice = billService.getAllBillsFiltered(userId, BillStatus.PENDING, null, null,
+                    PageRequest.of(0, 2), true, null, null);
+            assertEquals(2, slice.getNumberOfElements());
+            assertThrows(ResourceNotFoundException.class, () -> billService.getBillByIdAndUser(UUID.randomUUID(), userId));
+        });
+
+        RecordedEvent list = single(events, ServiceOperationEvent.NAME, "BankService.listAll");
+        assertEquals(2, list.getLong("rows"));
+        assertEquals("OK", list.getString("outcome"));
+        String hash = list.getString("userIdHash");
+        assertTrue(hash.matches("[0-9a-f]{16}"), hash);
+        assertEquals(sha256Prefix(userId.toString()), hash);
+        assertFalse(hash.contains(userId.toString()));
+
+        RecordedEvent slice = single(events, ServiceOperationEvent.NAME, "BillService.getAllBillsFiltered");
+        assertEquals(2, slice.getLong("rows"));
+        assertEquals(hash, slice.getString("userIdHash"));
+
+        RecordedEvent failed = single(events, ServiceOperationEvent.NAME, "BillService.getBillByIdAndUser");
+        assertEquals("ResourceNotFoundException", failed.getString("outcome"));
+        assertEquals(-1, failed.getLong("rows"));
+
+        // Nenhum campo de nenhum evento carrega o id em claro
+        for (RecordedEvent event : events) {
+            assertFalse(event.toString().contains(userId.toString()), event.toString());
+        }
+    }
+
+    @Test
+    void scheduledJobSumsTheCountsOfNestedServiceOperations() throws Exception {
+        // O UPDATE do job é global: contas vencidas deixadas por outros dados também entram na conta
+        long eligible = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM bills WHERE status = 'PENDING' AND due_date < current_date", Long.class);
+        SecurityContextHolder.clearContext();
+
+        List<RecordedEvent> events = record(billScheduledTasks::checkAndMarkOverdueBills);
+
+        // processOverdueBillsJob é void (rows -1, fora da soma); ChunkedJobRunner.run devolve a contagem
+        RecordedEvent job = single(events, ScheduledJobEvent.NAME, "BillScheduledTasks.checkAndMarkOverdueBills");
+        assertEquals("OK", job.getString("outcome"));
+        RecordedEvent processJob = single(events, ServiceOperationEvent.NAME, "BillService.processOverdueBillsJob");
+        assertEquals(-1, processJob.getLong("rows"));
+        RecordedEvent run = single(events, ServiceOperationEvent.NAME, "ChunkedJobRunner.run");
+        assertEquals(eligible, run.getLong("rows"));
+        assertEquals(eligible, job.getLong("rows"));
+        // Sem autenticação (thread do scheduler) o hash fica vazio
+        assertEquals("", run.getString("userIdHash"));
+    }
+
+    private interface Action {
+        void run() throws Exception;
+    }
+
+    private static List<RecordedEvent> record(Action action) throws Exception {
+        Path file = Files.createTempFile("jfr-events", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(ServiceOperationEvent.NAME).withThreshold(Duration.ZERO);
+            recording.enable(ScheduledJobEvent.NAME).withThreshold(Duration.ZERO);
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // Filtra pela operação: jobs @Scheduled de fundo também gravam durante o teste
+    private static RecordedEvent single(List<RecordedEvent> events, String type, String operation) {
+        List<RecordedEvent> matching = events.stream()
+                .filter(e -> e.getEventType().getName().equals(type))
+                .filter(e -> operation.equals(e.getString("operation")))
+                .toList();
+        assertEquals(1, matching.size(), type + " " + operation + ": " + matching);
+        return matching.get(0);
+    }
+
+    private static String sha256Prefix(String value) throws Exception {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest, 0, 8);
+    }
+
+    private UUID insertBank(String name) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO banks (id, user_id, name, balance, created_at, updated_at) VALUES (?, ?, ?, 0, now(), now())",
+                id, userId, name);
+        return id;
+    }
+}
@@ -0,0 +1,137 @@
+package fincontrol.com.fincontrol.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Contagem de SQL por requisição (QueryCountFilter/RequestQueryStats) contra o Tomcat de verdade,
+ * com um endpoint de teste que executa N vezes o mesmo SELECT com listas de IN e espaços diferentes:
+ * header X-Query-Count, summary http.db.statements por method/uri e o contador de repetições acima
+ * do limite (2 aqui).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "fincontrol.duedate.wheel.enabled=false",
+        "fincontrol.sql.tracking.expose-header=true",
+        "fincontrol.sql.tracking.repeat-threshold=2"
+})
+class QueryCountFilterTests {
+
+    private static final String URI_PATTERN = "/test/query-count/{times}";
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @TestConfiguration
+    static class RepeatedQueryEndpoint {
+
+        @Bean
+        RepeatedQueryController repeatedQueryController() {
+            return new RepeatedQueryController();
+        }
+    }
+
+    @RestController
+    static class RepeatedQueryController {
+
+        @PersistenceContext
+        private EntityManager entityManager;
+
+        // Mesmo statement com 2, 3, 4... ids no IN e quebras de linha diferentes
+        @GetMapping(URI_PATTERN)
+        public int run(@PathVariable int times) {
+            for (int i = 0; i < times; i++) {
+                List<UUID> ids = new ArrayList<>();
+                for (int j = 0; j < i + 2; j++) {
+                    ids.add(UUID.randomUUID());
+                }
+                String sql = "SELECT count(*) FROM users" + (i % 2 == 0 ? " " : "\n   ") + "WHERE id IN (:ids)";
+                entityManager.createNativeQuery(sql).setParameter("ids", ids).getSingleResult();
+            }
+            return times;
+        }
+    }
+
+    @Test
+    void headerAndSummaryCountTheStatementsOfTheRequest() throws Exception {
+        double before = statementsRecorded();
+
+        HttpResponse<String> response = get("/test/query-count/3");
+
+        assertEquals(200, response.statusCode());
+        assertEquals("3", response.headers().firstValue(QueryCountFilter.QUERY_COUNT_HEADER).orElseThrow());
+        response.headers().firstValue(QueryCountFilter.QUERY_TIME_HEADER).orElseThrow();
+        DistributionSummary summary = meterRegistry.get("http.db.statements")
+                .tags("method", "GET", "uri", URI_PATTERN).summary();
+        assertEquals(3, summary.totalAmount() - before);
+    }
+
+    @Test
+    void repeatedShapesAboveTheThresholdAreCounted() throws Exception {
+        get("/test/query-count/2");
+        double before = repeatedCount();
+
+        // 2 execuções: não passa do limite
+        get("/test/query-count/2");
+        assertEquals(before, repeatedCount());
+
+        // 4 execuções com listas de IN de 2 a 5 ids: um único formato repetido
+        HttpResponse<String> response = get("/test/query-count/4");
+        assertEquals("4", response.headers().firstValue(QueryCountFilter.QUERY_COUNT_HEADER).orElseThrow());
+        assertEquals(before + 1, repeatedCount());
+    }
+
+    @Test
+    void shapeFoldsInListLengthsAndWhitespace() {
+        String shape = RequestQueryStats.shapeOf("select b.id from banks b where b.id in (?,?)");
+        assertEquals("select b.id from banks b where b.id in (?...)", shape);
+        assertEquals(shape, RequestQueryStats.shapeOf("  select b.id\n  from banks b\twhere b.id in ( ?, ?, ?, ? ) "));
+        // Um parâmetro só não é lista; outros literais continuam distinguindo os formatos
+        assertNotEquals(shape, RequestQueryStats.shapeOf("select b.id from banks b where b.id in (?)"));
+        assertNotEquals(shape, RequestQueryStats.shapeOf("select b.id from banks b where b.name in (?,?)"));
+    }
+
+    private double statementsRecorded() {
+        DistributionSummary summary = meterRegistry.find("http.db.statements")
+                .tags("method", "GET", "uri", URI_PATTERN).summary();
+        return summary == null ? 0 : summary.totalAmount();
+    }
+
+    private double repeatedCount() {
+        Counter counter = meterRegistry.find("http.db.repeated.statements")
+                .tags("method", "GET", "uri", URI_PATTERN).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,136 @@
+package fincontrol.com.fincontrol.config;
+
+import fincontrol.com.fincontrol.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Roteamento primário/réplica com dois pools. A "réplica" aponta para o mesmo banco dos testes
+ * (SPRING_DATASOURCE_URL; com dois bancos locais basta trocar a URL) e se identifica pelo
+ * application_name da conexão.
+ */
+@SpringBootTest(properties = {
+        "fincontrol.datasource.replica.enabled=true",
+        "fincontrol.datasource.replica.url=${SPRING_DATASOURCE_URL}",
+        "fincontrol.datasource.replica.hikari.data-source-properties.ApplicationName=" + ReplicaRoutingTests.REPLICA_APP,
+        "fincontrol.datasource.replica.lag-check-interval=PT1H",
+        "fincontrol.datasource.replica.max-lag=5s"
+})
+class ReplicaRoutingTests {
+
+    static final String REPLICA_APP = "fincontrol-replica";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+        routingDataSource.recordLag(0);
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        assertEquals(REPLICA_APP, readOnly.execute(status -> applicationName()));
+    }
+
+    @Test
+    void readWriteTransactionsGoToThePrimary() {
+        assertEquals("primary", poolOf(readWrite.execute(status -> applicationName())));
+    }
+
+    @Test
+    void readOnlyRepositoryCallsAreRoutedToTheReplica() {
+        double before = routedReads();
+        userRepository.count();
+        assertEquals(before + 1, routedReads());
+    }
+
+    @Test
+    void userReadsFromThePrimaryRightAfterAWrite() {
+        authenticate("11111111-1111-1111-1111-111111111111");
+        readWrite.executeWithoutResult(status -> applicationName());
+        assertEquals("primary", poolOf(readOnly.execute(status -> applicationName())));
+
+        authenticate("22222222-2222-2222-2222-222222222222");
+        assertEquals(REPLICA_APP, readOnly.execute(status -> applicationName()));
+    }
+
+    @Test
+    void rolledBackWriteDoesNotPinTheUser() {
+        authenticate("33333333-3333-3333-3333-333333333333");
+        readWrite.executeWithoutResult(status -> {
+            applicationName();
+            status.setRollbackOnly();
+        });
+        assertEquals(REPLICA_APP, readOnly.execute(status -> applicationName()));
+    }
+
+    @Test
+    void laggingReplicaSendsReadsToThePrimary() {
+        routingDataSource.recordLag(60);
+        assertEquals("primary", poolOf(readOnly.execute(status -> applicationName())));
+
+        routingDataSource.recordLag(1);
+        assertEquals(REPLICA_APP, readOnly.execute(status -> applicationName()));
+    }
+
+    @Test
+    void eachPoolPublishesHikariMetrics() {
+        assertNotNull(registry.find("hikaricp.connections.active").tag("pool", "primary").gauge());
+        assertNotNull(registry.find("hikaricp.connections.active").tag("pool", "replica").gauge());
+    }
+
+    private String applicationName() {
+        return jdbcTemplate.queryForObject("SELECT current_setting('application_name')", String.class);
+    }
+
+    private static String poolOf(String applicationName) {
+        return REPLICA_APP.equals(applicationName) ? "replica" : "primary";
+    }
+
+    private double routedReads() {
+        return registry.get("datasource.routing").tag("pool", "replica").tag("reason", "read").counter().count();
+    }
+
+    private static void authenticate(String userId) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(userId, null, List.of()));
+    }
+}
@@ -0,0 +1,76 @@
+package fincontrol.com.fincontrol.config;
+
+import fincontrol.com.fincontrol.service.ForecastService;
+import fincontrol.com.fincontrol.support.BenchmarkTimer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.UUID;
+
+/**
+ * Custo do ResourceUsageAspect por chamada de service: {@code benchmark.calls} chamadas (padrão 2M)
+ * a ForecastService.evict, um método quase vazio, com o perfil desligado, só com alocação
+ * (padrão) e com alocação e tempo de CPU da thread. O custo do aspecto é a diferença para a
+ * rodada desligada.
+ * Ex.: mvn test -Pbenchmark -Dtest=ResourceUsageAspectBenchmark -DargLine="-Dbenchmark.calls=5000000"
+ */
+@SpringBootTest(properties = {
+        "fincontrol.duedate.wheel.enabled=false",
+        "logging.level.fincontrol.com.fincontrol=WARN"
+})
+class ResourceUsageAspectBenchmark {
+
+    private final int calls = Integer.getInteger("benchmark.calls", 2_000_000);
+    private final int rounds = Integer.getInteger("benchmark.rounds", 5);
+
+    @Autowired
+    private ResourceUsageAspect aspect;
+
+    @Autowired
+    private ForecastService forecastService;
+
+    private boolean enabledBefore;
+    private boolean cpuTimeBefore;
+
+    @BeforeEach
+    void rememberSettings() {
+        enabledBefore = aspect.isEnabled();
+        cpuTimeBefore = aspect.isCpuTimeEnabled();
+    }
+
+    @AfterEach
+    void restoreSettings() {
+        aspect.setEnabled(enabledBefore);
+        aspect.setCpuTimeEnabled(cpuTimeBefore);
+    }
+
+    @Test
+    void overheadPerCall() throws Exception {
+        UUID userId = UUID.randomUUID();
+        BenchmarkTimer.Operation batch = () -> {
+            for (int i = 0; i < calls; i++) {
+                forecastService.evict(userId);
+            }
+        };
+
+        aspect.setEnabled(false);
+        double off = nanosPerCall(batch);
+        aspect.setEnabled(true);
+        aspect.setCpuTimeEnabled(false);
+        double allocation = nanosPerCall(batch);
+        aspect.setCpuTimeEnabled(true);
+        double cpuAndAllocation = nanosPerCall(batch);
+
+        System.out.printf("ResourceUsageAspect, %,d calls per round (median of %d):%n", calls, rounds);
+        System.out.printf("  profiling off          %8.1f ns/call%n", off);
+        System.out.printf("  allocation only        %8.1f ns/call (+%.1f)%n", allocation, allocation - off);
+        System.out.printf("  allocation + cpu time  %8.1f ns/call (+%.1f)%n", cpuAndAllocation, cpuAndAllocation - off);
+    }
+
+    private double nanosPerCall(BenchmarkTimer.Operation batch) throws Exception {
+        return BenchmarkTimer.medianMillis(2, rounds, batch) * 1_000_000.0 / calls;
+    }
+}
@@ -0,0 +1,149 @@
+package fincontrol.com.fincontrol.config;
+
+import fincontrol.com.fincontrol.model.Bank;
+import fincontrol.com.fincontrol.model.User;
+import fincontrol.com.fincontrol.repository.BankRepository;
+import fincontrol.com.fincontrol.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cache de segundo nível (HibernateCacheConfig): buscas por id e listagens de User/Bank atendidas
+ * pela memória, escritas (por entidade e em massa) nunca devolvendo estado antigo e métricas por região.
+ */
+@SpringBootTest
+class SecondLevelCacheTests {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BankRepository bankRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private Statistics statistics;
+    private User user;
+    private Bank bank;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        user = new User();
+        user.setName("Cache Test");
+        user.setEmail("cache-" + UUID.randomUUID() + "@test.local");
+        user.setPasswordHash("x");
+        user.setSalary(BigDecimal.TEN);
+        user = userRepository.save(user);
+        bank = newBank("Cache Bank");
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bankRepository.deleteAll(bankRepository.findAllByUserId(user.getId()));
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    void userLookupsByIdAreServedFromTheEntityRegion() {
+        long hits = hits("users");
+        userRepository.findById(user.getId()).orElseThrow();
+        userRepository.findById(user.getId()).orElseThrow();
+        assertEquals(hits + 1, hits("users"));
+    }
+
+    @Test
+    void bankOwnershipCheckIsServedFromTheEntityRegion() {
+        long hits = hits("banks");
+        bankRepository.findByIdAndUserId(bank.getId(), user.getId()).orElseThrow();
+        Bank cached = bankRepository.findByIdAndUserId(bank.getId(), user.getId()).orElseThrow();
+        assertEquals(hits + 1, hits("banks"));
+        assertEquals(user.getId(), cached.getUser().getId());
+        assertTrue(bankRepository.findByIdAndUserId(bank.getId(), UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    void bankListingUsesTheQueryRegionUntilBanksChange() {
+        long hits = hits("banks.queries");
+        bankRepository.findAllByUserId(user.getId());
+        bankRepository.findAllByUserId(user.getId());
+        assertEquals(hits + 1, hits("banks.queries"));
+
+        newBank("Second Bank");
+        assertEquals(2, bankRepository.findAllByUserId(user.getId()).size());
+        assertEquals(hits + 1, hits("banks.queries"));
+    }
+
+    @Test
+    void entityUpdatesReplaceTheCachedState() {
+        User loaded = userRepository.findById(user.getId()).orElseThrow();
+        loaded.setName("Renamed");
+        userRepository.save(loaded);
+
+        long hits = hits("users");
+        assertEquals("Renamed", userRepository.findById(user.getId()).orElseThrow().getName());
+        assertEquals(hits + 1, hits("users"));
+    }
+
+    @Test
+    void bulkBalanceUpdatesAreNeverReadStale() {
+        bankRepository.findById(bank.getId()).orElseThrow();
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> bankRepository.addToBalance(bank.getId(), new BigDecimal("25.00")));
+        assertEquals(0, new BigDecimal("25.00").compareTo(bankRepository.findById(bank.getId()).orElseThrow().getBalance()));
+    }
+
+    @Test
+    void collectionsAreNotCached() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        assertTrue(sessionFactory.getMappingMetamodel().getEntityDescriptor(Bank.class).canReadFromCache());
+        assertFalse(sessionFactory.getMappingMetamodel().getCollectionDescriptor(Bank.class.getName() + ".incomes").hasCache());
+        assertFalse(sessionFactory.getMappingMetamodel().getCollectionDescriptor(Bank.class.getName() + ".expenses").hasCache());
+    }
+
+    @Test
+    void hitRatioIsPublishedPerRegion() {
+        userRepository.findById(user.getId()).orElseThrow();
+        userRepository.findById(user.getId()).orElseThrow();
+        double ratio = registry.get("hibernate.second.level.cache.hit.ratio").tag("region", "users").gauge().value();
+        assertTrue(ratio > 0 && ratio <= 1, "hit ratio " + ratio);
+        assertTrue(registry.get("hibernate.second.level.cache.requests").tag("region", "users").tag("result", "hit")
+                .functionCounter().count() > 0);
+    }
+
+    private Bank newBank(String name) {
+        Bank newBank = new Bank();
+        newBank.setName(name);
+        newBank.setUser(user);
+        return bankRepository.save(newBank);
+    }
+
+    private long hits(String region) {
+        return statistics.getCacheRegionStatistics(region) != null ? statistics.getCacheRegionStatistics(region).getHitCount() : 0;
+    }
+}
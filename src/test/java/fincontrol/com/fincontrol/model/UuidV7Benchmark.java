@@ -0,0 +1,110 @@
+package fincontrol.com.fincontrol.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Inserts com PK UUIDv4 (aleatória) contra UUIDv7 (UuidV7Generator): {@code benchmark.rows} linhas
+ * (padrão 10M) de (uuid PK, timestamp, numeric) numa tabela de rascunho por tipo, em batches JDBC de
+ * {@code benchmark.batch} (padrão 1000). Mede linhas/s do total e dos últimos 10%, quando o índice
+ * já passou do shared_buffers, e o tamanho da heap e da PK; densidade das folhas e fragmentação
+ * vêm do pgstatindex quando a extensão pgstattuple está disponível.
+ * O driver só reescreve os batches em INSERTs multi-linha com reWriteBatchedInserts=true na URL.
+ * Ex.: mvn test -Pbenchmark -Dtest=UuidV7Benchmark -DargLine="-Dbenchmark.rows=10000000"
+ */
+@SpringBootTest(properties = {
+        "fincontrol.duedate.wheel.enabled=false",
+        "logging.level.fincontrol.com.fincontrol=WARN"
+})
+class UuidV7Benchmark {
+
+    private final int rows = Integer.getInteger("benchmark.rows", 10_000_000);
+    private final int batch = Integer.getInteger("benchmark.batch", 1000);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void dropTables() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS uuid_bench_v4");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS uuid_bench_v7");
+    }
+
+    @Test
+    void insertThroughputAndIndexSize() {
+        boolean pgstattuple = createPgstattuple();
+        System.out.printf("%,d rows in JDBC batches of %,d:%n", rows, batch);
+        System.out.printf("  %-3s %14s %16s %12s %12s %14s %14s%n",
+                "id", "insert rows/s", "last 10% rows/s", "heap", "pkey", "leaf density", "fragmentation");
+        measure("v4", UUID::randomUUID, pgstattuple);
+        measure("v7", UuidV7Generator::next, pgstattuple);
+    }
+
+    private void measure(String name, Supplier<UUID> ids, boolean pgstattuple) {
+        String table = "uuid_bench_" + name;
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + table);
+        jdbcTemplate.execute("CREATE TABLE " + table + " (id uuid PRIMARY KEY, created_at timestamp NOT NULL, amount numeric(38, 2) NOT NULL)");
+        String insert = "INSERT INTO " + table + " (id, created_at, amount) VALUES (?, ?, ?)";
+
+        int lastTenth = rows - rows / 10;
+        long start = System.nanoTime();
+        long lastTenthStart = start;
+        List<Object[]> args = new ArrayList<>(batch);
+        for (int i = 0; i < rows; i++) {
+            if (i == lastTenth) {
+                flush(insert, args);
+                lastTenthStart = System.nanoTime();
+            }
+            args.add(new Object[]{ids.get(), new Timestamp(System.currentTimeMillis()), BigDecimal.valueOf(i % 100_000, 2)});
+            if (args.size() == batch) {
+                flush(insert, args);
+            }
+        }
+        flush(insert, args);
+        long end = System.nanoTime();
+
+        double total = rows / ((end - start) / 1e9);
+        double last = (rows - lastTenth) / ((end - lastTenthStart) / 1e9);
+        String heap = jdbcTemplate.queryForObject("SELECT pg_size_pretty(pg_relation_size(?::regclass))", String.class, table);
+        String pkey = jdbcTemplate.queryForObject("SELECT pg_size_pretty(pg_relation_size(?::regclass))", String.class, table + "_pkey");
+        String density = "-";
+        String fragmentation = "-";
+        if (pgstattuple) {
+            Map<String, Object> stats = jdbcTemplate.queryForMap(
+                    "SELECT avg_leaf_density, leaf_fragmentation FROM pgstatindex(?)", table + "_pkey");
+            density = String.format("%.0f%%", ((Number) stats.get("avg_leaf_density")).doubleValue());
+            fragmentation = String.format("%.0f%%", ((Number) stats.get("leaf_fragmentation")).doubleValue());
+        }
+        System.out.printf("  %-3s %,14.0f %,16.0f %12s %12s %14s %14s%n", name, total, last, heap, pkey, density, fragmentation);
+        jdbcTemplate.execute("DROP TABLE " + table);
+    }
+
+    private void flush(String insert, List<Object[]> args) {
+        if (!args.isEmpty()) {
+            jdbcTemplate.batchUpdate(insert, args);
+            args.clear();
+        }
+    }
+
+    private boolean createPgstattuple() {
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pgstattuple");
+            return true;
+        } catch (DataAccessException e) {
+            System.out.println("pgstattuple not available, leaf density and fragmentation skipped: " + e.getMostSpecificCause().getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package fincontrol.com.fincontrol.model;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Layout e monotonicidade do {@link UuidV7Generator} (versão 7, variante RFC, ids estritamente
+ * crescentes no mesmo milissegundo, no estouro do contador de 12 bits e com o relógio voltando) e
+ * o mesmo layout no uuid_generate_v7() da migração V3.
+ */
+@SpringBootTest(properties = "fincontrol.duedate.wheel.enabled=false")
+class UuidV7GeneratorTests {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void idsAreVersion7WithTheRfcVariant() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7Generator.next();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertTrue(timestampOf(id) >= before);
+    }
+
+    @Test
+    void idsStrictlyIncreaseWithinOneMillisecondAndPastTheCounter() {
+        long millis = System.currentTimeMillis();
+        // Mais ids que o contador de 12 bits comporta no mesmo milissegundo
+        int count = 3 * 4096 + 10;
+        UUID previous = UuidV7Generator.next(millis);
+        for (int i = 1; i < count; i++) {
+            UUID id = UuidV7Generator.next(millis);
+            assertIncreasing(previous, id);
+            assertEquals(7, id.version());
+            assertEquals(2, id.variant());
+            previous = id;
+        }
+        // O estouro do contador avança o timestamp, no máximo 1 ms a cada 4096 ids
+        long advanced = timestampOf(previous) - millis;
+        assertTrue(advanced >= 3 && advanced <= 4, "timestamp advanced " + advanced + " ms");
+    }
+
+    @Test
+    void idsKeepIncreasingWhenTheClockStepsBack() {
+        long millis = System.currentTimeMillis();
+        UUID before = UuidV7Generator.next(millis);
+
+        UUID afterStepBack = UuidV7Generator.next(millis - 10_000);
+
+        assertIncreasing(before, afterStepBack);
+        assertTrue(timestampOf(afterStepBack) >= millis);
+    }
+
+    @Test
+    void databaseFunctionGeneratesVersion7Ids() {
+        long before = System.currentTimeMillis();
+        List<UUID> ids = jdbcTemplate.queryForList("SELECT uuid_generate_v7() FROM generate_series(1, 100)", UUID.class);
+        long after = System.currentTimeMillis();
+
+        for (UUID id : ids) {
+            assertEquals(7, id.version());
+            assertEquals(2, id.variant());
+            // Relógio do Postgres e da JVM na mesma máquina; folga para arredondamento
+            assertTrue(timestampOf(id) >= before - 1000 && timestampOf(id) <= after + 1000);
+        }
+    }
+
+    private static long timestampOf(UUID id) {
+        return id.getMostSignificantBits() >>> 16;
+    }
+
+    // Timestamp e contador ficam nos 64 bits altos: a ordem deles é a ordem do índice
+    private static void assertIncreasing(UUID previous, UUID next) {
+        assertTrue(Long.compareUnsigned(next.getMostSignificantBits(), previous.getMostSignificantBits()) > 0,
+                previous + " then " + next);
+        assertTrue(next.toString().compareTo(previous.toString()) > 0);
+    }
+}
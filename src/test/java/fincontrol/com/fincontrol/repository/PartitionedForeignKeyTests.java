@@ -0,0 +1,65 @@
+package fincontrol.com.fincontrol.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Triggers que substituem a FK para uma tabela particionada (fk_partitioned_*, V4/V6), sobre um par
+ * pai/filha de rascunho particionado por partition_table_by_range: as tabelas de verdade só são
+ * convertidas com fincontrol.partitioning.enabled. Cada teste roda numa transação desfeita no
+ * fim, DDL incluído; o statement que falha é sempre o último.
+ */
+@SpringBootTest
+@Transactional
+class PartitionedForeignKeyTests {
+
+    private static final UUID REFERENCED = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+    private static final UUID UNREFERENCED = UUID.fromString("00000000-0000-0000-0000-00000000000b");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void createPartitionedParent() {
+        jdbcTemplate.execute("CREATE TABLE fk_test_parent (id uuid PRIMARY KEY, day date NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE fk_test_child (id uuid PRIMARY KEY, parent_id uuid REFERENCES fk_test_parent)");
+        jdbcTemplate.update("INSERT INTO fk_test_parent VALUES (?, DATE '2026-01-10'), (?, DATE '2026-01-20')", REFERENCED, UNREFERENCED);
+        jdbcTemplate.update("INSERT INTO fk_test_child VALUES (?, ?)", UUID.randomUUID(), REFERENCED);
+        jdbcTemplate.queryForObject("SELECT partition_table_by_range('fk_test_parent', 'day', 'month')", Boolean.class);
+        jdbcTemplate.queryForObject("SELECT create_range_partition('fk_test_parent', 'day', 'fk_test_parent_p2026_02', " +
+                "DATE '2026-02-01', DATE '2026-03-01')", Boolean.class);
+    }
+
+    @Test
+    void movingAReferencedRowToAnotherPartitionKeepsTheChildValid() {
+        jdbcTemplate.update("UPDATE fk_test_parent SET day = DATE '2026-02-05' WHERE id = ?", REFERENCED);
+
+        assertEquals("fk_test_parent_p2026_02", jdbcTemplate.queryForObject(
+                "SELECT tableoid::regclass::text FROM fk_test_parent WHERE id = ?", String.class, REFERENCED));
+        // Sem referência: a linha também pode ser removida
+        assertEquals(1, jdbcTemplate.update("DELETE FROM fk_test_parent WHERE id = ?", UNREFERENCED));
+    }
+
+    @Test
+    void deletingAReferencedRowIsStillRejected() {
+        assertThrows(DataIntegrityViolationException.class,
+                () -> jdbcTemplate.update("DELETE FROM fk_test_parent WHERE id = ?", REFERENCED));
+    }
+
+    @Test
+    void movingAReferencedRowUnderANewKeyIsStillRejected() {
+        assertThrows(DataIntegrityViolationException.class,
+                () -> jdbcTemplate.update("UPDATE fk_test_parent SET id = ?, day = DATE '2026-02-05' WHERE id = ?",
+                        UUID.randomUUID(), REFERENCED));
+    }
+}
@@ -0,0 +1,87 @@
+package fincontrol.com.fincontrol.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Confere via EXPLAIN que as consultas principais dos repositórios são atendidas por índices das
+ * migrações (db/migration). Com tabelas pequenas o planner prefere seq scan, então os planos são
+ * gerados com enable_seqscan desligado: o teste garante que existe um índice aplicável. Qual índice
+ * o planner escolhe depende das estatísticas do banco, por isso o nome não é conferido.
+ */
+@SpringBootTest
+@Transactional
+class QueryPlanTests {
+
+    private static final String USER = "'00000000-0000-0000-0000-000000000001'::uuid";
+    private static final String BANK = "'00000000-0000-0000-0000-000000000002'::uuid";
+    private static final String VAULT = "'00000000-0000-0000-0000-000000000003'::uuid";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void disableSeqScan() {
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+    }
+
+    @Test
+    void bankBalanceSumsUseBankUserIndexes() {
+        assertIndexScan("SELECT COALESCE(SUM(value), 0) FROM expenses WHERE bank_id = " + BANK + " AND user_id = " + USER);
+        assertIndexScan("SELECT COALESCE(SUM(amount), 0) FROM extra_income WHERE bank_id = " + BANK + " AND user_id = " + USER);
+    }
+
+    @Test
+    void userListingsUseUserIndexes() {
+        assertIndexScan("SELECT id, name, balance FROM banks WHERE user_id = " + USER + " ORDER BY name, id");
+        assertIndexScan("SELECT * FROM categories WHERE user_id = " + USER + " ORDER BY name");
+        assertIndexScan("SELECT * FROM vaults WHERE user_id = " + USER);
+        assertIndexScan("SELECT * FROM expenses WHERE user_id = " + USER);
+    }
+
+    @Test
+    void overdueJobChunksUsePartialIndexes() {
+        assertIndexScan("SELECT id FROM bills WHERE status = 'PENDING' AND due_date < CURRENT_DATE " +
+                "ORDER BY due_date LIMIT 500");
+        assertIndexScan("SELECT id FROM receivables WHERE status = 'PENDING' AND due_date < CURRENT_DATE " +
+                "ORDER BY due_date LIMIT 500");
+        assertIndexScan("SELECT id FROM receivables WHERE status = 'PENDING' AND automatic_bank_receipt = true " +
+                "AND due_date <= CURRENT_DATE ORDER BY due_date, id LIMIT 500");
+    }
+
+    @Test
+    void statusAndDueDateQueriesUseCompositeIndexes() {
+        assertIndexScan("SELECT MIN(due_date) FROM bills WHERE status = 'OVERDUE' AND due_date < CURRENT_DATE");
+        assertIndexScan("SELECT id, due_date FROM receivables WHERE status = 'OVERDUE' AND due_date < CURRENT_DATE");
+        assertIndexScan("SELECT id FROM bills WHERE auto_pay = true AND status = 'PENDING' AND due_date <= CURRENT_DATE");
+    }
+
+    @Test
+    void forecastSourcesUseUserStatusDueIndexes() {
+        assertIndexScan("SELECT due_date, bank_id FROM bills WHERE user_id = " + USER +
+                " AND status IN ('PENDING', 'OVERDUE') AND due_date <= CURRENT_DATE ORDER BY due_date");
+        assertIndexScan("SELECT due_date FROM receivables WHERE user_id = " + USER +
+                " AND status IN ('PENDING', 'OVERDUE') AND due_date <= CURRENT_DATE ORDER BY due_date");
+    }
+
+    @Test
+    void vaultLedgerKeysetUsesLedgerIndex() {
+        assertIndexScan("SELECT * FROM vault_transactions WHERE vault_id = " + VAULT +
+                " AND (created_at < LOCALTIMESTAMP OR (created_at = LOCALTIMESTAMP AND id < " + USER + "))" +
+                " ORDER BY created_at DESC, id DESC LIMIT 20");
+    }
+
+    // Com seq scan desligado, um Seq Scan no plano significa que nenhum índice atende a consulta
+    private void assertIndexScan(String sql) {
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+        assertFalse(plan.contains("Seq Scan"), "Expected only index scans in plan:\n" + plan);
+        assertTrue(plan.contains("Index Scan") || plan.contains("Index Only Scan"), "Expected an index scan in plan:\n" + plan);
+    }
+}
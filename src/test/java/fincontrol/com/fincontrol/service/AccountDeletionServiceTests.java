@@ -0,0 +1,221 @@
+package fincontrol.com.fincontrol.service;
+
+import fincontrol.com.fincontrol.dto.AccountDeletionJobDto;
+import fincontrol.com.fincontrol.dto.LoginDto;
+import fincontrol.com.fincontrol.model.User;
+import fincontrol.com.fincontrol.model.enums.AccountDeletionStatus;
+import fincontrol.com.fincontrol.model.enums.AccountDeletionStep;
+import fincontrol.com.fincontrol.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Exclusão de conta contra o Postgres, com chunks de 2 linhas: todas as tabelas esvaziadas em
+ * ordem de FK, retomada de um job RUNNING após uma queda, linhas gravadas durante o job (depois
+ * que a etapa delas passou) e login recusado enquanto há exclusão pendente.
+ */
+@SpringBootTest(properties = {
+        "fincontrol.duedate.wheel.enabled=false",
+        "fincontrol.jobs.account-deletion.chunk-size=2"
+})
+class AccountDeletionServiceTests {
+
+    private static final List<String> USER_TABLES = List.of(
+            "receivables", "bills", "vaults", "safes", "payables", "expenses", "extra_income", "banks", "categories");
+
+    // 3 linhas por tabela com chunk de 2: dois chunks por etapa (1 vault/safe/payable: um chunk)
+    private static final long SEEDED_ROWS = 3 + 3 + 3 + 1 + 1 + 3 + 1 + 3 + 3 + 2 + 2 + 1;
+    private static final long SEEDED_CHUNKS = 2 + 2 + 2 + 1 + 1 + 2 + 1 + 2 + 2 + 2 + 2 + 1;
+
+    @Autowired
+    private AccountDeletionService accountDeletionService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("Deletion Test");
+        user.setEmail("deletion-" + UUID.randomUUID() + "@test.local");
+        user.setPasswordHash(passwordEncoder.encode("Senha@123"));
+        user.setSalary(BigDecimal.TEN);
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM account_deletion_jobs WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM payable_installments WHERE payable_id IN (SELECT id FROM payables WHERE user_id = ?)", user.getId());
+        jdbcTemplate.update("DELETE FROM vault_transactions WHERE vault_id IN (SELECT id FROM vaults WHERE user_id = ?)", user.getId());
+        for (String table : USER_TABLES) {
+            jdbcTemplate.update("DELETE FROM " + table + " WHERE user_id = ?", user.getId());
+        }
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", user.getId());
+    }
+
+    @Test
+    void deletesEveryTableInForeignKeyOrderInChunks() throws InterruptedException {
+        seedAccount();
+
+        AccountDeletionJobDto job = awaitFinished(accountDeletionService.requestDeletion(user.getId()).getJobId());
+
+        assertEquals(AccountDeletionStatus.COMPLETED, job.getStatus(), job.getLastError());
+        assertEquals(SEEDED_ROWS, job.getRowsDeleted());
+        assertEquals(SEEDED_CHUNKS, job.getChunksCommitted());
+        assertAccountGone();
+    }
+
+    @Test
+    void resumesARunningJobFromItsRecordedStep() throws InterruptedException {
+        seedAccount();
+        // Queda depois das etapas RECEIVABLES e BILLS (3 linhas cada, 2 chunks cada)
+        jdbcTemplate.update("DELETE FROM receivables WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM bills WHERE user_id = ?", user.getId());
+        UUID jobId = insertJob(AccountDeletionStatus.RUNNING, AccountDeletionStep.VAULT_TRANSACTIONS, 6, 4);
+
+        accountDeletionService.resumeInterruptedJobs();
+        AccountDeletionJobDto job = awaitFinished(jobId);
+
+        assertEquals(AccountDeletionStatus.COMPLETED, job.getStatus(), job.getLastError());
+        assertEquals(SEEDED_ROWS, job.getRowsDeleted());
+        assertEquals(SEEDED_CHUNKS, job.getChunksCommitted());
+        assertAccountGone();
+    }
+
+    @Test
+    void rowsWrittenAfterTheirStepDoNotFailTheJob() throws InterruptedException {
+        seedAccount();
+        // Todas as etapas até EXTRA_INCOME já "passaram", mas despesas, contas etc. ainda referenciam
+        // bancos e categorias: o DELETE de BANKS viola FK e o job volta para a primeira etapa
+        UUID jobId = insertJob(AccountDeletionStatus.RUNNING, AccountDeletionStep.BANKS, 20, 15);
+
+        accountDeletionService.resumeInterruptedJobs();
+        AccountDeletionJobDto job = awaitFinished(jobId);
+
+        assertEquals(AccountDeletionStatus.COMPLETED, job.getStatus(), job.getLastError());
+        assertNull(job.getLastError());
+        assertAccountGone();
+    }
+
+    @Test
+    void userStepSweepsRowsWrittenDuringTheJob() throws InterruptedException {
+        seedAccount();
+        UUID jobId = insertJob(AccountDeletionStatus.RUNNING, AccountDeletionStep.USER, 0, 0);
+
+        accountDeletionService.resumeInterruptedJobs();
+        AccountDeletionJobDto job = awaitFinished(jobId);
+
+        assertEquals(AccountDeletionStatus.COMPLETED, job.getStatus(), job.getLastError());
+        // Uma única transação: todas as linhas varridas mais o próprio usuário
+        assertEquals(SEEDED_ROWS, job.getRowsDeleted());
+        assertEquals(1, job.getChunksCommitted());
+        assertAccountGone();
+    }
+
+    @Test
+    void loginIsRejectedWhileDeletionIsPending() {
+        LoginDto login = new LoginDto();
+        login.setEmail(user.getEmail());
+        login.setPassword("Senha@123");
+        assertEquals(user.getId(), userService.authenticate(login).getId());
+
+        // Fica QUEUED: o job não é enviado ao executor
+        insertJob(AccountDeletionStatus.QUEUED, AccountDeletionStep.RECEIVABLES, 0, 0);
+
+        assertThrows(BadCredentialsException.class, () -> userService.authenticate(login));
+    }
+
+    private void seedAccount() {
+        UUID userId = user.getId();
+        UUID[] categories = {UUID.randomUUID(), UUID.randomUUID()};
+        UUID[] banks = {UUID.randomUUID(), UUID.randomUUID()};
+        for (int i = 0; i < 2; i++) {
+            jdbcTemplate.update("INSERT INTO categories (id, user_id, name, created_at, updated_at) VALUES (?, ?, ?, now(), now())",
+                    categories[i], userId, "Categoria " + i);
+            jdbcTemplate.update("INSERT INTO banks (id, user_id, name, balance, created_at, updated_at) VALUES (?, ?, ?, 100, now(), now())",
+                    banks[i], userId, "Banco " + i);
+        }
+        for (int i = 0; i < 3; i++) {
+            UUID expenseId = UUID.randomUUID();
+            UUID extraIncomeId = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO expenses (id, user_id, bank_id, category_id, name, value, expense_date, created_at, updated_at) " +
+                    "VALUES (?, ?, ?, ?, 'Despesa', 10.00, current_date, now(), now())", expenseId, userId, banks[0], categories[0]);
+            jdbcTemplate.update("INSERT INTO bills (id, user_id, expense_id, bank_id, payment_method, status, auto_pay, due_date, created_at, updated_at) " +
+                    "VALUES (?, ?, ?, ?, 'PIX', 'PENDING', false, ?, now(), now())", UUID.randomUUID(), userId, expenseId, banks[0],
+                    LocalDate.now().plusDays(i + 1));
+            jdbcTemplate.update("INSERT INTO extra_income (id, user_id, bank_id, category_id, name, amount, date, created_at, updated_at) " +
+                    "VALUES (?, ?, ?, ?, 'Renda', 10.00, current_date, now(), now())", extraIncomeId, userId, banks[1], categories[1]);
+            jdbcTemplate.update("INSERT INTO receivables (id, user_id, extra_income_id, receipt_method, status, automatic_bank_receipt, due_date, created_at, updated_at) " +
+                    "VALUES (?, ?, ?, 'PIX', 'PENDING', false, ?, now(), now())", UUID.randomUUID(), userId, extraIncomeId,
+                    LocalDate.now().plusDays(i + 1));
+        }
+        UUID vaultId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO vaults (id, user_id, bank_id, name, amount, currency, created_at, updated_at) " +
+                "VALUES (?, ?, ?, 'Cofre', 30.00, 'BRL', now(), now())", vaultId, userId, banks[0]);
+        for (int i = 0; i < 3; i++) {
+            jdbcTemplate.update("INSERT INTO vault_transactions (id, vault_id, type, amount, balance_after, created_at) " +
+                    "VALUES (?, ?, 'DEPOSIT', 10.00, ?, now())", UUID.randomUUID(), vaultId, BigDecimal.TEN.multiply(BigDecimal.valueOf(i + 1)));
+        }
+        jdbcTemplate.update("INSERT INTO safes (id, user_id, bank_id, name, balance, currency, created_at, updated_at) " +
+                "VALUES (?, ?, ?, 'Cofre físico', 0, 'BRL', now(), now())", UUID.randomUUID(), userId, banks[1]);
+        UUID payableId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO payables (id, user_id, category_id, description, amount_total, total_installments, due_date, status, created_at, updated_at) " +
+                "VALUES (?, ?, ?, 'Parcelado', 30.00, 3, current_date, 'PENDING', now(), now())", payableId, userId, categories[0]);
+        for (int i = 1; i <= 3; i++) {
+            jdbcTemplate.update("INSERT INTO payable_installments (id, payable_id, installment_no, amount, due_date, status, created_at, updated_at) " +
+                    "VALUES (?, ?, ?, 10.00, ?, 'PENDING', now(), now())", UUID.randomUUID(), payableId, i, LocalDate.now().plusMonths(i));
+        }
+    }
+
+    private UUID insertJob(AccountDeletionStatus status, AccountDeletionStep step, long rowsDeleted, long chunksCommitted) {
+        UUID jobId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO account_deletion_jobs (id, user_id, status, current_step, rows_deleted, chunks_committed, requested_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, now(), now())", jobId, user.getId(), status.name(), step.name(), rowsDeleted, chunksCommitted);
+        return jobId;
+    }
+
+    private AccountDeletionJobDto awaitFinished(UUID jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        AccountDeletionJobDto job = accountDeletionService.getJob(jobId);
+        while (job.getStatus() != AccountDeletionStatus.COMPLETED && job.getStatus() != AccountDeletionStatus.FAILED
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            job = accountDeletionService.getJob(jobId);
+        }
+        return job;
+    }
+
+    private void assertAccountGone() {
+        for (String table : USER_TABLES) {
+            assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM " + table + " WHERE user_id = ?", Integer.class, user.getId()), table);
+        }
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM users WHERE id = ?", Integer.class, user.getId()));
+    }
+}
@@ -0,0 +1,269 @@
+package fincontrol.com.fincontrol.service;
+
+import fincontrol.com.fincontrol.dto.AmountDto;
+import fincontrol.com.fincontrol.dto.CategoryMassUpdateDto;
+import fincontrol.com.fincontrol.dto.ExpenseMassUpdateDto;
+import fincontrol.com.fincontrol.model.Bank;
+import fincontrol.com.fincontrol.model.Expense;
+import fincontrol.com.fincontrol.model.ExtraIncome;
+import fincontrol.com.fincontrol.model.User;
+import fincontrol.com.fincontrol.repository.BankRepository;
+import fincontrol.com.fincontrol.repository.CategoryRepository;
+import fincontrol.com.fincontrol.repository.ExpenseRepository;
+import fincontrol.com.fincontrol.repository.ExtraIncomeRepository;
+import fincontrol.com.fincontrol.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.BaseSessionEventListener;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Escritas em lote (hibernate.jdbc.batch_size): os saveAll de Bank, Expense e ExtraIncome e as
+ * atualizações em massa dos services saem em ceil(linhas / batch_size) execuções de batch JDBC, e
+ * não um statement por linha. As linhas vêm das estatísticas do Hibernate; os batches, das mesmas
+ * estatísticas de sessão que o Hibernate loga ("N JDBC batches"), via {@link JdbcBatchCounter}.
+ */
+@SpringBootTest(properties = {
+        "fincontrol.duedate.wheel.enabled=false",
+        // O QueryCountFilter ocupa hibernate.session.events.auto com o próprio listener
+        "fincontrol.sql.tracking.enabled=false",
+        "spring.jpa.properties.hibernate.session.events.auto=fincontrol.com.fincontrol.service.BatchWriteTests$JdbcBatchCounter"
+})
+class BatchWriteTests {
+
+    private static final int ROWS = 250;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}")
+    private int batchSize;
+
+    @Autowired
+    private BankRepository bankRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private ExtraIncomeRepository extraIncomeRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BankService bankService;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ExtraIncomeService extraIncomeService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Conta, só na thread do teste, as execuções de batch e os statements executados fora de batch
+     * das sessões abertas pelo Hibernate.
+     */
+    public static class JdbcBatchCounter extends BaseSessionEventListener {
+
+        private static volatile Thread measured;
+        private static final AtomicLong batches = new AtomicLong();
+        private static final AtomicLong statements = new AtomicLong();
+
+        static void reset() {
+            measured = Thread.currentThread();
+            batches.set(0);
+            statements.set(0);
+        }
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            if (Thread.currentThread() == measured) {
+                batches.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void jdbcExecuteStatementStart() {
+            if (Thread.currentThread() == measured) {
+                statements.incrementAndGet();
+            }
+        }
+    }
+
+    private Statistics statistics;
+    private User user;
+    private UUID bankId;
+    private UUID categoryId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        user = new User();
+        user.setName("Batch Test");
+        user.setEmail("batch-" + UUID.randomUUID() + "@test.local");
+        user.setPasswordHash("x");
+        user.setSalary(BigDecimal.TEN);
+        user = userRepository.save(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user.getId().toString(), null, List.of()));
+
+        bankId = UUID.randomUUID();
+        categoryId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO categories (id, user_id, name, created_at, updated_at) VALUES (?, ?, 'Geral', now(), now())",
+                categoryId, user.getId());
+        jdbcTemplate.update("INSERT INTO banks (id, user_id, name, balance, created_at, updated_at) VALUES (?, ?, 'Banco', 0, now(), now())",
+                bankId, user.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        jdbcTemplate.update("DELETE FROM expenses WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM extra_income WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM banks WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM categories WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", user.getId());
+    }
+
+    @Test
+    void saveAllInsertsGoOutInBatches() {
+        User owner = user;
+        assertInsertBatches(i -> {
+            Bank bank = new Bank();
+            bank.setName("Banco " + i);
+            bank.setBalance(BigDecimal.ONE);
+            bank.setUser(owner);
+            return bank;
+        }, bankRepository::saveAll);
+
+        assertInsertBatches(i -> {
+            Expense expense = new Expense();
+            expense.setName("Despesa " + i);
+            expense.setValue(BigDecimal.ONE);
+            expense.setExpenseDate(LocalDate.now());
+            expense.setCategory(categoryRepository.getReferenceById(categoryId));
+            expense.setBank(bankRepository.getReferenceById(bankId));
+            expense.setUser(owner);
+            return expense;
+        }, expenseRepository::saveAll);
+
+        assertInsertBatches(i -> {
+            ExtraIncome income = new ExtraIncome();
+            income.setName("Renda " + i);
+            income.setAmount(BigDecimal.ONE);
+            income.setDate(LocalDate.now());
+            income.setCategoryId(categoryId);
+            income.setBank(bankRepository.getReferenceById(bankId));
+            income.setUser(owner);
+            income.setCreatedAt(Instant.now());
+            income.setUpdatedAt(Instant.now());
+            return income;
+        }, extraIncomeRepository::saveAll);
+    }
+
+    @Test
+    void massUpdatesGoOutInBatches() {
+        seedRows();
+
+        reset();
+        AmountDto amount = new AmountDto();
+        amount.setAmount(BigDecimal.ONE);
+        bankService.addMoneyToAllBanks(amount);
+        assertUpdateBatches(ROWS + 1);
+
+        reset();
+        ExpenseMassUpdateDto expenses = new ExpenseMassUpdateDto();
+        expenses.setDescription("Atualizada");
+        expenseService.massUpdateUserExpenses(expenses, user.getId());
+        assertUpdateBatches(ROWS);
+
+        reset();
+        extraIncomeService.addToAll(BigDecimal.ONE);
+        assertUpdateBatches(ROWS);
+
+        reset();
+        CategoryMassUpdateDto categories = new CategoryMassUpdateDto();
+        categories.setDescription("Atualizada");
+        categoryService.massUpdateCategories(categories);
+        assertUpdateBatches(ROWS + 1);
+    }
+
+    private <T> void assertInsertBatches(IntFunction<T> factory, Consumer<List<T>> saveAll) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<T> rows = new ArrayList<>(ROWS);
+            for (int i = 0; i < ROWS; i++) {
+                rows.add(factory.apply(i));
+            }
+            reset();
+            saveAll.accept(rows);
+        });
+        assertEquals(ROWS, statistics.getEntityInsertCount());
+        assertEquals(batches(ROWS), JdbcBatchCounter.batches.get());
+        // IDs gerados no cliente: nenhum SELECT de sequência nem INSERT fora de batch
+        assertEquals(0, JdbcBatchCounter.statements.get());
+    }
+
+    private void assertUpdateBatches(int rows) {
+        assertEquals(rows, statistics.getEntityUpdateCount());
+        assertEquals(batches(rows), JdbcBatchCounter.batches.get());
+    }
+
+    private void reset() {
+        statistics.clear();
+        JdbcBatchCounter.reset();
+    }
+
+    private long batches(int rows) {
+        return (rows + batchSize - 1) / batchSize;
+    }
+
+    // Mais ROWS bancos, despesas, rendas extras e categorias (com o banco e a categoria do setUp: ROWS + 1)
+    private void seedRows() {
+        jdbcTemplate.update("INSERT INTO banks (id, user_id, name, balance, created_at, updated_at) " +
+                "SELECT gen_random_uuid(), ?, 'Banco ' || i, 0, now(), now() FROM generate_series(1, ?) i", user.getId(), ROWS);
+        jdbcTemplate.update("INSERT INTO categories (id, user_id, name, created_at, updated_at) " +
+                "SELECT gen_random_uuid(), ?, 'Categoria ' || i, now(), now() FROM generate_series(1, ?) i", user.getId(), ROWS);
+        jdbcTemplate.update("INSERT INTO expenses (id, user_id, bank_id, category_id, name, value, expense_date, created_at, updated_at) " +
+                "SELECT gen_random_uuid(), ?, ?, ?, 'Despesa ' || i, 1, current_date, now(), now() FROM generate_series(1, ?) i",
+                user.getId(), bankId, categoryId, ROWS);
+        jdbcTemplate.update("INSERT INTO extra_income (id, user_id, bank_id, category_id, name, amount, date, created_at, updated_at) " +
+                "SELECT gen_random_uuid(), ?, ?, ?, 'Renda ' || i, 1, current_date, now(), now() FROM generate_series(1, ?) i",
+                user.getId(), bankId, categoryId, ROWS);
+    }
+}
@@ -0,0 +1,165 @@
+package fincontrol.com.fincontrol.service;
+
+import fincontrol.com.fincontrol.model.Bank;
+import fincontrol.com.fincontrol.model.Bill;
+import fincontrol.com.fincontrol.model.enums.BillStatus;
+import fincontrol.com.fincontrol.repository.BankRepository;
+import fincontrol.com.fincontrol.repository.BillRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Pagamento automático de {@code benchmark.bills} contas vencendo hoje (padrão 100k, 100 por banco):
+ * o laço anterior (uma transação para tudo, banco e despesa carregados conta a conta) contra o
+ * BillAutoPayEngine com 1 thread e com o paralelismo configurado.
+ *
+ * Os saldos são semeados para que cerca de 10% das contas fiquem sem saldo; entre as rodadas as
+ * contas voltam a PENDING e os saldos ao valor inicial.
+ * Ex.: mvn test -Pbenchmark -Dtest=BillAutoPayBenchmark -DargLine="-Dbenchmark.bills=100000"
+ */
+@SpringBootTest(properties = {
+        "fincontrol.duedate.wheel.enabled=false",
+        "logging.level.fincontrol.com.fincontrol=WARN"
+})
+class BillAutoPayBenchmark {
+
+    private static final String EMAIL_PREFIX = "bench-autopay-";
+    private static final int BILLS_PER_BANK = 100;
+    private static final int BANKS_PER_USER = 10;
+    // Contas de 1,00 a 100,00 (média ~50,50): 4.500,00 por banco deixa ~10% sem saldo
+    private static final String INITIAL_BALANCE = "4500.00";
+
+    private final int bills = Integer.getInteger("benchmark.bills", 100_000);
+    private final int rounds = Integer.getInteger("benchmark.rounds", 3);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Autowired
+    private BankRepository bankRepository;
+
+    @Autowired
+    private BillAutoPayEngine engine;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void seed() {
+        cleanUp();
+        int banks = Math.max(1, bills / BILLS_PER_BANK);
+        int users = Math.max(1, banks / BANKS_PER_USER);
+        jdbcTemplate.update("INSERT INTO users (id, name, email, password_hash, salary, created_at, updated_at) " +
+                "SELECT gen_random_uuid(), 'Bench ' || u, '" + EMAIL_PREFIX + "' || u || '@bench.local', 'x', 1000, now(), now() " +
+                "FROM generate_series(1, ?) u", users);
+        jdbcTemplate.update("INSERT INTO categories (id, user_id, name, created_at, updated_at) " +
+                "SELECT gen_random_uuid(), id, 'Contas', now(), now() FROM users WHERE email LIKE '" + EMAIL_PREFIX + "%'");
+        jdbcTemplate.update("INSERT INTO banks (id, user_id, name, balance, created_at, updated_at) " +
+                "SELECT gen_random_uuid(), u.id, 'Banco ' || b, " + INITIAL_BALANCE + ", now(), now() " +
+                "FROM users u CROSS JOIN generate_series(1, ?) b WHERE u.email LIKE '" + EMAIL_PREFIX + "%'", BANKS_PER_USER);
+        jdbcTemplate.update("INSERT INTO expenses (id, user_id, bank_id, category_id, name, value, expense_date, created_at, updated_at) " +
+                "SELECT gen_random_uuid(), bk.user_id, bk.id, c.id, 'Conta', round((1 + random() * 99)::numeric, 2), current_date, now(), now() " +
+                "FROM banks bk JOIN categories c ON c.user_id = bk.user_id " +
+                "JOIN users u ON u.id = bk.user_id AND u.email LIKE '" + EMAIL_PREFIX + "%' " +
+                "CROSS JOIN generate_series(1, ?)", BILLS_PER_BANK);
+        jdbcTemplate.update("INSERT INTO bills (id, user_id, expense_id, bank_id, payment_method, status, auto_pay, due_date, created_at, updated_at) " +
+                "SELECT gen_random_uuid(), e.user_id, e.id, e.bank_id, 'PIX', 'PENDING', true, current_date, now(), now() " +
+                "FROM expenses e WHERE " + owned());
+        jdbcTemplate.execute("ANALYZE bills");
+        jdbcTemplate.execute("ANALYZE banks");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM bills WHERE " + owned());
+        jdbcTemplate.update("DELETE FROM expenses WHERE " + owned());
+        jdbcTemplate.update("DELETE FROM banks WHERE " + owned());
+        jdbcTemplate.update("DELETE FROM categories WHERE " + owned());
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE '" + EMAIL_PREFIX + "%'");
+    }
+
+    @Test
+    void legacyLoopVersusGroupedEngine() {
+        BillAutoPayEngine singleThread = new BillAutoPayEngine(billRepository, bankRepository, transactionManager,
+                new SimpleMeterRegistry(), 1);
+        try {
+            measure("legacy loop", this::legacyLoop, -1);
+            int paid = measure("engine, 1 thread", () -> singleThread.run(today).paid(), -1);
+            measure("engine, configured parallelism", () -> engine.run(today).paid(), paid);
+        } finally {
+            singleThread.shutdown();
+        }
+    }
+
+    private int measure(String label, IntSupplier run, int expectedPaid) {
+        long[] nanos = new long[rounds];
+        int paid = 0;
+        for (int round = 0; round < rounds; round++) {
+            reset();
+            long start = System.nanoTime();
+            paid = run.getAsInt();
+            nanos[round] = System.nanoTime() - start;
+        }
+        if (expectedPaid >= 0) {
+            // Mesmos saldos e mesma ordem de débito (vencimento, criação): o paralelismo não muda o resultado
+            assertEquals(expectedPaid, paid);
+        }
+        Arrays.sort(nanos);
+        double millis = nanos[rounds / 2] / 1_000_000.0;
+        System.out.printf("BillAutoPayBenchmark %-32s %,d bills: %,10.1f ms (median of %d), %,.0f bills/s, %,d paid%n",
+                label, bills, millis, rounds, bills / (millis / 1000), paid);
+        return paid;
+    }
+
+    private void reset() {
+        jdbcTemplate.update("UPDATE bills SET status = 'PENDING', payment_date = NULL WHERE " + owned());
+        jdbcTemplate.update("UPDATE banks SET balance = " + INITIAL_BALANCE + " WHERE " + owned());
+        // Os UPDATEs acima passam por fora do Hibernate: descarta os bancos em cache
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    // O job anterior: uma transação para todos os usuários, banco e despesa carregados conta a conta
+    private int legacyLoop() {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            int paid = 0;
+            for (Bill bill : billRepository.findAllByAutoPayTrueAndStatusAndDueDateAndBankIsNotNull(BillStatus.PENDING, today)) {
+                Bank bank = bill.getBank();
+                if (bank.getBalance().compareTo(bill.getExpense().getValue()) >= 0) {
+                    bank.setBalance(bank.getBalance().subtract(bill.getExpense().getValue()));
+                    bankRepository.save(bank);
+                    bill.setPaymentDate(today);
+                    bill.setStatus(BillStatus.PAID);
+                    billRepository.save(bill);
+                    paid++;
+                }
+            }
+            return paid;
+        });
+    }
+
+    private static String owned() {
+        return "user_id IN (SELECT id FROM users WHERE email LIKE '" + EMAIL_PREFIX + "%')";
+    }
+}
@@ -0,0 +1,143 @@
+package fincontrol.com.fincontrol.service;
+
+import fincontrol.com.fincontrol.dto.BillResponseDto;
+import fincontrol.com.fincontrol.exception.ResourceNotFoundException;
+import fincontrol.com.fincontrol.model.User;
+import fincontrol.com.fincontrol.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Listagem de contas (GET /api/bills): quantidade de statements por modo de paginação, contada
+ * pelas estatísticas do Hibernate, e 404 para filtros de categoria/banco que não são do usuário.
+ */
+@SpringBootTest(properties = "fincontrol.duedate.wheel.enabled=false")
+class BillServiceTests {
+
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 2, Sort.by("dueDate"));
+
+    @Autowired
+    private BillService billService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User user;
+    private UUID categoryId;
+    private UUID bankId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        user = new User();
+        user.setName("Bill Test");
+        user.setEmail("bills-" + UUID.randomUUID() + "@test.local");
+        user.setPasswordHash("x");
+        user.setSalary(BigDecimal.TEN);
+        user = userRepository.save(user);
+
+        categoryId = UUID.randomUUID();
+        bankId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO categories (id, user_id, name, created_at, updated_at) VALUES (?, ?, 'Contas', now(), now())",
+                categoryId, user.getId());
+        jdbcTemplate.update("INSERT INTO banks (id, user_id, name, balance, created_at, updated_at) VALUES (?, ?, 'Banco', 100, now(), now())",
+                bankId, user.getId());
+        for (int i = 1; i <= 3; i++) {
+            UUID expenseId = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO expenses (id, user_id, bank_id, category_id, name, value, expense_date, created_at, updated_at) " +
+                    "VALUES (?, ?, ?, ?, 'Despesa', 10.00, current_date, now(), now())", expenseId, user.getId(), bankId, categoryId);
+            jdbcTemplate.update("INSERT INTO bills (id, user_id, expense_id, bank_id, payment_method, status, auto_pay, due_date, created_at, updated_at) " +
+                    "VALUES (?, ?, ?, ?, 'PIX', 'PENDING', false, ?, now(), now())",
+                    UUID.randomUUID(), user.getId(), expenseId, bankId, LocalDate.now().plusDays(i));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM bills WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM expenses WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM banks WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM categories WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", user.getId());
+    }
+
+    @Test
+    void offsetModeRunsOneSelectPlusCount() {
+        statistics.clear();
+        Slice<BillResponseDto> page = billService.getAllBillsFiltered(user.getId(), null, null, null, FIRST_PAGE, false, null, null);
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertInstanceOf(Page.class, page);
+        assertEquals(3, ((Page<BillResponseDto>) page).getTotalElements());
+        assertEquals(2, page.getContent().size());
+        assertEquals("Contas", page.getContent().get(0).getExpense().getCategory().getName());
+        assertEquals("Banco", page.getContent().get(0).getBank().getName());
+    }
+
+    @Test
+    void keysetModeRunsOneSelectPerSlice() {
+        statistics.clear();
+        Slice<BillResponseDto> first = billService.getAllBillsFiltered(user.getId(), null, null, null, FIRST_PAGE, true, null, null);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(2, first.getContent().size());
+        assertTrue(first.hasNext());
+
+        BillResponseDto last = first.getContent().get(1);
+        statistics.clear();
+        Slice<BillResponseDto> second = billService.getAllBillsFiltered(user.getId(), null, null, null, FIRST_PAGE, true,
+                last.getDueDate(), last.getId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, second.getContent().size());
+        assertFalse(second.hasNext());
+        assertTrue(second.getContent().get(0).getDueDate().isAfter(last.getDueDate()));
+    }
+
+    @Test
+    void filtersByCategoryAndBankOfTheUser() {
+        Slice<BillResponseDto> filtered = billService.getAllBillsFiltered(user.getId(), null, categoryId, bankId, FIRST_PAGE, true, null, null);
+        assertEquals(2, filtered.getContent().size());
+    }
+
+    @Test
+    void unknownOrForeignFiltersAreNotFound() {
+        UUID unknown = UUID.randomUUID();
+        assertThrows(ResourceNotFoundException.class,
+                () -> billService.getAllBillsFiltered(user.getId(), null, unknown, null, FIRST_PAGE, false, null, null));
+        assertThrows(ResourceNotFoundException.class,
+                () -> billService.getAllBillsFiltered(user.getId(), null, null, unknown, FIRST_PAGE, false, null, null));
+        // Categoria e banco existem, mas são de outro usuário
+        assertThrows(ResourceNotFoundException.class,
+                () -> billService.getAllBillsFiltered(UUID.randomUUID(), null, categoryId, null, FIRST_PAGE, false, null, null));
+        assertThrows(ResourceNotFoundException.class,
+                () -> billService.getAllBillsFiltered(UUID.randomUUID(), null, null, bankId, FIRST_PAGE, false, null, null));
+    }
+}
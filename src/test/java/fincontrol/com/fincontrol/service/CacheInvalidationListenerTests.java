@@ -0,0 +1,120 @@
+package fincontrol.com.fincontrol.service;
+
+import fincontrol.com.fincontrol.model.User;
+import fincontrol.com.fincontrol.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Invalidação via LISTEN/NOTIFY: escritas feitas fora desta instância (aqui, SQL direto pelo
+ * JdbcTemplate, que o Hibernate não enxerga) chegam aos caches em memória pelo trigger da V5.
+ * A instância com a propriedade ligada liga os triggers; uma com ela desligada não os desliga.
+ * No fim os triggers voltam ao estado da V5 (desligados), para não pesar nos outros testes.
+ */
+@SpringBootTest(properties = "fincontrol.cache.hibernate.notify-invalidation.enabled=true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CacheInvalidationListenerTests {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryCache categoryCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ForecastService forecastService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("Notify Test");
+        user.setEmail("notify-" + UUID.randomUUID() + "@test.local");
+        user.setPasswordHash("x");
+        user.setSalary(BigDecimal.TEN);
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM categories WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", user.getId());
+    }
+
+    @AfterAll
+    void restoreMigrationState() {
+        for (String table : List.of("users", "banks", "categories")) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " DISABLE TRIGGER " + table + "_cache_notify");
+        }
+    }
+
+    @Test
+    void notifyTriggersAreEnabled() {
+        assertEquals(3, enabledTriggers());
+    }
+
+    @Test
+    void instanceWithoutInvalidationLeavesTheTriggersEnabled() {
+        CacheInvalidationListener singleInstance = new CacheInvalidationListener(jdbcTemplate, dataSourceProperties,
+                entityManagerFactory, categoryCache, forecastService, false,
+                Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofSeconds(1));
+
+        singleInstance.start();
+
+        assertEquals(3, enabledTriggers());
+    }
+
+    @Test
+    void externalUserUpdateEvictsTheCachedEntity() {
+        assertEquals("Notify Test", userRepository.findById(user.getId()).orElseThrow().getName());
+
+        jdbcTemplate.update("UPDATE users SET name = 'Changed elsewhere' WHERE id = ?", user.getId());
+
+        await().atMost(TIMEOUT).until(() ->
+                "Changed elsewhere".equals(userRepository.findById(user.getId()).orElseThrow().getName()));
+    }
+
+    @Test
+    void externalCategoryInsertReachesTheCategoryCache() {
+        assertTrue(categoryCache.findAllByUserId(user.getId()).isEmpty());
+
+        jdbcTemplate.update("INSERT INTO categories (id, user_id, name, created_at, updated_at) " +
+                "VALUES (?, ?, 'Elsewhere', now(), now())", UUID.randomUUID(), user.getId());
+
+        await().atMost(TIMEOUT).until(() -> categoryCache.findAllByUserId(user.getId()).size() == 1);
+    }
+
+    private int enabledTriggers() {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_trigger WHERE tgname LIKE '%\\_cache\\_notify' AND tgenabled = 'O'", Integer.class);
+    }
+}
@@ -0,0 +1,110 @@
+package fincontrol.com.fincontrol.service;
+
+import fincontrol.com.fincontrol.dto.CategoryCreateDto;
+import fincontrol.com.fincontrol.exception.InvalidOperationException;
+import fincontrol.com.fincontrol.model.Category;
+import fincontrol.com.fincontrol.model.User;
+import fincontrol.com.fincontrol.repository.CategoryRepository;
+import fincontrol.com.fincontrol.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * CategoryService contra o Postgres: exclusão em massa tudo-ou-nada e categorias servidas pelo
+ * CategoryCache isoladas entre chamadores.
+ */
+@SpringBootTest
+class CategoryServiceTests {
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("Category Test");
+        user.setEmail("category-" + UUID.randomUUID() + "@test.local");
+        user.setPasswordHash("x");
+        user.setSalary(BigDecimal.TEN);
+        user = userRepository.save(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user.getId().toString(), null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        jdbcTemplate.update("DELETE FROM expenses WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM categories WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", user.getId());
+    }
+
+    @Test
+    void deleteAllRemovesEveryUnusedCategory() {
+        createCategory("Livre 1");
+        createCategory("Livre 2");
+
+        assertEquals(2, categoryService.deleteAllCategories());
+        assertTrue(categoryRepository.findAllByUserId(user.getId()).isEmpty());
+        assertTrue(categoryService.listAllCategories().isEmpty());
+    }
+
+    @Test
+    void deleteAllDeletesNothingWhenACategoryIsInUse() {
+        createCategory("Livre");
+        Category used = createCategory("Usada");
+        jdbcTemplate.update("INSERT INTO expenses (id, user_id, category_id, name, value, expense_date, created_at, updated_at) " +
+                "VALUES (?, ?, ?, 'Despesa', 10.00, current_date, now(), now())", UUID.randomUUID(), user.getId(), used.getId());
+
+        InvalidOperationException error = assertThrows(InvalidOperationException.class, categoryService::deleteAllCategories);
+        assertTrue(error.getMessage().contains("'Usada'"));
+        assertEquals(2, categoryRepository.findAllByUserId(user.getId()).size());
+    }
+
+    @Test
+    void cachedCategoriesAreCopiesThatCallersCannotCorrupt() {
+        Category created = createCategory("Original");
+
+        Category first = categoryService.getCategoryById(created.getId());
+        first.setName("Alterada pelo chamador");
+        categoryService.listAllCategories().get(0).setDescription("Alterada pelo chamador");
+
+        Category second = categoryService.getCategoryById(created.getId());
+        assertNotSame(first, second);
+        assertEquals("Original", second.getName());
+        assertEquals("Original", categoryService.listAllCategories().get(0).getName());
+        assertEquals(created.getDescription(), categoryService.listAllCategories().get(0).getDescription());
+    }
+
+    private Category createCategory(String name) {
+        CategoryCreateDto dto = new CategoryCreateDto();
+        dto.setName(name);
+        return categoryService.createCategory(dto);
+    }
+}
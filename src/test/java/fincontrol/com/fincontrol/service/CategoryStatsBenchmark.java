@@ -0,0 +1,157 @@
+package fincontrol.com.fincontrol.service;
+
+import fincontrol.com.fincontrol.dto.CategoryUsageStatsDto;
+import fincontrol.com.fincontrol.model.Category;
+import fincontrol.com.fincontrol.model.Expense;
+import fincontrol.com.fincontrol.model.ExtraIncome;
+import fincontrol.com.fincontrol.repository.CategoryRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static fincontrol.com.fincontrol.support.BenchmarkTimer.medianMillis;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * GET /api/categories/stats (uma consulta UNION ALL + GROUP BY) contra o laço por categoria que
+ * carregava as despesas e rendas extras de cada categoria e agregava em Java.
+ *
+ * {@code benchmark.rows} linhas (metade despesas, metade rendas extras) distribuídas entre
+ * {@code benchmark.users} usuários com 20 categorias cada; mede um usuário.
+ * Ex.: mvn test -Pbenchmark -Dtest=CategoryStatsBenchmark -DargLine="-Dbenchmark.rows=1000000 -Dbenchmark.users=100"
+ */
+@SpringBootTest
+class CategoryStatsBenchmark {
+
+    private static final String EMAIL_PREFIX = "bench-stats-";
+    private static final int CATEGORIES_PER_USER = 20;
+
+    private final int rows = Integer.getInteger("benchmark.rows", 1_000_000);
+    private final int users = Integer.getInteger("benchmark.users", 100);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private UUID userId;
+
+    @BeforeEach
+    void seed() {
+        cleanUp();
+        int perCategory = Math.max(1, rows / 2 / (users * CATEGORIES_PER_USER));
+        jdbcTemplate.update("INSERT INTO users (id, name, email, password_hash, salary, created_at, updated_at) " +
+                "SELECT gen_random_uuid(), 'Bench ' || u, '" + EMAIL_PREFIX + "' || u || '@bench.local', 'x', 1000, now(), now() " +
+                "FROM generate_series(1, ?) u", users);
+        jdbcTemplate.update("INSERT INTO categories (id, user_id, name, created_at, updated_at) " +
+                "SELECT gen_random_uuid(), u.id, 'Categoria ' || c, now(), now() " +
+                "FROM users u CROSS JOIN generate_series(1, ?) c WHERE u.email LIKE '" + EMAIL_PREFIX + "%'", CATEGORIES_PER_USER);
+        jdbcTemplate.update("INSERT INTO banks (id, user_id, name, balance, created_at, updated_at) " +
+                "SELECT gen_random_uuid(), id, 'Banco', 0, now(), now() FROM users WHERE email LIKE '" + EMAIL_PREFIX + "%'");
+        jdbcTemplate.update("INSERT INTO expenses (id, user_id, category_id, name, value, expense_date, created_at, updated_at) " +
+                "SELECT gen_random_uuid(), c.user_id, c.id, 'Despesa', round((random() * 1000)::numeric, 2), " +
+                "current_date - (random() * 730)::int, now(), now() " +
+                "FROM categories c JOIN users u ON u.id = c.user_id AND u.email LIKE '" + EMAIL_PREFIX + "%' " +
+                "CROSS JOIN generate_series(1, ?)", perCategory);
+        jdbcTemplate.update("INSERT INTO extra_income (id, user_id, bank_id, category_id, name, amount, date, created_at, updated_at) " +
+                "SELECT gen_random_uuid(), c.user_id, b.id, c.id, 'Renda', round((random() * 1000)::numeric, 2), " +
+                "current_date - (random() * 730)::int, now(), now() " +
+                "FROM categories c JOIN users u ON u.id = c.user_id AND u.email LIKE '" + EMAIL_PREFIX + "%' " +
+                "JOIN banks b ON b.user_id = c.user_id CROSS JOIN generate_series(1, ?)", perCategory);
+        jdbcTemplate.execute("ANALYZE expenses");
+        jdbcTemplate.execute("ANALYZE extra_income");
+        userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = ?", UUID.class, EMAIL_PREFIX + "1@bench.local");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        String owned = "user_id IN (SELECT id FROM users WHERE email LIKE '" + EMAIL_PREFIX + "%')";
+        jdbcTemplate.update("DELETE FROM extra_income WHERE " + owned);
+        jdbcTemplate.update("DELETE FROM expenses WHERE " + owned);
+        jdbcTemplate.update("DELETE FROM banks WHERE " + owned);
+        jdbcTemplate.update("DELETE FROM categories WHERE " + owned);
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE '" + EMAIL_PREFIX + "%'");
+    }
+
+    @Test
+    void groupedQueryVersusPerCategoryLoop() throws Exception {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        Map<UUID, CategoryUsageStatsDto> grouped = readOnly.execute(status -> groupedQuery());
+        Map<UUID, CategoryUsageStatsDto> looped = readOnly.execute(status -> perCategoryLoop());
+        assertEquals(grouped, looped);
+
+        double groupedMillis = medianMillis(5, 20, () -> readOnly.execute(status -> groupedQuery()));
+        double loopMillis = medianMillis(2, 5, () -> readOnly.execute(status -> {
+            Map<UUID, CategoryUsageStatsDto> stats = perCategoryLoop();
+            entityManager.clear();
+            return stats;
+        }));
+
+        long userRows = grouped.values().stream().mapToLong(s -> s.getExpenseCount() + s.getExtraIncomeCount()).sum();
+        System.out.printf("CategoryStatsBenchmark: %,d rows in expenses + extra_income, %d users, %,d rows for the measured user%n",
+                rows, users, userRows);
+        System.out.printf("  grouped query      %10.2f ms (median)%n", groupedMillis);
+        System.out.printf("  per-category loop  %10.2f ms (median, %d categories x 2 queries)%n", loopMillis, CATEGORIES_PER_USER);
+        System.out.printf("  speedup            %10.1fx%n", loopMillis / groupedMillis);
+    }
+
+    private Map<UUID, CategoryUsageStatsDto> groupedQuery() {
+        Map<UUID, CategoryUsageStatsDto> stats = new HashMap<>();
+        for (Object[] row : categoryRepository.findUsageStatsByUserId(userId)) {
+            stats.put((UUID) row[0], new CategoryUsageStatsDto((UUID) row[0], (String) row[1],
+                    ((Number) row[2]).longValue(), (BigDecimal) row[3],
+                    ((Number) row[4]).longValue(), (BigDecimal) row[5], ((Date) row[6]).toLocalDate()));
+        }
+        return stats;
+    }
+
+    // O caminho anterior: carrega as entidades de cada categoria e agrega em Java
+    private Map<UUID, CategoryUsageStatsDto> perCategoryLoop() {
+        Map<UUID, CategoryUsageStatsDto> stats = new HashMap<>();
+        for (Category category : categoryRepository.findAllByUserId(userId)) {
+            List<Expense> expenses = entityManager.createQuery(
+                            "SELECT e FROM Expense e WHERE e.user.id = :userId AND e.category.id = :categoryId", Expense.class)
+                    .setParameter("userId", userId)
+                    .setParameter("categoryId", category.getId())
+                    .getResultList();
+            List<ExtraIncome> incomes = entityManager.createQuery(
+                            "SELECT ei FROM ExtraIncome ei WHERE ei.user.id = :userId AND ei.categoryId = :categoryId", ExtraIncome.class)
+                    .setParameter("userId", userId)
+                    .setParameter("categoryId", category.getId())
+                    .getResultList();
+            LocalDate lastUsed = Stream.concat(expenses.stream().map(Expense::getExpenseDate), incomes.stream().map(ExtraIncome::getDate))
+                    .max(Comparator.naturalOrder())
+                    .orElse(null);
+            stats.put(category.getId(), new CategoryUsageStatsDto(category.getId(), category.getName(),
+                    (long) expenses.size(), expenses.stream().map(Expense::getValue).reduce(BigDecimal.ZERO, BigDecimal::add),
+                    (long) incomes.size(), incomes.stream().map(ExtraIncome::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add),
+                    lastUsed));
+        }
+        return stats;
+    }
+}
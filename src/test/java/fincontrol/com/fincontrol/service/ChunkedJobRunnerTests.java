@@ -0,0 +1,235 @@
+package fincontrol.com.fincontrol.service;
+
+import fincontrol.com.fincontrol.model.BatchJobCheckpoint;
+import fincontrol.com.fincontrol.model.User;
+import fincontrol.com.fincontrol.model.enums.BatchJobStatus;
+import fincontrol.com.fincontrol.model.enums.BillStatus;
+import fincontrol.com.fincontrol.repository.BatchJobCheckpointRepository;
+import fincontrol.com.fincontrol.repository.BillRepository;
+import fincontrol.com.fincontrol.repository.UserRepository;
+import fincontrol.com.fincontrol.scheduler.BillScheduledTasks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Motor de jobs em lote contra o Postgres, pelo job de contas vencidas com chunks de 2: checkpoint
+ * gravado na transação de cada chunk, chunk que falha no meio (desfeito, checkpoint FAILED) e
+ * retomada pela subida da aplicação com a mesma data de corte, e as métricas job.rows e job.lag.
+ */
+@SpringBootTest(properties = {
+        "fincontrol.duedate.wheel.enabled=false",
+        "fincontrol.jobs.bills-overdue.chunk-size=2"
+})
+class ChunkedJobRunnerTests {
+
+    private static final int CHUNK_SIZE = 2;
+    private static final int OVERDUE_BILLS = 5;
+
+    @Autowired
+    private ChunkedJobRunner chunkedJobRunner;
+
+    @Autowired
+    private BillScheduledTasks billScheduledTasks;
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Autowired
+    private BatchJobCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private long eligibleBefore;
+
+    @BeforeEach
+    void setUp() {
+        checkpointRepository.deleteById(BillService.OVERDUE_JOB_NAME);
+        user = new User();
+        user.setName("Job Test");
+        user.setEmail("jobs-" + UUID.randomUUID() + "@test.local");
+        user.setPasswordHash("x");
+        user.setSalary(BigDecimal.TEN);
+        user = userRepository.save(user);
+
+        UUID categoryId = UUID.randomUUID();
+        UUID bankId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO categories (id, user_id, name, created_at, updated_at) VALUES (?, ?, 'Contas', now(), now())",
+                categoryId, user.getId());
+        jdbcTemplate.update("INSERT INTO banks (id, user_id, name, balance, created_at, updated_at) VALUES (?, ?, 'Banco', 100, now(), now())",
+                bankId, user.getId());
+        LocalDate oldestDueDate = LocalDate.now().minusDays(10);
+        // 5 vencidas e uma que vence hoje (ainda não atrasada)
+        for (int i = 0; i <= OVERDUE_BILLS; i++) {
+            UUID expenseId = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO expenses (id, user_id, bank_id, category_id, name, value, expense_date, created_at, updated_at) " +
+                    "VALUES (?, ?, ?, ?, 'Despesa', 10.00, current_date, now(), now())", expenseId, user.getId(), bankId, categoryId);
+            LocalDate dueDate = i < OVERDUE_BILLS ? oldestDueDate.plusDays(i) : LocalDate.now();
+            jdbcTemplate.update("INSERT INTO bills (id, user_id, expense_id, bank_id, payment_method, status, auto_pay, due_date, created_at, updated_at) " +
+                    "VALUES (?, ?, ?, ?, 'PIX', 'PENDING', false, ?, now(), now())",
+                    UUID.randomUUID(), user.getId(), expenseId, bankId, dueDate);
+        }
+        // O UPDATE do job é global: contas vencidas deixadas por outros dados também entram na conta
+        eligibleBefore = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM bills WHERE status = 'PENDING' AND due_date < current_date", Long.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        checkpointRepository.deleteById(BillService.OVERDUE_JOB_NAME);
+        jdbcTemplate.update("DELETE FROM bills WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM expenses WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM banks WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM categories WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", user.getId());
+    }
+
+    @Test
+    void failedChunkIsRolledBackAndTheRunResumesOnStartup() {
+        double rowsBefore = rowsCounter();
+
+        // Mesmo nome do job real, mas o segundo chunk falha depois do UPDATE
+        ChunkedJob failing = new FailingOverdueJob(2);
+        LocalDate cutoff = LocalDate.now();
+        assertThrows(IllegalStateException.class, () -> chunkedJobRunner.run(failing, cutoff, CHUNK_SIZE));
+
+        BatchJobCheckpoint failed = checkpointRepository.findById(BillService.OVERDUE_JOB_NAME).orElseThrow();
+        assertEquals(BatchJobStatus.FAILED, failed.getStatus());
+        assertEquals(cutoff, failed.getCutoffDate());
+        assertEquals(CHUNK_SIZE, failed.getRowsProcessed());
+        assertEquals(1, failed.getChunksCommitted());
+        assertEquals("chunk 2 failed", failed.getLastError());
+        assertNull(failed.getFinishedAt());
+        assertTrue(chunkedJobRunner.hasInterruptedRun(BillService.OVERDUE_JOB_NAME));
+        // Só o primeiro chunk ficou: o segundo foi desfeito junto com o checkpoint
+        assertEquals(eligibleBefore - CHUNK_SIZE, pendingOverdue());
+        assertEquals(CHUNK_SIZE, rowsCounter() - rowsBefore);
+        assertTrue(lagSeconds() >= Duration.ofDays(1).toSeconds(), "pending bills are still late");
+
+        // Retomada como na subida da aplicação (ApplicationReadyEvent)
+        billScheduledTasks.resumeInterruptedOverdueBills();
+
+        BatchJobCheckpoint completed = checkpointRepository.findById(BillService.OVERDUE_JOB_NAME).orElseThrow();
+        assertEquals(BatchJobStatus.COMPLETED, completed.getStatus());
+        assertEquals(cutoff, completed.getCutoffDate());
+        assertEquals(eligibleBefore, completed.getRowsProcessed());
+        assertEquals((eligibleBefore + CHUNK_SIZE - 1) / CHUNK_SIZE, completed.getChunksCommitted());
+        assertNull(completed.getLastError());
+        assertNotNull(completed.getFinishedAt());
+        assertEquals(0, pendingOverdue());
+        assertEquals(eligibleBefore, rowsCounter() - rowsBefore);
+        assertEquals(0, lagSeconds());
+
+        assertEquals(List.of("OVERDUE", "OVERDUE", "OVERDUE", "OVERDUE", "OVERDUE", "PENDING"), jdbcTemplate.queryForList(
+                "SELECT status FROM bills WHERE user_id = ? ORDER BY due_date", String.class, user.getId()));
+    }
+
+    @Test
+    void shortChunksDoNotEndTheRun() {
+        // Chunks curtos (linhas puladas por SKIP LOCKED) não encerram o job: só um chunk vazio
+        Queue<Integer> counts = new ArrayDeque<>(List.of(1, 2, 1, 0));
+        ChunkedJob job = new ChunkedJob() {
+            @Override
+            public String name() {
+                return BillService.OVERDUE_JOB_NAME;
+            }
+
+            @Override
+            public int processChunk(LocalDate cutoff, int chunkSize) {
+                return counts.remove();
+            }
+
+            @Override
+            public LocalDateTime oldestPendingSince(LocalDate cutoff) {
+                return null;
+            }
+        };
+
+        assertEquals(4, chunkedJobRunner.run(job, LocalDate.now(), CHUNK_SIZE));
+
+        assertTrue(counts.isEmpty());
+        BatchJobCheckpoint checkpoint = checkpointRepository.findById(BillService.OVERDUE_JOB_NAME).orElseThrow();
+        assertEquals(BatchJobStatus.COMPLETED, checkpoint.getStatus());
+        assertEquals(4, checkpoint.getRowsProcessed());
+        assertEquals(3, checkpoint.getChunksCommitted());
+    }
+
+    @Test
+    void rejectsNonPositiveChunkSize() {
+        assertThrows(IllegalArgumentException.class, () -> chunkedJobRunner.run(new FailingOverdueJob(1), LocalDate.now(), 0));
+    }
+
+    private long pendingOverdue() {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM bills WHERE status = 'PENDING' AND due_date < current_date", Long.class);
+    }
+
+    // Os medidores do job só são registrados na primeira execução no contexto
+    private double rowsCounter() {
+        Counter counter = meterRegistry.find("job.rows").tag("job", BillService.OVERDUE_JOB_NAME).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private double lagSeconds() {
+        return meterRegistry.get("job.lag").tag("job", BillService.OVERDUE_JOB_NAME).gauge().value();
+    }
+
+    // Job de vencidas real até o chunk de número failAt, que lança depois de marcar as linhas
+    private class FailingOverdueJob implements ChunkedJob {
+
+        private final int failAt;
+        private int chunk;
+
+        FailingOverdueJob(int failAt) {
+            this.failAt = failAt;
+        }
+
+        @Override
+        public String name() {
+            return BillService.OVERDUE_JOB_NAME;
+        }
+
+        @Override
+        public int processChunk(LocalDate cutoff, int chunkSize) {
+            int count = billRepository.markOverdueChunk(cutoff, chunkSize);
+            if (++chunk == failAt) {
+                throw new IllegalStateException("chunk " + chunk + " failed");
+            }
+            return count;
+        }
+
+        @Override
+        public LocalDateTime oldestPendingSince(LocalDate cutoff) {
+            LocalDate oldest = billRepository.findOldestDueDateByStatusBefore(BillStatus.PENDING, cutoff);
+            return oldest == null ? null : oldest.plusDays(1).atStartOfDay();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package fincontrol.com.fincontrol.service;
+
+import fincontrol.com.fincontrol.dto.ForecastPointDto;
+import fincontrol.com.fincontrol.model.User;
+import fincontrol.com.fincontrol.repository.ExpenseRepository;
+import fincontrol.com.fincontrol.repository.ExtraIncomeRepository;
+import fincontrol.com.fincontrol.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Cache de projeções por usuário: alterar o valor de uma despesa ou de uma renda extra ligada a
+ * uma conta/recebível em aberto invalida a projeção já calculada (ForecastCacheInvalidator).
+ */
+@SpringBootTest(properties = "fincontrol.duedate.wheel.enabled=false")
+class ForecastServiceTests {
+
+    private static final int DAYS = 7;
+
+    @Autowired
+    private ForecastService forecastService;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private ExtraIncomeRepository extraIncomeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User user;
+    private UUID expenseId;
+    private UUID extraIncomeId;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("Forecast Test");
+        user.setEmail("forecast-" + UUID.randomUUID() + "@test.local");
+        user.setPasswordHash("x");
+        user.setSalary(BigDecimal.TEN);
+        user = userRepository.save(user);
+
+        UUID categoryId = UUID.randomUUID();
+        UUID bankId = UUID.randomUUID();
+        expenseId = UUID.randomUUID();
+        extraIncomeId = UUID.randomUUID();
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        jdbcTemplate.update("INSERT INTO categories (id, user_id, name, created_at, updated_at) VALUES (?, ?, 'Geral', now(), now())",
+                categoryId, user.getId());
+        jdbcTemplate.update("INSERT INTO banks (id, user_id, name, balance, created_at, updated_at) VALUES (?, ?, 'Banco', 1000, now(), now())",
+                bankId, user.getId());
+        jdbcTemplate.update("INSERT INTO expenses (id, user_id, bank_id, category_id, name, value, expense_date, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, 'Aluguel', 100.00, current_date, now(), now())", expenseId, user.getId(), bankId, categoryId);
+        jdbcTemplate.update("INSERT INTO bills (id, user_id, expense_id, bank_id, payment_method, status, auto_pay, due_date, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, 'PIX', 'PENDING', false, ?, now(), now())", UUID.randomUUID(), user.getId(), expenseId, bankId, tomorrow);
+        jdbcTemplate.update("INSERT INTO extra_income (id, user_id, bank_id, category_id, name, amount, date, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, 'Freela', 50.00, current_date, now(), now())", extraIncomeId, user.getId(), bankId, categoryId);
+        jdbcTemplate.update("INSERT INTO receivables (id, user_id, extra_income_id, receipt_method, status, automatic_bank_receipt, due_date, created_at, updated_at) " +
+                "VALUES (?, ?, ?, 'PIX', 'PENDING', false, ?, now(), now())", UUID.randomUUID(), user.getId(), extraIncomeId, tomorrow);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM bills WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM receivables WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM expenses WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM extra_income WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM banks WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM categories WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", user.getId());
+        forecastService.evict(user.getId());
+    }
+
+    @Test
+    void expenseValueChangeEvictsTheCachedForecast() {
+        assertEquals(new BigDecimal("950.00"), finalBalance());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                expenseRepository.findById(expenseId).orElseThrow().setValue(new BigDecimal("300.00")));
+
+        assertEquals(new BigDecimal("750.00"), finalBalance());
+    }
+
+    @Test
+    void extraIncomeAmountChangeEvictsTheCachedForecast() {
+        assertEquals(new BigDecimal("950.00"), finalBalance());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                extraIncomeRepository.findById(extraIncomeId).orElseThrow().setAmount(new BigDecimal("250.00")));
+
+        assertEquals(new BigDecimal("1150.00"), finalBalance());
+    }
+
+    private BigDecimal finalBalance() {
+        List<ForecastPointDto> total = forecastService.getForecast(user.getId(), DAYS).getTotal();
+        return total.get(total.size() - 1).getBalance().setScale(2);
+    }
+}
@@ -0,0 +1,120 @@
+package fincontrol.com.fincontrol.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * HierarchicalTimingWheel sem Spring: descida entre níveis, cancelamento/reagendamento e ordem de
+ * disparo. Com tick de 10 ms e 4 buckets os níveis cobrem 40, 160, 640 e 2.560 ms, então
+ * vencimentos de até 5 s passam por vários níveis de overflow antes de disparar.
+ */
+class HierarchicalTimingWheelTests {
+
+    private static final long TICK_MS = 10L;
+    private static final int WHEEL_SIZE = 4;
+
+    @Test
+    void itemsCascadeDownTheLevelsAndFireExactlyAtTheirExpiration() {
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(TICK_MS, WHEEL_SIZE, 0L);
+        Map<Integer, Long> expirations = new HashMap<>();
+        Random random = new Random(42);
+        for (int key = 0; key < 500; key++) {
+            long expiration = 1 + random.nextInt(5_000);
+            expirations.put(key, expiration);
+            assertTrue(wheel.schedule(key, expiration, 0L));
+        }
+
+        Map<Integer, Long> firedAt = new HashMap<>();
+        long lastExpiration = 0L;
+        for (long now = 1; now <= 5_100; now++) {
+            for (HierarchicalTimingWheel.Expired<Integer> expired : wheel.advance(now)) {
+                assertEquals(expirations.get(expired.key()), expired.expirationMs());
+                assertTrue(expired.expirationMs() >= lastExpiration, "fired out of order");
+                lastExpiration = expired.expirationMs();
+                firedAt.put(expired.key(), now);
+            }
+        }
+
+        assertEquals(expirations, firedAt);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void coarseAdvancesNeverFireEarlyNorLeaveDueItemsBehind() {
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(TICK_MS, WHEEL_SIZE, 0L);
+        Map<Integer, Long> pending = new HashMap<>();
+        Random random = new Random(7);
+        for (int key = 0; key < 500; key++) {
+            long expiration = 1 + random.nextInt(5_000);
+            pending.put(key, expiration);
+            wheel.schedule(key, expiration, 0L);
+        }
+
+        for (long now = 0; !pending.isEmpty(); now += 1 + random.nextInt(97)) {
+            long previousTick = -1L;
+            for (HierarchicalTimingWheel.Expired<Integer> expired : wheel.advance(now)) {
+                assertTrue(expired.expirationMs() <= now, "fired before its expiration");
+                // Dentro de um mesmo avanço a ordem é a dos buckets (granularidade de um tick)
+                assertTrue(expired.expirationMs() / TICK_MS >= previousTick, "buckets fired out of order");
+                previousTick = expired.expirationMs() / TICK_MS;
+                pending.remove(expired.key());
+            }
+            long current = now;
+            assertTrue(pending.values().stream().allMatch(expiration -> expiration > current), "due item left behind");
+            assertEquals(pending.size(), wheel.size());
+        }
+    }
+
+    @Test
+    void rescheduleReplacesTheEarlierEntryAndCancelRemovesIt() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK_MS, WHEEL_SIZE, 0L);
+        wheel.schedule("a", 500L, 0L);
+        wheel.schedule("b", 100L, 0L);
+        wheel.schedule("c", 30L, 0L);
+
+        // Antecipa "a" e adia "c" para um nível de overflow
+        wheel.schedule("a", 50L, 0L);
+        wheel.schedule("c", 3_000L, 0L);
+        assertEquals(3, wheel.size());
+
+        assertEquals(List.of(new HierarchicalTimingWheel.Expired<>("a", 50L)), wheel.advance(60L));
+        assertTrue(wheel.cancel("b"));
+        assertFalse(wheel.cancel("b"));
+        assertTrue(wheel.advance(2_999L).isEmpty());
+        assertEquals(List.of(new HierarchicalTimingWheel.Expired<>("c", 3_000L)), wheel.advance(3_000L));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void itemsInsideTheCurrentTickWaitForTheirExactInstant() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK_MS, WHEEL_SIZE, 0L);
+        assertFalse(wheel.schedule("due", 0L, 0L));
+        assertEquals(0, wheel.size());
+
+        assertTrue(wheel.schedule("imminent", 5L, 0L));
+        assertTrue(wheel.advance(4L).isEmpty());
+        assertEquals(List.of(new HierarchicalTimingWheel.Expired<>("imminent", 5L)), wheel.advance(5L));
+    }
+
+    @Test
+    void clearDropsEverythingAndTheWheelKeepsWorking() {
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(TICK_MS, WHEEL_SIZE, 0L);
+        for (int key = 0; key < 10; key++) {
+            wheel.schedule(key, 100L * (key + 1), 0L);
+        }
+        wheel.clear();
+        assertEquals(0, wheel.size());
+        assertTrue(wheel.advance(2_000L).isEmpty());
+
+        wheel.schedule(1, 2_500L, 2_000L);
+        assertEquals(List.of(new HierarchicalTimingWheel.Expired<>(1, 2_500L)), wheel.advance(2_500L));
+    }
+}
@@ -0,0 +1,166 @@
+package fincontrol.com.fincontrol.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fincontrol.com.fincontrol.config.MetricsConfig;
+import fincontrol.com.fincontrol.dto.OperationMetricsDto;
+import fincontrol.com.fincontrol.exception.InvalidOperationException;
+import fincontrol.com.fincontrol.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * API genérica de métricas (/metrics/custom): escolha da amostra da taxa no buffer circular
+ * (inclusive o recuo para a mais antiga), rótulos p50/p90/p99/p999 dos histogramas ligados pelo
+ * MetricsConfig, filtros de tag chave:valor e 400/404 pela API.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "fincontrol.duedate.wheel.enabled=false")
+class OperationMetricsServiceTests {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MeterRegistry registry;
+    private OperationMetricsService service;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        registry.config().meterFilter(new MetricsConfig().operationPercentiles(List.of("test.")));
+        service = new OperationMetricsService(registry, List.of("test."));
+    }
+
+    @Test
+    void rateUsesTheNewestSampleAtLeastAWindowOld() {
+        OperationMetricsService.CountHistory history = new OperationMetricsService.CountHistory();
+        assertNull(history.rate(0, 0, 10 * SECOND));
+
+        history.add(0, 0);
+        history.add(10 * SECOND, 100);
+        history.add(20 * SECOND, 200);
+        history.add(30 * SECOND, 400);
+        long now = 30 * SECOND;
+
+        // Janela de 10 s: amostra de 20 s -> (400 - 200) / 10
+        assertEquals(20.0, history.rate(now, 400, 10 * SECOND));
+        // Janela de 20 s: amostra de 10 s -> (400 - 100) / 20
+        assertEquals(15.0, history.rate(now, 400, 20 * SECOND));
+        // Janela maior que o histórico: recua para a amostra mais antiga -> 400 / 30
+        assertEquals(400 / 30.0, history.rate(now, 400, 60 * SECOND), 1e-9);
+        // O count atual pode estar à frente da última amostra
+        assertEquals(25.0, history.rate(now + 10 * SECOND, 700, 20 * SECOND));
+    }
+
+    @Test
+    void rateFallsBackToTheOldestSampleStillInTheRing() {
+        OperationMetricsService.CountHistory history = new OperationMetricsService.CountHistory();
+        int samples = (int) (OperationMetricsService.MAX_WINDOW_SECONDS / OperationMetricsService.SAMPLE_INTERVAL_SECONDS) + 1;
+        // 10 amostras a mais que o buffer: as 10 primeiras já foram sobrescritas. Count quadrático,
+        // para que cada amostra dê uma taxa diferente
+        int last = samples + 9;
+        for (int i = 0; i <= last; i++) {
+            history.add(i * 10 * SECOND, (long) i * i);
+        }
+        long now = last * 10 * SECOND;
+        long current = (long) last * last;
+        int oldest = 10;
+
+        double rate = history.rate(now, current, TimeUnit.HOURS.toNanos(1));
+
+        assertEquals((current - oldest * oldest) / ((last - oldest) * 10.0), rate, 1e-9);
+        // Janela zero: a amostra mais nova, sem tempo decorrido
+        assertEquals(0.0, history.rate(now, current, 0));
+    }
+
+    @Test
+    void describeLabelsTheConfiguredPercentiles() {
+        Timer timer = registry.timer("test.operation", "method", "a");
+        for (int i = 1; i <= 100; i++) {
+            timer.record(Duration.ofMillis(i));
+        }
+        DistributionSummary summary = DistributionSummary.builder("test.rows").baseUnit("rows").register(registry);
+        summary.record(5);
+
+        OperationMetricsDto timerDto = service.describe("test.operation", null, 60).get(0);
+        assertEquals("timer", timerDto.getType());
+        assertEquals("seconds", timerDto.getUnit());
+        assertEquals(Map.of("method", "a"), timerDto.getTags());
+        assertEquals(100, timerDto.getCount());
+        assertEquals(List.of("p50", "p90", "p99", "p999"), List.copyOf(timerDto.getPercentiles().keySet()));
+        double p50 = timerDto.getPercentiles().get("p50");
+        assertTrue(p50 > 0.045 && p50 < 0.055, "p50 " + p50);
+
+        OperationMetricsDto summaryDto = service.describe("test.rows", null, 60).get(0);
+        assertEquals("summary", summaryDto.getType());
+        assertEquals("rows", summaryDto.getUnit());
+        assertEquals(List.of("p50", "p90", "p99", "p999"), List.copyOf(summaryDto.getPercentiles().keySet()));
+
+        // Meters fora dos prefixos não ganham histograma
+        registry.timer("other.operation").record(Duration.ofMillis(1));
+        assertTrue(service.describe("other.operation", null, 60).get(0).getPercentiles().isEmpty());
+    }
+
+    @Test
+    void describeFiltersByTags() {
+        registry.timer("test.operation", "method", "a").record(Duration.ofMillis(1));
+        registry.timer("test.operation", "method", "b").record(Duration.ofMillis(1));
+
+        assertEquals(2, service.describe("test.operation", null, 60).size());
+        List<OperationMetricsDto> filtered = service.describe("test.operation", List.of("method:b"), 60);
+        assertEquals(1, filtered.size());
+        assertEquals("b", filtered.get(0).getTags().get("method"));
+
+        for (String invalid : List.of("method", ":b", "method:", "")) {
+            assertThrows(InvalidOperationException.class, () -> service.describe("test.operation", List.of(invalid), 60));
+        }
+        assertThrows(ResourceNotFoundException.class, () -> service.describe("test.operation", List.of("method:c"), 60));
+        assertThrows(ResourceNotFoundException.class, () -> service.describe("test.unknown", null, 60));
+        assertThrows(InvalidOperationException.class, () -> service.describe("test.operation", null, 5));
+    }
+
+    @Test
+    void apiAnswers404ForUnknownMetersAnd400ForBadFilters() throws Exception {
+        HttpResponse<String> unknown = get("/metrics/custom/no.such.meter");
+        assertEquals(404, unknown.statusCode());
+        JsonNode body = objectMapper.readTree(unknown.body());
+        assertEquals("/metrics/custom/no.such.meter", body.get("path").asText());
+
+        assertEquals(400, get("/metrics/custom/http.server.requests?tag=method").statusCode());
+        assertEquals(400, get("/metrics/custom?window=1").statusCode());
+        assertEquals(200, get("/metrics/custom").statusCode());
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,134 @@
+package fincontrol.com.fincontrol.service;
+
+import fincontrol.com.fincontrol.dto.PartitionDto;
+import fincontrol.com.fincontrol.exception.InvalidOperationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Manutenção das partições de expenses/extra_income com particionamento mensal e premake 2, sobre
+ * as tabelas de verdade convertidas dentro da transação do teste (desfeita no fim, DDL incluído):
+ * partições do mês atual e seguintes criadas antes dos inserts, linhas da DEFAULT separadas na sua
+ * partição e detachBefore mantendo partições ainda referenciadas por contas.
+ */
+@SpringBootTest(properties = "fincontrol.duedate.wheel.enabled=false")
+@Transactional
+class PartitionMaintenanceServiceTests {
+
+    private static final int PREMAKE = 2;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private PartitionMaintenanceService service;
+    private UUID userId;
+    private UUID bankId;
+    private UUID categoryId;
+
+    @BeforeEach
+    void setUp() {
+        service = new PartitionMaintenanceService(jdbcTemplate, true, PartitionMaintenanceService.Granularity.MONTHLY, PREMAKE);
+        userId = UUID.randomUUID();
+        bankId = UUID.randomUUID();
+        categoryId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (id, name, email, password_hash, salary, created_at, updated_at) " +
+                "VALUES (?, 'Partition Test', ?, 'x', 10, now(), now())", userId, "partitions-" + userId + "@test.local");
+        jdbcTemplate.update("INSERT INTO categories (id, user_id, name, created_at, updated_at) VALUES (?, ?, 'Geral', now(), now())",
+                categoryId, userId);
+        jdbcTemplate.update("INSERT INTO banks (id, user_id, name, balance, created_at, updated_at) VALUES (?, ?, 'Banco', 0, now(), now())",
+                bankId, userId);
+    }
+
+    @Test
+    void premakesTheCurrentAndNextPeriods() {
+        service.maintain();
+
+        List<String> names = partitionNames("expenses");
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        for (int i = 0; i <= PREMAKE; i++) {
+            assertTrue(names.contains("expenses_p" + DateTimeFormatter.ofPattern("yyyy_MM").format(month.plusMonths(i))), names.toString());
+        }
+        assertTrue(names.contains("expenses_default"));
+        assertTrue(partitionNames("extra_income").contains("extra_income_default"));
+
+        // Um insert no último mês premade já cai na própria partição
+        UUID expense = insertExpense(month.plusMonths(PREMAKE).plusDays(9));
+        assertEquals("expenses_p" + DateTimeFormatter.ofPattern("yyyy_MM").format(month.plusMonths(PREMAKE)), partitionOf(expense));
+        // Nada mais a criar na segunda execução
+        assertEquals(0, service.maintain());
+    }
+
+    @Test
+    void splitsRowsOutOfTheDefaultPartition() {
+        service.maintain();
+        UUID old = insertExpense(LocalDate.of(1990, 3, 15));
+        assertEquals("expenses_default", partitionOf(old));
+
+        assertEquals(1, service.maintain());
+
+        assertEquals("expenses_p1990_03", partitionOf(old));
+        PartitionDto partition = service.listPartitions("expenses").stream()
+                .filter(p -> p.getName().equals("expenses_p1990_03")).findFirst().orElseThrow();
+        assertEquals(LocalDate.of(1990, 3, 1), partition.getFrom());
+        assertEquals(LocalDate.of(1990, 4, 1), partition.getTo());
+        assertEquals(0, (long) jdbcTemplate.queryForObject("SELECT count(*) FROM expenses_default", Long.class));
+    }
+
+    @Test
+    void detachBeforeKeepsPartitionsStillReferencedByBills() {
+        service.maintain();
+        UUID referenced = insertExpense(LocalDate.of(1990, 3, 15));
+        insertExpense(LocalDate.of(1991, 5, 20));
+        service.maintain();
+        jdbcTemplate.update("INSERT INTO bills (id, user_id, expense_id, bank_id, payment_method, status, auto_pay, due_date, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, 'PIX', 'PAID', false, DATE '1990-03-20', now(), now())", UUID.randomUUID(), userId, referenced, bankId);
+
+        List<String> detached = service.detachBefore("expenses", LocalDate.of(1992, 1, 1));
+
+        String archived = "expenses_p1991_05_archived_" + DateTimeFormatter.ofPattern("yyyyMMdd").format(LocalDate.now());
+        assertEquals(List.of(archived), detached);
+        List<String> names = partitionNames("expenses");
+        assertTrue(names.contains("expenses_p1990_03"));
+        assertFalse(names.contains("expenses_p1991_05"));
+        // Desanexada, a partição vira uma tabela comum com as linhas do período
+        assertEquals(1, (long) jdbcTemplate.queryForObject("SELECT count(*) FROM " + archived, Long.class));
+        assertEquals(0, (long) jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM expenses WHERE expense_date = DATE '1991-05-20' AND user_id = ?", Long.class, userId));
+    }
+
+    @Test
+    void detachBeforeRejectsOpenPeriods() {
+        assertThrows(InvalidOperationException.class,
+                () -> service.detachBefore("expenses", LocalDate.now().withDayOfMonth(1).plusMonths(1)));
+        assertThrows(InvalidOperationException.class, () -> service.detachBefore("bills", LocalDate.of(1992, 1, 1)));
+    }
+
+    private UUID insertExpense(LocalDate date) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO expenses (id, user_id, bank_id, category_id, name, value, expense_date, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, 'Despesa', 10.00, ?, now(), now())", id, userId, bankId, categoryId, date);
+        return id;
+    }
+
+    private String partitionOf(UUID expenseId) {
+        return jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM expenses WHERE id = ?", String.class, expenseId);
+    }
+
+    private List<String> partitionNames(String table) {
+        return service.listPartitions(table).stream().map(PartitionDto::getName).toList();
+    }
+}
@@ -0,0 +1,130 @@
+package fincontrol.com.fincontrol.service;
+
+import fincontrol.com.fincontrol.support.BenchmarkTimer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Consultas por período em {@code benchmark.rows} despesas (padrão 50M) de 1000 usuários e 20
+ * categorias, com datas espalhadas por 10 anos, em três tabelas de rascunho com as colunas de
+ * expenses: sem índice, com o índice (user_id, expense_date) da V4 e convertida por
+ * partition_table_by_range em partições mensais. Mede a mediana do mês atual e dos últimos 3 meses
+ * de um usuário, do total do mês por categoria e da busca só por id, o tempo da conversão e o
+ * arquivamento de um ano fechado: DELETE na tabela indexada contra DETACH das 12 partições.
+ * Ex.: mvn test -Pbenchmark -Dtest=PartitioningBenchmark -DargLine="-Dbenchmark.rows=50000000"
+ */
+@SpringBootTest(properties = {
+        "fincontrol.duedate.wheel.enabled=false",
+        "logging.level.fincontrol.com.fincontrol=WARN"
+})
+class PartitioningBenchmark {
+
+    private static final List<String> TABLES = List.of("bench_part_plain", "bench_part_indexed", "bench_part_partitioned");
+    private static final int USERS = 1000;
+
+    private final int rows = Integer.getInteger("benchmark.rows", 50_000_000);
+    private final int rounds = Integer.getInteger("benchmark.rounds", 5);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Random random = new Random(42);
+
+    @AfterEach
+    void dropTables() {
+        for (String table : TABLES) {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + table + " CASCADE");
+        }
+        jdbcTemplate.execute("DO $$ DECLARE t text; BEGIN " +
+                "FOR t IN SELECT relname FROM pg_class WHERE relname LIKE 'bench_part_partitioned_p%' AND relkind = 'r' " +
+                "LOOP EXECUTE format('DROP TABLE %I', t); END LOOP; END $$");
+    }
+
+    @Test
+    void recentMonthQueriesAndArchival() throws Exception {
+        dropTables();
+        long start = System.nanoTime();
+        jdbcTemplate.execute("CREATE TABLE bench_part_plain (id uuid PRIMARY KEY, user_id uuid NOT NULL, category_id uuid NOT NULL, " +
+                "value numeric(38, 2) NOT NULL, expense_date date NOT NULL)");
+        jdbcTemplate.update("INSERT INTO bench_part_plain " +
+                "SELECT gen_random_uuid(), " + userIdSql("i % " + USERS) + ", " + userIdSql("1000000 + i % 20") + ", " +
+                "(random() * 500)::numeric(38, 2), current_date - (random() * 3650)::int " +
+                "FROM generate_series(1, ?) i", rows);
+        jdbcTemplate.execute("CREATE TABLE bench_part_indexed (LIKE bench_part_plain INCLUDING ALL)");
+        jdbcTemplate.execute("INSERT INTO bench_part_indexed SELECT * FROM bench_part_plain");
+        jdbcTemplate.execute("CREATE INDEX ON bench_part_indexed (user_id, expense_date)");
+        jdbcTemplate.execute("CREATE TABLE bench_part_partitioned (LIKE bench_part_indexed INCLUDING ALL)");
+        jdbcTemplate.execute("INSERT INTO bench_part_partitioned SELECT * FROM bench_part_plain");
+        System.out.printf("%,d rows seeded in %.0f s%n", rows, (System.nanoTime() - start) / 1e9);
+
+        start = System.nanoTime();
+        jdbcTemplate.queryForObject("SELECT partition_table_by_range('bench_part_partitioned', 'expense_date', 'month')", Boolean.class);
+        System.out.printf("partition_table_by_range (month): %.0f s%n", (System.nanoTime() - start) / 1e9);
+        for (String table : TABLES) {
+            jdbcTemplate.execute("VACUUM ANALYZE " + table);
+        }
+
+        List<UUID> sampleIds = jdbcTemplate.queryForList("SELECT id FROM bench_part_plain TABLESAMPLE SYSTEM (1) LIMIT 1000", UUID.class);
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        LocalDate nextMonth = month.plusMonths(1);
+
+        System.out.printf("median of %d runs, ms:%n", rounds);
+        System.out.printf("  %-28s %14s %14s %14s%n", "query", "plain", "indexed", "partitioned");
+        printRow("user, current month", table -> jdbcTemplate.queryForList(
+                "SELECT id, value FROM " + table + " WHERE user_id = ? AND expense_date >= ? AND expense_date < ?",
+                randomUser(), month, nextMonth));
+        printRow("user, last 3 months", table -> jdbcTemplate.queryForList(
+                "SELECT id, value FROM " + table + " WHERE user_id = ? AND expense_date >= ? AND expense_date < ?",
+                randomUser(), month.minusMonths(2), nextMonth));
+        printRow("month total by category", table -> jdbcTemplate.queryForList(
+                "SELECT category_id, sum(value) FROM " + table + " WHERE expense_date >= ? AND expense_date < ? GROUP BY category_id",
+                month, nextMonth));
+        printRow("find by id (no date)", table -> jdbcTemplate.queryForList(
+                "SELECT * FROM " + table + " WHERE id = ?", sampleIds.get(random.nextInt(sampleIds.size()))));
+
+        // Arquivamento de um ano fechado (5 anos atrás)
+        LocalDate year = LocalDate.now().minusYears(5).withDayOfYear(1);
+        start = System.nanoTime();
+        int deleted = jdbcTemplate.update("DELETE FROM bench_part_indexed WHERE expense_date >= ? AND expense_date < ?",
+                year, year.plusYears(1));
+        double deleteSeconds = (System.nanoTime() - start) / 1e9;
+        start = System.nanoTime();
+        for (int i = 0; i < 12; i++) {
+            jdbcTemplate.execute("ALTER TABLE bench_part_partitioned DETACH PARTITION bench_part_partitioned_p"
+                    + String.format("%d_%02d", year.getYear(), i + 1));
+        }
+        double detachSeconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("archive %d (%,d rows): DELETE %.1f s, DETACH of 12 partitions %.2f s%n",
+                year.getYear(), deleted, deleteSeconds, detachSeconds);
+    }
+
+    private interface TableQuery {
+        void run(String table);
+    }
+
+    private void printRow(String label, TableQuery query) throws Exception {
+        double[] medians = new double[TABLES.size()];
+        for (int i = 0; i < TABLES.size(); i++) {
+            String table = TABLES.get(i);
+            medians[i] = BenchmarkTimer.medianMillis(1, rounds, () -> query.run(table));
+        }
+        System.out.printf("  %-28s %14.1f %14.1f %14.1f%n", label, medians[0], medians[1], medians[2]);
+    }
+
+    private UUID randomUser() {
+        return UUID.fromString(String.format("00000000-0000-0000-0000-%012x", random.nextInt(USERS)));
+    }
+
+    // Ids previsíveis (usuários 0..999, categorias 1000000..1000019) a partir de um número
+    private static String userIdSql(String number) {
+        return "('00000000-0000-0000-0000-' || lpad(to_hex(" + number + "), 12, '0'))::uuid";
+    }
+}
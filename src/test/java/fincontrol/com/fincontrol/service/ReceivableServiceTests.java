@@ -0,0 +1,272 @@
+package fincontrol.com.fincontrol.service;
+
+import fincontrol.com.fincontrol.dto.ReceivableResponseDto;
+import fincontrol.com.fincontrol.exception.InvalidOperationException;
+import fincontrol.com.fincontrol.model.BatchJobCheckpoint;
+import fincontrol.com.fincontrol.model.User;
+import fincontrol.com.fincontrol.model.enums.BatchJobStatus;
+import fincontrol.com.fincontrol.model.enums.ReceivableStatusEnum;
+import fincontrol.com.fincontrol.repository.BatchJobCheckpointRepository;
+import fincontrol.com.fincontrol.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Listagem de contas a receber (GET /api/receivables) nos dois modos de paginação: offset com
+ * COUNT e keyset por (dueDate, id), inclusive com vencimentos repetidos, onde o id desempata.
+ * Recebimento automático (job em chunks de 2 e disparos do DueDateScheduler): um crédito somado
+ * por banco, recebíveis não devidos, manuais ou sem banco intocados e cada recebível recebido uma vez.
+ */
+@SpringBootTest(properties = {
+        "fincontrol.duedate.wheel.enabled=false",
+        "fincontrol.jobs.receivables.chunk-size=2"
+})
+class ReceivableServiceTests {
+
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 2, Sort.by("dueDate"));
+
+    private static final String ELIGIBLE_FOR_AUTO_RECEIPT = "SELECT count(*) FROM receivables r " +
+            "JOIN extra_income ei ON ei.id = r.extra_income_id " +
+            "WHERE r.status = 'PENDING' AND r.automatic_bank_receipt = true AND r.due_date <= current_date " +
+            "AND ei.bank_id IS NOT NULL";
+
+    @Autowired
+    private ReceivableService receivableService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private BatchJobCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+    private User user;
+    private UUID categoryId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        user = new User();
+        user.setName("Receivable Test");
+        user.setEmail("receivables-" + UUID.randomUUID() + "@test.local");
+        user.setPasswordHash("x");
+        user.setSalary(BigDecimal.TEN);
+        user = userRepository.save(user);
+
+        categoryId = UUID.randomUUID();
+        UUID bankId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO categories (id, user_id, name, created_at, updated_at) VALUES (?, ?, 'Rendas', now(), now())",
+                categoryId, user.getId());
+        jdbcTemplate.update("INSERT INTO banks (id, user_id, name, balance, created_at, updated_at) VALUES (?, ?, 'Banco', 0, now(), now())",
+                bankId, user.getId());
+        // Cinco recebíveis, dois deles no mesmo vencimento
+        int[] days = {1, 2, 2, 3, 4};
+        for (int day : days) {
+            UUID extraIncomeId = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO extra_income (id, user_id, bank_id, category_id, name, amount, date, created_at, updated_at) " +
+                    "VALUES (?, ?, ?, ?, 'Renda', 10.00, current_date, now(), now())", extraIncomeId, user.getId(), bankId, categoryId);
+            jdbcTemplate.update("INSERT INTO receivables (id, user_id, extra_income_id, receipt_method, status, automatic_bank_receipt, due_date, created_at, updated_at) " +
+                    "VALUES (?, ?, ?, 'PIX', 'PENDING', false, ?, now(), now())",
+                    UUID.randomUUID(), user.getId(), extraIncomeId, LocalDate.now().plusDays(day));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        checkpointRepository.findById(ReceivableService.AUTO_RECEIPT_JOB_NAME).ifPresent(checkpointRepository::delete);
+        jdbcTemplate.update("DELETE FROM receivables WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM extra_income WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM banks WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM categories WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", user.getId());
+    }
+
+    @Test
+    void offsetModeReturnsAPageWithTotals() {
+        statistics.clear();
+        Slice<ReceivableResponseDto> page = receivableService.getAllReceivablesFiltered(
+                user.getId(), ReceivableStatusEnum.PENDING, null, null, FIRST_PAGE, false, null, null);
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertInstanceOf(Page.class, page);
+        assertEquals(5, ((Page<ReceivableResponseDto>) page).getTotalElements());
+        assertEquals(2, page.getContent().size());
+    }
+
+    @Test
+    void keysetModeWalksEveryRowOnceInDueDateAndIdOrder() {
+        List<ReceivableResponseDto> walked = new ArrayList<>();
+        Slice<ReceivableResponseDto> slice = receivableService.getAllReceivablesFiltered(
+                user.getId(), null, null, null, FIRST_PAGE, true, null, null);
+        walked.addAll(slice.getContent());
+        while (slice.hasNext()) {
+            ReceivableResponseDto last = slice.getContent().get(slice.getContent().size() - 1);
+            statistics.clear();
+            slice = receivableService.getAllReceivablesFiltered(
+                    user.getId(), null, null, null, FIRST_PAGE, true, last.getDueDate(), last.getId());
+            assertEquals(1, statistics.getPrepareStatementCount());
+            assertFalse(slice.getContent().isEmpty());
+            walked.addAll(slice.getContent());
+        }
+
+        assertEquals(5, walked.size());
+        for (int i = 1; i < walked.size(); i++) {
+            ReceivableResponseDto previous = walked.get(i - 1);
+            ReceivableResponseDto current = walked.get(i);
+            int byDate = current.getDueDate().compareTo(previous.getDueDate());
+            // O Postgres ordena uuid byte a byte sem sinal (a ordem do texto), não como UUID.compareTo
+            assertTrue(byDate > 0 || (byDate == 0 && current.getId().toString().compareTo(previous.getId().toString()) > 0));
+        }
+    }
+
+    @Test
+    void keysetCursorNeedsBothParts() {
+        assertThrows(InvalidOperationException.class, () -> receivableService.getAllReceivablesFiltered(
+                user.getId(), null, null, null, FIRST_PAGE, true, LocalDate.now(), null));
+        assertThrows(InvalidOperationException.class, () -> receivableService.getAllReceivablesFiltered(
+                user.getId(), null, null, null, FIRST_PAGE, true, null, UUID.randomUUID()));
+    }
+
+    @Test
+    void receiveAutomaticallyCreditsEachBankOnceWithTheSum() {
+        UUID first = insertBank();
+        UUID second = insertBank();
+        List<UUID> due = List.of(
+                insertReceivable(first, "10.00", 0, true),
+                insertReceivable(first, "20.00", -1, true),
+                insertReceivable(first, "30.50", -3, true),
+                insertReceivable(second, "5.00", 0, true),
+                insertReceivable(second, "7.25", -2, true));
+        UUID notYetDue = insertReceivable(first, "1000.00", 1, true);
+        UUID manual = insertReceivable(second, "500.00", -1, false);
+        List<UUID> ids = new ArrayList<>(due);
+        ids.add(notYetDue);
+        ids.add(manual);
+
+        statistics.clear();
+        assertEquals(5, receivableService.receiveAutomatically(ids, LocalDate.now()));
+
+        // SELECT com trava + um UPDATE por banco + um UPDATE em massa dos recebíveis
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals(new BigDecimal("160.50"), balanceOf(first));
+        assertEquals(new BigDecimal("112.25"), balanceOf(second));
+        due.forEach(id -> assertEquals("RECEIVED", statusOf(id)));
+        assertEquals("PENDING", statusOf(notYetDue));
+        assertEquals("PENDING", statusOf(manual));
+
+        // Um segundo disparo para os mesmos itens não credita de novo
+        assertEquals(0, receivableService.receiveAutomatically(ids, LocalDate.now()));
+        assertEquals(new BigDecimal("160.50"), balanceOf(first));
+        assertEquals(new BigDecimal("112.25"), balanceOf(second));
+    }
+
+    @Test
+    void autoReceiptJobReceivesEachReceivableOnceAcrossChunks() {
+        UUID first = insertBank();
+        UUID second = insertBank();
+        List<UUID> due = List.of(
+                insertReceivable(first, "10.00", -5, true),
+                insertReceivable(second, "5.00", -4, true),
+                insertReceivable(first, "20.00", -3, true),
+                insertReceivable(second, "7.25", -2, true),
+                insertReceivable(first, "30.50", 0, true));
+        UUID notYetDue = insertReceivable(first, "1000.00", 1, true);
+        UUID manual = insertReceivable(second, "500.00", -1, false);
+        // O job é global: recebíveis devidos deixados por outros dados também entram na conta
+        long eligible = jdbcTemplate.queryForObject(ELIGIBLE_FOR_AUTO_RECEIPT, Long.class);
+
+        receivableService.processAutomaticBankReceiptsJob();
+
+        BatchJobCheckpoint checkpoint = checkpointRepository.findById(ReceivableService.AUTO_RECEIPT_JOB_NAME).orElseThrow();
+        assertEquals(BatchJobStatus.COMPLETED, checkpoint.getStatus());
+        assertEquals(eligible, checkpoint.getRowsProcessed());
+        assertEquals((eligible + 1) / 2, checkpoint.getChunksCommitted());
+        assertEquals(new BigDecimal("160.50"), balanceOf(first));
+        assertEquals(new BigDecimal("112.25"), balanceOf(second));
+        due.forEach(id -> assertEquals("RECEIVED", statusOf(id)));
+        assertEquals("PENDING", statusOf(notYetDue));
+        assertEquals("PENDING", statusOf(manual));
+
+        receivableService.processAutomaticBankReceiptsJob();
+
+        assertEquals(0, checkpointRepository.findById(ReceivableService.AUTO_RECEIPT_JOB_NAME).orElseThrow().getRowsProcessed());
+        assertEquals(new BigDecimal("160.50"), balanceOf(first));
+        assertEquals(new BigDecimal("112.25"), balanceOf(second));
+    }
+
+    @Test
+    void receivablesWithoutABankAreLeftPending() {
+        // extra_income.bank_id é NOT NULL no schema: a linha sem banco só existe nesta transação,
+        // desfeita no fim junto com o ALTER TABLE
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            jdbcTemplate.execute("ALTER TABLE extra_income ALTER COLUMN bank_id DROP NOT NULL");
+            UUID bankless = insertReceivable(null, "10.00", -1, true);
+
+            assertEquals(0, receivableService.receiveAutomatically(List.of(bankless), LocalDate.now()));
+            assertEquals("PENDING", statusOf(bankless));
+        });
+    }
+
+    private UUID insertBank() {
+        UUID bankId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO banks (id, user_id, name, balance, created_at, updated_at) VALUES (?, ?, 'Banco', 100.00, now(), now())",
+                bankId, user.getId());
+        return bankId;
+    }
+
+    // Recebível com vencimento em hoje + dueInDays, creditando amount no banco da renda extra
+    private UUID insertReceivable(UUID bankId, String amount, int dueInDays, boolean automatic) {
+        UUID extraIncomeId = UUID.randomUUID();
+        UUID receivableId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO extra_income (id, user_id, bank_id, category_id, name, amount, date, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, 'Renda', ?, current_date, now(), now())", extraIncomeId, user.getId(), bankId, categoryId, new BigDecimal(amount));
+        jdbcTemplate.update("INSERT INTO receivables (id, user_id, extra_income_id, receipt_method, status, automatic_bank_receipt, due_date, created_at, updated_at) " +
+                "VALUES (?, ?, ?, 'PIX', 'PENDING', ?, ?, now(), now())",
+                receivableId, user.getId(), extraIncomeId, automatic, LocalDate.now().plusDays(dueInDays));
+        return receivableId;
+    }
+
+    private BigDecimal balanceOf(UUID bankId) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM banks WHERE id = ?", BigDecimal.class, bankId);
+    }
+
+    private String statusOf(UUID receivableId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM receivables WHERE id = ?", String.class, receivableId);
+    }
+}
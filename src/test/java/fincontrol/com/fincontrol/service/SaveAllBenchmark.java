@@ -0,0 +1,163 @@
+package fincontrol.com.fincontrol.service;
+
+import fincontrol.com.fincontrol.model.Bank;
+import fincontrol.com.fincontrol.model.Expense;
+import fincontrol.com.fincontrol.model.ExtraIncome;
+import fincontrol.com.fincontrol.model.User;
+import fincontrol.com.fincontrol.repository.BankRepository;
+import fincontrol.com.fincontrol.repository.CategoryRepository;
+import fincontrol.com.fincontrol.repository.ExpenseRepository;
+import fincontrol.com.fincontrol.repository.ExtraIncomeRepository;
+import fincontrol.com.fincontrol.repository.UserRepository;
+import fincontrol.com.fincontrol.support.BenchmarkTimer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Linhas por segundo de um saveAll de {@code benchmark.rows} entidades novas (padrão 10k) em uma
+ * transação, para Bank, Expense e ExtraIncome: com o batch JDBC configurado
+ * (hibernate.jdbc.batch_size) e com a sessão em batch 1, um INSERT por linha.
+ * Ex.: mvn test -Pbenchmark -Dtest=SaveAllBenchmark -DargLine="-Dbenchmark.rows=10000"
+ */
+@SpringBootTest(properties = {
+        "fincontrol.duedate.wheel.enabled=false",
+        "logging.level.fincontrol.com.fincontrol=WARN"
+})
+class SaveAllBenchmark {
+
+    private static final String EMAIL_PREFIX = "bench-saveall-";
+
+    private final int rows = Integer.getInteger("benchmark.rows", 10_000);
+    private final int rounds = Integer.getInteger("benchmark.rounds", 5);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BankRepository bankRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private ExtraIncomeRepository extraIncomeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private UUID userId;
+    private UUID bankId;
+    private UUID categoryId;
+
+    @BeforeEach
+    void seed() {
+        cleanUp();
+        userId = UUID.randomUUID();
+        bankId = UUID.randomUUID();
+        categoryId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (id, name, email, password_hash, salary, created_at, updated_at) " +
+                "VALUES (?, 'Bench', '" + EMAIL_PREFIX + "1@bench.local', 'x', 1000, now(), now())", userId);
+        jdbcTemplate.update("INSERT INTO categories (id, user_id, name, created_at, updated_at) VALUES (?, ?, 'Geral', now(), now())",
+                categoryId, userId);
+        jdbcTemplate.update("INSERT INTO banks (id, user_id, name, balance, created_at, updated_at) VALUES (?, ?, 'Banco', 0, now(), now())",
+                bankId, userId);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        String users = "(SELECT id FROM users WHERE email LIKE '" + EMAIL_PREFIX + "%')";
+        jdbcTemplate.update("DELETE FROM expenses WHERE user_id IN " + users);
+        jdbcTemplate.update("DELETE FROM extra_income WHERE user_id IN " + users);
+        jdbcTemplate.update("DELETE FROM banks WHERE user_id IN " + users);
+        jdbcTemplate.update("DELETE FROM categories WHERE user_id IN " + users);
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE '" + EMAIL_PREFIX + "%'");
+    }
+
+    @Test
+    void saveAllRowsPerSecond() throws Exception {
+        System.out.printf("saveAll of %,d new rows in one transaction (median of %d rounds):%n", rows, rounds);
+        measure("Bank", i -> {
+            Bank bank = new Bank();
+            bank.setName("Banco " + i);
+            bank.setBalance(BigDecimal.ONE);
+            bank.setUser(user());
+            return bank;
+        }, bankRepository::saveAll);
+        measure("Expense", i -> {
+            Expense expense = new Expense();
+            expense.setName("Despesa " + i);
+            expense.setValue(BigDecimal.ONE);
+            expense.setExpenseDate(LocalDate.now());
+            expense.setCategory(categoryRepository.getReferenceById(categoryId));
+            expense.setBank(bankRepository.getReferenceById(bankId));
+            expense.setUser(user());
+            return expense;
+        }, expenseRepository::saveAll);
+        measure("ExtraIncome", i -> {
+            ExtraIncome income = new ExtraIncome();
+            income.setName("Renda " + i);
+            income.setAmount(BigDecimal.ONE);
+            income.setDate(LocalDate.now());
+            income.setCategoryId(categoryId);
+            income.setBank(bankRepository.getReferenceById(bankId));
+            income.setUser(user());
+            income.setCreatedAt(Instant.now());
+            income.setUpdatedAt(Instant.now());
+            return income;
+        }, extraIncomeRepository::saveAll);
+    }
+
+    private <T> void measure(String entity, IntFunction<T> factory, Consumer<List<T>> saveAll) throws Exception {
+        double unbatched = rowsPerSecond(BenchmarkTimer.medianMillis(1, rounds, () -> saveAll(factory, saveAll, 1)));
+        double batched = rowsPerSecond(BenchmarkTimer.medianMillis(1, rounds, () -> saveAll(factory, saveAll, null)));
+        System.out.printf("  %-12s one INSERT per row %,10.0f rows/s   batched %,10.0f rows/s   (%.1fx)%n",
+                entity, unbatched, batched, batched / unbatched);
+    }
+
+    // batchSize nulo usa o hibernate.jdbc.batch_size configurado
+    private <T> void saveAll(IntFunction<T> factory, Consumer<List<T>> saveAll, Integer batchSize) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            List<T> entities = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                entities.add(factory.apply(i));
+            }
+            saveAll.accept(entities);
+        });
+    }
+
+    private User user() {
+        return userRepository.getReferenceById(userId);
+    }
+
+    private double rowsPerSecond(double millis) {
+        return rows / (millis / 1000.0);
+    }
+}
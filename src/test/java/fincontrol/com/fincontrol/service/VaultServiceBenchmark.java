@@ -0,0 +1,143 @@
+package fincontrol.com.fincontrol.service;
+
+import fincontrol.com.fincontrol.dto.VaultCreateDto;
+import fincontrol.com.fincontrol.dto.VaultTransactionRequestDto;
+import fincontrol.com.fincontrol.exception.InsufficientBalanceException;
+import fincontrol.com.fincontrol.exception.ResourceNotFoundException;
+import fincontrol.com.fincontrol.model.User;
+import fincontrol.com.fincontrol.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Operações por segundo de depósitos e saques concorrentes em {@code benchmark.vaults} cofres
+ * (padrão 4) do mesmo banco: {@code benchmark.ops} operações por thread (padrão 2000), com 1, 2, 4...
+ * até {@code benchmark.threads} threads (padrão 16). Saques sem saldo contam como recusados.
+ * Ex.: mvn test -Pbenchmark -Dtest=VaultServiceBenchmark -DargLine="-Dbenchmark.threads=32 -Dbenchmark.ops=5000"
+ */
+@SpringBootTest(properties = {
+        "fincontrol.duedate.wheel.enabled=false",
+        "logging.level.fincontrol.com.fincontrol=WARN"
+})
+class VaultServiceBenchmark {
+
+    private final int maxThreads = Integer.getInteger("benchmark.threads", 16);
+    private final int opsPerThread = Integer.getInteger("benchmark.ops", 2000);
+    private final int vaultCount = Integer.getInteger("benchmark.vaults", 4);
+
+    @Autowired
+    private VaultService vaultService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private UUID bankId;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("Vault Benchmark");
+        user.setEmail("bench-vaults-" + UUID.randomUUID() + "@test.local");
+        user.setPasswordHash("x");
+        user.setSalary(BigDecimal.TEN);
+        user = userRepository.save(user);
+        bankId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO banks (id, user_id, name, balance, created_at, updated_at) VALUES (?, ?, 'Banco', 1000000, now(), now())",
+                bankId, user.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM vaults WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM banks WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", user.getId());
+    }
+
+    @Test
+    void depositAndWithdrawThroughput() throws Exception {
+        List<UUID> vaults = new ArrayList<>();
+        for (int i = 0; i < vaultCount; i++) {
+            vaults.add(createVault("1000.00"));
+        }
+        // Aquecimento: JIT, pool de conexões e caches
+        run(1, opsPerThread, vaults);
+
+        System.out.printf("%,d operations per thread on %d vaults of one bank:%n", opsPerThread, vaultCount);
+        System.out.printf("  %7s %10s %12s %10s%n", "threads", "seconds", "ops/s", "refused");
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            long start = System.nanoTime();
+            Map<String, AtomicInteger> outcomes = run(threads, opsPerThread, vaults);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            int total = threads * opsPerThread;
+            int refused = outcomes.getOrDefault(InsufficientBalanceException.class.getSimpleName(), new AtomicInteger()).get();
+            System.out.printf("  %7d %10.2f %,12.0f %10d%n", threads, seconds, total / seconds, refused);
+        }
+    }
+
+    private Map<String, AtomicInteger> run(int threads, int ops, List<UUID> vaults) throws Exception {
+        Map<String, AtomicInteger> outcomes = new ConcurrentHashMap<>();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int op = 0; op < ops; op++) {
+                        UUID vaultId = vaults.get(random.nextInt(vaults.size()));
+                        try {
+                            if (random.nextBoolean()) {
+                                vaultService.depositToVault(vaultId, amount(random), user.getId());
+                            } else {
+                                vaultService.withdrawFromVault(vaultId, amount(random), user.getId());
+                            }
+                            outcomes.computeIfAbsent("ok", key -> new AtomicInteger()).incrementAndGet();
+                        } catch (InsufficientBalanceException | ResourceNotFoundException e) {
+                            outcomes.computeIfAbsent(e.getClass().getSimpleName(), key -> new AtomicInteger()).incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return outcomes;
+    }
+
+    private UUID createVault(String initialAmount) {
+        VaultCreateDto dto = new VaultCreateDto();
+        dto.setName("Cofre");
+        dto.setCurrency("BRL");
+        dto.setInitialAmount(new BigDecimal(initialAmount));
+        dto.setBankId(bankId);
+        return vaultService.createVault(dto, user.getId()).getId();
+    }
+
+    private static VaultTransactionRequestDto amount(ThreadLocalRandom random) {
+        VaultTransactionRequestDto dto = new VaultTransactionRequestDto();
+        dto.setAmount(new BigDecimal(random.nextInt(1, 300) + "." + String.format("%02d", random.nextInt(100))));
+        return dto;
+    }
+}
@@ -0,0 +1,317 @@
+package fincontrol.com.fincontrol.service;
+
+import fincontrol.com.fincontrol.dto.VaultBalancePointDto;
+import fincontrol.com.fincontrol.dto.VaultCreateDto;
+import fincontrol.com.fincontrol.dto.VaultLedgerEntryDto;
+import fincontrol.com.fincontrol.dto.VaultTransactionRequestDto;
+import fincontrol.com.fincontrol.exception.InsufficientBalanceException;
+import fincontrol.com.fincontrol.exception.InvalidOperationException;
+import fincontrol.com.fincontrol.exception.ResourceNotFoundException;
+import fincontrol.com.fincontrol.model.User;
+import fincontrol.com.fincontrol.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * VaultService contra o Postgres: a exclusão do cofre devolve ao banco o valor do momento da
+ * exclusão, e depósitos, saques, criações e exclusões concorrentes sobre o mesmo banco conservam
+ * o dinheiro (saldo do banco + soma dos cofres constante, cofres batendo com o extrato). O extrato
+ * é paginado por keyset (createdAt, id) mesmo com horários iguais, e a série diária de saldo parte
+ * do saldo anterior ao período, repete o fechamento nos dias sem lançamento e é nula antes do
+ * primeiro lançamento.
+ * Carga maior: mvn test -Dtest=VaultServiceTests -DargLine="-Dvault.stress.threads=16 -Dvault.stress.ops=500"
+ * Operações por segundo: VaultServiceBenchmark.
+ */
+@SpringBootTest
+class VaultServiceTests {
+
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("10000.00");
+
+    private final int threads = Integer.getInteger("vault.stress.threads", 8);
+    private final int opsPerThread = Integer.getInteger("vault.stress.ops", 50);
+
+    @Autowired
+    private VaultService vaultService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private UUID bankId;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("Vault Test");
+        user.setEmail("vaults-" + UUID.randomUUID() + "@test.local");
+        user.setPasswordHash("x");
+        user.setSalary(BigDecimal.TEN);
+        user = userRepository.save(user);
+        bankId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO banks (id, user_id, name, balance, created_at, updated_at) VALUES (?, ?, 'Banco', ?, now(), now())",
+                bankId, user.getId(), INITIAL_BALANCE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM vaults WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM banks WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", user.getId());
+    }
+
+    @Test
+    void deleteReturnsTheCurrentVaultAmountToTheBank() {
+        UUID vaultId = createVault(bankId, "300.00");
+        vaultService.depositToVault(vaultId, amount("200.00"), user.getId());
+        assertEquals(new BigDecimal("9500.00"), bankBalance());
+
+        vaultService.deleteVault(vaultId, user.getId());
+
+        assertEquals(INITIAL_BALANCE, bankBalance());
+        assertThrows(ResourceNotFoundException.class, () -> vaultService.deleteVault(vaultId, user.getId()));
+    }
+
+    @Test
+    void vaultWithoutBankIsOnlyDeletedWhenEmpty() {
+        UUID vaultId = createVault(null, "50.00");
+        assertThrows(InvalidOperationException.class, () -> vaultService.deleteVault(vaultId, user.getId()));
+
+        vaultService.withdrawFromVault(vaultId, amount("50.00"), user.getId());
+        vaultService.deleteVault(vaultId, user.getId());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM vaults WHERE id = ?", Integer.class, vaultId));
+    }
+
+    @Test
+    void concurrentOperationsConserveMoney() throws Exception {
+        List<UUID> vaults = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            vaults.add(createVault(bankId, "500.00"));
+        }
+        AtomicInteger succeeded = new AtomicInteger();
+        List<Throwable> unexpected = new CopyOnWriteArrayList<>();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int op = 0; op < opsPerThread; op++) {
+                        try {
+                            runRandomOperation(random, vaults);
+                            succeeded.incrementAndGet();
+                        } catch (InsufficientBalanceException | ResourceNotFoundException e) {
+                            // Esperado: saldo consumido ou cofre excluído por outra thread
+                        } catch (Throwable e) {
+                            unexpected.add(e);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertTrue(unexpected.isEmpty(), () -> "unexpected failures: " + unexpected);
+        assertTrue(succeeded.get() > 0);
+        BigDecimal inVaults = jdbcTemplate.queryForObject(
+                "SELECT coalesce(sum(amount), 0) FROM vaults WHERE user_id = ?", BigDecimal.class, user.getId());
+        assertEquals(INITIAL_BALANCE, bankBalance().add(inVaults));
+        // Cada cofre restante bate com o próprio extrato
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM vaults v WHERE v.user_id = ? AND v.amount <> (" +
+                        "SELECT coalesce(sum(CASE WHEN t.type = 'DEPOSIT' THEN t.amount ELSE -t.amount END), 0) " +
+                        "FROM vault_transactions t WHERE t.vault_id = v.id)", Integer.class, user.getId()));
+    }
+
+    @Test
+    void balanceSeriesCarriesTheCloseForwardAcrossEmptyDays() {
+        UUID vaultId = createVault(null, "0.00");
+        insertEntry(vaultId, "DEPOSIT", "100.00", "100.00", LocalDateTime.of(2024, 3, 1, 10, 0));
+        insertEntry(vaultId, "DEPOSIT", "50.00", "150.00", LocalDateTime.of(2024, 3, 3, 9, 0));
+        insertEntry(vaultId, "WITHDRAWAL", "30.00", "120.00", LocalDateTime.of(2024, 3, 3, 18, 0));
+        insertEntry(vaultId, "DEPOSIT", "10.00", "130.00", LocalDateTime.of(2024, 3, 6, 12, 0));
+
+        List<VaultBalancePointDto> series = vaultService.getDailyBalanceSeries(
+                vaultId, user.getId(), LocalDate.of(2024, 2, 28), LocalDate.of(2024, 3, 7));
+
+        assertEquals(9, series.size());
+        // Antes do primeiro lançamento não há saldo
+        assertPoint(series.get(0), LocalDate.of(2024, 2, 28), null, "0");
+        assertPoint(series.get(1), LocalDate.of(2024, 2, 29), null, "0");
+        assertPoint(series.get(2), LocalDate.of(2024, 3, 1), "100.00", "100.00");
+        assertPoint(series.get(3), LocalDate.of(2024, 3, 2), "100.00", "0");
+        // Fechamento do dia é o último lançamento; a variação soma depósitos e saques do dia
+        assertPoint(series.get(4), LocalDate.of(2024, 3, 3), "120.00", "20.00");
+        assertPoint(series.get(5), LocalDate.of(2024, 3, 4), "120.00", "0");
+        assertPoint(series.get(6), LocalDate.of(2024, 3, 5), "120.00", "0");
+        assertPoint(series.get(7), LocalDate.of(2024, 3, 6), "130.00", "10.00");
+        assertPoint(series.get(8), LocalDate.of(2024, 3, 7), "130.00", "0");
+
+        // Período começando depois de lançamentos: o saldo de abertura vem do último anterior a from
+        List<VaultBalancePointDto> later = vaultService.getDailyBalanceSeries(
+                vaultId, user.getId(), LocalDate.of(2024, 3, 4), LocalDate.of(2024, 3, 6));
+        assertPoint(later.get(0), LocalDate.of(2024, 3, 4), "120.00", "0");
+        assertPoint(later.get(1), LocalDate.of(2024, 3, 5), "120.00", "0");
+        assertPoint(later.get(2), LocalDate.of(2024, 3, 6), "130.00", "10.00");
+    }
+
+    @Test
+    void balanceSeriesRejectsInvalidRanges() {
+        UUID vaultId = createVault(null, "0.00");
+        LocalDate day = LocalDate.of(2024, 3, 1);
+
+        assertEquals(1, vaultService.getDailyBalanceSeries(vaultId, user.getId(), day, day).size());
+        assertEquals(VaultService.MAX_SERIES_DAYS, vaultService.getDailyBalanceSeries(
+                vaultId, user.getId(), day, day.plusDays(VaultService.MAX_SERIES_DAYS - 1)).size());
+        assertThrows(InvalidOperationException.class,
+                () -> vaultService.getDailyBalanceSeries(vaultId, user.getId(), day, day.minusDays(1)));
+        assertThrows(InvalidOperationException.class,
+                () -> vaultService.getDailyBalanceSeries(vaultId, user.getId(), day, day.plusDays(VaultService.MAX_SERIES_DAYS)));
+        assertThrows(ResourceNotFoundException.class,
+                () -> vaultService.getDailyBalanceSeries(vaultId, UUID.randomUUID(), day, day));
+    }
+
+    @Test
+    void ledgerKeysetWalkVisitsEntriesWithEqualTimestampsOnce() {
+        UUID vaultId = createVault(null, "0.00");
+        LocalDateTime sameTime = LocalDateTime.of(2024, 4, 1, 12, 0);
+        List<UUID> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            expected.add(insertEntry(vaultId, "DEPOSIT", "1.00", "1.00", sameTime));
+        }
+        UUID older = insertEntry(vaultId, "DEPOSIT", "1.00", "1.00", sameTime.minusDays(1));
+        // Mesma ordem do Postgres: createdAt desc, id desc comparando uuid como texto
+        expected.sort(Comparator.comparing(UUID::toString).reversed());
+        expected.add(older);
+        // Lançamentos criados pelo próprio service (createVault) ficam na frente, com horário atual
+        List<UUID> previous = vaultService.getVaultTransactions(vaultId, user.getId(), 100, null, null)
+                .map(VaultLedgerEntryDto::getId).getContent();
+        List<UUID> visited = new ArrayList<>();
+        LocalDateTime cursorCreatedAt = null;
+        UUID cursorId = null;
+        int pages = 0;
+        while (true) {
+            Slice<VaultLedgerEntryDto> page = vaultService.getVaultTransactions(vaultId, user.getId(), 2, cursorCreatedAt, cursorId);
+            page.forEach(entry -> visited.add(entry.getId()));
+            pages++;
+            if (!page.hasNext()) {
+                break;
+            }
+            VaultLedgerEntryDto last = page.getContent().get(page.getNumberOfElements() - 1);
+            cursorCreatedAt = last.getCreatedAt();
+            cursorId = last.getId();
+        }
+
+        assertEquals(previous, visited);
+        assertEquals(expected, visited.subList(visited.size() - expected.size(), visited.size()));
+        assertEquals((visited.size() + 1) / 2, pages);
+    }
+
+    @Test
+    void ledgerRejectsIncompleteCursorsAndInvalidSizes() {
+        UUID vaultId = createVault(null, "0.00");
+        LocalDateTime createdAt = LocalDateTime.of(2024, 4, 1, 12, 0);
+
+        assertThrows(InvalidOperationException.class,
+                () -> vaultService.getVaultTransactions(vaultId, user.getId(), 10, createdAt, null));
+        assertThrows(InvalidOperationException.class,
+                () -> vaultService.getVaultTransactions(vaultId, user.getId(), 10, null, UUID.randomUUID()));
+        assertThrows(InvalidOperationException.class,
+                () -> vaultService.getVaultTransactions(vaultId, user.getId(), 0, null, null));
+        assertThrows(InvalidOperationException.class,
+                () -> vaultService.getVaultTransactions(vaultId, user.getId(), 101, null, null));
+        assertFalse(vaultService.getVaultTransactions(vaultId, user.getId(), 100, createdAt, UUID.randomUUID()).hasNext());
+        assertThrows(ResourceNotFoundException.class,
+                () -> vaultService.getVaultTransactions(vaultId, UUID.randomUUID(), 10, null, null));
+    }
+
+    private void runRandomOperation(ThreadLocalRandom random, List<UUID> vaults) {
+        int choice = random.nextInt(10);
+        UUID[] snapshot = vaults.toArray(new UUID[0]); // Outras threads removem cofres da lista
+        if (choice == 0 || snapshot.length == 0) {
+            vaults.add(createVault(bankId, randomAmount(random)));
+            return;
+        }
+        UUID vaultId = snapshot[random.nextInt(snapshot.length)];
+        if (choice == 1) {
+            vaultService.deleteVault(vaultId, user.getId());
+            vaults.remove(vaultId);
+        } else if (choice < 6) {
+            vaultService.depositToVault(vaultId, amount(randomAmount(random)), user.getId());
+        } else {
+            vaultService.withdrawFromVault(vaultId, amount(randomAmount(random)), user.getId());
+        }
+    }
+
+    private UUID createVault(UUID bank, String initialAmount) {
+        VaultCreateDto dto = new VaultCreateDto();
+        dto.setName("Cofre");
+        dto.setCurrency("BRL");
+        dto.setInitialAmount(new BigDecimal(initialAmount));
+        dto.setBankId(bank);
+        return vaultService.createVault(dto, user.getId()).getId();
+    }
+
+    private UUID insertEntry(UUID vaultId, String type, String amount, String balanceAfter, LocalDateTime createdAt) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO vault_transactions (id, vault_id, type, amount, balance_after, created_at) VALUES (?, ?, ?, ?, ?, ?)",
+                id, vaultId, type, new BigDecimal(amount), new BigDecimal(balanceAfter), createdAt);
+        return id;
+    }
+
+    private static void assertPoint(VaultBalancePointDto point, LocalDate date, String balance, String netChange) {
+        assertEquals(date, point.getDate());
+        if (balance == null) {
+            assertNull(point.getBalance(), point.toString());
+        } else {
+            assertEquals(0, new BigDecimal(balance).compareTo(point.getBalance()), point.toString());
+        }
+        assertEquals(0, new BigDecimal(netChange).compareTo(point.getNetChange()), point.toString());
+    }
+
+    private BigDecimal bankBalance() {
+        return jdbcTemplate.queryForObject("SELECT balance FROM banks WHERE id = ?", BigDecimal.class, bankId);
+    }
+
+    private static VaultTransactionRequestDto amount(String value) {
+        VaultTransactionRequestDto dto = new VaultTransactionRequestDto();
+        dto.setAmount(new BigDecimal(value));
+        return dto;
+    }
+
+    private static String randomAmount(ThreadLocalRandom random) {
+        return random.nextInt(1, 300) + "." + String.format("%02d", random.nextInt(100));
+    }
+}
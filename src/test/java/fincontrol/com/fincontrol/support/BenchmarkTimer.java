@@ -0,0 +1,33 @@
+package fincontrol.com.fincontrol.support;
+
+import java.util.Arrays;
+
+/**
+ * Medição usada pelos benchmarks (*Benchmark, perfil Maven {@code benchmark}): roda a operação
+ * algumas vezes para aquecer o JIT, os caches e o pool, e devolve a mediana das execuções medidas.
+ */
+public final class BenchmarkTimer {
+
+    @FunctionalInterface
+    public interface Operation {
+        void run() throws Exception;
+    }
+
+    private BenchmarkTimer() {
+    }
+
+    /** Mediana, em milissegundos, de {@code runs} execuções após {@code warmup} execuções descartadas. */
+    public static double medianMillis(int warmup, int runs, Operation operation) throws Exception {
+        for (int i = 0; i < warmup; i++) {
+            operation.run();
+        }
+        long[] nanos = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            operation.run();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos[runs / 2] / 1_000_000.0;
+    }
+}